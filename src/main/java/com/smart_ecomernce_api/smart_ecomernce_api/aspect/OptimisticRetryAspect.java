@@ -0,0 +1,68 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.aspect;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optimistic Retry Aspect
+ *
+ * Retries methods annotated with {@link RetryOnConflict} when a conditional
+ * (versioned) write loses a race. Ordered ahead of the transaction interceptor
+ * so every attempt starts a new transaction.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class OptimisticRetryAspect {
+
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong retriesExhausted = new AtomicLong();
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        int maxAttempts = Math.max(1, retryOnConflict.maxAttempts());
+        String method = joinPoint.getSignature().toShortString();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.incrementAndGet();
+                if (attempt >= maxAttempts) {
+                    retriesExhausted.incrementAndGet();
+                    log.warn("Giving up on {} after {} conflicting attempts", method, attempt);
+                    throw e;
+                }
+                long backoff = retryOnConflict.backoffMillis() * attempt
+                        + ThreadLocalRandom.current().nextLong(retryOnConflict.backoffMillis() + 1);
+                log.debug("Conflict in {} (attempt {}/{}), retrying in {} ms", method, attempt, maxAttempts, backoff);
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    /**
+     * Get conflict statistics
+     */
+    public ConflictStats getStatistics() {
+        return new ConflictStats(conflicts.get(), retriesExhausted.get());
+    }
+
+    /**
+     * Conflict statistics record
+     */
+    public record ConflictStats(
+        long conflicts,
+        long retriesExhausted
+    ) {}
+}
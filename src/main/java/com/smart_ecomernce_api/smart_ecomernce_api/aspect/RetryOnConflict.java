@@ -0,0 +1,26 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-run the annotated method when it fails with an optimistic locking conflict.
+ * The retry wraps the whole call, so each attempt runs in a fresh transaction
+ * and re-reads current state.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /**
+     * Total number of attempts, including the first one
+     */
+    int maxAttempts() default 3;
+
+    /**
+     * Base backoff between attempts in milliseconds; grows linearly with jitter
+     */
+    long backoffMillis() default 25;
+}
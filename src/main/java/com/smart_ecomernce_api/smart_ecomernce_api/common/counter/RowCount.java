@@ -0,0 +1,36 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.counter;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * One shard of a pre-aggregated row counter.
+ * A counter's value is the sum of its shards; writers add to a random shard in the
+ * same transaction as the rows they insert or delete, so concurrent writers rarely
+ * contend on the same counter row.
+ */
+@Entity
+@Table(name = "row_counts",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_row_counts_shard",
+                columnNames = {"counter_name", "shard"}))
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RowCount extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "counter_name", nullable = false, length = 30)
+    private RowCounter counterName;
+
+    @Column(name = "shard", nullable = false)
+    private Integer shard;
+
+    @Column(name = "row_count", nullable = false)
+    @Builder.Default
+    private Long rowCount = 0L;
+}
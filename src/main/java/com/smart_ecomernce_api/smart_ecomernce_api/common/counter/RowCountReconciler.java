@@ -0,0 +1,52 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.counter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the row_counts counters in line with the tables they count.
+ * Counters without shards are backfilled on startup and all of them are recounted nightly.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RowCountReconciler {
+
+    private final RowCountRepository rowCountRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        for (RowCounter counter : RowCounter.values()) {
+            try {
+                if (rowCountRepository.isEmpty(counter)) {
+                    log.info("Row counter {} is empty, backfilling", counter);
+                    rowCountRepository.reconcile(counter);
+                }
+            } catch (Exception e) {
+                log.error("Error backfilling row counter {}", counter, e);
+            }
+        }
+    }
+
+    /**
+     * Recount every counter
+     * Runs daily at 3:30 AM
+     */
+    @Scheduled(cron = "${row-counts.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        for (RowCounter counter : RowCounter.values()) {
+            try {
+                long drift = rowCountRepository.reconcile(counter);
+                if (drift != 0) {
+                    log.warn("Row counter {} had drifted by {}, corrected", counter, drift);
+                }
+            } catch (Exception e) {
+                log.error("Error reconciling row counter {}", counter, e);
+            }
+        }
+    }
+}
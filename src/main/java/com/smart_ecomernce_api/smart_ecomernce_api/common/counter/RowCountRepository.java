@@ -0,0 +1,33 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.counter;
+
+/**
+ * JDBC Repository for the row_counts counter table
+ */
+public interface RowCountRepository {
+
+    /**
+     * Add a delta to the counter; runs in the caller's transaction
+     */
+    void add(RowCounter counter, long delta);
+
+    /**
+     * Current value of the counter, summed over its shards
+     */
+    long total(RowCounter counter);
+
+    /**
+     * Drop every shard of the counter, setting it to zero
+     */
+    void reset(RowCounter counter);
+
+    /**
+     * Recount the counted rows and add the difference to the counter
+     * @return the drift that was corrected, zero when the counter was exact
+     */
+    long reconcile(RowCounter counter);
+
+    /**
+     * Whether the counter has no shards yet
+     */
+    boolean isEmpty(RowCounter counter);
+}
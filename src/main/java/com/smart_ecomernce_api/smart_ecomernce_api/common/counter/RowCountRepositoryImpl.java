@@ -0,0 +1,97 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.counter;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils.QueryResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * JDBC-based implementation of RowCountRepository
+ */
+@Repository
+public class RowCountRepositoryImpl implements RowCountRepository {
+    private static final Logger logger = LoggerFactory.getLogger(RowCountRepositoryImpl.class);
+
+    private static final int SHARDS = 16;
+
+    private static final String UPSERT_SHARD = """
+            ON CONFLICT (counter_name, shard) DO UPDATE SET
+                row_count = row_counts.row_count + EXCLUDED.row_count,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private final JdbcUtils jdbcUtils;
+
+    public RowCountRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    @Override
+    public void add(RowCounter counter, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = """
+                INSERT INTO row_counts (counter_name, shard, row_count, is_active, created_at, updated_at)
+                VALUES (?, ?, ?, true, ?, ?)
+                """ + UPSERT_SHARD;
+        QueryResult result = jdbcUtils.executePreparedQuery(sql,
+                counter.name(), ThreadLocalRandom.current().nextInt(SHARDS), delta, now, now);
+        if (result.hasError()) {
+            logger.error("Failed to update row counter {}: {}", counter, result.getError());
+            throw new IllegalStateException("Failed to update row counter " + counter);
+        }
+    }
+
+    @Override
+    public long total(RowCounter counter) {
+        Long total = jdbcUtils.queryForObject(
+                "SELECT COALESCE(SUM(row_count), 0) FROM row_counts WHERE counter_name = ?",
+                Long.class, counter.name());
+        return total != null ? total : 0L;
+    }
+
+    @Override
+    public void reset(RowCounter counter) {
+        jdbcUtils.executePreparedQuery("DELETE FROM row_counts WHERE counter_name = ?", counter.name());
+    }
+
+    /**
+     * The recount and the current shards are read in one statement snapshot, and the
+     * difference is added to shard 0 rather than assigned, so deltas from transactions
+     * committing concurrently are kept.
+     */
+    @Override
+    public long reconcile(RowCounter counter) {
+        String sql = """
+                WITH drift AS (
+                    SELECT (%s)
+                           - COALESCE((SELECT SUM(row_count) FROM row_counts WHERE counter_name = ?), 0) AS delta
+                ),
+                corrected AS (
+                    INSERT INTO row_counts (counter_name, shard, row_count, is_active, created_at, updated_at)
+                    SELECT ?, 0, delta, true, ?, ? FROM drift WHERE delta <> 0
+                    %s
+                    RETURNING 1
+                )
+                SELECT delta FROM drift
+                """.formatted(counter.countSql(), UPSERT_SHARD.strip());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Long drift = jdbcUtils.queryForObject(sql, Long.class, counter.name(), counter.name(), now, now);
+        return drift != null ? drift : 0L;
+    }
+
+    @Override
+    public boolean isEmpty(RowCounter counter) {
+        List<Integer> rows = jdbcUtils.query("SELECT 1 FROM row_counts WHERE counter_name = ? LIMIT 1",
+                (rs, rowNum) -> rs.getInt(1), counter.name());
+        return rows.isEmpty();
+    }
+}
@@ -0,0 +1,24 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.counter;
+
+/**
+ * Row counters kept in the row_counts table, each with the query that recounts it
+ */
+public enum RowCounter {
+
+    USERS("SELECT COUNT(*) FROM users"),
+    ACTIVE_USERS("SELECT COUNT(*) FROM users WHERE is_active = true"),
+    PRODUCTS("SELECT COUNT(*) FROM products");
+
+    private final String countSql;
+
+    RowCounter(String countSql) {
+        this.countSql = countSql;
+    }
+
+    /**
+     * Query returning the exact current value, used to reconcile the counter
+     */
+    public String countSql() {
+        return countSql;
+    }
+}
@@ -0,0 +1,265 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.response.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Makes mutating requests that carry an {@code Idempotency-Key} header safe to retry.
+ * The first request with a key runs normally and its response is stored; repeats with
+ * the same key and payload get the stored response back, a repeat while the first is
+ * still running gets 409, and reusing a key for a different payload gets 422.
+ * Keys are scoped to the caller, so two callers picking the same key never see each
+ * other's responses. The caller is the authenticated principal when there is one, else
+ * the first configured caller parameter in the query string (the user id or username the
+ * endpoints take); requests carrying neither share one global key space.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService,
+                             IdempotencyProperties properties,
+                             ObjectMapper objectMapper) {
+        this.idempotencyService = idempotencyService;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled()
+                || !MUTATING_METHODS.contains(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return properties.getPathPrefixes().stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        String storedKey = scopedKey(caller(request, properties.getCallerParameters()), key);
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        String fingerprint = fingerprint(method, path, request.getQueryString(), cachedRequest.body);
+
+        IdempotencyService.Reservation reservation = idempotencyService.reserve(storedKey, method, path, fingerprint);
+        if (!reservation.acquired()) {
+            IdempotencyRecord existing = reservation.existing();
+            if (!fingerprint.equals(existing.getRequestFingerprint())) {
+                writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+            } else if (!existing.isCompleted()) {
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+            } else {
+                replay(existing, response);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(cachedRequest, cachedResponse);
+
+            int status = cachedResponse.getStatus();
+            byte[] body = cachedResponse.getContentAsByteArray();
+            // Server errors are worth retrying, so they do not pin the key
+            if (status < 500 && body.length <= properties.getMaxStoredBodyBytes()) {
+                idempotencyService.complete(storedKey, method, path, status,
+                        cachedResponse.getContentType(), new String(body, StandardCharsets.UTF_8));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                try {
+                    idempotencyService.release(storedKey, method, path);
+                } catch (Exception e) {
+                    log.warn("Failed to release idempotency key {}: {}", key, e.getMessage());
+                }
+            }
+            cachedResponse.copyBodyToResponse();
+        }
+    }
+
+    private void replay(IdempotencyRecord record, HttpServletResponse response) throws IOException {
+        response.setStatus(record.getResponseStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.getResponseContentType() != null) {
+            response.setContentType(record.getResponseContentType());
+        }
+        if (record.getResponseBody() != null) {
+            byte[] body = record.getResponseBody().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response,
+                            HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(),
+                ErrorResponse.of(message, status.value(), request.getRequestURI()));
+    }
+
+    /**
+     * Who is calling: {@code principal:<name>}, else {@code <parameter>:<value>} for the first
+     * caller parameter present in the query string, else null. The query string is parsed
+     * directly so a form body is not consumed before it is cached.
+     */
+    static String caller(HttpServletRequest request, List<String> callerParameters) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && principal.getName() != null) {
+            return "principal:" + principal.getName();
+        }
+        if (request.getQueryString() == null) {
+            return null;
+        }
+        MultiValueMap<String, String> query = UriComponentsBuilder.newInstance()
+                .query(request.getQueryString()).build().getQueryParams();
+        for (String name : callerParameters) {
+            String value = query.getFirst(name);
+            if (value != null && !value.isBlank()) {
+                return name + ":" + value.trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The stored key: a digest of the caller and the header value, so it stays within the
+     * column length however long either is. Callers that cannot be identified share one scope.
+     */
+    static String scopedKey(String caller, String key) {
+        MessageDigest digest = sha256();
+        if (caller != null) {
+            digest.update(caller.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String fingerprint(String method, String path, String query, byte[] body) {
+        MessageDigest digest = sha256();
+        digest.update(method.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(path.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        if (query != null) {
+            digest.update(query.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+        digest.update(body);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Reads the body once so it can be fingerprinted and still handed to the controller
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+    }
+}
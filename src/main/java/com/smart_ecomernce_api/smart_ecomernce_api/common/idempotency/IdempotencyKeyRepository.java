@@ -0,0 +1,36 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.idempotency;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * JDBC Repository for Idempotency-Key records
+ */
+public interface IdempotencyKeyRepository {
+
+    /**
+     * Insert an IN_PROGRESS record unless one already exists for the same key and scope
+     * @return true if this call created the record
+     */
+    boolean tryReserve(String key, String method, String path, String fingerprint, LocalDateTime expiresAt);
+
+    /**
+     * Find the record for a key and scope
+     */
+    Optional<IdempotencyRecord> find(String key, String method, String path);
+
+    /**
+     * Store the captured response and mark the record COMPLETED
+     */
+    void complete(String key, String method, String path, int status, String contentType, String body);
+
+    /**
+     * Remove a record so the request can be executed again
+     */
+    void release(String key, String method, String path);
+
+    /**
+     * Delete records that expired before the given time
+     */
+    int deleteExpiredBefore(LocalDateTime cutoff);
+}
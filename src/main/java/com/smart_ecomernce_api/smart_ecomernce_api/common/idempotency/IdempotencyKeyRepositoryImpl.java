@@ -0,0 +1,104 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.idempotency;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils.QueryResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC-based implementation of IdempotencyKeyRepository
+ */
+@Repository
+public class IdempotencyKeyRepositoryImpl implements IdempotencyKeyRepository {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyRepositoryImpl.class);
+
+    private final JdbcUtils jdbcUtils;
+
+    public IdempotencyKeyRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    private final RowMapper<IdempotencyRecord> rowMapper = (rs, rowNum) -> {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(rs.getLong("id"));
+        record.setIdempotencyKey(rs.getString("idempotency_key"));
+        record.setRequestMethod(rs.getString("request_method"));
+        record.setRequestPath(rs.getString("request_path"));
+        record.setRequestFingerprint(rs.getString("request_fingerprint"));
+        record.setStatus(rs.getString("status"));
+        record.setResponseStatus(rs.getObject("response_status", Integer.class));
+        record.setResponseContentType(rs.getString("response_content_type"));
+        record.setResponseBody(rs.getString("response_body"));
+
+        Timestamp expiresAt = rs.getTimestamp("expires_at");
+        if (expiresAt != null) {
+            record.setExpiresAt(expiresAt.toLocalDateTime());
+        }
+        return record;
+    };
+
+    @Override
+    public boolean tryReserve(String key, String method, String path, String fingerprint, LocalDateTime expiresAt) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = """
+                INSERT INTO idempotency_keys
+                    (idempotency_key, request_method, request_path, request_fingerprint, status,
+                     expires_at, is_active, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, true, ?, ?)
+                ON CONFLICT (idempotency_key, request_method, request_path) DO NOTHING
+                """;
+        QueryResult result = jdbcUtils.executePreparedQuery(sql,
+                key, method, path, fingerprint, IdempotencyRecord.STATUS_IN_PROGRESS,
+                Timestamp.valueOf(expiresAt), now, now);
+
+        if (result.hasError()) {
+            logger.error("Failed to reserve idempotency key {}: {}", key, result.getError());
+            throw new IllegalStateException("Failed to reserve idempotency key");
+        }
+        return result.getAffectedRows() > 0;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key, String method, String path) {
+        String sql = """
+                SELECT id, idempotency_key, request_method, request_path, request_fingerprint, status,
+                       response_status, response_content_type, response_body, expires_at
+                FROM idempotency_keys
+                WHERE idempotency_key = ? AND request_method = ? AND request_path = ?
+                """;
+        List<IdempotencyRecord> records = jdbcUtils.query(sql, rowMapper, key, method, path);
+        return records.isEmpty() ? Optional.empty() : Optional.of(records.get(0));
+    }
+
+    @Override
+    public void complete(String key, String method, String path, int status, String contentType, String body) {
+        String sql = """
+                UPDATE idempotency_keys
+                SET status = ?, response_status = ?, response_content_type = ?, response_body = ?, updated_at = ?
+                WHERE idempotency_key = ? AND request_method = ? AND request_path = ?
+                """;
+        jdbcUtils.executePreparedQuery(sql,
+                IdempotencyRecord.STATUS_COMPLETED, status, contentType, body,
+                Timestamp.valueOf(LocalDateTime.now()), key, method, path);
+    }
+
+    @Override
+    public void release(String key, String method, String path) {
+        String sql = "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND request_method = ? AND request_path = ?";
+        jdbcUtils.executePreparedQuery(sql, key, method, path);
+    }
+
+    @Override
+    public int deleteExpiredBefore(LocalDateTime cutoff) {
+        String sql = "DELETE FROM idempotency_keys WHERE expires_at <= ?";
+        QueryResult result = jdbcUtils.executePreparedQuery(sql, Timestamp.valueOf(cutoff));
+        return result.hasError() ? 0 : result.getAffectedRows();
+    }
+}
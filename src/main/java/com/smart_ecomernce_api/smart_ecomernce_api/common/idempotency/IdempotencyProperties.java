@@ -0,0 +1,40 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Idempotency-Key settings
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long a stored response can be replayed
+     */
+    private int ttlMinutes = 60;
+
+    /**
+     * Servlet paths (without context path) whose mutations honour the header
+     */
+    private List<String> pathPrefixes = new ArrayList<>(List.of("/v1/carts", "/v1/orders"));
+
+    /**
+     * Query parameters identifying the caller when there is no authenticated principal,
+     * tried in order; keys are scoped to the first one present
+     */
+    private List<String> callerParameters = new ArrayList<>(List.of("userId", "Id", "username"));
+
+    /**
+     * Responses larger than this are not stored and the key is released
+     */
+    private int maxStoredBodyBytes = 256 * 1024;
+}
@@ -0,0 +1,61 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.idempotency;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a request sent with an Idempotency-Key header.
+ * A row is IN_PROGRESS while the first request runs and COMPLETED once its
+ * response has been captured for replay.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_idempotency_key_scope",
+                columnNames = {"idempotency_key", "request_method", "request_path"}),
+        indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at"))
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord extends BaseEntity {
+
+    public static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+
+    @Column(name = "idempotency_key", nullable = false, length = 255)
+    private String idempotencyKey;
+
+    @Column(name = "request_method", nullable = false, length = 10)
+    private String requestMethod;
+
+    @Column(name = "request_path", nullable = false, length = 500)
+    private String requestPath;
+
+    @Column(name = "request_fingerprint", nullable = false, length = 64)
+    private String requestFingerprint;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_content_type", length = 100)
+    private String responseContentType;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public boolean isCompleted() {
+        return STATUS_COMPLETED.equals(status);
+    }
+}
@@ -0,0 +1,83 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Reserves Idempotency-Keys and records the responses they produced
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties properties;
+
+    /**
+     * Claim a key for a request. If a live record already exists the caller gets it
+     * back as the outcome instead; expired records are dropped and the claim retried.
+     */
+    public Reservation reserve(String key, String method, String path, String fingerprint) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            if (idempotencyKeyRepository.tryReserve(key, method, path, fingerprint,
+                    now.plusMinutes(properties.getTtlMinutes()))) {
+                return Reservation.claimed();
+            }
+
+            Optional<IdempotencyRecord> existing = idempotencyKeyRepository.find(key, method, path);
+            if (existing.isEmpty()) {
+                continue;   // released between our insert and read
+            }
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAt().isBefore(now)) {
+                idempotencyKeyRepository.release(key, method, path);
+                continue;
+            }
+            return Reservation.found(record);
+        }
+        // Lost the race twice in a row to a concurrent request
+        return idempotencyKeyRepository.find(key, method, path)
+                .map(Reservation::found)
+                .orElseGet(Reservation::claimed);
+    }
+
+    public void complete(String key, String method, String path, int status, String contentType, String body) {
+        idempotencyKeyRepository.complete(key, method, path, status, contentType, body);
+    }
+
+    public void release(String key, String method, String path) {
+        idempotencyKeyRepository.release(key, method, path);
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        try {
+            int deleted = idempotencyKeyRepository.deleteExpiredBefore(LocalDateTime.now());
+            if (deleted > 0) {
+                log.info("Purged {} expired idempotency keys", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Error purging expired idempotency keys", e);
+        }
+    }
+
+    /**
+     * Result of {@link #reserve}: either this request owns the key, or a prior record exists
+     */
+    public record Reservation(boolean acquired, IdempotencyRecord existing) {
+        static Reservation claimed() {
+            return new Reservation(true, null);
+        }
+
+        static Reservation found(IdempotencyRecord record) {
+            return new Reservation(false, record);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount of money held as a whole number of minor units (cents for USD) plus its currency.
+ *
+ * <p>Pricing and aggregation code works in {@code Money} so that sums and quantity
+ * multiplications are exact long arithmetic; {@link BigDecimal} is only produced at the
+ * edges (entity columns, DTOs) through {@link #toBigDecimal()}. Amounts coming in with
+ * more decimals than the currency allows are rounded half-up once, on the way in.
+ * Arithmetic overflow throws rather than wrapping.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+
+    private static final Money ZERO = new Money(0L, DEFAULT_CURRENCY);
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, Objects.requireNonNull(currency, "currency"));
+    }
+
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency) {
+        Objects.requireNonNull(amount, "amount");
+        long minor = amount.setScale(currency.getDefaultFractionDigits(), RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+        return ofMinor(minor, currency);
+    }
+
+    /**
+     * Null-tolerant variant for optional columns; a missing amount counts as zero
+     */
+    public static Money ofNullable(BigDecimal amount) {
+        return amount != null ? of(amount) : ZERO;
+    }
+
+    public static Money zero() {
+        return ZERO;
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public Currency currency() {
+        return currency;
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return other.minorUnits == 0 ? this : new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return other.minorUnits == 0 ? this : new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long quantity) {
+        return quantity == 1 ? this : new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    /**
+     * The given percentage of this amount (e.g. {@code 8.25} for 8.25%), rounded half-up to a minor unit
+     */
+    public Money percent(BigDecimal rate) {
+        long minor = BigDecimal.valueOf(minorUnits)
+                .multiply(rate)
+                .divide(ONE_HUNDRED, 0, RoundingMode.HALF_UP)
+                .longValueExact();
+        return new Money(minor, currency);
+    }
+
+    /**
+     * This amount split evenly over {@code parts}, rounded half-up to a minor unit
+     */
+    public Money dividedBy(long parts) {
+        if (parts == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long quotient = minorUnits / parts;
+        long remainder = minorUnits % parts;
+        if (Math.abs(remainder) * 2 >= Math.abs(parts)) {
+            quotient += (minorUnits < 0) == (parts < 0) ? 1 : -1;
+        }
+        return new Money(quotient, currency);
+    }
+
+    /**
+     * This amount, or zero when it is negative
+     */
+    public Money clampAtZero() {
+        return minorUnits < 0 ? new Money(0L, currency) : this;
+    }
+
+    public Money max(Money other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    /**
+     * {@code part} as a percentage of this amount, for ratios reported as plain numbers
+     */
+    public double percentageOf(Money part) {
+        requireSameCurrency(part);
+        return minorUnits == 0 ? 0.0 : part.minorUnits * 100.0 / minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException(
+                    "Currency mismatch: " + currency.getCurrencyCode() + " vs " + other.currency.getCurrencyCode());
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money money)) return false;
+        return minorUnits == money.minorUnits && currency.equals(money.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits) * 31 + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return currency.getCurrencyCode() + " " + toBigDecimal().toPlainString();
+    }
+}
@@ -6,6 +6,10 @@ public class InsufficientStockException extends RuntimeException {
         super("Insufficient stock");
     }
 
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+
     public InsufficientStockException(String productName, int available, int requested) {
         super(String.format("Insufficient stock for product '%s'. Available: %d, Requested: %d",
                 productName, available, requested));
@@ -0,0 +1,20 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.graphql.dto;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.response.PaginatedResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductFacetIndex;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class FacetedProductDto {
+    private List<ProductResponse> content;
+    private PaginatedResponse<ProductResponse> pageInfo;
+    private ProductFacetIndex.Facets facets;
+}
@@ -1,5 +1,6 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.graphql.input;
 
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -17,5 +18,7 @@ public class ProductFilterInput {
     private Boolean featured;
     private Boolean isNew;
     private Boolean inStock;
+    private InventoryStatus inventoryStatus;
+    private Integer minRating;
 
 }
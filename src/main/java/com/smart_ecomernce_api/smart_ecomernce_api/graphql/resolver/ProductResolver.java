@@ -1,15 +1,20 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.graphql.resolver;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.PaginatedResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.graphql.dto.FacetedProductDto;
 import com.smart_ecomernce_api.smart_ecomernce_api.graphql.dto.ProductDto;
 import com.smart_ecomernce_api.smart_ecomernce_api.graphql.input.PageInput;
 import com.smart_ecomernce_api.smart_ecomernce_api.graphql.input.ProductFilterInput;
 import com.smart_ecomernce_api.smart_ecomernce_api.graphql.input.SortDirection;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.FacetedSearchRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductCreateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductUpdateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.mapper.ProductMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductCriteria;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductFacetService;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.RelatedProductsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -18,11 +23,12 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
-import java.math.BigDecimal;
+import java.util.List;
 
 @Controller
 @RequiredArgsConstructor
@@ -30,6 +36,8 @@ import java.math.BigDecimal;
 public class ProductResolver {
 
     private final ProductService productService;
+    private final ProductFacetService productFacetService;
+    private final RelatedProductsService relatedProductsService;
 
     @QueryMapping
     public ProductResponse product(@Argument Long id) {
@@ -52,14 +60,14 @@ public class ProductResolver {
         Pageable pageable = createPageable(pagination);
            Page<ProductResponse> productPage;
 
-        if (filter != null && hasFilters(filter)) {
-             productPage = productService.advancedProductSearch(
-                    filter.getCategoryId(),
-                    filter.getMinPrice() != null ? filter.getMinPrice() : BigDecimal.ZERO,
-                    filter.getMaxPrice() != null ? filter.getMaxPrice() : new BigDecimal("999999"),
-                    filter.getSearch() != null ? filter.getSearch() : "",
-                    pageable
-            );
+        FacetedSearchRequest facetedRequest = filter != null && hasFilters(filter) ? toFacetedRequest(filter) : null;
+
+        if (facetedRequest != null && productFacetService.isReady(facetedRequest)
+                && productFacetService.supportsSort(pageable.getSort())) {
+            // The facet index honours every filter, including featured, isNew and inStock
+            productPage = productFacetService.search(facetedRequest, pageable).page();
+        } else if (facetedRequest != null) {
+            productPage = productService.filterProducts(toCriteria(filter), pageable);
         }else {
         productPage = productService.getAllProducts(pageable);
         }
@@ -114,6 +122,34 @@ public class ProductResolver {
                 .build();
     }
 
+    @QueryMapping
+    public FacetedProductDto facetedProducts(
+            @Argument ProductFilterInput filter,
+            @Argument PageInput pagination) {
+        log.info("GraphQL Query: facetedProducts");
+        // Without explicit pagination keyword searches are ordered by relevance
+        Pageable pageable = pagination != null ? createPageable(pagination) : PageRequest.of(0, 20);
+        FacetedSearchRequest request = filter != null ? toFacetedRequest(filter) : new FacetedSearchRequest();
+        ProductFacetService.FacetedResult result = productFacetService.search(request, pageable);
+
+        return FacetedProductDto.builder()
+                .content(result.page().getContent())
+                .pageInfo(PaginatedResponse.from(result.page()))
+                .facets(result.facets())
+                .build();
+    }
+
+    /**
+     * Related products for every product in the response, resolved with one lookup
+     */
+    @BatchMapping(typeName = "Product")
+    public List<List<ProductResponse>> related(List<ProductResponse> products) {
+        log.info("GraphQL BatchMapping: related for {} products", products.size());
+        return relatedProductsService.getRelated(
+                products.stream().map(ProductResponse::getId).toList(),
+                relatedProductsService.getTopN());
+    }
+
     @MutationMapping
     public ProductResponse createProduct(@Argument ProductCreateRequest input) {
         log.info("GraphQL Mutation: createProduct");
@@ -143,7 +179,38 @@ public class ProductResolver {
         return filter.getCategoryId() != null ||
                 filter.getMinPrice() != null ||
                 filter.getMaxPrice() != null ||
-                filter.getSearch() != null;
+                filter.getSearch() != null ||
+                filter.getFeatured() != null ||
+                filter.getIsNew() != null ||
+                filter.getInStock() != null ||
+                filter.getInventoryStatus() != null ||
+                filter.getMinRating() != null;
+    }
+
+    private ProductCriteria toCriteria(ProductFilterInput filter) {
+        return ProductCriteria.builder()
+                .categoryIds(filter.getCategoryId() != null ? List.of(filter.getCategoryId()) : null)
+                .minPrice(filter.getMinPrice())
+                .maxPrice(filter.getMaxPrice())
+                .nameContains(filter.getSearch())
+                .featured(filter.getFeatured())
+                .isNew(filter.getIsNew())
+                .inStock(filter.getInStock())
+                .build();
+    }
+
+    private FacetedSearchRequest toFacetedRequest(ProductFilterInput filter) {
+        return FacetedSearchRequest.builder()
+                .search(filter.getSearch())
+                .categoryId(filter.getCategoryId())
+                .minPrice(filter.getMinPrice())
+                .maxPrice(filter.getMaxPrice())
+                .inventoryStatus(filter.getInventoryStatus())
+                .minRating(filter.getMinRating())
+                .featured(filter.getFeatured())
+                .isNew(filter.getIsNew())
+                .inStock(filter.getInStock())
+                .build();
     }
 
     private Pageable createPageable(PageInput input) {
@@ -0,0 +1,84 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.controller;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.response.ApiResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity.RollupGrain;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity.SalesMeasure;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.SalesRollupRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.service.SalesRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("v1/admin/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analytics", description = "Sales and revenue reporting endpoints")
+public class AnalyticsController {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+
+    private final SalesRollupService salesRollupService;
+
+    @GetMapping("/revenue")
+    @Operation(summary = "Get order counts and paid revenue for a period (Admin)")
+    public ResponseEntity<ApiResponse<SalesRollupRepository.RevenueTotals>> getRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        SalesRollupRepository.RevenueTotals totals = salesRollupService.getRevenue(startOf(from, end), end);
+        return ResponseEntity.ok(ApiResponse.success("Revenue fetched successfully", totals));
+    }
+
+    @GetMapping("/revenue/series")
+    @Operation(summary = "Get revenue per hour or day for a period (Admin)")
+    public ResponseEntity<ApiResponse<List<SalesRollupRepository.RevenuePoint>>> getRevenueSeries(
+            @RequestParam(defaultValue = "DAY") RollupGrain grain,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        List<SalesRollupRepository.RevenuePoint> series =
+                salesRollupService.getRevenueSeries(grain, startOf(from, end), end);
+        return ResponseEntity.ok(ApiResponse.success("Revenue series fetched successfully", series));
+    }
+
+    @GetMapping("/products/top")
+    @Operation(summary = "Get best selling products for a period (Admin)")
+    public ResponseEntity<ApiResponse<List<SalesRollupRepository.ProductSales>>> getTopProducts(
+            @RequestParam(defaultValue = "PAID") SalesMeasure measure,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        List<SalesRollupRepository.ProductSales> products =
+                salesRollupService.getTopProducts(measure, startOf(from, end), end, limit);
+        return ResponseEntity.ok(ApiResponse.success("Top products fetched successfully", products));
+    }
+
+    @GetMapping("/categories")
+    @Operation(summary = "Get sales per category for a period (Admin)")
+    public ResponseEntity<ApiResponse<List<SalesRollupRepository.CategorySales>>> getCategorySales(
+            @RequestParam(defaultValue = "PAID") SalesMeasure measure,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        List<SalesRollupRepository.CategorySales> categories =
+                salesRollupService.getCategorySales(measure, startOf(from, end), end);
+        return ResponseEntity.ok(ApiResponse.success("Category sales fetched successfully", categories));
+    }
+
+    @GetMapping("/rollup/status")
+    @Operation(summary = "Get sales rollup pipeline status (Admin)")
+    public ResponseEntity<ApiResponse<SalesRollupService.RollupStatus>> getRollupStatus() {
+        return ResponseEntity.ok(ApiResponse.success("Rollup status fetched successfully", salesRollupService.getStatus()));
+    }
+
+    private static LocalDateTime startOf(LocalDateTime from, LocalDateTime end) {
+        return from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS);
+    }
+}
@@ -0,0 +1,29 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far a rollup pipeline has caught up: order changes up to the watermark are
+ * reflected in its buckets
+ */
+@Entity
+@Table(name = "analytics_watermarks",
+        uniqueConstraints = @UniqueConstraint(name = "uk_analytics_watermark_name", columnNames = "name"))
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsWatermark extends BaseEntity {
+
+    @Column(name = "name", nullable = false, length = 50)
+    private String name;
+
+    @Column(name = "watermark", nullable = false)
+    private LocalDateTime watermark;
+}
@@ -0,0 +1,42 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order totals of one hour or day, bucketed by order date.
+ * Revenue is the sum of paid order totals, including tax and shipping.
+ */
+@Entity
+@Table(name = "revenue_rollups",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_revenue_rollup_bucket",
+                columnNames = {"grain", "bucket_start"}))
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueRollup extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "grain", nullable = false, length = 10)
+    private RollupGrain grain;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(name = "paid_orders", nullable = false)
+    private Long paidOrders;
+
+    @Column(name = "paid_revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal paidRevenue;
+}
@@ -0,0 +1,42 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Width of a rollup bucket
+ */
+public enum RollupGrain {
+    HOUR("1 hour", ChronoUnit.HOURS),
+    DAY("1 day", ChronoUnit.DAYS);
+
+    private final String interval;
+    private final ChronoUnit unit;
+
+    RollupGrain(String interval, ChronoUnit unit) {
+        this.interval = interval;
+        this.unit = unit;
+    }
+
+    /**
+     * PostgreSQL interval literal of one bucket
+     */
+    public String interval() {
+        return interval;
+    }
+
+    /**
+     * Start of the bucket containing the given time
+     */
+    public LocalDateTime floor(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * Start of the first bucket at or after the given time
+     */
+    public LocalDateTime ceil(LocalDateTime time) {
+        LocalDateTime floor = floor(time);
+        return floor.equals(time) ? floor : floor.plus(1, unit);
+    }
+}
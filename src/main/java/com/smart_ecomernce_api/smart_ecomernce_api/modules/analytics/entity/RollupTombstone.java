@@ -0,0 +1,26 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order date of a deleted order. A deleted row no longer shows up among changed orders,
+ * so the rollup pipeline reads these to rebuild the buckets it was counted in.
+ */
+@Entity
+@Table(name = "rollup_tombstones",
+        indexes = @Index(name = "idx_rollup_tombstones_created_at", columnList = "created_at"))
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupTombstone extends BaseEntity {
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+}
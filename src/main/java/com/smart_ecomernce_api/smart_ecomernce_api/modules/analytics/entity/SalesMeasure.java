@@ -0,0 +1,30 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity;
+
+/**
+ * Which orders a product sales figure counts
+ */
+public enum SalesMeasure {
+    /** Items of orders whose payment went through */
+    PAID("paid_", "o.payment_status = 'PAID'"),
+    /** Items of orders that reached the customer */
+    DELIVERED("delivered_", "o.status = 'DELIVERED'");
+
+    private final String columnPrefix;
+    private final String orderCondition;
+
+    SalesMeasure(String columnPrefix, String orderCondition) {
+        this.columnPrefix = columnPrefix;
+        this.orderCondition = orderCondition;
+    }
+
+    public String columnPrefix() {
+        return columnPrefix;
+    }
+
+    /**
+     * SQL condition on orders aliased {@code o}
+     */
+    public String orderCondition() {
+        return orderCondition;
+    }
+}
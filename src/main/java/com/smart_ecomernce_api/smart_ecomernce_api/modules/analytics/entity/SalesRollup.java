@@ -0,0 +1,68 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Units, revenue and orders of one product in one hour or day, bucketed by order date.
+ * Paid and delivered figures are kept side by side because revenue reports count
+ * paid orders while best-seller lists count delivered ones.
+ */
+@Entity
+@Table(name = "sales_rollups",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_sales_rollup_bucket_product",
+                columnNames = {"grain", "bucket_start", "product_id"}),
+        indexes = {
+                @Index(name = "idx_sales_rollup_product", columnList = "product_id, grain, bucket_start"),
+                @Index(name = "idx_sales_rollup_category", columnList = "category_id, grain, bucket_start")
+        })
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "grain", nullable = false, length = 10)
+    private RollupGrain grain;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    /**
+     * Name the product was sold under in this bucket, from the order items
+     */
+    @Column(name = "product_name", length = 200)
+    private String productName;
+
+    @Column(name = "paid_units", nullable = false)
+    private Long paidUnits;
+
+    @Column(name = "paid_revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal paidRevenue;
+
+    @Column(name = "paid_orders", nullable = false)
+    private Long paidOrders;
+
+    @Column(name = "delivered_units", nullable = false)
+    private Long deliveredUnits;
+
+    @Column(name = "delivered_revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal deliveredRevenue;
+
+    @Column(name = "delivered_orders", nullable = false)
+    private Long deliveredOrders;
+}
@@ -0,0 +1,96 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity.RollupGrain;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity.SalesMeasure;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC Repository for the hourly and daily sales rollups.
+ * Range reads combine daily buckets, hourly buckets and raw order rows so results
+ * match a scan of the orders table as of the last rollup run.
+ */
+public interface SalesRollupRepository {
+
+    /**
+     * Watermark of the rollup pipeline; range reads trust buckets up to it
+     */
+    String SALES_WATERMARK = "sales_rollup";
+
+    // ==================== Maintenance ====================
+
+    Optional<LocalDateTime> findWatermark(String name);
+
+    void saveWatermark(String name, LocalDateTime watermark);
+
+    /**
+     * Remember the order dates of deleted orders so their buckets are recomputed on the next run
+     */
+    void recordDeletedOrders(Collection<LocalDateTime> orderDates);
+
+    /**
+     * Delete tombstones recorded before {@code cutoff}
+     * @return number of rows deleted
+     */
+    int deleteTombstonesBefore(LocalDateTime cutoff);
+
+    /**
+     * Bucket starts of the given grain holding orders changed or deleted at or after {@code since}, oldest first
+     */
+    List<LocalDateTime> findChangedBuckets(RollupGrain grain, LocalDateTime since);
+
+    /**
+     * Recompute product and revenue buckets from the order rows; buckets left empty are removed
+     */
+    void recomputeBuckets(RollupGrain grain, Collection<LocalDateTime> bucketStarts);
+
+    /**
+     * Delete hourly buckets that start before {@code cutoff}
+     * @return number of rows deleted
+     */
+    int deleteHourlyBefore(LocalDateTime cutoff);
+
+    // ==================== Range reads ====================
+
+    /**
+     * Paid order revenue with orders placed in {@code [from, to)}
+     */
+    BigDecimal sumRevenue(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Order counts and paid revenue with orders placed in {@code [from, to)}
+     */
+    RevenueTotals findRevenueTotals(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Per-bucket order counts and paid revenue between {@code from} and {@code to}
+     */
+    List<RevenuePoint> findRevenueSeries(RollupGrain grain, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Units, revenue and orders of one product
+     */
+    ProductSales findProductSales(Long productId, SalesMeasure measure, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Products with the most units, most first
+     */
+    List<ProductSales> findTopProducts(SalesMeasure measure, LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Units, revenue and orders per category, highest revenue first
+     */
+    List<CategorySales> findCategorySales(SalesMeasure measure, LocalDateTime from, LocalDateTime to);
+
+    record RevenueTotals(long orderCount, long paidOrders, BigDecimal paidRevenue) {}
+
+    record RevenuePoint(LocalDateTime bucketStart, long orderCount, long paidOrders, BigDecimal paidRevenue) {}
+
+    record ProductSales(Long productId, String productName, long units, BigDecimal revenue, long orders) {}
+
+    record CategorySales(Long categoryId, String categoryName, long units, BigDecimal revenue, long orders) {}
+}
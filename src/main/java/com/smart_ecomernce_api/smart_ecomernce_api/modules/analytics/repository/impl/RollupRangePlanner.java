@@ -0,0 +1,99 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity.RollupGrain;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a time range into the cheapest mix of sources that still gives exact totals:
+ * whole days from daily buckets, whole hours at the edges from hourly buckets, and
+ * the sub-hour remainders plus anything the rollup has not caught up with yet from
+ * the raw order rows.
+ */
+public final class RollupRangePlanner {
+
+    public enum Source { RAW, HOUR, DAY }
+
+    /**
+     * Half-open range {@code [from, to)} read from one source
+     */
+    public record Segment(Source source, LocalDateTime from, LocalDateTime to) {}
+
+    private RollupRangePlanner() {
+    }
+
+    /**
+     * @param start          inclusive start of the range
+     * @param end            exclusive end of the range
+     * @param rolledUpUntil  buckets before the hour containing this time are complete; null if nothing is rolled up
+     * @param hourlyFrom     hourly buckets are only kept from this time on
+     */
+    public static List<Segment> plan(LocalDateTime start, LocalDateTime end,
+                                     LocalDateTime rolledUpUntil, LocalDateTime hourlyFrom) {
+        List<Segment> segments = new ArrayList<>();
+        if (!start.isBefore(end)) {
+            return segments;
+        }
+        LocalDateTime covered = rolledUpUntil == null ? start : min(end, RollupGrain.HOUR.floor(rolledUpUntil));
+        if (!start.isBefore(covered)) {
+            add(segments, Source.RAW, start, end);
+            return segments;
+        }
+
+        LocalDateTime h0 = RollupGrain.HOUR.ceil(start);
+        LocalDateTime h1 = RollupGrain.HOUR.floor(covered);
+        if (!h0.isBefore(h1)) {
+            add(segments, Source.RAW, start, covered);
+        } else {
+            add(segments, Source.RAW, start, h0);
+            LocalDateTime d0 = RollupGrain.DAY.ceil(h0);
+            LocalDateTime d1 = RollupGrain.DAY.floor(h1);
+            if (d0.isBefore(d1)) {
+                addHours(segments, h0, d0, hourlyFrom);
+                add(segments, Source.DAY, d0, d1);
+                addHours(segments, d1, h1, hourlyFrom);
+            } else {
+                addHours(segments, h0, h1, hourlyFrom);
+            }
+            add(segments, Source.RAW, h1, covered);
+        }
+        add(segments, Source.RAW, covered, end);
+        return segments;
+    }
+
+    private static void addHours(List<Segment> segments, LocalDateTime from, LocalDateTime to, LocalDateTime hourlyFrom) {
+        if (hourlyFrom != null && from.isBefore(hourlyFrom)) {
+            // Hourly buckets of this stretch have been purged
+            add(segments, Source.RAW, from, min(to, hourlyFrom));
+            from = max(from, hourlyFrom);
+        }
+        add(segments, Source.HOUR, from, to);
+    }
+
+    /**
+     * Append a non-empty segment, merging it into the previous one when they are adjacent and share a source
+     */
+    private static void add(List<Segment> segments, Source source, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        if (!segments.isEmpty()) {
+            Segment last = segments.get(segments.size() - 1);
+            if (last.source() == source && last.to().equals(from)) {
+                segments.set(segments.size() - 1, new Segment(source, last.from(), to));
+                return;
+            }
+        }
+        segments.add(new Segment(source, from, to));
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
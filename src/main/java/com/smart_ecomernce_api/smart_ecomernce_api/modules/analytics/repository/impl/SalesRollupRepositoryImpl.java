@@ -0,0 +1,363 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity.RollupGrain;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity.SalesMeasure;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.SalesRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * JDBC-based implementation of SalesRollupRepository
+ */
+@Repository
+public class SalesRollupRepositoryImpl implements SalesRollupRepository {
+
+    private static final String RECOMPUTE_SALES = """
+            INSERT INTO sales_rollups (
+                grain, bucket_start, product_id, category_id, product_name,
+                paid_units, paid_revenue, paid_orders,
+                delivered_units, delivered_revenue, delivered_orders,
+                is_active, created_at, updated_at
+            )
+            SELECT ?, b.bucket_start, oi.product_id, MAX(p.category_id), MAX(oi.product_name),
+                   COALESCE(SUM(oi.quantity) FILTER (WHERE o.payment_status = 'PAID'), 0),
+                   COALESCE(SUM(oi.total_price) FILTER (WHERE o.payment_status = 'PAID'), 0),
+                   COUNT(DISTINCT o.id) FILTER (WHERE o.payment_status = 'PAID'),
+                   COALESCE(SUM(oi.quantity) FILTER (WHERE o.status = 'DELIVERED'), 0),
+                   COALESCE(SUM(oi.total_price) FILTER (WHERE o.status = 'DELIVERED'), 0),
+                   COUNT(DISTINCT o.id) FILTER (WHERE o.status = 'DELIVERED'),
+                   true, ?, ?
+            FROM (VALUES %1$s) b(bucket_start)
+            JOIN orders o ON o.order_date >= b.bucket_start AND o.order_date < b.bucket_start + INTERVAL '%2$s'
+            JOIN order_items oi ON oi.order_id = o.id
+            LEFT JOIN products p ON p.id = oi.product_id
+            WHERE oi.product_id IS NOT NULL
+            GROUP BY b.bucket_start, oi.product_id
+            HAVING COUNT(*) FILTER (WHERE o.payment_status = 'PAID' OR o.status = 'DELIVERED') > 0
+            ON CONFLICT (grain, bucket_start, product_id) DO UPDATE SET
+                category_id = EXCLUDED.category_id,
+                product_name = EXCLUDED.product_name,
+                paid_units = EXCLUDED.paid_units,
+                paid_revenue = EXCLUDED.paid_revenue,
+                paid_orders = EXCLUDED.paid_orders,
+                delivered_units = EXCLUDED.delivered_units,
+                delivered_revenue = EXCLUDED.delivered_revenue,
+                delivered_orders = EXCLUDED.delivered_orders,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String RECOMPUTE_REVENUE = """
+            INSERT INTO revenue_rollups (
+                grain, bucket_start, order_count, paid_orders, paid_revenue, is_active, created_at, updated_at
+            )
+            SELECT ?, b.bucket_start, COUNT(*),
+                   COUNT(*) FILTER (WHERE o.payment_status = 'PAID'),
+                   COALESCE(SUM(o.total_amount) FILTER (WHERE o.payment_status = 'PAID'), 0),
+                   true, ?, ?
+            FROM (VALUES %1$s) b(bucket_start)
+            JOIN orders o ON o.order_date >= b.bucket_start AND o.order_date < b.bucket_start + INTERVAL '%2$s'
+            GROUP BY b.bucket_start
+            ON CONFLICT (grain, bucket_start) DO UPDATE SET
+                order_count = EXCLUDED.order_count,
+                paid_orders = EXCLUDED.paid_orders,
+                paid_revenue = EXCLUDED.paid_revenue,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private final JdbcUtils jdbcUtils;
+    private final int hourlyRetentionDays;
+
+    public SalesRollupRepositoryImpl(JdbcUtils jdbcUtils,
+                                     @Value("${analytics.rollup.hourly-retention-days:90}") int hourlyRetentionDays) {
+        this.jdbcUtils = jdbcUtils;
+        this.hourlyRetentionDays = hourlyRetentionDays;
+    }
+
+    private final RowMapper<RevenueTotals> revenueTotalsRowMapper = (rs, rowNum) -> new RevenueTotals(
+            rs.getLong("order_count"),
+            rs.getLong("paid_orders"),
+            rs.getBigDecimal("paid_revenue"));
+
+    private final RowMapper<ProductSales> productSalesRowMapper = (rs, rowNum) -> new ProductSales(
+            rs.getLong("product_id"),
+            rs.getString("product_name"),
+            rs.getLong("units"),
+            rs.getBigDecimal("revenue"),
+            rs.getLong("orders"));
+
+    // ==================== Maintenance ====================
+
+    @Override
+    public Optional<LocalDateTime> findWatermark(String name) {
+        List<LocalDateTime> result = jdbcUtils.query(
+                "SELECT watermark FROM analytics_watermarks WHERE name = ?",
+                (rs, rowNum) -> rs.getTimestamp("watermark").toLocalDateTime(), name);
+        return result.stream().findFirst();
+    }
+
+    @Override
+    public void saveWatermark(String name, LocalDateTime watermark) {
+        String sql = """
+                INSERT INTO analytics_watermarks (name, watermark, is_active, created_at, updated_at)
+                VALUES (?, ?, true, ?, ?)
+                ON CONFLICT (name) DO UPDATE SET
+                    watermark = GREATEST(analytics_watermarks.watermark, EXCLUDED.watermark),
+                    updated_at = EXCLUDED.updated_at
+                """;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcUtils.executePreparedQuery(sql, name, Timestamp.valueOf(watermark), now, now);
+    }
+
+    @Override
+    public void recordDeletedOrders(Collection<LocalDateTime> orderDates) {
+        if (orderDates.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcUtils.batchUpdate(
+                "INSERT INTO rollup_tombstones (order_date, is_active, created_at, updated_at) VALUES (?, true, ?, ?)",
+                orderDates.stream().distinct().map(d -> new Object[]{Timestamp.valueOf(d), now, now}).toList());
+    }
+
+    @Override
+    public int deleteTombstonesBefore(LocalDateTime cutoff) {
+        JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(
+                "DELETE FROM rollup_tombstones WHERE created_at < ?", Timestamp.valueOf(cutoff));
+        return result.hasError() ? 0 : result.getAffectedRows();
+    }
+
+    @Override
+    public List<LocalDateTime> findChangedBuckets(RollupGrain grain, LocalDateTime since) {
+        String bucket = "date_trunc('" + grain.name().toLowerCase() + "', order_date)";
+        String sql = "SELECT " + bucket + " AS bucket FROM orders WHERE updated_at >= ? " +
+                "UNION SELECT " + bucket + " FROM rollup_tombstones WHERE created_at >= ? ORDER BY bucket";
+        Timestamp from = Timestamp.valueOf(since);
+        return jdbcUtils.query(sql, (rs, rowNum) -> rs.getTimestamp("bucket").toLocalDateTime(), from, from);
+    }
+
+    @Override
+    public void recomputeBuckets(RollupGrain grain, Collection<LocalDateTime> bucketStarts) {
+        if (bucketStarts.isEmpty()) {
+            return;
+        }
+        List<LocalDateTime> buckets = new ArrayList<>(new TreeSet<>(bucketStarts));
+        String values = String.join(",", Collections.nCopies(buckets.size(), "(CAST(? AS timestamp))"));
+        String placeholders = String.join(",", Collections.nCopies(buckets.size(), "?"));
+        Timestamp runStart = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object> params = new ArrayList<>();
+        params.add(grain.name());
+        params.add(runStart);
+        params.add(runStart);
+        buckets.forEach(b -> params.add(Timestamp.valueOf(b)));
+        jdbcUtils.executePreparedQuery(RECOMPUTE_SALES.formatted(values, grain.interval()), params.toArray());
+        jdbcUtils.executePreparedQuery(RECOMPUTE_REVENUE.formatted(values, grain.interval()), params.toArray());
+
+        // Rows this run did not rewrite belong to products or buckets that no longer have qualifying orders
+        List<Object> staleParams = new ArrayList<>();
+        staleParams.add(grain.name());
+        buckets.forEach(b -> staleParams.add(Timestamp.valueOf(b)));
+        staleParams.add(runStart);
+        for (String table : List.of("sales_rollups", "revenue_rollups")) {
+            jdbcUtils.executePreparedQuery("DELETE FROM " + table +
+                    " WHERE grain = ? AND bucket_start IN (" + placeholders + ") AND updated_at < ?",
+                    staleParams.toArray());
+        }
+    }
+
+    @Override
+    public int deleteHourlyBefore(LocalDateTime cutoff) {
+        int deleted = 0;
+        for (String table : List.of("sales_rollups", "revenue_rollups")) {
+            JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(
+                    "DELETE FROM " + table + " WHERE grain = ? AND bucket_start < ?",
+                    RollupGrain.HOUR.name(), Timestamp.valueOf(cutoff));
+            deleted += result.hasError() ? 0 : result.getAffectedRows();
+        }
+        return deleted;
+    }
+
+    // ==================== Range reads ====================
+
+    @Override
+    public BigDecimal sumRevenue(LocalDateTime from, LocalDateTime to) {
+        return findRevenueTotals(from, to).paidRevenue();
+    }
+
+    @Override
+    public RevenueTotals findRevenueTotals(LocalDateTime from, LocalDateTime to) {
+        List<String> parts = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        for (RollupRangePlanner.Segment segment : plan(from, to)) {
+            if (segment.source() == RollupRangePlanner.Source.RAW) {
+                parts.add("SELECT COUNT(*) AS order_count, " +
+                        "COUNT(*) FILTER (WHERE payment_status = 'PAID') AS paid_orders, " +
+                        "COALESCE(SUM(total_amount) FILTER (WHERE payment_status = 'PAID'), 0) AS paid_revenue " +
+                        "FROM orders WHERE order_date >= ? AND order_date < ?");
+            } else {
+                parts.add("SELECT order_count, paid_orders, paid_revenue FROM revenue_rollups " +
+                        "WHERE grain = ? AND bucket_start >= ? AND bucket_start < ?");
+                params.add(segment.source().name());
+            }
+            params.add(Timestamp.valueOf(segment.from()));
+            params.add(Timestamp.valueOf(segment.to()));
+        }
+        if (parts.isEmpty()) {
+            return new RevenueTotals(0, 0, BigDecimal.ZERO);
+        }
+        String sql = "SELECT COALESCE(SUM(order_count), 0) AS order_count, " +
+                "COALESCE(SUM(paid_orders), 0) AS paid_orders, COALESCE(SUM(paid_revenue), 0) AS paid_revenue " +
+                "FROM (" + String.join(" UNION ALL ", parts) + ") x";
+        return jdbcUtils.query(sql, revenueTotalsRowMapper, params.toArray()).get(0);
+    }
+
+    @Override
+    public List<RevenuePoint> findRevenueSeries(RollupGrain grain, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = grain.floor(from);
+        LocalDateTime end = grain.ceil(to);
+        LocalDateTime rolledFrom = grain == RollupGrain.HOUR ? max(start, hourlyFrom()) : start;
+        LocalDateTime rolledTo = findWatermark(SALES_WATERMARK)
+                .map(w -> min(end, grain.floor(RollupGrain.HOUR.floor(w))))
+                .orElse(rolledFrom);
+        if (rolledTo.isBefore(rolledFrom)) {
+            rolledTo = rolledFrom;
+        }
+
+        String sql = """
+                SELECT bucket_start, SUM(order_count) AS order_count, SUM(paid_orders) AS paid_orders,
+                       SUM(paid_revenue) AS paid_revenue
+                FROM (
+                    SELECT bucket_start, order_count, paid_orders, paid_revenue
+                    FROM revenue_rollups
+                    WHERE grain = ? AND bucket_start >= ? AND bucket_start < ?
+                    UNION ALL
+                    SELECT date_trunc('%1$s', order_date), COUNT(*),
+                           COUNT(*) FILTER (WHERE payment_status = 'PAID'),
+                           COALESCE(SUM(total_amount) FILTER (WHERE payment_status = 'PAID'), 0)
+                    FROM orders
+                    WHERE (order_date >= ? AND order_date < ?) OR (order_date >= ? AND order_date < ?)
+                    GROUP BY 1
+                ) x
+                GROUP BY bucket_start
+                ORDER BY bucket_start
+                """.formatted(grain.name().toLowerCase());
+        return jdbcUtils.query(sql, (rs, rowNum) -> new RevenuePoint(
+                        rs.getTimestamp("bucket_start").toLocalDateTime(),
+                        rs.getLong("order_count"),
+                        rs.getLong("paid_orders"),
+                        rs.getBigDecimal("paid_revenue")),
+                grain.name(), Timestamp.valueOf(rolledFrom), Timestamp.valueOf(rolledTo),
+                Timestamp.valueOf(start), Timestamp.valueOf(rolledFrom),
+                Timestamp.valueOf(rolledTo), Timestamp.valueOf(end));
+    }
+
+    @Override
+    public ProductSales findProductSales(Long productId, SalesMeasure measure, LocalDateTime from, LocalDateTime to) {
+        List<Object> params = new ArrayList<>();
+        String union = productUnion(measure, from, to, productId, params);
+        if (union == null) {
+            return new ProductSales(productId, null, 0, BigDecimal.ZERO, 0);
+        }
+        String sql = "SELECT ? AS product_id, NULL AS product_name, COALESCE(SUM(units), 0) AS units, " +
+                "COALESCE(SUM(revenue), 0) AS revenue, COALESCE(SUM(orders), 0) AS orders FROM (" + union + ") x";
+        params.add(0, productId);
+        return jdbcUtils.query(sql, productSalesRowMapper, params.toArray()).get(0);
+    }
+
+    @Override
+    public List<ProductSales> findTopProducts(SalesMeasure measure, LocalDateTime from, LocalDateTime to, int limit) {
+        List<Object> params = new ArrayList<>();
+        String union = productUnion(measure, from, to, null, params);
+        if (union == null) {
+            return List.of();
+        }
+        // Names come from the order items, as sold; rows rolled up before the column existed fall back to the product
+        String sql = "SELECT x.product_id, COALESCE(MAX(x.product_name), MAX(p.name)) AS product_name, " +
+                "SUM(x.units) AS units, SUM(x.revenue) AS revenue, SUM(x.orders) AS orders " +
+                "FROM (" + union + ") x LEFT JOIN products p ON p.id = x.product_id " +
+                "GROUP BY x.product_id ORDER BY units DESC, x.product_id LIMIT ?";
+        params.add(limit);
+        return jdbcUtils.query(sql, productSalesRowMapper, params.toArray());
+    }
+
+    @Override
+    public List<CategorySales> findCategorySales(SalesMeasure measure, LocalDateTime from, LocalDateTime to) {
+        List<Object> params = new ArrayList<>();
+        String union = productUnion(measure, from, to, null, params);
+        if (union == null) {
+            return List.of();
+        }
+        String sql = "SELECT x.category_id, MAX(c.name) AS category_name, SUM(x.units) AS units, " +
+                "SUM(x.revenue) AS revenue, SUM(x.orders) AS orders " +
+                "FROM (" + union + ") x LEFT JOIN categories c ON c.id = x.category_id " +
+                "GROUP BY x.category_id ORDER BY revenue DESC";
+        return jdbcUtils.query(sql, (rs, rowNum) -> new CategorySales(
+                rs.getObject("category_id", Long.class),
+                rs.getString("category_name"),
+                rs.getLong("units"),
+                rs.getBigDecimal("revenue"),
+                rs.getLong("orders")), params.toArray());
+    }
+
+    /**
+     * UNION ALL of per-segment product rows (product_id, category_id, product_name, units, revenue, orders)
+     * @return null when the range is empty
+     */
+    private String productUnion(SalesMeasure measure, LocalDateTime from, LocalDateTime to,
+                                Long productId, List<Object> params) {
+        String prefix = measure.columnPrefix();
+        List<String> parts = new ArrayList<>();
+        for (RollupRangePlanner.Segment segment : plan(from, to)) {
+            if (segment.source() == RollupRangePlanner.Source.RAW) {
+                parts.add("SELECT oi.product_id, MAX(p.category_id) AS category_id, " +
+                        "MAX(oi.product_name) AS product_name, SUM(oi.quantity) AS units, " +
+                        "SUM(oi.total_price) AS revenue, COUNT(DISTINCT o.id) AS orders " +
+                        "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                        "LEFT JOIN products p ON p.id = oi.product_id " +
+                        "WHERE " + measure.orderCondition() + " AND o.order_date >= ? AND o.order_date < ?" +
+                        (productId != null ? " AND oi.product_id = ?" : " AND oi.product_id IS NOT NULL") +
+                        " GROUP BY oi.product_id");
+                params.add(Timestamp.valueOf(segment.from()));
+                params.add(Timestamp.valueOf(segment.to()));
+            } else {
+                parts.add("SELECT product_id, category_id, product_name, " + prefix + "units AS units, " +
+                        prefix + "revenue AS revenue, " + prefix + "orders AS orders FROM sales_rollups " +
+                        "WHERE grain = ? AND bucket_start >= ? AND bucket_start < ? AND " + prefix + "units > 0" +
+                        (productId != null ? " AND product_id = ?" : ""));
+                params.add(segment.source().name());
+                params.add(Timestamp.valueOf(segment.from()));
+                params.add(Timestamp.valueOf(segment.to()));
+            }
+            if (productId != null) {
+                params.add(productId);
+            }
+        }
+        return parts.isEmpty() ? null : String.join(" UNION ALL ", parts);
+    }
+
+    private List<RollupRangePlanner.Segment> plan(LocalDateTime from, LocalDateTime to) {
+        return RollupRangePlanner.plan(from, to, findWatermark(SALES_WATERMARK).orElse(null), hourlyFrom());
+    }
+
+    /**
+     * Hourly buckets before this time may already have been purged
+     */
+    private LocalDateTime hourlyFrom() {
+        return RollupGrain.DAY.ceil(LocalDateTime.now().minusDays(hourlyRetentionDays));
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,174 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity.RollupGrain;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity.SalesMeasure;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.SalesRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the hourly and daily sales rollups in step with the orders table and
+ * answers the admin sales reports from them.
+ * Each run re-aggregates only the hour buckets holding orders changed since the
+ * watermark (minus a lag for transactions that committed late), then the day
+ * buckets containing them, and moves the watermark to the run start. Reports
+ * read whole buckets up to the watermark and raw rows for the rest of the range.
+ */
+@Service
+@Slf4j
+public class SalesRollupService {
+
+    private static final int BUCKET_CHUNK = 200;
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong hourBucketsRecomputed = new AtomicLong();
+    private final AtomicLong dayBucketsRecomputed = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunMillis;
+
+    @Value("${analytics.rollup.lag-minutes:5}")
+    private int lagMinutes;
+
+    @Value("${analytics.rollup.hourly-retention-days:90}")
+    private int hourlyRetentionDays;
+
+    @Value("${analytics.rollup.recompute-days:3}")
+    private int recomputeDays;
+
+    public SalesRollupService(SalesRollupRepository salesRollupRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Fold orders changed since the last run into the rollups
+     */
+    @Scheduled(initialDelayString = "${analytics.rollup.initial-delay-ms:30000}",
+            fixedDelayString = "${analytics.rollup.interval-ms:60000}")
+    public synchronized void catchUp() {
+        try {
+            LocalDateTime runStart = LocalDateTime.now();
+            long started = System.currentTimeMillis();
+            // Without a watermark every bucket ever written is rebuilt
+            LocalDateTime since = salesRollupRepository.findWatermark(SalesRollupRepository.SALES_WATERMARK)
+                    .map(w -> w.minusMinutes(lagMinutes))
+                    .orElse(LocalDateTime.of(1970, 1, 1, 0, 0));
+
+            List<LocalDateTime> hours = salesRollupRepository.findChangedBuckets(RollupGrain.HOUR, since);
+            int recomputed = recompute(RollupGrain.HOUR, hours);
+            recompute(RollupGrain.DAY, daysOf(hours));
+            salesRollupRepository.saveWatermark(SalesRollupRepository.SALES_WATERMARK, runStart);
+
+            runs.incrementAndGet();
+            lastRunAt = runStart;
+            lastRunMillis = System.currentTimeMillis() - started;
+            if (recomputed > 0) {
+                log.debug("Sales rollup recomputed {} hour buckets in {} ms", recomputed, lastRunMillis);
+            }
+        } catch (Exception e) {
+            log.error("Error updating sales rollups", e);
+        }
+    }
+
+    /**
+     * Rebuild the most recent days, purge hourly buckets past their retention
+     * and drop tombstones of deletions the pipeline has already folded in
+     */
+    @Scheduled(cron = "${analytics.rollup.maintenance-cron:0 15 3 * * *}")
+    public synchronized void maintain() {
+        try {
+            LocalDateTime today = RollupGrain.DAY.floor(LocalDateTime.now());
+            List<LocalDateTime> hours = new ArrayList<>();
+            for (LocalDateTime h = today.minusDays(recomputeDays); h.isBefore(today.plusDays(1)); h = h.plusHours(1)) {
+                hours.add(h);
+            }
+            recompute(RollupGrain.HOUR, hours);
+            recompute(RollupGrain.DAY, daysOf(hours));
+
+            int purged = salesRollupRepository.deleteHourlyBefore(
+                    RollupGrain.DAY.floor(LocalDateTime.now().minusDays(hourlyRetentionDays)));
+            // catchUp re-reads tombstones back to the watermark minus the lag, so older ones are spent
+            salesRollupRepository.findWatermark(SalesRollupRepository.SALES_WATERMARK)
+                    .ifPresent(w -> salesRollupRepository.deleteTombstonesBefore(w.minusMinutes(lagMinutes)));
+            log.info("Sales rollup maintenance rebuilt {} days and purged {} hourly rows", recomputeDays + 1, purged);
+        } catch (Exception e) {
+            log.error("Error maintaining sales rollups", e);
+        }
+    }
+
+    public SalesRollupRepository.RevenueTotals getRevenue(LocalDateTime from, LocalDateTime to) {
+        validateRange(from, to);
+        return salesRollupRepository.findRevenueTotals(from, to);
+    }
+
+    public List<SalesRollupRepository.RevenuePoint> getRevenueSeries(RollupGrain grain, LocalDateTime from, LocalDateTime to) {
+        validateRange(from, to);
+        return salesRollupRepository.findRevenueSeries(grain, from, to);
+    }
+
+    public List<SalesRollupRepository.ProductSales> getTopProducts(SalesMeasure measure, LocalDateTime from,
+                                                                   LocalDateTime to, int limit) {
+        validateRange(from, to);
+        return salesRollupRepository.findTopProducts(measure, from, to, Math.max(1, Math.min(limit, MAX_TOP_PRODUCTS)));
+    }
+
+    public List<SalesRollupRepository.CategorySales> getCategorySales(SalesMeasure measure, LocalDateTime from,
+                                                                      LocalDateTime to) {
+        validateRange(from, to);
+        return salesRollupRepository.findCategorySales(measure, from, to);
+    }
+
+    public RollupStatus getStatus() {
+        return new RollupStatus(
+                salesRollupRepository.findWatermark(SalesRollupRepository.SALES_WATERMARK).orElse(null),
+                lastRunAt,
+                lastRunMillis,
+                runs.get(),
+                hourBucketsRecomputed.get(),
+                dayBucketsRecomputed.get());
+    }
+
+    private int recompute(RollupGrain grain, List<LocalDateTime> buckets) {
+        for (int from = 0; from < buckets.size(); from += BUCKET_CHUNK) {
+            List<LocalDateTime> chunk = buckets.subList(from, Math.min(from + BUCKET_CHUNK, buckets.size()));
+            transactionTemplate.executeWithoutResult(status -> salesRollupRepository.recomputeBuckets(grain, chunk));
+        }
+        (grain == RollupGrain.HOUR ? hourBucketsRecomputed : dayBucketsRecomputed).addAndGet(buckets.size());
+        return buckets.size();
+    }
+
+    private static List<LocalDateTime> daysOf(List<LocalDateTime> hours) {
+        Set<LocalDateTime> days = new TreeSet<>();
+        hours.forEach(h -> days.add(RollupGrain.DAY.floor(h)));
+        return new ArrayList<>(days);
+    }
+
+    private static void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidDataException("'from' must be before 'to'");
+        }
+    }
+
+    public record RollupStatus(
+            LocalDateTime watermark,
+            LocalDateTime lastRunAt,
+            long lastRunMillis,
+            long runs,
+            long hourBucketsRecomputed,
+            long dayBucketsRecomputed
+    ) {}
+}
@@ -42,10 +42,18 @@ public class CartConfig {
         private int abandonedThresholdHours = 24;
         private int expirationDays = 90;
         private int shareLinkExpiryHours = 72;
+        private int shareCacheMaxEntries = 1000;
         private int validationCacheTtlMinutes = 5;
         private boolean priceRefreshOnValidation = true;
         private boolean autoCleanupEnabled = true;
         private boolean mergeOnLogin = true;
+        private int maintenanceChunkSize = 500;
+        private int maintenanceLeaseMinutes = 30;
+        private boolean priceRefreshPipelineEnabled = true;
+        private int priceRefreshBatchSize = 200;
+        private int recommendationWindowDays = 180;
+        private int recommendationTopK = 20;
+        private int recommendationMaxBasketSize = 50;
     }
 }
 
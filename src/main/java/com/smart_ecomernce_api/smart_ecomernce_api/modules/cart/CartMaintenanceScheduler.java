@@ -1,7 +1,9 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart;
 
 
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CartPriceRefreshPipeline;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CartService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.SharedCartStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -20,6 +22,8 @@ public class CartMaintenanceScheduler {
 
     private final CartService cartService;
     private final CartConfig.CartProperties cartProperties;
+    private final SharedCartStore sharedCartStore;
+    private final CartPriceRefreshPipeline priceRefreshPipeline;
 
     /**
      * Mark abandoned carts
@@ -59,6 +63,23 @@ public class CartMaintenanceScheduler {
         }
     }
 
+    /**
+     * Purge expired cart share tokens
+     * Runs every hour at minute 30
+     */
+    @Scheduled(cron = "0 30 * * * *")
+    public void purgeExpiredShareTokens() {
+        log.info("Starting expired share token purge job");
+
+        try {
+            int purgedCount = sharedCartStore.purgeExpired();
+
+            log.info("Purged {} expired cart share tokens", purgedCount);
+        } catch (Exception e) {
+            log.error("Error purging expired cart share tokens", e);
+        }
+    }
+
     /**
      * Send abandoned cart reminders
      * Runs every hour
@@ -80,20 +101,21 @@ public class CartMaintenanceScheduler {
 
     /**
      * Refresh stale cart prices
-     * Runs every 6 hours
+     * Runs every 5 minutes by default
      */
-    @Scheduled(cron = "0 0 */6 * * *")
-    @ConditionalOnProperty(name = "cart.price-refresh-on-validation", havingValue = "true")
+    @Scheduled(fixedDelayString = "${cart.price-refresh-interval-ms:300000}")
     public void refreshStalePrices() {
-        log.info("Starting stale price refresh job");
+        if (!cartProperties.isPriceRefreshPipelineEnabled()) {
+            return;
+        }
+        log.debug("Starting stale price refresh job");
 
         try {
-            // Implementation would query carts with outdated prices
-            // and refresh them
+            int repricedCount = priceRefreshPipeline.refresh();
 
-            log.debug("Stale price refresh job completed");
+            log.debug("Stale price refresh job completed, re-priced {} cart items", repricedCount);
         } catch (Exception e) {
             log.error("Error refreshing stale prices", e);
         }
     }
-}
\ No newline at end of file
+}
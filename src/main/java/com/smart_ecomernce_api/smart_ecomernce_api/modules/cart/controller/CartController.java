@@ -2,6 +2,8 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.controller;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.ApiResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.dto.*;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CartMaintenanceJobs;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CartPriceRefreshPipeline;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CartService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,6 +15,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
  * Optimized Cart REST Controller for Modern E-commerce
  * Provides comprehensive endpoints for shopping cart management
@@ -350,4 +354,26 @@ public class CartController {
         CartDto cartDto = cartService.updateCartStatus(cartId, request.getStatus());
         return ResponseEntity.ok(ApiResponse.success("Cart status updated", cartDto));
     }
-}
\ No newline at end of file
+
+    /**
+     * Cart maintenance job metrics (admin/system endpoint)
+     */
+    @GetMapping("/maintenance/stats")
+    @Operation(summary = "Get maintenance job stats", description = "Progress metrics for the abandoned and expired cart jobs (admin operation)")
+    public ResponseEntity<ApiResponse<Map<String, CartMaintenanceJobs.JobStats>>> getMaintenanceStats() {
+        log.debug("GET /carts/maintenance/stats - Fetching maintenance job stats");
+        Map<String, CartMaintenanceJobs.JobStats> stats = cartService.getMaintenanceStatistics();
+        return ResponseEntity.ok(ApiResponse.success("Cart maintenance stats fetched", stats));
+    }
+
+    /**
+     * Cart price refresh pipeline metrics (admin/system endpoint)
+     */
+    @GetMapping("/maintenance/price-refresh")
+    @Operation(summary = "Get price refresh stats", description = "Progress and lag metrics for background cart re-pricing (admin operation)")
+    public ResponseEntity<ApiResponse<CartPriceRefreshPipeline.PipelineStats>> getPriceRefreshStats() {
+        log.debug("GET /carts/maintenance/price-refresh - Fetching price refresh stats");
+        CartPriceRefreshPipeline.PipelineStats stats = cartService.getPriceRefreshStatistics();
+        return ResponseEntity.ok(ApiResponse.success("Cart price refresh stats fetched", stats));
+    }
+}
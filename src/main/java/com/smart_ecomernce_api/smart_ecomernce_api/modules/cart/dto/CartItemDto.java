@@ -20,4 +20,6 @@ public class CartItemDto {
     private Integer quantity;
     private BigDecimal unitPrice;
     private BigDecimal totalPrice;
+    private boolean priceChanged;
+    private BigDecimal previousUnitPrice;
 }
@@ -0,0 +1,40 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable, compact copy of a cart taken when a share link is created.
+ * Only the fields needed to render and clone the shared cart are kept.
+ */
+public record SharedCartSnapshot(
+        Long cartId,
+        List<Item> items,
+        int itemCount,
+        BigDecimal subtotal,
+        LocalDateTime capturedAt,
+        LocalDateTime expiresAt
+) {
+
+    public SharedCartSnapshot {
+        items = items == null ? List.of() : List.copyOf(items);
+    }
+
+    @JsonIgnore
+    public boolean isExpired() {
+        return expiresAt != null && !expiresAt.isAfter(LocalDateTime.now());
+    }
+
+    public record Item(
+            Long productId,
+            String name,
+            String slug,
+            String imageUrl,
+            BigDecimal unitPrice,
+            int quantity
+    ) {
+    }
+}
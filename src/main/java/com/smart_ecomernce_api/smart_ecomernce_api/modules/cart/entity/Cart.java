@@ -1,6 +1,7 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.money.Money;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
 import jakarta.persistence.*;
@@ -112,6 +113,13 @@ public class Cart extends BaseEntity {
     @Column(name = "notes", length = 1000)
     private String notes;
 
+    /**
+     * Row version for optimistic concurrency; bumped by every conditional cart write
+     */
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    @Builder.Default
+    private Long version = 0L;
+
     /**
      * Add item to cart or update quantity if already exists
      */
@@ -184,32 +192,39 @@ public class Cart extends BaseEntity {
      * Get total price of all items (without discount)
      */
     public BigDecimal getTotalPrice() {
-        if (items == null || items.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-
-        return items.stream()
-                .map(item -> {
-                    if (item.getProduct() == null || item.getProduct().getPrice() == null) {
-                        return BigDecimal.ZERO;
-                    }
-                    BigDecimal price = item.getProduct().getPrice();
-                    return price.multiply(BigDecimal.valueOf(item.getQuantity()));
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return subtotal().toBigDecimal();
     }
 
     /**
      * Get final price after applying discount
      */
     public BigDecimal getFinalPrice() {
-        BigDecimal total = getTotalPrice();
+        return total().toBigDecimal();
+    }
 
-        if (discountAmount != null) {
-            total = total.subtract(discountAmount);
+    /**
+     * Sum of list price times quantity over all items
+     */
+    public Money subtotal() {
+        if (items == null || items.isEmpty()) {
+            return Money.zero();
         }
 
-        return total.max(BigDecimal.ZERO);
+        long minorUnits = 0;
+        for (CartItem item : items) {
+            if (item.getProduct() != null && item.getProduct().getPrice() != null) {
+                minorUnits = Math.addExact(minorUnits,
+                        Money.of(item.getProduct().getPrice()).times(item.getQuantity()).minorUnits());
+            }
+        }
+        return Money.ofMinor(minorUnits);
+    }
+
+    /**
+     * Subtotal less the cart discount, never below zero
+     */
+    public Money total() {
+        return subtotal().minus(Money.ofNullable(discountAmount)).clampAtZero();
     }
 
     /**
@@ -1,17 +1,20 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.money.Money;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(
   name = "cart_items",
-  uniqueConstraints = @UniqueConstraint(columnNames = {"cart_id", "product_id"})
+  uniqueConstraints = @UniqueConstraint(columnNames = {"cart_id", "product_id"}),
+  indexes = @Index(name = "idx_cart_item_product", columnList = "product_id")
 )
 @Getter
 @Setter
@@ -33,6 +36,28 @@ public class CartItem extends BaseEntity {
 
     private BigDecimal totalPrice;
 
+    /**
+     * Unit price the item was last priced at
+     */
+    @Column(name = "unit_price", precision = 10, scale = 2)
+    private BigDecimal unitPrice;
+
+    /**
+     * Set by the price refresh pipeline when the product price moved since the shopper last saw it
+     */
+    @Column(name = "price_changed")
+    @Builder.Default
+    private Boolean priceChanged = false;
+
+    /**
+     * Unit price the shopper saw before the last unacknowledged change
+     */
+    @Column(name = "previous_unit_price", precision = 10, scale = 2)
+    private BigDecimal previousUnitPrice;
+
+    @Column(name = "price_checked_at")
+    private LocalDateTime priceCheckedAt;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -47,10 +72,39 @@ public class CartItem extends BaseEntity {
     }
 
     public BigDecimal getTotalPrice() {
+        return lineTotal().toBigDecimal();
+    }
+
+    /**
+     * Price of one unit: the stored unit price, else the product's list price
+     */
+    public Money unitAmount() {
+        if (unitPrice != null) {
+            return Money.of(unitPrice);
+        }
         if (product == null || product.getPrice() == null) {
-            return BigDecimal.ZERO;
+            return Money.zero();
         }
-        return product.getPrice().multiply(BigDecimal.valueOf(quantity));
+        return Money.of(product.getPrice());
+    }
+
+    public Money lineTotal() {
+        return unitAmount().times(quantity);
+    }
+
+    /**
+     * Re-price the item at the given unit price and clear any pending price-change flag
+     */
+    public void applyPrice(BigDecimal newUnitPrice) {
+        this.unitPrice = newUnitPrice;
+        this.totalPrice = Money.of(newUnitPrice).times(quantity).toBigDecimal();
+        this.priceChanged = false;
+        this.previousUnitPrice = null;
+        this.priceCheckedAt = LocalDateTime.now();
+    }
+
+    public boolean hasPriceChanged() {
+        return Boolean.TRUE.equals(priceChanged);
     }
 
 
@@ -0,0 +1,53 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress checkpoint and leader lease for a chunked cart maintenance job.
+ * One row per job; an interrupted run resumes from lastProcessedId with
+ * the cutoff it started with.
+ */
+@Entity
+@Table(name = "cart_job_checkpoints", indexes = {
+        @Index(name = "idx_cart_job_checkpoint_name", columnList = "job_name", unique = true)
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartJobCheckpoint extends BaseEntity {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+
+    @Column(name = "job_name", nullable = false, unique = true, length = 64)
+    private String jobName;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "cutoff_at")
+    private LocalDateTime cutoffAt;
+
+    @Column(name = "last_processed_id", nullable = false)
+    private Long lastProcessedId;
+
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount;
+
+    @Column(name = "lease_owner", length = 128)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    public boolean isRunning() {
+        return STATUS_RUNNING.equals(status);
+    }
+}
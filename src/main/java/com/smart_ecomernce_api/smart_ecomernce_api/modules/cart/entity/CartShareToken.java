@@ -0,0 +1,39 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Share token issued for a cart.
+ * Holds a frozen JSON snapshot of the cart so shared links are served
+ * without reading the live cart rows.
+ */
+@Entity
+@Table(name = "cart_share_tokens", indexes = {
+        @Index(name = "idx_cart_share_token_token", columnList = "token", unique = true),
+        @Index(name = "idx_cart_share_token_cart", columnList = "cart_id"),
+        @Index(name = "idx_cart_share_token_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartShareToken extends BaseEntity {
+
+    @Column(name = "token", nullable = false, unique = true, length = 64)
+    private String token;
+
+    @Column(name = "cart_id", nullable = false)
+    private Long cartId;
+
+    @Column(name = "snapshot", nullable = false, columnDefinition = "TEXT")
+    private String snapshot;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -35,6 +35,7 @@ public interface CartMapper {
     List<CartDto> toDtoList(List<Cart> carts);
 
     @Mapping(target = "totalPrice", expression = "java(cartItem.getTotalPrice())")
+    @Mapping(target = "priceChanged", expression = "java(cartItem.hasPriceChanged())")
     CartItemDto toDto(CartItem cartItem);
 
     List<CartItemDto> toCartItemDtoList(List<CartItem> cartItems);
@@ -0,0 +1,35 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.CartJobCheckpoint;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * JDBC Repository for cart maintenance job checkpoints and leader leases
+ */
+public interface CartJobCheckpointRepository {
+
+    /**
+     * Try to take (or renew) the lease on a job; succeeds if the lease is free,
+     * expired, or already held by the same owner
+     */
+    boolean tryAcquireLease(String jobName, String owner, LocalDateTime leaseExpiresAt);
+
+    /**
+     * Release the lease if it is still held by the owner
+     */
+    void releaseLease(String jobName, String owner);
+
+    /**
+     * Find the checkpoint row for a job
+     */
+    Optional<CartJobCheckpoint> findByJobName(String jobName);
+
+    /**
+     * Record progress for a job while holding its lease
+     * @return false if the lease was lost to another node
+     */
+    boolean saveProgress(String jobName, String owner, String status, LocalDateTime cutoffAt,
+                         long lastProcessedId, long processedCount, LocalDateTime leaseExpiresAt);
+}
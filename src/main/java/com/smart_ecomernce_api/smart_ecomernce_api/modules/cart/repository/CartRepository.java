@@ -5,6 +5,7 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.CartItem;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.CartStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -40,9 +41,34 @@ public interface CartRepository {
 
     boolean deleteById(Long id);
 
+    /**
+     * Mark the next chunk of non-empty ACTIVE carts idle since the cutoff as ABANDONED.
+     * Walks carts in id order after {@code afterId}; rows locked by other sessions are skipped.
+     * @return ids of the carts updated in this chunk
+     */
+    List<Long> markAbandonedChunk(LocalDateTime cutoffDate, long afterId, int limit);
+
+    /**
+     * Delete the next chunk of empty carts idle since the cutoff, in id order after {@code afterId}
+     * @return ids of the carts deleted in this chunk
+     */
+    List<Long> deleteEmptyCartsChunk(LocalDateTime cutoffDate, long afterId, int limit);
+
 
     CartItem saveCartItem(CartItem cartItem);
 
+    /**
+     * Products referenced by any cart item that changed after the (changedAt, productId) watermark,
+     * oldest first
+     */
+    List<ProductChange> findChangedProductsInCarts(LocalDateTime afterChangedAt, long afterProductId, int limit);
+
+    /**
+     * Re-price the items of ACTIVE carts holding any of the given products, flagging those whose price moved
+     * @return cart id of every item re-priced (one entry per item)
+     */
+    List<Long> repriceItemsForProducts(Collection<Long> productIds);
+
 
 
     List<CartItem> findCartItemsByCartId(Long cartId);
@@ -60,4 +86,9 @@ public interface CartRepository {
     List<Cart> findAll(int limit, int offset);
 
     List<Cart> findAll();
+
+    /**
+     * A product change seen by the price refresh pipeline
+     */
+    record ProductChange(Long productId, LocalDateTime changedAt) {}
 }
\ No newline at end of file
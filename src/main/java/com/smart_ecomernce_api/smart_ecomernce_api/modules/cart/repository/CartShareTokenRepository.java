@@ -0,0 +1,27 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.CartShareToken;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * JDBC Repository for cart share tokens
+ */
+public interface CartShareTokenRepository {
+
+    /**
+     * Persist a new share token with its snapshot
+     */
+    CartShareToken save(CartShareToken shareToken);
+
+    /**
+     * Find a share token that has not yet expired
+     */
+    Optional<CartShareToken> findActiveByToken(String token);
+
+    /**
+     * Delete all tokens that expired before the given time
+     */
+    int deleteExpiredBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,124 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils.QueryResult;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.CartJobCheckpoint;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository.CartJobCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC-based implementation of CartJobCheckpointRepository
+ */
+@Repository
+public class CartJobCheckpointRepositoryImpl implements CartJobCheckpointRepository {
+    private static final Logger logger = LoggerFactory.getLogger(CartJobCheckpointRepositoryImpl.class);
+
+    private final JdbcUtils jdbcUtils;
+
+    public CartJobCheckpointRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    private final RowMapper<CartJobCheckpoint> rowMapper = (rs, rowNum) -> {
+        CartJobCheckpoint checkpoint = new CartJobCheckpoint();
+        checkpoint.setId(rs.getLong("id"));
+        checkpoint.setJobName(rs.getString("job_name"));
+        checkpoint.setStatus(rs.getString("status"));
+        checkpoint.setLastProcessedId(rs.getLong("last_processed_id"));
+        checkpoint.setProcessedCount(rs.getLong("processed_count"));
+        checkpoint.setLeaseOwner(rs.getString("lease_owner"));
+
+        Timestamp cutoffAt = rs.getTimestamp("cutoff_at");
+        if (cutoffAt != null) {
+            checkpoint.setCutoffAt(cutoffAt.toLocalDateTime());
+        }
+        Timestamp leaseExpiresAt = rs.getTimestamp("lease_expires_at");
+        if (leaseExpiresAt != null) {
+            checkpoint.setLeaseExpiresAt(leaseExpiresAt.toLocalDateTime());
+        }
+        return checkpoint;
+    };
+
+    @Override
+    public boolean tryAcquireLease(String jobName, String owner, LocalDateTime leaseExpiresAt) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        String insertSql = """
+                INSERT INTO cart_job_checkpoints
+                    (job_name, status, last_processed_id, processed_count, is_active, created_at, updated_at)
+                VALUES (?, ?, 0, 0, true, ?, ?)
+                ON CONFLICT (job_name) DO NOTHING
+                """;
+        jdbcUtils.executePreparedQuery(insertSql, jobName, CartJobCheckpoint.STATUS_COMPLETED, now, now);
+
+        String leaseSql = """
+                UPDATE cart_job_checkpoints
+                SET lease_owner = ?, lease_expires_at = ?, updated_at = ?
+                WHERE job_name = ?
+                  AND (lease_owner IS NULL OR lease_expires_at < ? OR lease_owner = ?)
+                """;
+        QueryResult result = jdbcUtils.executePreparedQuery(leaseSql,
+                owner, Timestamp.valueOf(leaseExpiresAt), now, jobName, now, owner);
+
+        if (result.hasError()) {
+            logger.error("Failed to acquire lease for job {}: {}", jobName, result.getError());
+            return false;
+        }
+        return result.getAffectedRows() > 0;
+    }
+
+    @Override
+    public void releaseLease(String jobName, String owner) {
+        String sql = """
+                UPDATE cart_job_checkpoints
+                SET lease_owner = NULL, lease_expires_at = NULL, updated_at = ?
+                WHERE job_name = ? AND lease_owner = ?
+                """;
+        jdbcUtils.executePreparedQuery(sql, Timestamp.valueOf(LocalDateTime.now()), jobName, owner);
+    }
+
+    @Override
+    public Optional<CartJobCheckpoint> findByJobName(String jobName) {
+        String sql = """
+                SELECT id, job_name, status, cutoff_at, last_processed_id, processed_count,
+                       lease_owner, lease_expires_at
+                FROM cart_job_checkpoints
+                WHERE job_name = ?
+                """;
+        List<CartJobCheckpoint> rows = jdbcUtils.query(sql, rowMapper, jobName);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    @Override
+    public boolean saveProgress(String jobName, String owner, String status, LocalDateTime cutoffAt,
+                                long lastProcessedId, long processedCount, LocalDateTime leaseExpiresAt) {
+        String sql = """
+                UPDATE cart_job_checkpoints
+                SET status = ?, cutoff_at = ?, last_processed_id = ?, processed_count = ?,
+                    lease_expires_at = ?, updated_at = ?
+                WHERE job_name = ? AND lease_owner = ?
+                """;
+        QueryResult result = jdbcUtils.executePreparedQuery(sql,
+                status,
+                cutoffAt != null ? Timestamp.valueOf(cutoffAt) : null,
+                lastProcessedId,
+                processedCount,
+                Timestamp.valueOf(leaseExpiresAt),
+                Timestamp.valueOf(LocalDateTime.now()),
+                jobName,
+                owner);
+
+        if (result.hasError()) {
+            throw new IllegalStateException("Failed to save checkpoint for job " + jobName + ": " + result.getError());
+        }
+        return result.getAffectedRows() > 0;
+    }
+}
@@ -12,6 +12,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.jdbc.core.RowMapper;
 
 import org.springframework.stereotype.Repository;
@@ -41,12 +42,12 @@ public class CartRepositoryImpl implements CartRepository {
 
     // Base SELECT queries
     private static final String CART_BASE_SELECT =
-            "SELECT id, session_id, status, user_id, coupon_code, discount_amount, " +
+            "SELECT id, session_id, status, user_id, coupon_code, discount_amount, version, " +
                     "is_active, created_at, updated_at FROM " + CART_TABLE;
 
     private static final String CART_ITEM_BASE_SELECT =
-            "SELECT id, cart_id, product_id, quantity, total_price, " +
-                    "is_active, created_at, updated_at FROM " + CART_ITEM_TABLE;
+            "SELECT id, cart_id, product_id, quantity, total_price, unit_price, price_changed, " +
+                    "previous_unit_price, price_checked_at, is_active, created_at, updated_at FROM " + CART_ITEM_TABLE;
 
     public CartRepositoryImpl(JdbcUtils jdbcUtils) {
         this.jdbcUtils = jdbcUtils;
@@ -74,6 +75,7 @@ public class CartRepositoryImpl implements CartRepository {
 
         cart.setCouponCode(rs.getString("coupon_code"));
         cart.setDiscountAmount(rs.getBigDecimal("discount_amount"));
+        cart.setVersion(rs.getLong("version"));
         cart.setIsActive(rs.getBoolean("is_active"));
 
         Timestamp createdAt = rs.getTimestamp("created_at");
@@ -172,6 +174,15 @@ public class CartRepositoryImpl implements CartRepository {
 
         item.setQuantity(rs.getInt("quantity"));
         item.setTotalPrice(rs.getBigDecimal("total_price"));
+        try {
+            item.setUnitPrice(rs.getBigDecimal("unit_price"));
+            item.setPriceChanged(rs.getBoolean("price_changed"));
+            item.setPreviousUnitPrice(rs.getBigDecimal("previous_unit_price"));
+            Timestamp priceCheckedAt = rs.getTimestamp("price_checked_at");
+            if (priceCheckedAt != null) {
+                item.setPriceCheckedAt(priceCheckedAt.toLocalDateTime());
+            }
+        } catch (Exception ignored) {}
         item.setIsActive(rs.getBoolean("is_active"));
 
         Timestamp createdAt = rs.getTimestamp("created_at");
@@ -196,6 +207,7 @@ public class CartRepositoryImpl implements CartRepository {
             entityManager.persist(cart);
             return cart;
         } else {
+            claimVersion(cart);
             return entityManager.merge(cart);
         }
     }
@@ -203,9 +215,27 @@ public class CartRepositoryImpl implements CartRepository {
     @Override
     @Transactional
     public Cart update(Cart cart) {
+        claimVersion(cart);
         return entityManager.merge(cart);
     }
 
+    /**
+     * Conditionally bump the cart version so that only one of several concurrent
+     * writers based on the same read can proceed; the others fail fast
+     */
+    private void claimVersion(Cart cart) {
+        long expected = cart.getVersion() != null ? cart.getVersion() : 0L;
+        String query = "UPDATE " + CART_TABLE + " SET version = version + 1 WHERE id = ? AND version = ?";
+        QueryResult result = jdbcUtils.executePreparedQuery(query, cart.getId(), expected);
+
+        if (result.hasError() || result.getAffectedRows() == 0) {
+            logger.debug("Version conflict on cart {} (expected version {})", cart.getId(), expected);
+            throw new OptimisticLockingFailureException(
+                    "Cart " + cart.getId() + " was modified concurrently, please retry");
+        }
+        cart.setVersion(expected + 1);
+    }
+
     @Override
     public Optional<Cart> findById(Long id) {
         String query = CART_BASE_SELECT + " WHERE id = ?";
@@ -262,6 +292,48 @@ public class CartRepositoryImpl implements CartRepository {
         return jdbcUtils.query(query, cartRowMapper, Timestamp.valueOf(cutoffDate));
     }
 
+    @Override
+    public List<Long> markAbandonedChunk(LocalDateTime cutoffDate, long afterId, int limit) {
+        String query = """
+                UPDATE carts SET status = ?, updated_at = ?, version = version + 1
+                WHERE id IN (
+                    SELECT c.id FROM carts c
+                    WHERE c.status = ? AND c.is_active = true
+                      AND c.updated_at < ? AND c.id > ?
+                      AND EXISTS (SELECT 1 FROM cart_items ci WHERE ci.cart_id = c.id)
+                    ORDER BY c.id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id
+                """;
+        return jdbcUtils.getJdbcTemplate().queryForList(query, Long.class,
+                CartStatus.ABANDONED.name(),
+                Timestamp.valueOf(LocalDateTime.now()),
+                CartStatus.ACTIVE.name(),
+                Timestamp.valueOf(cutoffDate),
+                afterId,
+                limit);
+    }
+
+    @Override
+    public List<Long> deleteEmptyCartsChunk(LocalDateTime cutoffDate, long afterId, int limit) {
+        String query = """
+                DELETE FROM carts
+                WHERE id IN (
+                    SELECT c.id FROM carts c
+                    WHERE c.updated_at < ? AND c.is_active = true AND c.id > ?
+                      AND NOT EXISTS (SELECT 1 FROM cart_items ci WHERE ci.cart_id = c.id)
+                    ORDER BY c.id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id
+                """;
+        return jdbcUtils.getJdbcTemplate().queryForList(query, Long.class,
+                Timestamp.valueOf(cutoffDate), afterId, limit);
+    }
+
     @Override
     @Transactional
     public boolean deleteById(Long id) {
@@ -317,6 +389,64 @@ public class CartRepositoryImpl implements CartRepository {
         }
     }
 
+    @Override
+    public List<ProductChange> findChangedProductsInCarts(LocalDateTime afterChangedAt, long afterProductId, int limit) {
+        String query = """
+                SELECT p.id, p.updated_at FROM products p
+                WHERE (p.updated_at, p.id) > (?, ?)
+                  AND EXISTS (SELECT 1 FROM cart_items ci WHERE ci.product_id = p.id)
+                ORDER BY p.updated_at, p.id
+                LIMIT ?
+                """;
+        return jdbcUtils.query(query,
+                (rs, rowNum) -> new ProductChange(rs.getLong("id"), rs.getTimestamp("updated_at").toLocalDateTime()),
+                Timestamp.valueOf(afterChangedAt), afterProductId, limit);
+    }
+
+    @Override
+    public List<Long> repriceItemsForProducts(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Effective price mirrors Product.getEffectivePrice(); the flag stays set until the item is re-priced
+        // by the shopper, and is cleared again if the price returns to what they last saw
+        String query = """
+                WITH repriced AS (
+                    UPDATE cart_items ci
+                    SET unit_price = eff.price,
+                        total_price = eff.price * ci.quantity,
+                        previous_unit_price = CASE
+                            WHEN ci.unit_price IS NOT NULL
+                                 AND COALESCE(ci.previous_unit_price, ci.unit_price) <> eff.price
+                            THEN COALESCE(ci.previous_unit_price, ci.unit_price) END,
+                        price_changed = ci.unit_price IS NOT NULL
+                            AND COALESCE(ci.previous_unit_price, ci.unit_price) <> eff.price,
+                        price_checked_at = :now
+                    FROM (
+                        SELECT p.id,
+                               CASE WHEN p.discount_price IS NOT NULL AND p.discount_price < p.price
+                                    THEN p.discount_price ELSE p.price END AS price
+                        FROM products p
+                        WHERE p.id IN (:productIds)
+                    ) eff, carts c
+                    WHERE ci.product_id = eff.id
+                      AND c.id = ci.cart_id
+                      AND c.status = :status
+                      AND ci.unit_price IS DISTINCT FROM eff.price
+                    RETURNING ci.cart_id
+                ), bumped AS (
+                    UPDATE carts SET version = version + 1
+                    WHERE id IN (SELECT DISTINCT cart_id FROM repriced)
+                )
+                SELECT cart_id FROM repriced
+                """;
+        Map<String, Object> params = new HashMap<>();
+        params.put("now", Timestamp.valueOf(LocalDateTime.now()));
+        params.put("productIds", productIds);
+        params.put("status", CartStatus.ACTIVE.name());
+        return jdbcUtils.getNamedParameterJdbcTemplate().queryForList(query, params, Long.class);
+    }
+
     @Override
     public List<CartItem> findCartItemsByCartId(Long cartId) {
         String query = "SELECT ci.*, " +
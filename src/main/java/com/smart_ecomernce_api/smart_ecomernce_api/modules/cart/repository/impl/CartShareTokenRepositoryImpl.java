@@ -0,0 +1,100 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils.QueryResult;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.CartShareToken;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository.CartShareTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC-based implementation of CartShareTokenRepository
+ */
+@Repository
+public class CartShareTokenRepositoryImpl implements CartShareTokenRepository {
+    private static final Logger logger = LoggerFactory.getLogger(CartShareTokenRepositoryImpl.class);
+
+    private static final String TABLE = "cart_share_tokens";
+
+    private final JdbcUtils jdbcUtils;
+
+    public CartShareTokenRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    private final RowMapper<CartShareToken> rowMapper = (rs, rowNum) -> {
+        CartShareToken token = new CartShareToken();
+        token.setId(rs.getLong("id"));
+        token.setToken(rs.getString("token"));
+        token.setCartId(rs.getLong("cart_id"));
+        token.setSnapshot(rs.getString("snapshot"));
+        token.setIsActive(rs.getBoolean("is_active"));
+
+        Timestamp expiresAt = rs.getTimestamp("expires_at");
+        if (expiresAt != null) {
+            token.setExpiresAt(expiresAt.toLocalDateTime());
+        }
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            token.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        if (updatedAt != null) {
+            token.setUpdatedAt(updatedAt.toLocalDateTime());
+        }
+        return token;
+    };
+
+    @Override
+    public CartShareToken save(CartShareToken shareToken) {
+        LocalDateTime now = LocalDateTime.now();
+        String sql = "INSERT INTO " + TABLE +
+                " (token, cart_id, snapshot, expires_at, is_active, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, true, ?, ?)";
+
+        QueryResult result = jdbcUtils.executePreparedQuery(sql,
+                shareToken.getToken(),
+                shareToken.getCartId(),
+                shareToken.getSnapshot(),
+                Timestamp.valueOf(shareToken.getExpiresAt()),
+                Timestamp.valueOf(now),
+                Timestamp.valueOf(now));
+
+        if (result.hasError()) {
+            logger.error("Failed to save share token for cart {}: {}", shareToken.getCartId(), result.getError());
+            throw new RuntimeException("Failed to save share token: " + result.getError());
+        }
+
+        shareToken.setId(result.getGeneratedKey());
+        shareToken.setIsActive(true);
+        shareToken.setCreatedAt(now);
+        shareToken.setUpdatedAt(now);
+        return shareToken;
+    }
+
+    @Override
+    public Optional<CartShareToken> findActiveByToken(String token) {
+        String sql = """
+                SELECT id, token, cart_id, snapshot, expires_at, is_active, created_at, updated_at
+                FROM cart_share_tokens
+                WHERE token = ? AND is_active = true AND expires_at > ?
+                """;
+        List<CartShareToken> tokens = jdbcUtils.query(sql, rowMapper,
+                token, Timestamp.valueOf(LocalDateTime.now()));
+        return tokens.isEmpty() ? Optional.empty() : Optional.of(tokens.get(0));
+    }
+
+    @Override
+    public int deleteExpiredBefore(LocalDateTime cutoff) {
+        String sql = "DELETE FROM " + TABLE + " WHERE expires_at <= ?";
+        QueryResult result = jdbcUtils.executePreparedQuery(sql, Timestamp.valueOf(cutoff));
+        return result.hasError() ? 0 : result.getAffectedRows();
+    }
+}
@@ -0,0 +1,263 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.CartConfig;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.CartJobCheckpoint;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository.CartJobCheckpointRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository.CartRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chunked, set-based cart maintenance jobs.
+ * Each chunk is a single UPDATE/DELETE ... RETURNING statement committed in
+ * its own short transaction together with the job checkpoint. A lease on the
+ * checkpoint row keeps only one node running a given job at a time, and an
+ * interrupted run resumes from its last checkpoint on the next start.
+ */
+@Component
+@Slf4j
+public class CartMaintenanceJobs {
+
+    public static final String MARK_ABANDONED_JOB = "cart-mark-abandoned";
+    public static final String CLEANUP_EXPIRED_JOB = "cart-cleanup-expired";
+
+    private final CartRepository cartRepository;
+    private final CartJobCheckpointRepository checkpointRepository;
+    private final CartConfig.CartProperties cartProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final Map<String, JobMetrics> metrics = new ConcurrentHashMap<>();
+
+    public CartMaintenanceJobs(CartRepository cartRepository,
+                               CartJobCheckpointRepository checkpointRepository,
+                               CartConfig.CartProperties cartProperties,
+                               PlatformTransactionManager transactionManager) {
+        this.cartRepository = cartRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.cartProperties = cartProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = resolveNodeId();
+    }
+
+    /**
+     * Mark non-empty carts idle for longer than the threshold as abandoned
+     * @return number of carts marked in this run (0 if another node holds the job)
+     */
+    public int markAbandonedCarts(int abandonedThresholdHours) {
+        return run(MARK_ABANDONED_JOB,
+                LocalDateTime.now().minusHours(abandonedThresholdHours),
+                cartRepository::markAbandonedChunk);
+    }
+
+    /**
+     * Delete empty carts idle for longer than the expiration period
+     * @return number of carts deleted in this run (0 if another node holds the job)
+     */
+    public int cleanupExpiredCarts(int expirationDays) {
+        return run(CLEANUP_EXPIRED_JOB,
+                LocalDateTime.now().minusDays(expirationDays),
+                cartRepository::deleteEmptyCartsChunk);
+    }
+
+    /**
+     * Progress metrics for every job run on this node
+     */
+    public Map<String, JobStats> getStatistics() {
+        Map<String, JobStats> stats = new ConcurrentHashMap<>();
+        metrics.forEach((job, m) -> stats.put(job, m.snapshot()));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private int run(String jobName, LocalDateTime freshCutoff, ChunkOperation operation) {
+        JobMetrics jobMetrics = metrics.computeIfAbsent(jobName, k -> new JobMetrics());
+
+        if (!checkpointRepository.tryAcquireLease(jobName, nodeId, nextLeaseExpiry())) {
+            log.info("Skipping job {}: lease is held by another node", jobName);
+            jobMetrics.skippedRuns.incrementAndGet();
+            return 0;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        jobMetrics.runStarted();
+        int runProcessed = 0;
+
+        try {
+            CartJobCheckpoint checkpoint = checkpointRepository.findByJobName(jobName)
+                    .orElseThrow(() -> new IllegalStateException("Checkpoint row missing for job " + jobName));
+
+            boolean resume = checkpoint.isRunning() && checkpoint.getCutoffAt() != null;
+            LocalDateTime cutoff = resume ? checkpoint.getCutoffAt() : freshCutoff;
+            long lastId = resume ? checkpoint.getLastProcessedId() : 0L;
+            long processed = resume ? checkpoint.getProcessedCount() : 0L;
+
+            if (resume) {
+                log.info("Resuming job {} after id {} ({} rows already processed)", jobName, lastId, processed);
+            }
+
+            int chunkSize = Math.max(1, cartProperties.getMaintenanceChunkSize());
+
+            while (true) {
+                final long afterId = lastId;
+                final long processedSoFar = processed;
+
+                List<Long> ids = transactionTemplate.execute(status -> {
+                    List<Long> chunk = operation.apply(cutoff, afterId, chunkSize);
+                    if (chunk.isEmpty()) {
+                        return chunk;
+                    }
+                    long maxId = chunk.stream().mapToLong(Long::longValue).max().orElse(afterId);
+                    boolean leaseHeld = checkpointRepository.saveProgress(jobName, nodeId,
+                            CartJobCheckpoint.STATUS_RUNNING, cutoff, maxId,
+                            processedSoFar + chunk.size(), nextLeaseExpiry());
+                    if (!leaseHeld) {
+                        // Another node took over; roll back this chunk and stop
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return chunk;
+                });
+
+                if (ids == null) {
+                    log.warn("Job {} lost its lease; stopping at id {}", jobName, lastId);
+                    jobMetrics.leaseLosses.incrementAndGet();
+                    return runProcessed;
+                }
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                lastId = ids.stream().mapToLong(Long::longValue).max().orElse(lastId);
+                processed += ids.size();
+                runProcessed += ids.size();
+                jobMetrics.chunkCompleted(ids.size());
+
+                log.debug("Job {} chunk done: {} rows, checkpoint at id {}", jobName, ids.size(), lastId);
+            }
+
+            checkpointRepository.saveProgress(jobName, nodeId, CartJobCheckpoint.STATUS_COMPLETED,
+                    cutoff, lastId, processed, nextLeaseExpiry());
+
+            log.info("Job {} completed: {} rows in {} ms", jobName, runProcessed,
+                    System.currentTimeMillis() - startedAt);
+            return runProcessed;
+
+        } catch (RuntimeException e) {
+            jobMetrics.failures.incrementAndGet();
+            jobMetrics.lastError = e.getMessage();
+            throw e;
+        } finally {
+            jobMetrics.runFinished(runProcessed, System.currentTimeMillis() - startedAt);
+            checkpointRepository.releaseLease(jobName, nodeId);
+        }
+    }
+
+    private LocalDateTime nextLeaseExpiry() {
+        return LocalDateTime.now().plusMinutes(cartProperties.getMaintenanceLeaseMinutes());
+    }
+
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown-host";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * One set-based chunk: process up to {@code limit} rows with id greater than {@code afterId}
+     */
+    @FunctionalInterface
+    private interface ChunkOperation {
+        List<Long> apply(LocalDateTime cutoff, long afterId, int limit);
+    }
+
+    /**
+     * Per-job counters
+     */
+    private static class JobMetrics {
+        private final AtomicLong totalRuns = new AtomicLong();
+        private final AtomicLong skippedRuns = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong leaseLosses = new AtomicLong();
+        private final AtomicLong totalChunks = new AtomicLong();
+        private final AtomicLong totalRowsProcessed = new AtomicLong();
+        private final AtomicLong currentRunRows = new AtomicLong();
+        private volatile boolean running;
+        private volatile long lastRunRows;
+        private volatile long lastRunDurationMs;
+        private volatile LocalDateTime lastRunStartedAt;
+        private volatile LocalDateTime lastRunFinishedAt;
+        private volatile String lastError;
+
+        void runStarted() {
+            totalRuns.incrementAndGet();
+            currentRunRows.set(0);
+            running = true;
+            lastRunStartedAt = LocalDateTime.now();
+            lastError = null;
+        }
+
+        void chunkCompleted(int rows) {
+            totalChunks.incrementAndGet();
+            totalRowsProcessed.addAndGet(rows);
+            currentRunRows.addAndGet(rows);
+        }
+
+        void runFinished(long rows, long durationMs) {
+            running = false;
+            lastRunRows = rows;
+            lastRunDurationMs = durationMs;
+            lastRunFinishedAt = LocalDateTime.now();
+        }
+
+        JobStats snapshot() {
+            return new JobStats(
+                    totalRuns.get(),
+                    skippedRuns.get(),
+                    failures.get(),
+                    leaseLosses.get(),
+                    totalChunks.get(),
+                    totalRowsProcessed.get(),
+                    running,
+                    currentRunRows.get(),
+                    lastRunRows,
+                    lastRunDurationMs,
+                    lastRunStartedAt,
+                    lastRunFinishedAt,
+                    lastError
+            );
+        }
+    }
+
+    /**
+     * Job statistics record
+     */
+    public record JobStats(
+            long totalRuns,
+            long skippedRuns,
+            long failures,
+            long leaseLosses,
+            long totalChunks,
+            long totalRowsProcessed,
+            boolean running,
+            long currentRunRows,
+            long lastRunRows,
+            long lastRunDurationMs,
+            LocalDateTime lastRunStartedAt,
+            LocalDateTime lastRunFinishedAt,
+            String lastError
+    ) {}
+}
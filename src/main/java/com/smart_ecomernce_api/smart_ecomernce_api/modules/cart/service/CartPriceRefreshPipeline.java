@@ -0,0 +1,165 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.CartConfig;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository.CartRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository.CartRepository.ProductChange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background cart re-pricing.
+ * Changed products are picked up from a (updated_at, id) watermark over the
+ * products table, or pushed directly via {@link #notifyPriceChanged}. Affected
+ * cart items are found through the cart_items(product_id) index and re-priced
+ * in set-based batches, flagging items whose price moved so the UI can show it.
+ */
+@Component
+@Slf4j
+public class CartPriceRefreshPipeline {
+
+    private final CartRepository cartRepository;
+    private final CartConfig.CartProperties cartProperties;
+
+    /** productId -> time the change was first seen */
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime watermarkChangedAt;
+    private volatile long watermarkProductId;
+
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong productsProcessed = new AtomicLong();
+    private final AtomicLong itemsRepriced = new AtomicLong();
+    private final AtomicLong cartsAffected = new AtomicLong();
+    private volatile long lastRunLagMs;
+    private volatile long maxLagMs;
+    private volatile LocalDateTime lastRunAt;
+
+    public CartPriceRefreshPipeline(CartRepository cartRepository, CartConfig.CartProperties cartProperties) {
+        this.cartRepository = cartRepository;
+        this.cartProperties = cartProperties;
+        // Carts idle past the abandonment threshold are not worth re-pricing on startup
+        this.watermarkChangedAt = LocalDateTime.now().minusHours(cartProperties.getAbandonedThresholdHours());
+        this.watermarkProductId = 0L;
+    }
+
+    /**
+     * Queue products whose price changed for re-pricing on the next run
+     */
+    public void notifyPriceChanged(Collection<Long> productIds) {
+        LocalDateTime now = LocalDateTime.now();
+        productIds.forEach(id -> pending.putIfAbsent(id, now));
+    }
+
+    /**
+     * Pull product changes past the watermark and re-price affected carts in batches
+     * @return number of cart items re-priced
+     */
+    public synchronized int refresh() {
+        int batchSize = Math.max(1, cartProperties.getPriceRefreshBatchSize());
+
+        while (true) {
+            List<ProductChange> changes = cartRepository.findChangedProductsInCarts(
+                    watermarkChangedAt, watermarkProductId, batchSize);
+            if (changes.isEmpty()) {
+                break;
+            }
+            changes.forEach(change -> pending.merge(change.productId(), change.changedAt(),
+                    (existing, incoming) -> existing.isBefore(incoming) ? existing : incoming));
+
+            ProductChange last = changes.get(changes.size() - 1);
+            watermarkChangedAt = last.changedAt();
+            watermarkProductId = last.productId();
+
+            if (changes.size() < batchSize) {
+                break;
+            }
+        }
+
+        return drain(batchSize);
+    }
+
+    private int drain(int batchSize) {
+        totalRuns.incrementAndGet();
+        lastRunAt = LocalDateTime.now();
+
+        if (pending.isEmpty()) {
+            lastRunLagMs = 0;
+            return 0;
+        }
+
+        int repriced = 0;
+        long runLag = 0;
+        List<Long> productIds = new ArrayList<>(pending.keySet());
+
+        for (int from = 0; from < productIds.size(); from += batchSize) {
+            List<Long> batch = productIds.subList(from, Math.min(from + batchSize, productIds.size()));
+
+            List<Long> cartIds = cartRepository.repriceItemsForProducts(batch);
+
+            LocalDateTime now = LocalDateTime.now();
+            for (Long productId : batch) {
+                LocalDateTime seenAt = pending.remove(productId);
+                if (seenAt != null) {
+                    runLag = Math.max(runLag, Duration.between(seenAt, now).toMillis());
+                }
+            }
+
+            repriced += cartIds.size();
+            productsProcessed.addAndGet(batch.size());
+            itemsRepriced.addAndGet(cartIds.size());
+            cartsAffected.addAndGet(new HashSet<>(cartIds).size());
+        }
+
+        lastRunLagMs = runLag;
+        maxLagMs = Math.max(maxLagMs, runLag);
+
+        log.info("Price refresh re-priced {} cart items across {} products (lag {} ms)",
+                repriced, productIds.size(), runLag);
+        return repriced;
+    }
+
+    /**
+     * Pipeline progress and lag metrics
+     */
+    public PipelineStats getStatistics() {
+        long oldestPendingMs = pending.values().stream()
+                .min(Comparator.naturalOrder())
+                .map(seenAt -> Duration.between(seenAt, LocalDateTime.now()).toMillis())
+                .orElse(0L);
+
+        return new PipelineStats(
+                totalRuns.get(),
+                productsProcessed.get(),
+                itemsRepriced.get(),
+                cartsAffected.get(),
+                pending.size(),
+                oldestPendingMs,
+                lastRunLagMs,
+                maxLagMs,
+                lastRunAt,
+                watermarkChangedAt
+        );
+    }
+
+    /**
+     * Price refresh statistics record
+     */
+    public record PipelineStats(
+            long totalRuns,
+            long productsProcessed,
+            long itemsRepriced,
+            long cartsAffected,
+            int pendingProducts,
+            long oldestPendingMs,
+            long lastRunLagMs,
+            long maxLagMs,
+            LocalDateTime lastRunAt,
+            LocalDateTime watermark
+    ) {}
+}
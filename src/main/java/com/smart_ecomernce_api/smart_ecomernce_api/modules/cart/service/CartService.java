@@ -2,6 +2,8 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.dto.*;
 
+import java.util.Map;
+
 /**
  * Optimized Cart Service Interface for Modern E-commerce
  * Provides comprehensive cart management operations
@@ -158,6 +160,16 @@ public interface CartService {
      */
     int cleanupExpiredCarts(int expirationDays);
 
+    /**
+     * Progress metrics for the cart maintenance jobs
+     */
+    Map<String, CartMaintenanceJobs.JobStats> getMaintenanceStatistics();
+
+    /**
+     * Progress and lag metrics for the background cart price refresh
+     */
+    CartPriceRefreshPipeline.PipelineStats getPriceRefreshStatistics();
+
     /**
      * Refresh cart item prices
      */
@@ -0,0 +1,241 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service;
+
+import java.util.*;
+
+/**
+ * Immutable top-K co-purchase neighbor index.
+ * Product ids are kept sorted in a long[] and looked up by binary search; for
+ * each product its neighbors are stored as positions into that array
+ * (int[]) with parallel float[] scores, highest score first.
+ */
+public final class CoPurchaseIndex {
+
+    private static final CoPurchaseIndex EMPTY =
+            new CoPurchaseIndex(new long[0], new int[0][], new float[0][]);
+
+    private final long[] productIds;
+    private final int[][] neighbors;
+    private final float[][] scores;
+
+    private CoPurchaseIndex(long[] productIds, int[][] neighbors, float[][] scores) {
+        this.productIds = productIds;
+        this.neighbors = neighbors;
+        this.scores = scores;
+    }
+
+    public static CoPurchaseIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Number of products that have at least one neighbor
+     */
+    public int size() {
+        return productIds.length;
+    }
+
+    /**
+     * Every product id that appears as a neighbor of some product
+     */
+    public Set<Long> neighborIds() {
+        Set<Long> ids = new HashSet<>();
+        for (int[] list : neighbors) {
+            for (int position : list) {
+                ids.add(productIds[position]);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Merge the neighbor lists of the seed products, summing scores, and return the
+     * best {@code limit} candidates that are not themselves seeds
+     */
+    public List<Recommendation> recommend(Collection<Long> seedProductIds, int limit) {
+        if (limit <= 0 || seedProductIds.isEmpty() || productIds.length == 0) {
+            return List.of();
+        }
+
+        Map<Integer, float[]> merged = new HashMap<>();   // position -> {score, bestContribution, bestSeedPosition}
+        Set<Integer> seeds = new HashSet<>();
+        for (Long seedId : seedProductIds) {
+            int seed = Arrays.binarySearch(productIds, seedId);
+            if (seed >= 0) {
+                seeds.add(seed);
+            }
+        }
+
+        for (int seed : seeds) {
+            int[] list = neighbors[seed];
+            float[] listScores = scores[seed];
+            for (int i = 0; i < list.length; i++) {
+                float score = listScores[i];
+                float[] acc = merged.computeIfAbsent(list[i], k -> new float[]{0f, -1f, -1f});
+                acc[0] += score;
+                if (score > acc[1]) {
+                    acc[1] = score;
+                    acc[2] = seed;
+                }
+            }
+        }
+        seeds.forEach(merged::remove);
+
+        return merged.entrySet().stream()
+                .sorted((a, b) -> {
+                    int cmp = Float.compare(b.getValue()[0], a.getValue()[0]);
+                    return cmp != 0 ? cmp : Long.compare(productIds[a.getKey()], productIds[b.getKey()]);
+                })
+                .limit(limit)
+                .map(e -> new Recommendation(
+                        productIds[e.getKey()],
+                        e.getValue()[0],
+                        productIds[(int) e.getValue()[2]]))
+                .toList();
+    }
+
+    /**
+     * A recommended product with its merged score and the seed that contributed most to it
+     */
+    public record Recommendation(long productId, float score, long becauseOfProductId) {}
+
+    /**
+     * Accumulates co-occurrence counts from baskets and produces an index.
+     * Not thread-safe; counts survive across {@link #build} calls so new
+     * baskets can be folded in incrementally.
+     */
+    public static final class Builder {
+
+        private final int maxBasketSize;
+        private final Map<Long, Integer> denseIndex = new HashMap<>();
+        private long[] denseIds = new long[64];
+        private int[] itemCounts = new int[64];
+        private final Map<Long, Integer> pairCounts = new HashMap<>();
+        private long basketCount;
+
+        public Builder(int maxBasketSize) {
+            this.maxBasketSize = Math.max(2, maxBasketSize);
+        }
+
+        public long basketCount() {
+            return basketCount;
+        }
+
+        /**
+         * Add one order's products; duplicates are ignored and oversized baskets are truncated
+         */
+        public void addBasket(long[] basketProductIds) {
+            int[] basket = Arrays.stream(basketProductIds)
+                    .distinct()
+                    .limit(maxBasketSize)
+                    .mapToInt(this::dense)
+                    .sorted()
+                    .toArray();
+            if (basket.length == 0) {
+                return;
+            }
+            basketCount++;
+
+            for (int item : basket) {
+                itemCounts[item]++;
+            }
+            for (int i = 0; i < basket.length; i++) {
+                for (int j = i + 1; j < basket.length; j++) {
+                    pairCounts.merge(pairKey(basket[i], basket[j]), 1, Integer::sum);
+                }
+            }
+        }
+
+        /**
+         * Build an immutable index keeping the top {@code k} neighbors per product,
+         * scored by cosine similarity of their purchase vectors
+         */
+        public CoPurchaseIndex build(int k) {
+            int n = denseIndex.size();
+            if (n == 0 || pairCounts.isEmpty() || k <= 0) {
+                return empty();
+            }
+
+            int[] degree = new int[n];
+            for (long key : pairCounts.keySet()) {
+                degree[(int) (key >>> 32)]++;
+                degree[(int) key]++;
+            }
+
+            int[][] candidates = new int[n][];
+            float[][] candidateScores = new float[n][];
+            int[] fill = new int[n];
+            for (int i = 0; i < n; i++) {
+                candidates[i] = new int[degree[i]];
+                candidateScores[i] = new float[degree[i]];
+            }
+            pairCounts.forEach((key, count) -> {
+                int a = (int) (key >>> 32);
+                int b = (int) (long) key;
+                float score = (float) (count / Math.sqrt((double) itemCounts[a] * itemCounts[b]));
+                candidates[a][fill[a]] = b;
+                candidateScores[a][fill[a]++] = score;
+                candidates[b][fill[b]] = a;
+                candidateScores[b][fill[b]++] = score;
+            });
+
+            // Final positions are in product id order so lookups can binary search
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> denseIds[i]));
+            int[] positionOf = new int[n];
+            long[] sortedIds = new long[n];
+            for (int pos = 0; pos < n; pos++) {
+                positionOf[order[pos]] = pos;
+                sortedIds[pos] = denseIds[order[pos]];
+            }
+
+            int[][] neighbors = new int[n][];
+            float[][] scores = new float[n][];
+            for (int pos = 0; pos < n; pos++) {
+                int dense = order[pos];
+                int[] cand = candidates[dense];
+                float[] candScores = candidateScores[dense];
+
+                Integer[] byScore = new Integer[cand.length];
+                for (int i = 0; i < cand.length; i++) {
+                    byScore[i] = i;
+                }
+                Arrays.sort(byScore, (x, y) -> {
+                    int cmp = Float.compare(candScores[y], candScores[x]);
+                    return cmp != 0 ? cmp : Long.compare(denseIds[cand[x]], denseIds[cand[y]]);
+                });
+
+                int keep = Math.min(k, cand.length);
+                neighbors[pos] = new int[keep];
+                scores[pos] = new float[keep];
+                for (int i = 0; i < keep; i++) {
+                    neighbors[pos][i] = positionOf[cand[byScore[i]]];
+                    scores[pos][i] = candScores[byScore[i]];
+                }
+            }
+
+            return new CoPurchaseIndex(sortedIds, neighbors, scores);
+        }
+
+        private int dense(long productId) {
+            Integer existing = denseIndex.get(productId);
+            if (existing != null) {
+                return existing;
+            }
+            int next = denseIndex.size();
+            if (next == denseIds.length) {
+                denseIds = Arrays.copyOf(denseIds, next * 2);
+                itemCounts = Arrays.copyOf(itemCounts, next * 2);
+            }
+            denseIds[next] = productId;
+            denseIndex.put(productId, next);
+            return next;
+        }
+
+        private static long pairKey(int a, int b) {
+            return ((long) a << 32) | (b & 0xFFFFFFFFL);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.CartConfig;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.dto.CartRecommendationsDto;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderItemRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * "Frequently bought together" recommendations from order co-purchase statistics.
+ * Baskets are read from order_items and folded into a {@link CoPurchaseIndex.Builder};
+ * refreshes only read orders newer than the last one seen, and a periodic full
+ * rebuild drops orders that have left the window. Requests are answered from the
+ * in-memory index and a product card cache without touching the database.
+ */
+@Component
+@Slf4j
+public class CoPurchaseRecommender {
+
+    private static final int CARD_LOAD_BATCH = 1000;
+
+    private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
+    private final CartConfig.CartProperties cartProperties;
+
+    private CoPurchaseIndex.Builder builder;
+    private long lastOrderId;
+    private volatile Snapshot snapshot = new Snapshot(CoPurchaseIndex.empty(), Map.of(), null);
+
+    public CoPurchaseRecommender(OrderItemRepository orderItemRepository,
+                                 ProductRepository productRepository,
+                                 CartConfig.CartProperties cartProperties) {
+        this.orderItemRepository = orderItemRepository;
+        this.productRepository = productRepository;
+        this.cartProperties = cartProperties;
+    }
+
+    /**
+     * Recommend products bought together with the given cart products
+     */
+    public List<CartRecommendationsDto.RecommendedProduct> recommend(Collection<Long> cartProductIds, int limit) {
+        Snapshot current = snapshot;
+        // Over-fetch a little to make up for candidates whose card is no longer available
+        List<CoPurchaseIndex.Recommendation> candidates = current.index().recommend(cartProductIds, limit * 2);
+
+        List<CartRecommendationsDto.RecommendedProduct> results = new ArrayList<>(limit);
+        for (CoPurchaseIndex.Recommendation candidate : candidates) {
+            ProductCard card = current.cards().get(candidate.productId());
+            if (card == null) {
+                continue;
+            }
+            ProductCard because = current.cards().get(candidate.becauseOfProductId());
+            results.add(CartRecommendationsDto.RecommendedProduct.builder()
+                    .productId(candidate.productId())
+                    .name(card.name())
+                    .description(card.description())
+                    .price(card.price())
+                    .imageUrl(card.imageUrl())
+                    .score((double) candidate.score())
+                    .reason(because != null
+                            ? "Frequently bought with " + because.name()
+                            : "Frequently bought together with items in your cart")
+                    .build());
+            if (results.size() == limit) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Products most often bought with the given one and their similarity, best first
+     */
+    public List<CoPurchaseIndex.Recommendation> boughtWith(long productId, int limit) {
+        return snapshot.index().recommend(List.of(productId), limit);
+    }
+
+    /**
+     * Fold orders placed since the last refresh into the index
+     */
+    @Scheduled(initialDelayString = "${cart.recommendation-initial-delay-ms:60000}",
+            fixedDelayString = "${cart.recommendation-refresh-interval-ms:3600000}")
+    public synchronized void refresh() {
+        if (builder == null) {
+            rebuild();
+            return;
+        }
+        try {
+            LoadResult loaded = loadBaskets(builder, lastOrderId);
+            lastOrderId = Math.max(lastOrderId, loaded.maxOrderId());
+            if (loaded.orders() > 0) {
+                publish(builder);
+            }
+            log.debug("Co-purchase refresh folded in {} new orders", loaded.orders());
+        } catch (Exception e) {
+            // Counts may be partially applied; start over on the next run
+            builder = null;
+            log.error("Error refreshing co-purchase recommendations", e);
+        }
+    }
+
+    /**
+     * Rebuild the index from scratch over the configured window
+     */
+    @Scheduled(cron = "${cart.recommendation-rebuild-cron:0 30 4 * * *}")
+    public synchronized void rebuild() {
+        try {
+            long started = System.currentTimeMillis();
+            CoPurchaseIndex.Builder fresh = new CoPurchaseIndex.Builder(cartProperties.getRecommendationMaxBasketSize());
+            LoadResult loaded = loadBaskets(fresh, 0L);
+            publish(fresh);
+            builder = fresh;
+            lastOrderId = loaded.maxOrderId();
+            log.info("Rebuilt co-purchase index from {} orders: {} products in {} ms",
+                    loaded.orders(), snapshot.index().size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Error rebuilding co-purchase recommendations", e);
+        }
+    }
+
+    private LoadResult loadBaskets(CoPurchaseIndex.Builder target, long afterOrderId) {
+        LocalDateTime since = LocalDateTime.now().minusDays(cartProperties.getRecommendationWindowDays());
+        long[] currentOrder = {-1L};
+        List<Long> basket = new ArrayList<>();
+        int[] orders = {0};
+
+        orderItemRepository.streamOrderProducts(afterOrderId, since, (orderId, productId) -> {
+            if (orderId != currentOrder[0]) {
+                flush(target, basket);
+                currentOrder[0] = orderId;
+                orders[0]++;
+            }
+            basket.add(productId);
+        });
+        flush(target, basket);
+
+        return new LoadResult(orders[0], Math.max(afterOrderId, currentOrder[0]));
+    }
+
+    private static void flush(CoPurchaseIndex.Builder target, List<Long> basket) {
+        if (basket.size() > 1) {
+            target.addBasket(basket.stream().mapToLong(Long::longValue).toArray());
+        }
+        basket.clear();
+    }
+
+    private void publish(CoPurchaseIndex.Builder source) {
+        CoPurchaseIndex index = source.build(cartProperties.getRecommendationTopK());
+
+        Map<Long, ProductCard> cards = new HashMap<>();
+        List<Long> ids = new ArrayList<>(index.neighborIds());
+        for (int from = 0; from < ids.size(); from += CARD_LOAD_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(from + CARD_LOAD_BATCH, ids.size()));
+            for (Product product : productRepository.findAllById(batch)) {
+                if (Boolean.TRUE.equals(product.getIsActive())) {
+                    cards.put(product.getId(), new ProductCard(
+                            product.getName(),
+                            product.getDescription(),
+                            product.getEffectivePrice(),
+                            product.getThumbnailUrl() != null ? product.getThumbnailUrl() : product.getImageUrl()));
+                }
+            }
+        }
+
+        snapshot = new Snapshot(index, Map.copyOf(cards), LocalDateTime.now());
+    }
+
+    private record LoadResult(int orders, long maxOrderId) {}
+
+    private record Snapshot(CoPurchaseIndex index, Map<Long, ProductCard> cards, LocalDateTime builtAt) {}
+
+    private record ProductCard(String name, String description, BigDecimal price, String imageUrl) {}
+}
@@ -0,0 +1,141 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.CartConfig;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.dto.SharedCartSnapshot;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.CartShareToken;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository.CartShareTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Share token store for carts.
+ * Tokens and their snapshots are persisted in cart_share_tokens and kept in a
+ * bounded in-memory LRU, so repeated reads of a popular link are served from
+ * memory and never touch the live cart rows.
+ */
+@Component
+@Slf4j
+public class SharedCartStore {
+
+    private final CartShareTokenRepository shareTokenRepository;
+    private final CartConfig.CartProperties cartProperties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, SharedCartSnapshot> cache;
+
+    public SharedCartStore(CartShareTokenRepository shareTokenRepository,
+                           CartConfig.CartProperties cartProperties,
+                           ObjectMapper objectMapper) {
+        this.shareTokenRepository = shareTokenRepository;
+        this.cartProperties = cartProperties;
+        this.objectMapper = objectMapper;
+
+        int maxEntries = Math.max(1, cartProperties.getShareCacheMaxEntries());
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SharedCartSnapshot> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Store a snapshot under a freshly generated token
+     * @return the new share token
+     */
+    public String store(SharedCartSnapshot snapshot) {
+        String token = UUID.randomUUID().toString().replace("-", "");
+
+        CartShareToken entity = CartShareToken.builder()
+                .token(token)
+                .cartId(snapshot.cartId())
+                .snapshot(serialize(snapshot))
+                .expiresAt(snapshot.expiresAt())
+                .build();
+        shareTokenRepository.save(entity);
+
+        synchronized (cache) {
+            cache.put(token, snapshot);
+        }
+        return token;
+    }
+
+    /**
+     * Resolve a token to its snapshot, falling back to the database on a cache miss
+     */
+    public Optional<SharedCartSnapshot> find(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        SharedCartSnapshot cached;
+        synchronized (cache) {
+            cached = cache.get(token);
+        }
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return Optional.of(cached);
+            }
+            evict(token);
+            return Optional.empty();
+        }
+
+        Optional<SharedCartSnapshot> loaded = shareTokenRepository.findActiveByToken(token)
+                .map(entity -> deserialize(entity.getSnapshot()));
+        loaded.ifPresent(snapshot -> {
+            synchronized (cache) {
+                cache.put(token, snapshot);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Expiry time for a snapshot captured now
+     */
+    public LocalDateTime nextExpiry() {
+        return LocalDateTime.now().plusHours(cartProperties.getShareLinkExpiryHours());
+    }
+
+    /**
+     * Remove expired tokens from the database and the in-memory cache
+     * @return number of rows deleted
+     */
+    public int purgeExpired() {
+        synchronized (cache) {
+            cache.values().removeIf(SharedCartSnapshot::isExpired);
+        }
+        int deleted = shareTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        log.debug("Purged {} expired cart share tokens", deleted);
+        return deleted;
+    }
+
+    private void evict(String token) {
+        synchronized (cache) {
+            cache.remove(token);
+        }
+    }
+
+    private String serialize(SharedCartSnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize cart snapshot", e);
+        }
+    }
+
+    private SharedCartSnapshot deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, SharedCartSnapshot.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read cart snapshot", e);
+        }
+    }
+}
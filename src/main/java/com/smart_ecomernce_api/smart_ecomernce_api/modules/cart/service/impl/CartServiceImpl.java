@@ -1,5 +1,7 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.impl;
 
+import com.smart_ecomernce_api.smart_ecomernce_api.aspect.RetryOnConflict;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.money.Money;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.*;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.CartConfig;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.dto.*;
@@ -8,7 +10,12 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.CartItem;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.CartStatus;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.mapper.CartMapper;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.repository.CartRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CartMaintenanceJobs;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CartPriceRefreshPipeline;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CartService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CoPurchaseRecommender;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.SharedCartStore;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
@@ -17,12 +24,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -41,12 +46,21 @@ public class CartServiceImpl implements CartService {
     private final UserRepository userRepository;
     private final CartMapper cartMapper;
     private final CartConfig.CartProperties cartProperties;
+    private final SharedCartStore sharedCartStore;
+    private final CartMaintenanceJobs cartMaintenanceJobs;
+    private final CartPriceRefreshPipeline priceRefreshPipeline;
+    private final CoPurchaseRecommender coPurchaseRecommender;
 
     // Configuration constants
     private static final int MAX_CART_ITEMS = 100;
     private static final int ABANDONED_CART_THRESHOLD_HOURS = 24;
     private static final int EXPIRED_CART_DAYS = 90;
-    private static final int SHARE_LINK_EXPIRY_HOURS = 72;
+
+    private static final Money FLAT_COUPON_DISCOUNT = Money.ofMinor(20_00);
+    private static final Money FREE_SHIPPING_THRESHOLD = Money.ofMinor(50_00);
+    private static final Money STANDARD_SHIPPING = Money.ofMinor(5_99);
+    private static final Money EXPRESS_SHIPPING = Money.ofMinor(12_99);
+    private static final Money OVERNIGHT_SHIPPING = Money.ofMinor(24_99);
 
     // ==================== Core Cart Operations ====================
 
@@ -140,6 +154,7 @@ public class CartServiceImpl implements CartService {
     // ==================== Cart Item Operations ====================
 
     @Override
+    @RetryOnConflict
     @Transactional
     public CartItemDto addToCart(Long cartId, AddItemToCartRequest request) {
         log.debug("Adding product {} to cart {} with quantity {}",
@@ -179,6 +194,7 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public CartDto bulkAddToCart(Long cartId, BulkAddItemsRequest request) {
         log.debug("Bulk adding {} items to cart {}", request.getItems().size(), cartId);
@@ -233,6 +249,7 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public CartItemDto updateItemQuantity(Long cartId, Long productId, UpdateCartItemRequest request) {
         log.debug("Updating item {} quantity to {} in cart {}",
@@ -287,6 +304,7 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public void removeItem(Long cartId, Long productId) {
         log.debug("Removing product {} from cart {}", productId, cartId);
@@ -308,6 +326,7 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public void clearCart(Long cartId) {
         log.debug("Clearing all items from cart {}", cartId);
@@ -345,10 +364,8 @@ public class CartServiceImpl implements CartService {
         boolean available = availableQty >= requestedQty;
 
         // Check price changes
-        BigDecimal currentPrice = product.getEffectivePrice();
-        BigDecimal cartPrice = item.getTotalPrice().divide(
-                BigDecimal.valueOf(requestedQty), 2, RoundingMode.HALF_UP);
-        boolean priceChanged = !currentPrice.equals(cartPrice);
+        Money currentPrice = product.effectiveUnitPrice();
+        boolean priceChanged = !currentPrice.equals(item.unitAmount());
 
         String message = buildAvailabilityMessage(available, priceChanged, availableQty, requestedQty);
 
@@ -359,7 +376,7 @@ public class CartServiceImpl implements CartService {
                 .requestedQuantity(requestedQty)
                 .availableQuantity(availableQty)
                 .priceChanged(priceChanged)
-                .currentPrice(currentPrice)
+                .currentPrice(currentPrice.toBigDecimal())
                 .message(message)
                 .build();
     }
@@ -443,9 +460,7 @@ public class CartServiceImpl implements CartService {
     }
 
     private void updateCartItemPrice(CartItem item) {
-        BigDecimal itemTotal = item.getProduct().getEffectivePrice()
-                .multiply(BigDecimal.valueOf(item.getQuantity()));
-        item.setTotalPrice(itemTotal);
+        item.applyPrice(item.getProduct().getEffectivePrice());
     }
 
     private String buildAvailabilityMessage(boolean available, boolean priceChanged,
@@ -466,6 +481,7 @@ public class CartServiceImpl implements CartService {
     // ==================== Coupon Operations ====================
 
     @Override
+    @RetryOnConflict
     @Transactional
     public CartDto applyCoupon(Long cartId, String couponCode) {
         log.debug("Applying coupon {} to cart {}", couponCode, cartId);
@@ -488,6 +504,7 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public CartDto removeCoupon(Long cartId) {
         log.debug("Removing coupon from cart {}", cartId);
@@ -516,11 +533,14 @@ public class CartServiceImpl implements CartService {
                 .orElseThrow(() -> new CartNotFoundException(cartId));
 
         List<CartValidationResult.ValidationIssue> issues = new ArrayList<>();
-        BigDecimal originalTotal = cart.getTotalPrice();
+        Money originalTotal = cart.subtotal();
         boolean priceChanged = false;
         boolean stockChanged = false;
 
-        // Validate each item
+        Money updatedTotal = Money.zero();
+
+        // Items are kept priced by the background refresh pipeline, so this is a
+        // read-only check of the stored flags plus stock; nothing is re-priced here
         for (CartItem item : cart.getItems()) {
             Product product = item.getProduct();
 
@@ -555,12 +575,16 @@ public class CartServiceImpl implements CartService {
                 }
             }
 
-            // Check price changes
+            // Check price changes: flagged by the pipeline, or changed since its last run
             BigDecimal currentPrice = product.getEffectivePrice();
-            BigDecimal cartItemUnitPrice = item.getTotalPrice().divide(
-                    BigDecimal.valueOf(item.getQuantity()), 2, RoundingMode.HALF_UP);
+            BigDecimal oldPrice = null;
+            if (item.hasPriceChanged()) {
+                oldPrice = item.getPreviousUnitPrice();
+            } else if (item.getUnitPrice() != null && item.getUnitPrice().compareTo(currentPrice) != 0) {
+                oldPrice = item.getUnitPrice();
+            }
 
-            if (!currentPrice.equals(cartItemUnitPrice)) {
+            if (oldPrice != null) {
                 priceChanged = true;
 
                 issues.add(CartValidationResult.ValidationIssue.builder()
@@ -568,10 +592,12 @@ public class CartServiceImpl implements CartService {
                         .productId(product.getId())
                         .productName(product.getName())
                         .message("Price has changed")
-                        .oldPrice(cartItemUnitPrice)
+                        .oldPrice(oldPrice)
                         .newPrice(currentPrice)
                         .build());
             }
+
+            updatedTotal = updatedTotal.plus(product.effectiveUnitPrice().times(item.getQuantity()));
         }
 
         boolean valid = issues.isEmpty();
@@ -582,8 +608,8 @@ public class CartServiceImpl implements CartService {
                 .valid(valid)
                 .message(message)
                 .issues(issues)
-                .originalTotal(originalTotal)
-                .updatedTotal(cart.getTotalPrice()) // Recalculated if needed
+                .originalTotal(originalTotal.toBigDecimal())
+                .updatedTotal(updatedTotal.toBigDecimal())
                 .priceChanged(priceChanged)
                 .stockChanged(stockChanged)
                 .build();
@@ -592,6 +618,7 @@ public class CartServiceImpl implements CartService {
     // ==================== Cart Merge & Restore ====================
 
     @Override
+    @RetryOnConflict
     @Transactional
     public CartDto mergeCart(Long guestCartId, Long userId) {
         log.debug("Merging guest cart {} with user {} cart", guestCartId, userId);
@@ -626,6 +653,7 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public CartDto mergeGuestCart(Long guestCartId, String username) {
         User user = userRepository.findByUsername(username)
@@ -635,6 +663,7 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public CartDto restoreCart(Long cartId) {
         log.debug("Restoring cart {}", cartId);
@@ -663,6 +692,7 @@ public class CartServiceImpl implements CartService {
     // ==================== Advanced Features ====================
 
     @Override
+    @RetryOnConflict
     @Transactional
     public SaveForLaterResult saveCartForLater(Long cartId, String username) {
         log.debug("Saving cart {} items for later for user {}", cartId, username);
@@ -719,7 +749,7 @@ public class CartServiceImpl implements CartService {
 
         // Calculate shipping based on cart weight, destination, etc.
         // This is a simplified implementation
-        BigDecimal cartTotal = cart.getTotalPrice();
+        Money cartTotal = cart.subtotal();
         String method = request.getShippingMethod() != null
                 ? request.getShippingMethod()
                 : "STANDARD";
@@ -773,11 +803,13 @@ public class CartServiceImpl implements CartService {
         Cart cart = cartRepository.findByIdWithItems(cartId)
                 .orElseThrow(() -> new CartNotFoundException(cartId));
 
-        // Generate unique share token
-        String shareToken = UUID.randomUUID().toString();
+        if (cart.isEmpty()) {
+            throw new IllegalStateException("Cannot share an empty cart");
+        }
 
-        // In real implementation, store this mapping in database or cache
-        // with expiration time
+        // Freeze the cart contents; shared links are served from this snapshot only
+        SharedCartSnapshot snapshot = toSnapshot(cart, sharedCartStore.nextExpiry());
+        String shareToken = sharedCartStore.store(snapshot);
 
         String shareUrl = String.format("/api/v1/carts/shared/%s", shareToken);
 
@@ -786,7 +818,7 @@ public class CartServiceImpl implements CartService {
         return ShareCartResponse.builder()
                 .shareToken(shareToken)
                 .shareUrl(shareUrl)
-                .expiresInHours((long) SHARE_LINK_EXPIRY_HOURS)
+                .expiresInHours((long) cartProperties.getShareLinkExpiryHours())
                 .build();
     }
 
@@ -795,9 +827,7 @@ public class CartServiceImpl implements CartService {
     public CartDto getSharedCart(String shareToken) {
         log.debug("Fetching shared cart with token: {}", shareToken);
 
-        // In real implementation, retrieve cartId from token mapping
-        // For now, this is a placeholder
-        throw new UnsupportedOperationException("Shared cart retrieval not fully implemented");
+        return toSharedCartDto(fetchSharedSnapshot(shareToken));
     }
 
     @Override
@@ -805,8 +835,7 @@ public class CartServiceImpl implements CartService {
     public CartDto cloneSharedCart(String shareToken, String username) {
         log.debug("Cloning shared cart {} for user: {}", shareToken, username);
 
-        // Get shared cart
-        CartDto sharedCart = getSharedCart(shareToken);
+        SharedCartSnapshot snapshot = fetchSharedSnapshot(shareToken);
 
         // Create new cart
         Cart newCart;
@@ -823,9 +852,27 @@ public class CartServiceImpl implements CartService {
                     .build();
         }
 
+        // Items are re-priced and stock-checked against the current catalog
+        int clonedCount = 0;
+        for (SharedCartSnapshot.Item sharedItem : snapshot.items()) {
+            Optional<Product> product = productRepository.findById(sharedItem.productId());
+            if (product.isEmpty() || !product.get().getIsActive()) {
+                log.debug("Skipping unavailable product {} while cloning shared cart", sharedItem.productId());
+                continue;
+            }
+
+            int qtyToAdd = Math.min(sharedItem.quantity(), calculateAvailableStock(product.get()));
+            if (qtyToAdd > 0) {
+                CartItem item = newCart.addItem(product.get(), qtyToAdd);
+                updateCartItemPrice(item);
+                clonedCount++;
+            }
+        }
+
         newCart = cartRepository.save(newCart);
 
-        log.info("Cloned shared cart to new cart {}", newCart.getId());
+        log.info("Cloned {} of {} shared items to new cart {}",
+                clonedCount, snapshot.items().size(), newCart.getId());
 
         return cartMapper.toDto(newCart);
     }
@@ -838,9 +885,11 @@ public class CartServiceImpl implements CartService {
         Cart cart = cartRepository.findByIdWithItems(cartId)
                 .orElseThrow(() -> new CartNotFoundException(cartId));
 
-        // In real implementation, this would use a recommendation engine
-        // based on collaborative filtering, content-based filtering, etc.
-        List<CartRecommendationsDto.RecommendedProduct> recommendations = new ArrayList<>();
+        List<Long> cartProductIds = cart.getItems().stream()
+                .map(item -> item.getProduct().getId())
+                .toList();
+        List<CartRecommendationsDto.RecommendedProduct> recommendations =
+                coPurchaseRecommender.recommend(cartProductIds, limit);
 
         log.info("Generated {} recommendations for cart {}", recommendations.size(), cartId);
 
@@ -851,6 +900,7 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public CartDto updateCartStatus(Long cartId, String statusStr) {
         log.debug("Updating cart {} status to {}", cartId, statusStr);
@@ -874,6 +924,7 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public CartDto refreshCartPrices(Long cartId) {
         log.debug("Refreshing prices for cart {}", cartId);
@@ -891,57 +942,92 @@ public class CartServiceImpl implements CartService {
 
     // ==================== Background Operations ====================
 
-    @Transactional
-    @Scheduled(cron = "0 0 2 * * *") // Run daily at 2 AM
-    public void scheduledMarkAbandonedCarts() {
-        int threshold = cartProperties.getAbandonedThresholdHours();
-        markAbandonedCarts(threshold);
-    }
-
     @Override
-    @Transactional
     public int markAbandonedCarts(int abandonedThresholdHours) {
         log.debug("Marking abandoned carts older than {} hours", abandonedThresholdHours);
-        LocalDateTime cutoffTime = LocalDateTime.now().minusHours(abandonedThresholdHours);
-        List<Cart> abandonedCarts = cartRepository.findAbandonedCartsBefore(cutoffTime);
-        int count = 0;
-        for (Cart cart : abandonedCarts) {
-            if (!cart.isEmpty()) {
-                cart.markAsAbandoned();
-                cartRepository.save(cart);
-                count++;
-            }
-        }
+        int count = cartMaintenanceJobs.markAbandonedCarts(abandonedThresholdHours);
         log.info("Marked {} carts as abandoned", count);
         return count;
     }
 
-    @Transactional
-    @Scheduled(cron = "0 0 3 * * *") // Run daily at 3 AM
-    public void scheduledCleanupExpiredCarts() {
-        int expirationDays = cartProperties.getExpirationDays();
-        cleanupExpiredCarts(expirationDays);
-    }
-
     @Override
-    @Transactional
     public int cleanupExpiredCarts(int expirationDays) {
         log.debug("Cleaning up carts older than {} days", expirationDays);
+        int count = cartMaintenanceJobs.cleanupExpiredCarts(expirationDays);
+        log.info("Deleted {} expired carts", count);
+        return count;
+    }
+
+    @Override
+    public Map<String, CartMaintenanceJobs.JobStats> getMaintenanceStatistics() {
+        return cartMaintenanceJobs.getStatistics();
+    }
+
+    @Override
+    public CartPriceRefreshPipeline.PipelineStats getPriceRefreshStatistics() {
+        return priceRefreshPipeline.getStatistics();
+    }
 
-        LocalDateTime cutoffTime = LocalDateTime.now().minusDays(expirationDays);
-        List<Cart> expiredCarts = cartRepository.findEmptyCartsBefore(cutoffTime);
+    // ==================== Private Helper Methods ====================
 
-        int count = 0;
-        for (Cart cart : expiredCarts) {
-            cartRepository.deleteById(cart.getId());
-            count++;
+    private SharedCartSnapshot fetchSharedSnapshot(String shareToken) {
+        return sharedCartStore.find(shareToken)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Shared cart not found or link has expired: " + shareToken));
+    }
+
+    private SharedCartSnapshot toSnapshot(Cart cart, LocalDateTime expiresAt) {
+        List<SharedCartSnapshot.Item> items = cart.getItems().stream()
+                .map(item -> {
+                    Product product = item.getProduct();
+                    return new SharedCartSnapshot.Item(
+                            product.getId(),
+                            product.getName(),
+                            product.getSlug(),
+                            product.getImageUrl(),
+                            product.getEffectivePrice(),
+                            item.getQuantity());
+                })
+                .toList();
+
+        Money subtotal = Money.zero();
+        for (SharedCartSnapshot.Item item : items) {
+            subtotal = subtotal.plus(Money.of(item.unitPrice()).times(item.quantity()));
         }
+        int itemCount = items.stream().mapToInt(SharedCartSnapshot.Item::quantity).sum();
 
-        log.info("Deleted {} expired carts", count);
-        return count;
+        return new SharedCartSnapshot(cart.getId(), items, itemCount, subtotal.toBigDecimal(),
+                LocalDateTime.now(), expiresAt);
+    }
+
+    private CartDto toSharedCartDto(SharedCartSnapshot snapshot) {
+        List<CartItemDto> items = snapshot.items().stream()
+                .map(item -> CartItemDto.builder()
+                        .product(ProductResponse.builder()
+                                .id(item.productId())
+                                .name(item.name())
+                                .slug(item.slug())
+                                .imageUrl(item.imageUrl())
+                                .effectivePrice(item.unitPrice())
+                                .build())
+                        .quantity(item.quantity())
+                        .unitPrice(item.unitPrice())
+                        .totalPrice(Money.of(item.unitPrice()).times(item.quantity()).toBigDecimal())
+                        .build())
+                .toList();
+
+        // The live cart id is deliberately not exposed to share-link viewers
+        return CartDto.builder()
+                .status("SHARED")
+                .dateCreated(snapshot.capturedAt())
+                .items(items)
+                .itemCount(snapshot.itemCount())
+                .subtotal(snapshot.subtotal())
+                .discount(BigDecimal.ZERO)
+                .totalPrice(snapshot.subtotal())
+                .build();
     }
 
-    // ==================== Private Helper Methods ====================
 
     private int mergeCartItems(Cart sourceCart, Cart targetCart) {
         int mergedCount = 0;
@@ -973,35 +1059,34 @@ public class CartServiceImpl implements CartService {
     private BigDecimal calculateCouponDiscount(Cart cart, String couponCode) {
         // Simplified discount calculation
         // In real implementation, this would query coupon service
-        BigDecimal total = cart.getTotalPrice();
+        Money total = cart.subtotal();
 
         // Example: 10% discount
         if ("SAVE10".equals(couponCode)) {
-            return total.multiply(new BigDecimal("0.10"))
-                    .setScale(2, RoundingMode.HALF_UP);
+            return total.percent(BigDecimal.TEN).toBigDecimal();
         }
 
         // Example: $20 off
         if ("FLAT20".equals(couponCode)) {
-            return new BigDecimal("20.00");
+            return FLAT_COUPON_DISCOUNT.toBigDecimal();
         }
 
         throw new IllegalArgumentException("Invalid coupon code: " + couponCode);
     }
 
-    private BigDecimal calculateShippingCost(BigDecimal cartTotal, String method) {
+    private BigDecimal calculateShippingCost(Money cartTotal, String method) {
         // Simplified shipping calculation
         switch (method) {
             case "STANDARD":
-                return cartTotal.compareTo(new BigDecimal("50")) >= 0
+                return cartTotal.compareTo(FREE_SHIPPING_THRESHOLD) >= 0
                         ? BigDecimal.ZERO
-                        : new BigDecimal("5.99");
+                        : STANDARD_SHIPPING.toBigDecimal();
             case "EXPRESS":
-                return new BigDecimal("12.99");
+                return EXPRESS_SHIPPING.toBigDecimal();
             case "OVERNIGHT":
-                return new BigDecimal("24.99");
+                return OVERNIGHT_SHIPPING.toBigDecimal();
             default:
-                return new BigDecimal("5.99");
+                return STANDARD_SHIPPING.toBigDecimal();
         }
     }
 }
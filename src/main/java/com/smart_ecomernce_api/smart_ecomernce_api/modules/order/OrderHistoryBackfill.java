@@ -0,0 +1,51 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates order_history rows for orders that have none, such as orders placed
+ * before the read model existed. Runs on startup and nightly, in id order.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderHistoryBackfill {
+
+    private final OrderHistoryRepository orderHistoryRepository;
+
+    @Value("${order.history.backfill-batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        backfill();
+    }
+
+    /**
+     * Runs daily at 3:30 AM
+     */
+    @Scheduled(cron = "${order.history.backfill-cron:0 30 3 * * *}")
+    public void backfill() {
+        try {
+            long afterOrderId = 0L;
+            int batches = 0;
+            Long last;
+            while ((last = orderHistoryRepository.backfill(afterOrderId, batchSize)) != null) {
+                afterOrderId = last;
+                batches++;
+            }
+            if (batches > 0) {
+                log.info("Backfilled order history in {} batches up to order {}", batches, afterOrderId);
+            }
+        } catch (Exception e) {
+            log.error("Error backfilling order history", e);
+        }
+    }
+}
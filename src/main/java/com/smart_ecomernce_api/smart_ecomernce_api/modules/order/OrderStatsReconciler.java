@@ -0,0 +1,104 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Keeps the order_stats counters in line with the orders table.
+ * Recent days are recounted nightly and the whole history weekly, one month per
+ * statement; an empty counter table is backfilled on startup. The all-time totals are
+ * checked against the per-day rows on startup, which also seeds them for a counter table
+ * that predates them, and after each full recount.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatsReconciler {
+
+    private final OrderStatsRepository orderStatsRepository;
+    private final JdbcUtils jdbcUtils;
+
+    @Value("${order.stats.reconcile-recent-days:3}")
+    private int recentDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (orderStatsRepository.isEmpty()) {
+                log.info("Order stats table is empty, backfilling from orders");
+                reconcileAll();
+            } else {
+                reconcileTotals();
+            }
+        } catch (Exception e) {
+            log.error("Error backfilling order stats", e);
+        }
+    }
+
+    /**
+     * Recount the last few days, where most status changes happen
+     * Runs daily at 3:15 AM
+     */
+    @Scheduled(cron = "${order.stats.reconcile-recent-cron:0 15 3 * * *}")
+    public void reconcileRecent() {
+        try {
+            LocalDate tomorrow = LocalDate.now().plusDays(1);
+            int drifted = orderStatsRepository.reconcile(tomorrow.minusDays(recentDays + 1L), tomorrow);
+            log.info("Reconciled order stats for the last {} days: {} buckets corrected", recentDays, drifted);
+        } catch (Exception e) {
+            log.error("Error reconciling recent order stats", e);
+        }
+    }
+
+    /**
+     * Recount every month that has orders or counters
+     * Runs weekly on Sunday at 4 AM
+     */
+    @Scheduled(cron = "${order.stats.reconcile-full-cron:0 0 4 * * SUN}")
+    public void reconcileAll() {
+        Timestamp oldestOrder = jdbcUtils.queryForObject("SELECT MIN(order_date) FROM orders", Timestamp.class);
+        LocalDate oldestCounter = jdbcUtils.queryForObject("SELECT MIN(stat_day) FROM order_stats", LocalDate.class);
+
+        LocalDate start = LocalDate.now();
+        if (oldestOrder != null && oldestOrder.toLocalDateTime().toLocalDate().isBefore(start)) {
+            start = oldestOrder.toLocalDateTime().toLocalDate();
+        }
+        if (oldestCounter != null && oldestCounter.isBefore(start)) {
+            start = oldestCounter;
+        }
+
+        LocalDate end = LocalDate.now().plusDays(1);
+        int drifted = 0;
+        for (LocalDate from = start.withDayOfMonth(1); from.isBefore(end); from = from.plusMonths(1)) {
+            LocalDate to = from.plusMonths(1).isBefore(end) ? from.plusMonths(1) : end;
+            try {
+                drifted += orderStatsRepository.reconcile(from, to);
+            } catch (Exception e) {
+                log.error("Error reconciling order stats for month starting {}", from, e);
+            }
+        }
+        log.info("Full order stats reconciliation from {}: {} buckets corrected", start, drifted);
+        reconcileTotals();
+    }
+
+    private void reconcileTotals() {
+        try {
+            int drifted = orderStatsRepository.reconcileTotals();
+            if (drifted > 0) {
+                log.warn("Order stat totals had drifted in {} buckets, corrected", drifted);
+            }
+        } catch (Exception e) {
+            log.error("Error reconciling order stat totals", e);
+        }
+    }
+}
@@ -3,15 +3,22 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.controller;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.ApiResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.PaginatedResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.BulkDeliverRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.BulkShipRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.BulkTransitionResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderCreateRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderHistoryResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderStatsResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderUpdateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.OrderExportService;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.OrderService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.StockReservationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,11 +26,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("v1/orders")
@@ -33,6 +46,7 @@ import java.math.BigDecimal;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
 
 
     @PostMapping
@@ -81,6 +95,18 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success(PaginatedResponse.from(orders)));
     }
 
+    @GetMapping("/my-orders/history")
+    @Operation(summary = "Get my order history", description = "Order summaries, newest first; pass nextCursor to get the following page")
+    public ResponseEntity<ApiResponse<OrderHistoryResponse>> getMyOrderHistory(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Long userId
+    ) {
+        OrderHistoryResponse history = orderService.getOrderHistory(userId, status, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("Order history fetched successfully", history));
+    }
+
     @GetMapping("/my-orders/status/{status}")
     @Operation(summary = "Get my orders by status")
     public ResponseEntity<ApiResponse<PaginatedResponse<OrderResponse>>> getMyOrdersByStatus(
@@ -179,6 +205,28 @@ Long userId    ) {
         return ResponseEntity.ok(ApiResponse.success("Order delivered", response));
     }
 
+    @PostMapping("/admin/bulk/ship")
+    @Operation(summary = "Ship many orders (Admin)",
+            description = "Ship a batch of processing orders; returns a result per order")
+    public ResponseEntity<ApiResponse<BulkTransitionResponse>> bulkShipOrders(
+            @Valid @RequestBody BulkShipRequest request
+    ) {
+        BulkTransitionResponse response = orderService.bulkShipOrders(request);
+        return ResponseEntity.ok(ApiResponse.success(
+                response.getSucceeded() + " of " + response.getRequested() + " orders shipped", response));
+    }
+
+    @PostMapping("/admin/bulk/deliver")
+    @Operation(summary = "Mark many orders as delivered (Admin)",
+            description = "Deliver a batch of shipped orders; returns a result per order")
+    public ResponseEntity<ApiResponse<BulkTransitionResponse>> bulkDeliverOrders(
+            @Valid @RequestBody BulkDeliverRequest request
+    ) {
+        BulkTransitionResponse response = orderService.bulkDeliverOrders(request);
+        return ResponseEntity.ok(ApiResponse.success(
+                response.getSucceeded() + " of " + response.getRequested() + " orders delivered", response));
+    }
+
     @PutMapping("/admin/{id}/refund")
     @Operation(summary = "Refund order (Admin)")
     public ResponseEntity<ApiResponse<OrderResponse>> refundOrder(
@@ -208,6 +256,35 @@ Long userId    ) {
         return ResponseEntity.ok(ApiResponse.success(stats));
     }
 
+    @GetMapping("/admin/export")
+    @Operation(summary = "Export orders with items as gzipped CSV or JSON Lines (Admin)",
+            description = "Streams every order placed between 'from' and 'to' (inclusive dates)")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = "CSV") OrderExportService.Format format,
+            HttpServletRequest request
+    ) {
+        orderExportService.validate(from, to);
+        // Only the export outlives the default async timeout; the body is streamed under this one
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest()
+                .setTimeout(orderExportService.getRequestTimeoutMs());
+        String filename = "orders-" + from + "-" + to + "." + format.extension() + ".gz";
+        StreamingResponseBody body = out -> orderExportService.export(format, from, to, status, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .body(body);
+    }
+
+    @GetMapping("/admin/reservations/stats")
+    @Operation(summary = "Get stock reservation statistics (Admin)")
+    public ResponseEntity<ApiResponse<StockReservationService.ReservationStats>> getReservationStatistics() {
+        StockReservationService.ReservationStats stats = orderService.getReservationStatistics();
+        return ResponseEntity.ok(ApiResponse.success("Reservation statistics fetched successfully", stats));
+    }
+
     @GetMapping("/admin/{id}")
     @Operation(summary = "Get order by ID (Admin)")
 //    @SecurityRequirement(name = "bearerAuth")
@@ -0,0 +1,22 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeliverRequest {
+
+    @NotEmpty(message = "Order IDs cannot be empty")
+    @Size(max = 1000, message = "At most 1000 orders per request")
+    private List<@NotNull Long> orderIds;
+}
@@ -0,0 +1,40 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkShipRequest {
+
+    @NotEmpty(message = "Shipments cannot be empty")
+    @Size(max = 1000, message = "At most 1000 orders per request")
+    @Valid
+    private List<Shipment> shipments;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Shipment {
+
+        @NotNull(message = "Order ID is required")
+        private Long orderId;
+
+        @NotBlank(message = "Tracking number is required")
+        private String trackingNumber;
+
+        private String carrier;
+    }
+}
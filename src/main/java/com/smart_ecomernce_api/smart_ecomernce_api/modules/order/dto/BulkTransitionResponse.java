@@ -0,0 +1,34 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTransitionResponse {
+
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<Result> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        private Long orderId;
+        private String orderNumber;
+        private boolean success;
+        private OrderStatus previousStatus;
+        private OrderStatus status;
+        private String message;
+    }
+}
@@ -0,0 +1,43 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderHistoryResponse {
+    private List<Entry> orders;
+    private String nextCursor;
+    private boolean hasMore;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Entry {
+        private Long orderId;
+        private String orderNumber;
+        private LocalDateTime orderDate;
+        private OrderStatus status;
+        private PaymentStatus paymentStatus;
+        private Integer itemCount;
+        private Integer totalQuantity;
+        private String firstItemName;
+        private String firstItemImageUrl;
+        private BigDecimal subtotal;
+        private BigDecimal discountAmount;
+        private BigDecimal taxAmount;
+        private BigDecimal shippingCost;
+        private BigDecimal totalAmount;
+    }
+}
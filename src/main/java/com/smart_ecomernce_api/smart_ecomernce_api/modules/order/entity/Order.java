@@ -1,6 +1,7 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.money.Money;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.entity.Cart;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
 import jakarta.persistence.*;
@@ -12,7 +13,6 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.LinkedHashSet;
-import java.util.Random;
 import java.util.Set;
 
 /**
@@ -26,7 +26,9 @@ import java.util.Set;
         @Index(name = "idx_order_status", columnList = "status"),
         @Index(name = "idx_order_payment_status", columnList = "payment_status"),
         @Index(name = "idx_order_created", columnList = "created_at"),
-        @Index(name = "idx_order_user_status", columnList = "user_id, status")
+        @Index(name = "idx_order_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_order_date", columnList = "order_date"),
+        @Index(name = "idx_order_updated", columnList = "updated_at")
 })
 @Getter
 @Setter
@@ -151,7 +153,7 @@ public class Order extends BaseEntity {
     private String customerNotes;
 
 
-    public static Order fromCart(Cart cart, User customer) {
+    public static Order fromCart(Cart cart, User customer, String orderNumber) {
         if (cart == null) {
             throw new IllegalArgumentException("Cart cannot be null");
         }
@@ -171,7 +173,7 @@ public class Order extends BaseEntity {
                 .customerName(customer.getFullName())
                 .status(OrderStatus.PENDING)
                 .paymentStatus(PaymentStatus.PENDING)
-                .orderNumber(generateOrderNumber())
+                .orderNumber(orderNumber)
                 .build();
 
         // Copy cart items to order items
@@ -181,7 +183,7 @@ public class Order extends BaseEntity {
                     .product(cartItem.getProduct())
                     .productName(cartItem.getProduct().getName())
                     .quantity(cartItem.getQuantity())
-                    .unitPrice(cartItem.getTotalPrice())
+                    .unitPrice(cartItem.unitAmount().toBigDecimal())
                     .build();
 
             order.addOrderItem(orderItem);
@@ -199,20 +201,6 @@ public class Order extends BaseEntity {
         return order;
     }
 
-    /**
-     * Generate unique order number
-     * Format: ORD-YYYYMMDD-XXXXXX (e.g., ORD-20240115-123456)
-     */
-    private static String generateOrderNumber() {
-        String timestamp = java.time.format.DateTimeFormatter
-                .ofPattern("yyyyMMdd")
-                .format(LocalDateTime.now());
-
-        String randomPart = String.format("%06d", new Random().nextInt(999999));
-
-        return "ORD-" + timestamp + "-" + randomPart;
-    }
-
     // ========================================================================
     // BUSINESS LOGIC METHODS
     // ========================================================================
@@ -241,28 +229,29 @@ public class Order extends BaseEntity {
      */
     public void calculateTotals() {
         // Calculate subtotal from items
-        this.subtotal = orderItems.stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long subtotalMinor = 0;
+        for (OrderItem item : orderItems) {
+            subtotalMinor = Math.addExact(subtotalMinor, item.lineTotal().minorUnits());
+        }
+        Money itemsTotal = Money.ofMinor(subtotalMinor);
 
         // Calculate tax
+        Money tax = Money.ofNullable(taxAmount);
         if (taxRate != null && taxRate.compareTo(BigDecimal.ZERO) > 0) {
-            this.taxAmount = subtotal
-                    .multiply(taxRate)
-                    .divide(BigDecimal.valueOf(100), 2, BigDecimal.ROUND_HALF_UP);
+            tax = itemsTotal.percent(taxRate);
+            this.taxAmount = tax.toBigDecimal();
         }
 
-        // Calculate total
-        this.totalAmount = subtotal
-                .add(taxAmount != null ? taxAmount : BigDecimal.ZERO)
-                .add(shippingCost != null ? shippingCost : BigDecimal.ZERO)
-                .subtract(discountAmount != null ? discountAmount : BigDecimal.ZERO)
-                .subtract(couponDiscount != null ? couponDiscount : BigDecimal.ZERO);
+        // Calculate total, never below zero
+        Money total = itemsTotal
+                .plus(tax)
+                .plus(Money.ofNullable(shippingCost))
+                .minus(Money.ofNullable(discountAmount))
+                .minus(Money.ofNullable(couponDiscount))
+                .clampAtZero();
 
-        // Ensure total is not negative
-        if (this.totalAmount.compareTo(BigDecimal.ZERO) < 0) {
-            this.totalAmount = BigDecimal.ZERO;
-        }
+        this.subtotal = itemsTotal.toBigDecimal();
+        this.totalAmount = total.toBigDecimal();
     }
 
     /**
@@ -473,8 +462,9 @@ public class Order extends BaseEntity {
     @PrePersist
     protected void onCreate() {
         super.onCreate();
+        // Numbers come from OrderNumberService; a random fallback could collide across nodes
         if (orderNumber == null || orderNumber.isEmpty()) {
-            orderNumber = generateOrderNumber();
+            throw new IllegalStateException("Order number must be assigned before the order is saved");
         }
         calculateTotals();
     }
@@ -0,0 +1,74 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outbox entry for an order state transition.
+ * Written in the same transaction as the transition and processed afterwards by
+ * the order event dispatcher; the payload captures the order's items at that time.
+ */
+@Entity
+@Table(name = "order_events", indexes = {
+        @Index(name = "idx_order_event_status_available", columnList = "status, available_at"),
+        @Index(name = "idx_order_event_order", columnList = "order_id")
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent extends BaseEntity {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_PROCESSING = "PROCESSING";
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OrderEventType eventType;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * JSON array of {productId, quantity}
+     */
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Transient
+    @Builder.Default
+    private List<Item> items = new ArrayList<>();
+
+    public record Item(Long productId, Integer quantity) {}
+}
@@ -0,0 +1,29 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Marks an order event as handled by one consumer, so redelivered events
+ * are not applied twice
+ */
+@Entity
+@Table(name = "order_event_consumptions",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_order_event_consumer",
+                columnNames = {"event_id", "consumer"}))
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventConsumption extends BaseEntity {
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "consumer", nullable = false, length = 64)
+    private String consumer;
+}
@@ -0,0 +1,9 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
+
+public enum OrderEventType {
+    ORDER_CONFIRMED,
+    ORDER_SHIPPED,
+    ORDER_DELIVERED,
+    ORDER_CANCELLED,
+    ORDER_REFUNDED
+}
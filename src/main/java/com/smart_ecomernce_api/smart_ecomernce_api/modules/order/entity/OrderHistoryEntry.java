@@ -0,0 +1,75 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model behind a customer's order history.
+ * One row per order with the item summary and totals already folded in, so a
+ * history page is a single index range scan. Rows are rewritten by the order
+ * and order item repositories in the same transaction as the order writes.
+ */
+@Entity
+@Table(name = "order_history",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_history_order", columnNames = "order_id"),
+        indexes = @Index(name = "idx_order_history_user_date",
+                columnList = "user_id, order_date DESC, order_id DESC"))
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryEntry extends BaseEntity {
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_number", length = 50)
+    private String orderNumber;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 30)
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount;
+
+    @Column(name = "total_quantity", nullable = false)
+    private Integer totalQuantity;
+
+    @Column(name = "first_item_name")
+    private String firstItemName;
+
+    @Column(name = "first_item_image_url", length = 500)
+    private String firstItemImageUrl;
+
+    @Column(name = "subtotal", precision = 19, scale = 2)
+    private BigDecimal subtotal;
+
+    @Column(name = "discount_amount", precision = 19, scale = 2)
+    private BigDecimal discountAmount;
+
+    @Column(name = "tax_amount", precision = 19, scale = 2)
+    private BigDecimal taxAmount;
+
+    @Column(name = "shipping_cost", precision = 19, scale = 2)
+    private BigDecimal shippingCost;
+
+    @Column(name = "total_amount", precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+}
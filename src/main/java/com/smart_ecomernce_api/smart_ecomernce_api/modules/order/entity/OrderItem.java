@@ -2,6 +2,7 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
 
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.money.Money;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
@@ -77,11 +78,19 @@ public class OrderItem extends BaseEntity {
      * Calculate total price for this item
      */
     public BigDecimal getTotalPrice() {
-        BigDecimal total = unitPrice.multiply(BigDecimal.valueOf(quantity));
-        if (discount != null && discount.compareTo(BigDecimal.ZERO) > 0) {
-            total = total.subtract(discount);
+        return lineTotal().toBigDecimal();
+    }
+
+    /**
+     * Unit price times quantity less the item discount, never below zero
+     */
+    public Money lineTotal() {
+        Money total = Money.of(unitPrice).times(quantity);
+        Money itemDiscount = Money.ofNullable(discount);
+        if (itemDiscount.isPositive()) {
+            total = total.minus(itemDiscount);
         }
-        return total.max(BigDecimal.ZERO);
+        return total.clampAtZero();
     }
 
     @PrePersist
@@ -0,0 +1,33 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease on an order number node id.
+ * A running instance holds one row and keeps extending its lease; an id whose
+ * lease has run out may be taken over by another instance.
+ */
+@Entity
+@Table(name = "order_number_nodes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_number_node", columnNames = "node_id"))
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderNumberNode extends BaseEntity {
+
+    @Column(name = "node_id", nullable = false)
+    private Integer nodeId;
+
+    @Column(name = "owner", nullable = false, length = 64)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+}
@@ -0,0 +1,47 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated order counter.
+ * One row per order day, order status and payment status holding the number of
+ * orders in that bucket and the sum of their totals. Rows are adjusted in the
+ * same transaction as the order writes that move orders between buckets.
+ */
+@Entity
+@Table(name = "order_stats",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_order_stats_bucket",
+                columnNames = {"stat_day", "status", "payment_status"}))
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStat extends BaseEntity {
+
+    @Column(name = "stat_day", nullable = false)
+    private LocalDate statDay;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 30)
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "order_count", nullable = false)
+    @Builder.Default
+    private Long orderCount = 0L;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+}
@@ -0,0 +1,46 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+
+/**
+ * One shard of the all-time order counter for an order status and payment status.
+ * Kept next to the per-day {@link OrderStat} rows and adjusted in the same transaction,
+ * so dashboard totals read a fixed number of rows however long the order history is.
+ * Writers add to a random shard so concurrent orders rarely contend on one row.
+ */
+@Entity
+@Table(name = "order_stat_totals",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_order_stat_totals_shard",
+                columnNames = {"status", "payment_status", "shard"}))
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatTotal extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 30)
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "shard", nullable = false)
+    private Integer shard;
+
+    @Column(name = "order_count", nullable = false)
+    @Builder.Default
+    private Long orderCount = 0L;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+}
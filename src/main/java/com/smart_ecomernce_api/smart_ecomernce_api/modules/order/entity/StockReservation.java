@@ -0,0 +1,52 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Units of a product held for an order.
+ * HELD rows are counted in products.reserved_quantity; they become CONSUMED when
+ * the order ships and RELEASED when it is cancelled or the hold expires unpaid.
+ */
+@Entity
+@Table(name = "stock_reservations",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_stock_reservation_order_product",
+                columnNames = {"order_id", "product_id"}),
+        indexes = {
+                @Index(name = "idx_stock_reservation_status_expires", columnList = "status, expires_at"),
+                @Index(name = "idx_stock_reservation_product", columnList = "product_id")
+        })
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation extends BaseEntity {
+
+    public static final String STATUS_HELD = "HELD";
+    public static final String STATUS_CONSUMED = "CONSUMED";
+    public static final String STATUS_RELEASED = "RELEASED";
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "released_at")
+    private LocalDateTime releasedAt;
+}
@@ -0,0 +1,56 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEventType;
+
+import java.util.List;
+
+/**
+ * Downstream handler for order events.
+ * {@link #handle} runs in its own transaction together with the consumer's
+ * idempotency marker, so an event redelivered after a crash or lease expiry
+ * is applied at most once per consumer. A consumer that only needs {@link #afterBatch}
+ * leaves {@link #supports} and {@link #handle} at their defaults and is never handed
+ * single events.
+ */
+public interface OrderEventConsumer {
+
+    /**
+     * Stable name used for the idempotency marker
+     */
+    String name();
+
+    /**
+     * Whether {@link #handle} wants events of this type; none by default
+     */
+    default boolean supports(OrderEventType eventType) {
+        return false;
+    }
+
+    /**
+     * Apply one supported event; only called for types {@link #supports} accepts
+     */
+    default void handle(OrderEvent event) {
+    }
+
+    /**
+     * Whether {@link #handleBatch} can apply many events in one transaction
+     */
+    default boolean supportsBatch() {
+        return false;
+    }
+
+    /**
+     * Apply several supported events at once. If this fails the dispatcher falls
+     * back to {@link #handle} per event.
+     */
+    default void handleBatch(List<OrderEvent> events) {
+        events.forEach(this::handle);
+    }
+
+    /**
+     * Called once after each dispatched batch, for work that is cheaper done in bulk
+     */
+    default void afterBatch(List<OrderEvent> events) {
+    }
+}
@@ -0,0 +1,273 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drains the order event outbox.
+ * Due events are claimed in batches with a lease (SKIP LOCKED, so several nodes
+ * can drain concurrently). Events of the same order run sequentially; different
+ * orders run on virtual threads, bounded by a semaphore so the workers never
+ * need more connections than the pool can spare. Each consumer handles an event
+ * in its own transaction; failures are retried with exponential backoff and the
+ * event is parked as FAILED after the last attempt.
+ */
+@Component
+@Slf4j
+public class OrderEventDispatcher {
+
+    private static final TypeReference<List<OrderEvent.Item>> ITEMS_TYPE = new TypeReference<>() {};
+
+    private final OrderEventRepository orderEventRepository;
+    private final List<OrderEventConsumer> consumers;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    private final AtomicLong processedEvents = new AtomicLong();
+    private final AtomicLong retriedEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    @Value("${order.events.batch-size:100}")
+    private int batchSize;
+
+    @Value("${order.events.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${order.events.lease-seconds:300}")
+    private int leaseSeconds;
+
+    @Value("${order.events.retention-days:7}")
+    private int retentionDays;
+
+    public OrderEventDispatcher(OrderEventRepository orderEventRepository,
+                                List<OrderEventConsumer> consumers,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${order.events.max-concurrency:8}") int maxConcurrency) {
+        this.orderEventRepository = orderEventRepository;
+        this.consumers = List.copyOf(consumers);
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+    }
+
+    /**
+     * Ask for a drain soon, without blocking the caller
+     */
+    public void requestDrain() {
+        if (drainRequested.compareAndSet(false, true)) {
+            workers.execute(this::drain);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.events.poll-interval-ms:5000}")
+    public void poll() {
+        drain();
+    }
+
+    /**
+     * Process due events until the outbox has no more full batches
+     */
+    public void drain() {
+        if (!drainLock.tryLock()) {
+            return;     // the running drain will pick up whatever is due
+        }
+        try {
+            List<OrderEvent> batch;
+            do {
+                drainRequested.set(false);
+                batch = orderEventRepository.claimBatch(batchSize, LocalDateTime.now().plusSeconds(leaseSeconds));
+                if (!batch.isEmpty()) {
+                    process(batch);
+                }
+            } while (batch.size() == batchSize || drainRequested.get());
+        } catch (Exception e) {
+            log.error("Error draining order events", e);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${order.events.purge-cron:0 45 2 * * *}")
+    public void purgeProcessed() {
+        try {
+            int deleted = orderEventRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(retentionDays));
+            log.info("Purged {} processed order events", deleted);
+        } catch (Exception e) {
+            log.error("Error purging processed order events", e);
+        }
+    }
+
+    public DispatcherStats getStatistics() {
+        return new DispatcherStats(
+                orderEventRepository.countByStatus(OrderEvent.STATUS_PENDING),
+                orderEventRepository.countByStatus(OrderEvent.STATUS_FAILED),
+                processedEvents.get(),
+                retriedEvents.get(),
+                failedEvents.get(),
+                batches.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void process(List<OrderEvent> claimed) {
+        List<OrderEvent> batch = new ArrayList<>(claimed.size());
+        for (OrderEvent event : claimed) {
+            try {
+                event.setItems(parseItems(event.getPayload()));
+                batch.add(event);
+            } catch (Exception e) {
+                handleFailure(event, e);
+            }
+        }
+
+        for (OrderEventConsumer consumer : consumers) {
+            if (consumer.supportsBatch()) {
+                dispatchBatch(consumer, batch);
+            }
+        }
+
+        Map<Long, List<OrderEvent>> byOrder = new LinkedHashMap<>();
+        for (OrderEvent event : batch) {
+            byOrder.computeIfAbsent(event.getOrderId(), id -> new ArrayList<>()).add(event);
+        }
+
+        List<Future<?>> pending = new ArrayList<>(byOrder.size());
+        for (List<OrderEvent> events : byOrder.values()) {
+            permits.acquireUninterruptibly();
+            pending.add(workers.submit(() -> {
+                try {
+                    events.forEach(this::dispatch);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Order event worker failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        batches.incrementAndGet();
+
+        for (OrderEventConsumer consumer : consumers) {
+            try {
+                consumer.afterBatch(batch);
+            } catch (Exception e) {
+                log.warn("Order event consumer {} failed after batch: {}", consumer.name(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fast path: one transaction for all of a consumer's events in the batch. Events
+     * it covers are marked consumed and skipped by the per-event pass; if it fails,
+     * the markers roll back and the per-event pass handles them individually.
+     */
+    private void dispatchBatch(OrderEventConsumer consumer, List<OrderEvent> batch) {
+        List<OrderEvent> eligible = batch.stream()
+                .filter(event -> consumer.supports(event.getEventType()))
+                .toList();
+        if (eligible.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> fresh = new HashSet<>(orderEventRepository.markConsumedAll(
+                        eligible.stream().map(OrderEvent::getId).toList(), consumer.name()));
+                List<OrderEvent> toHandle = eligible.stream()
+                        .filter(event -> fresh.contains(event.getId()))
+                        .toList();
+                if (!toHandle.isEmpty()) {
+                    consumer.handleBatch(toHandle);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Batch handling by {} failed for {} events, falling back to per-event: {}",
+                    consumer.name(), eligible.size(), e.getMessage());
+        }
+    }
+
+    private void dispatch(OrderEvent event) {
+        try {
+            for (OrderEventConsumer consumer : consumers) {
+                if (!consumer.supports(event.getEventType())) {
+                    continue;
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (orderEventRepository.markConsumed(event.getId(), consumer.name())) {
+                        consumer.handle(event);
+                    }
+                });
+            }
+            orderEventRepository.markDone(event.getId());
+            processedEvents.incrementAndGet();
+        } catch (Exception e) {
+            handleFailure(event, e);
+        }
+    }
+
+    private void handleFailure(OrderEvent event, Exception e) {
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (event.getAttempts() >= maxAttempts) {
+            failedEvents.incrementAndGet();
+            orderEventRepository.markFailed(event.getId(), error);
+            log.error("Giving up on {} event {} for order {} after {} attempts: {}",
+                    event.getEventType(), event.getId(), event.getOrderId(), event.getAttempts(), error);
+            return;
+        }
+        retriedEvents.incrementAndGet();
+        long delaySeconds = Math.min(3600L, 5L << Math.min(event.getAttempts(), 10));
+        orderEventRepository.reschedule(event.getId(), LocalDateTime.now().plusSeconds(delaySeconds), error);
+        log.warn("{} event {} for order {} failed (attempt {}), retrying in {}s: {}",
+                event.getEventType(), event.getId(), event.getOrderId(), event.getAttempts(), delaySeconds, error);
+    }
+
+    private List<OrderEvent.Item> parseItems(String payload) throws Exception {
+        if (payload == null || payload.isBlank()) {
+            return List.of();
+        }
+        return objectMapper.readValue(payload, ITEMS_TYPE);
+    }
+
+    /**
+     * Outbox backlog and dispatcher counters since startup
+     */
+    public record DispatcherStats(
+            long pendingEvents,
+            long failedEventsStored,
+            long processedEvents,
+            long retriedEvents,
+            long failedEvents,
+            long batches
+    ) {}
+}
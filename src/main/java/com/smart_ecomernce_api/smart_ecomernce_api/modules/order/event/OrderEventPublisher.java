@@ -0,0 +1,51 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEventType;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * Records order events in the outbox as part of the current transaction and
+ * nudges the dispatcher once that transaction commits
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderEventPublisher {
+
+    private final OrderEventRepository orderEventRepository;
+    private final OrderEventDispatcher orderEventDispatcher;
+
+    public void publish(Long orderId, OrderEventType eventType) {
+        if (!orderEventRepository.append(orderId, eventType)) {
+            log.warn("Order {} not found, {} event not recorded", orderId, eventType);
+            return;
+        }
+        drainAfterCommit();
+    }
+
+    public void publishAll(Collection<Long> orderIds, OrderEventType eventType) {
+        if (orderEventRepository.appendAll(orderIds, eventType) > 0) {
+            drainAfterCommit();
+        }
+    }
+
+    private void drainAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    orderEventDispatcher.requestDrain();
+                }
+            });
+        } else {
+            orderEventDispatcher.requestDrain();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.consumer;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.OrderEventConsumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Refreshes cached views of order statistics.
+ * The order_stats counters themselves move in the order's own transaction;
+ * this only drops the cached dashboard and orders once per batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatsEventConsumer implements OrderEventConsumer {
+
+    private final CacheManager cacheManager;
+
+    @Override
+    public String name() {
+        return "order-stats";
+    }
+
+    @Override
+    public void afterBatch(List<OrderEvent> events) {
+        Cache dashboard = cacheManager.getCache("admin-dashboard");
+        if (dashboard != null) {
+            dashboard.clear();
+        }
+        Cache orders = cacheManager.getCache("orders");
+        if (orders != null) {
+            events.stream().map(OrderEvent::getOrderId).distinct().forEach(orders::evict);
+        }
+    }
+}
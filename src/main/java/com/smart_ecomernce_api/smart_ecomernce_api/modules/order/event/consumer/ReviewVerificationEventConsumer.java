@@ -0,0 +1,36 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.consumer;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEventType;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.OrderEventConsumer;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.review.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flags existing reviews of delivered products as verified purchases
+ */
+@Component
+@RequiredArgsConstructor
+public class ReviewVerificationEventConsumer implements OrderEventConsumer {
+
+    private final ReviewRepository reviewRepository;
+
+    @Override
+    public String name() {
+        return "review-verification";
+    }
+
+    @Override
+    public boolean supports(OrderEventType eventType) {
+        return eventType == OrderEventType.ORDER_DELIVERED;
+    }
+
+    @Override
+    public void handle(OrderEvent event) {
+        event.getItems().stream()
+                .map(OrderEvent.Item::productId)
+                .distinct()
+                .forEach(reviewRepository::updateVerificationStatusFromOrders);
+    }
+}
@@ -0,0 +1,113 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.consumer;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InsufficientStockException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEventType;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.OrderEventConsumer;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.StockReservationRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.InventoryEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Deducts stock for shipped orders and releases reservations of cancelled ones.
+ * Orders placed before reservations were recorded have no hold rows; their
+ * reserved units are released from the event items instead.
+ *
+ * <p>A shipped event whose stock cannot be deducted fails, so its transaction and
+ * consumption marker roll back and the dispatcher retries it with backoff, parking it
+ * as FAILED once the attempts run out.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockEventConsumer implements OrderEventConsumer {
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final InventoryEngine inventoryEngine;
+
+    @Override
+    public String name() {
+        return "stock";
+    }
+
+    @Override
+    public boolean supports(OrderEventType eventType) {
+        return eventType == OrderEventType.ORDER_SHIPPED || eventType == OrderEventType.ORDER_CANCELLED;
+    }
+
+    @Override
+    public void handle(OrderEvent event) {
+        List<Long> insufficient = apply(List.of(event));
+        if (!insufficient.isEmpty()) {
+            throw new InsufficientStockException("Insufficient stock to ship order " + event.getOrderId()
+                    + " for products " + insufficient);
+        }
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
+
+    /**
+     * Sum quantities per product across the batch and apply them in one JDBC batch each.
+     * A summed deduction can fall short where the individual orders would not, so any
+     * shortfall fails the batch: the dispatcher rolls it back and handles each event on
+     * its own, deducting the orders that fit and retrying only those that do not.
+     */
+    @Override
+    public void handleBatch(List<OrderEvent> events) {
+        List<Long> insufficient = apply(events);
+        if (!insufficient.isEmpty()) {
+            throw new InsufficientStockException("Insufficient stock for products " + insufficient
+                    + " across " + events.size() + " order events");
+        }
+    }
+
+    /**
+     * @return ids of products whose stock could not be deducted
+     */
+    private List<Long> apply(List<OrderEvent> events) {
+        Set<Long> shipped = new TreeSet<>();
+        Set<Long> cancelled = new TreeSet<>();
+        for (OrderEvent event : events) {
+            (event.getEventType() == OrderEventType.ORDER_SHIPPED ? shipped : cancelled).add(event.getOrderId());
+        }
+        stockReservationRepository.consumeForOrders(shipped);
+        Set<Long> touched = new TreeSet<>();
+        stockReservationRepository.releaseForOrders(cancelled).forEach(released -> touched.add(released.productId()));
+        Set<Long> withReservations = stockReservationRepository.findOrderIdsWithReservations(cancelled);
+
+        Map<Long, Integer> deductions = new TreeMap<>();
+        Map<Long, Integer> releases = new TreeMap<>();
+        for (OrderEvent event : events) {
+            Map<Long, Integer> target;
+            if (event.getEventType() == OrderEventType.ORDER_SHIPPED) {
+                target = deductions;
+            } else if (!withReservations.contains(event.getOrderId())) {
+                target = releases;
+            } else {
+                continue;
+            }
+            for (OrderEvent.Item item : event.getItems()) {
+                target.merge(item.productId(), item.quantity(), Integer::sum);
+            }
+        }
+
+        List<Long> insufficient = deductions.isEmpty()
+                ? List.of() : productRepository.deductStockBatch(deductions);
+        if (!releases.isEmpty()) {
+            productRepository.releaseReservedStockBatch(releases);
+        }
+        touched.addAll(deductions.keySet());
+        touched.addAll(releases.keySet());
+        inventoryEngine.recompute(touched);
+        return insufficient;
+    }
+}
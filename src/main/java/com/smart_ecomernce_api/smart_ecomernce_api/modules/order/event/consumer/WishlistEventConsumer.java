@@ -0,0 +1,44 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.consumer;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEventType;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.OrderEventConsumer;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.WishlistItem;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.WishlistRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Marks wishlist entries as purchased once the order is delivered
+ */
+@Component
+@RequiredArgsConstructor
+public class WishlistEventConsumer implements OrderEventConsumer {
+
+    private final WishlistRepository wishlistRepository;
+
+    @Override
+    public String name() {
+        return "wishlist";
+    }
+
+    @Override
+    public boolean supports(OrderEventType eventType) {
+        return eventType == OrderEventType.ORDER_DELIVERED;
+    }
+
+    @Override
+    public void handle(OrderEvent event) {
+        if (event.getUserId() == null || event.getItems().isEmpty()) {
+            return;
+        }
+        List<Long> productIds = event.getItems().stream().map(OrderEvent.Item::productId).toList();
+        for (WishlistItem item : wishlistRepository.findByUserIdAndProductIdIn(event.getUserId(), productIds)) {
+            if (!Boolean.TRUE.equals(item.getPurchased())) {
+                wishlistRepository.markAsPurchased(item.getId());
+            }
+        }
+    }
+}
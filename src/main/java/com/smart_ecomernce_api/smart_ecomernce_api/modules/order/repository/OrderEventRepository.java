@@ -0,0 +1,69 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEventType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC Repository for the order event outbox
+ */
+public interface OrderEventRepository {
+
+    /**
+     * Append an event for an order, capturing its user and items. Runs in the caller's transaction.
+     * @return false if the order does not exist
+     */
+    boolean append(Long orderId, OrderEventType eventType);
+
+    /**
+     * Append the same event type for several orders in one statement
+     * @return number of events appended
+     */
+    int appendAll(Collection<Long> orderIds, OrderEventType eventType);
+
+    /**
+     * Claim up to {@code limit} due events (pending, or processing with an expired lease)
+     * @return the claimed events in id order
+     */
+    List<OrderEvent> claimBatch(int limit, LocalDateTime leaseUntil);
+
+    /**
+     * Record that a consumer handled an event
+     * @return false if it was already recorded
+     */
+    boolean markConsumed(Long eventId, String consumer);
+
+    /**
+     * Record that a consumer handled several events
+     * @return ids of the events that were not already recorded
+     */
+    List<Long> markConsumedAll(Collection<Long> eventIds, String consumer);
+
+    /**
+     * Mark an event as fully processed
+     */
+    void markDone(Long eventId);
+
+    /**
+     * Return an event to the queue for another attempt
+     */
+    void reschedule(Long eventId, LocalDateTime availableAt, String error);
+
+    /**
+     * Give up on an event
+     */
+    void markFailed(Long eventId, String error);
+
+    /**
+     * Count events in a status
+     */
+    long countByStatus(String status);
+
+    /**
+     * Delete processed events (and their consumption markers) older than the cutoff
+     */
+    int deleteProcessedBefore(LocalDateTime cutoff);
+}
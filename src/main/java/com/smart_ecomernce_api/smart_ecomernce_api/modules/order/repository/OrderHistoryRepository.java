@@ -0,0 +1,39 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderHistoryEntry;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC Repository for the order history read model
+ */
+public interface OrderHistoryRepository {
+
+    /**
+     * Rebuild the history rows of the given orders from orders and order_items
+     */
+    void refresh(Collection<Long> orderIds);
+
+    /**
+     * Remove the history rows of deleted orders
+     */
+    void deleteByOrderIds(Collection<Long> orderIds);
+
+    /**
+     * Create history rows for up to {@code limit} orders with id above {@code afterOrderId} that have none
+     * @return highest order id written, or null when nothing was left
+     */
+    Long backfill(long afterOrderId, int limit);
+
+    /**
+     * A user's orders, newest first, strictly after the keyset position when one is given
+     * @param status optional status filter
+     * @param afterOrderDate order date of the last row of the previous page, or null for the first page
+     * @param afterOrderId order id of the last row of the previous page
+     */
+    List<OrderHistoryEntry> findPage(Long userId, OrderStatus status,
+                                     LocalDateTime afterOrderDate, Long afterOrderId, int limit);
+}
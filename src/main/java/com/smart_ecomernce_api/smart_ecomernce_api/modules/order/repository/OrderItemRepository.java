@@ -2,9 +2,11 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderItem;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
 /**
  * JDBC-based OrderItem Repository Interface
@@ -46,6 +48,12 @@ public interface OrderItemRepository {
      */
     List<Map<String, Object>> findBestSellingProducts(int limit);
 
+    /**
+     * Stream (order id, product id) pairs for orders placed since the given date with id
+     * above {@code afterOrderId}, ordered by order id; cancelled, refunded and failed orders are skipped
+     */
+    void streamOrderProducts(long afterOrderId, LocalDateTime since, BiConsumer<Long, Long> consumer);
+
     /**
      * Get total quantity sold for a product
      */
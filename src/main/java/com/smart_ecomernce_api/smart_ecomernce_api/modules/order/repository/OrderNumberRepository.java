@@ -0,0 +1,27 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository;
+
+import java.util.Optional;
+
+/**
+ * JDBC Repository for order number node leases
+ */
+public interface OrderNumberRepository {
+
+    /**
+     * Lease the lowest node id in {@code [0, nodeCount)} that is free or whose lease has expired.
+     * Lease times are taken from the database clock.
+     * @return the leased id, or empty if every id is held or another instance won the race for it
+     */
+    Optional<Integer> claimNodeId(int nodeCount, String owner, int leaseSeconds);
+
+    /**
+     * Extend the lease on a node id
+     * @return false if the lease has been taken over by another owner
+     */
+    boolean renewLease(int nodeId, String owner, int leaseSeconds);
+
+    /**
+     * Give up a node id so it can be claimed straight away
+     */
+    void releaseNodeId(int nodeId, String owner);
+}
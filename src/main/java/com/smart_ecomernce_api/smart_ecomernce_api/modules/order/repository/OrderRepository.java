@@ -7,8 +7,11 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentS
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface OrderRepository {
 
@@ -125,4 +128,55 @@ public interface OrderRepository {
     void updateStatus(Long orderId, OrderStatus newStatus);
 
     void updatePaymentStatus(Long orderId, PaymentStatus newStatus);
+
+    /**
+     * Find and lock orders by ID, in id order
+     */
+    List<Order> findAllByIdForUpdate(Collection<Long> ids);
+
+    /**
+     * Write status, shipment, delivery and cancellation fields of several orders in one JDBC batch.
+     * Each order is only updated while it is still in its previous status.
+     * @return update count per order, in input order
+     */
+    int[] batchUpdateTransitions(List<Order> orders, Map<Long, OrderStatus> previousStatuses);
+
+    /**
+     * Stream orders placed in {@code [from, to)} joined with their items through a server-side cursor,
+     * ordered by order date, order id and item id; must run inside a transaction
+     * @param status optional status filter
+     */
+    void streamForExport(LocalDateTime from, LocalDateTime to, OrderStatus status, int fetchSize,
+                         Consumer<ExportRow> consumer);
+
+    /**
+     * One item of an exported order; item fields are null for orders without items
+     */
+    record ExportRow(
+            Long orderId,
+            String orderNumber,
+            LocalDateTime orderDate,
+            Long userId,
+            String customerEmail,
+            String customerName,
+            String status,
+            String paymentStatus,
+            String paymentMethod,
+            String paymentTransactionId,
+            BigDecimal subtotal,
+            BigDecimal taxAmount,
+            BigDecimal shippingCost,
+            BigDecimal discountAmount,
+            BigDecimal totalAmount,
+            String couponCode,
+            LocalDateTime paidAt,
+            BigDecimal refundAmount,
+            Long itemId,
+            Long productId,
+            String productName,
+            Integer quantity,
+            BigDecimal unitPrice,
+            BigDecimal itemDiscount,
+            BigDecimal itemTotal
+    ) {}
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC Repository for the order_stats counter table and its all-time order_stat_totals
+ */
+public interface OrderStatsRepository {
+
+    /**
+     * Add the given deltas to their counter rows and to the all-time totals, creating rows
+     * as needed. Runs in the caller's transaction.
+     */
+    void applyDeltas(Collection<Delta> deltas);
+
+    /**
+     * All-time counters, one entry per status / payment status pair; reads the totals
+     * rows, not the per-day ones
+     */
+    List<Bucket> findTotals();
+
+    /**
+     * Sum of order totals with the given payment status for days in [fromDay, toDay]
+     */
+    BigDecimal sumAmount(PaymentStatus paymentStatus, LocalDate fromDay, LocalDate toDay);
+
+    /**
+     * Recount orders placed on days in [fromDay, toDay) and add the difference to the counters
+     * and the totals
+     * @return number of counter rows that had drifted
+     */
+    int reconcile(LocalDate fromDay, LocalDate toDay);
+
+    /**
+     * Add the difference between the per-day counters and the totals to the totals
+     * @return number of status / payment status pairs that had drifted
+     */
+    int reconcileTotals();
+
+    /**
+     * Whether any counter rows exist
+     */
+    boolean isEmpty();
+
+    /**
+     * A change to one counter bucket
+     */
+    record Delta(LocalDate day, OrderStatus status, PaymentStatus paymentStatus, long count, BigDecimal amount) {}
+
+    /**
+     * Aggregated counter values for a status / payment status pair
+     */
+    record Bucket(OrderStatus status, PaymentStatus paymentStatus, long orderCount, BigDecimal totalAmount) {}
+}
@@ -0,0 +1,56 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC Repository for stock reservations
+ */
+public interface StockReservationRepository {
+
+    /**
+     * Record held quantities per product for an order
+     */
+    void holdAll(Long orderId, Map<Long, Integer> quantities, LocalDateTime expiresAt);
+
+    /**
+     * Release up to {@code limit} expired holds of unpaid pending orders and return
+     * their units to the products, in one statement. Holds whose order or
+     * reservation row is locked by another transaction are skipped.
+     */
+    List<Released> releaseExpired(LocalDateTime now, int limit);
+
+    /**
+     * Release every hold of the given orders and return their units to the products
+     */
+    List<Released> releaseForOrders(Collection<Long> orderIds);
+
+    /**
+     * Mark every hold of the given orders as consumed by shipment
+     * @return number of holds consumed
+     */
+    int consumeForOrders(Collection<Long> orderIds);
+
+    /**
+     * Ids among the given orders that have any reservation row, whatever its status
+     */
+    Set<Long> findOrderIdsWithReservations(Collection<Long> orderIds);
+
+    /**
+     * Distinct expiry times, rounded up to the second, of holds expiring before {@code until},
+     * earliest first
+     */
+    List<LocalDateTime> findUpcomingExpiries(LocalDateTime until, int limit);
+
+    /**
+     * Number of holds and units currently held
+     */
+    HeldTotals findHeldTotals();
+
+    record Released(Long orderId, Long productId, int quantity) {}
+
+    record HeldTotals(long reservations, long units) {}
+}
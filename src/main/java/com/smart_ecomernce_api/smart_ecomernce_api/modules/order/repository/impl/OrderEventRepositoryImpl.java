@@ -0,0 +1,225 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils.QueryResult;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEventType;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JDBC-based implementation of OrderEventRepository
+ */
+@Repository
+public class OrderEventRepositoryImpl implements OrderEventRepository {
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventRepositoryImpl.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcUtils jdbcUtils;
+
+    public OrderEventRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    private final RowMapper<OrderEvent> rowMapper = (rs, rowNum) -> {
+        OrderEvent event = new OrderEvent();
+        event.setId(rs.getLong("id"));
+        event.setEventType(OrderEventType.valueOf(rs.getString("event_type")));
+        event.setOrderId(rs.getLong("order_id"));
+        event.setUserId(rs.getObject("user_id", Long.class));
+        event.setPayload(rs.getString("payload"));
+        event.setStatus(rs.getString("status"));
+        event.setAttempts(rs.getInt("attempts"));
+
+        Timestamp availableAt = rs.getTimestamp("available_at");
+        if (availableAt != null) {
+            event.setAvailableAt(availableAt.toLocalDateTime());
+        }
+        Timestamp lockedUntil = rs.getTimestamp("locked_until");
+        if (lockedUntil != null) {
+            event.setLockedUntil(lockedUntil.toLocalDateTime());
+        }
+        return event;
+    };
+
+    // Items are ordered by product so consumers touch product rows in a consistent order
+    private static final String APPEND_SELECT = """
+                INSERT INTO order_events
+                    (event_type, order_id, user_id, payload, status, attempts, available_at,
+                     is_active, created_at, updated_at)
+                SELECT ?, o.id, o.user_id,
+                       COALESCE((SELECT CAST(json_agg(json_build_object(
+                                            'productId', oi.product_id, 'quantity', oi.quantity)
+                                        ORDER BY oi.product_id) AS TEXT)
+                                 FROM order_items oi
+                                 WHERE oi.order_id = o.id AND oi.product_id IS NOT NULL), '[]'),
+                       ?, 0, ?, true, ?, ?
+                FROM orders o
+                """;
+
+    @Override
+    public boolean append(Long orderId, OrderEventType eventType) {
+        String sql = APPEND_SELECT + " WHERE o.id = ?";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        QueryResult result = jdbcUtils.executePreparedQuery(sql,
+                eventType.name(), OrderEvent.STATUS_PENDING, now, now, now, orderId);
+
+        if (result.hasError()) {
+            logger.error("Failed to append {} event for order {}: {}", eventType, orderId, result.getError());
+            throw new IllegalStateException("Failed to record order event");
+        }
+        return result.getAffectedRows() > 0;
+    }
+
+    @Override
+    public int appendAll(Collection<Long> orderIds, OrderEventType eventType) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(orderIds.size(), "?"));
+        String sql = APPEND_SELECT + " WHERE o.id IN (" + placeholders + ") ORDER BY o.id";
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> params = new ArrayList<>(List.of(eventType.name(), OrderEvent.STATUS_PENDING, now, now, now));
+        params.addAll(orderIds);
+        QueryResult result = jdbcUtils.executePreparedQuery(sql, params.toArray());
+
+        if (result.hasError()) {
+            logger.error("Failed to append {} events for {} orders: {}", eventType, orderIds.size(), result.getError());
+            throw new IllegalStateException("Failed to record order events");
+        }
+        return result.getAffectedRows();
+    }
+
+    @Override
+    public List<OrderEvent> claimBatch(int limit, LocalDateTime leaseUntil) {
+        String sql = """
+                UPDATE order_events
+                SET status = ?, locked_until = ?, attempts = attempts + 1, updated_at = ?
+                WHERE id IN (
+                    SELECT id FROM order_events
+                    WHERE (status = ? AND available_at <= ?)
+                       OR (status = ? AND locked_until < ?)
+                    ORDER BY id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id, event_type, order_id, user_id, payload, status, attempts, available_at, locked_until
+                """;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<OrderEvent> claimed = new ArrayList<>(jdbcUtils.query(sql, rowMapper,
+                OrderEvent.STATUS_PROCESSING, Timestamp.valueOf(leaseUntil), now,
+                OrderEvent.STATUS_PENDING, now,
+                OrderEvent.STATUS_PROCESSING, now,
+                limit));
+        claimed.sort(Comparator.comparing(OrderEvent::getId));
+        return claimed;
+    }
+
+    @Override
+    public boolean markConsumed(Long eventId, String consumer) {
+        String sql = """
+                INSERT INTO order_event_consumptions (event_id, consumer, is_active, created_at, updated_at)
+                VALUES (?, ?, true, ?, ?)
+                ON CONFLICT (event_id, consumer) DO NOTHING
+                """;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        QueryResult result = jdbcUtils.executePreparedQuery(sql, eventId, consumer, now, now);
+        if (result.hasError()) {
+            throw new IllegalStateException("Failed to record consumption of event " + eventId + ": " + result.getError());
+        }
+        return result.getAffectedRows() > 0;
+    }
+
+    @Override
+    public List<Long> markConsumedAll(Collection<Long> eventIds, String consumer) {
+        if (eventIds.isEmpty()) {
+            return List.of();
+        }
+        String values = String.join(",", Collections.nCopies(eventIds.size(), "(?, ?, true, ?, ?)"));
+        String sql = "INSERT INTO order_event_consumptions (event_id, consumer, is_active, created_at, updated_at) "
+                + "VALUES " + values
+                + " ON CONFLICT (event_id, consumer) DO NOTHING RETURNING event_id";
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> params = new ArrayList<>(eventIds.size() * 4);
+        for (Long eventId : eventIds) {
+            params.add(eventId);
+            params.add(consumer);
+            params.add(now);
+            params.add(now);
+        }
+        return jdbcUtils.query(sql, (rs, rowNum) -> rs.getLong("event_id"), params.toArray());
+    }
+
+    @Override
+    public void markDone(Long eventId) {
+        String sql = """
+                UPDATE order_events
+                SET status = ?, processed_at = ?, locked_until = NULL, last_error = NULL, updated_at = ?
+                WHERE id = ?
+                """;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcUtils.executePreparedQuery(sql, OrderEvent.STATUS_DONE, now, now, eventId);
+    }
+
+    @Override
+    public void reschedule(Long eventId, LocalDateTime availableAt, String error) {
+        String sql = """
+                UPDATE order_events
+                SET status = ?, available_at = ?, locked_until = NULL, last_error = ?, updated_at = ?
+                WHERE id = ?
+                """;
+        jdbcUtils.executePreparedQuery(sql, OrderEvent.STATUS_PENDING, Timestamp.valueOf(availableAt),
+                truncate(error), Timestamp.valueOf(LocalDateTime.now()), eventId);
+    }
+
+    @Override
+    public void markFailed(Long eventId, String error) {
+        String sql = """
+                UPDATE order_events
+                SET status = ?, locked_until = NULL, last_error = ?, updated_at = ?
+                WHERE id = ?
+                """;
+        jdbcUtils.executePreparedQuery(sql, OrderEvent.STATUS_FAILED, truncate(error),
+                Timestamp.valueOf(LocalDateTime.now()), eventId);
+    }
+
+    @Override
+    public long countByStatus(String status) {
+        Long count = jdbcUtils.queryForObject("SELECT COUNT(*) FROM order_events WHERE status = ?", Long.class, status);
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public int deleteProcessedBefore(LocalDateTime cutoff) {
+        Timestamp cutoffTs = Timestamp.valueOf(cutoff);
+        jdbcUtils.executePreparedQuery("""
+                DELETE FROM order_event_consumptions
+                WHERE event_id IN (SELECT id FROM order_events WHERE status = ? AND processed_at < ?)
+                """, OrderEvent.STATUS_DONE, cutoffTs);
+        QueryResult result = jdbcUtils.executePreparedQuery(
+                "DELETE FROM order_events WHERE status = ? AND processed_at < ?",
+                OrderEvent.STATUS_DONE, cutoffTs);
+        return result.hasError() ? 0 : result.getAffectedRows();
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,155 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderHistoryEntry;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderHistoryRepository;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * JDBC-based implementation of OrderHistoryRepository
+ */
+@Repository
+public class OrderHistoryRepositoryImpl implements OrderHistoryRepository {
+
+    /**
+     * Projects orders selected by the {@code %s} condition into history rows, replacing existing ones
+     */
+    private static final String UPSERT = """
+            INSERT INTO order_history (
+                order_id, user_id, order_number, order_date, status, payment_status,
+                item_count, total_quantity, first_item_name, first_item_image_url,
+                subtotal, discount_amount, tax_amount, shipping_cost, total_amount,
+                is_active, created_at, updated_at
+            )
+            SELECT o.id, o.user_id, o.order_number, o.order_date, o.status, o.payment_status,
+                   COALESCE(i.item_count, 0), COALESCE(i.total_quantity, 0), f.product_name, f.image_url,
+                   o.subtotal, o.discount_amount, o.tax_amount, o.shipping_cost, o.total_amount,
+                   true, ?, ?
+            FROM orders o
+            LEFT JOIN LATERAL (
+                SELECT COUNT(*) AS item_count, SUM(quantity) AS total_quantity
+                FROM order_items WHERE order_id = o.id
+            ) i ON true
+            LEFT JOIN LATERAL (
+                SELECT oi.product_name, COALESCE(oi.product_image_url, p.thumbnail_url, p.image_url) AS image_url
+                FROM order_items oi
+                LEFT JOIN products p ON p.id = oi.product_id
+                WHERE oi.order_id = o.id
+                ORDER BY oi.id
+                LIMIT 1
+            ) f ON true
+            WHERE o.user_id IS NOT NULL AND %s
+            ON CONFLICT (order_id) DO UPDATE SET
+                order_number = EXCLUDED.order_number,
+                status = EXCLUDED.status,
+                payment_status = EXCLUDED.payment_status,
+                item_count = EXCLUDED.item_count,
+                total_quantity = EXCLUDED.total_quantity,
+                first_item_name = EXCLUDED.first_item_name,
+                first_item_image_url = EXCLUDED.first_item_image_url,
+                subtotal = EXCLUDED.subtotal,
+                discount_amount = EXCLUDED.discount_amount,
+                tax_amount = EXCLUDED.tax_amount,
+                shipping_cost = EXCLUDED.shipping_cost,
+                total_amount = EXCLUDED.total_amount,
+                updated_at = EXCLUDED.updated_at
+            RETURNING order_id
+            """;
+
+    private final JdbcUtils jdbcUtils;
+
+    public OrderHistoryRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    private final RowMapper<OrderHistoryEntry> entryRowMapper = (rs, rowNum) -> OrderHistoryEntry.builder()
+            .id(rs.getLong("id"))
+            .orderId(rs.getLong("order_id"))
+            .userId(rs.getLong("user_id"))
+            .orderNumber(rs.getString("order_number"))
+            .orderDate(rs.getTimestamp("order_date").toLocalDateTime())
+            .status(OrderStatus.valueOf(rs.getString("status")))
+            .paymentStatus(PaymentStatus.valueOf(rs.getString("payment_status")))
+            .itemCount(rs.getInt("item_count"))
+            .totalQuantity(rs.getInt("total_quantity"))
+            .firstItemName(rs.getString("first_item_name"))
+            .firstItemImageUrl(rs.getString("first_item_image_url"))
+            .subtotal(rs.getBigDecimal("subtotal"))
+            .discountAmount(rs.getBigDecimal("discount_amount"))
+            .taxAmount(rs.getBigDecimal("tax_amount"))
+            .shippingCost(rs.getBigDecimal("shipping_cost"))
+            .totalAmount(rs.getBigDecimal("total_amount"))
+            .build();
+
+    @Override
+    public void refresh(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        // Sorted so concurrent refreshes touch history rows in the same order
+        List<Long> ids = new ArrayList<>(new TreeSet<>(orderIds));
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        String sql = UPSERT.formatted("o.id IN (" + placeholders + ")");
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> params = new ArrayList<>();
+        params.add(now);
+        params.add(now);
+        params.addAll(ids);
+        jdbcUtils.query(sql, (rs, rowNum) -> rs.getLong("order_id"), params.toArray());
+    }
+
+    @Override
+    public void deleteByOrderIds(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(",", Collections.nCopies(orderIds.size(), "?"));
+        jdbcUtils.executePreparedQuery("DELETE FROM order_history WHERE order_id IN (" + placeholders + ")",
+                orderIds.toArray());
+    }
+
+    @Override
+    public Long backfill(long afterOrderId, int limit) {
+        String sql = UPSERT.formatted("""
+                o.id IN (
+                    SELECT x.id FROM orders x
+                    WHERE x.id > ? AND x.user_id IS NOT NULL
+                      AND NOT EXISTS (SELECT 1 FROM order_history h WHERE h.order_id = x.id)
+                    ORDER BY x.id
+                    LIMIT ?
+                )""");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> written = jdbcUtils.query(sql, (rs, rowNum) -> rs.getLong("order_id"),
+                now, now, afterOrderId, limit);
+        return written.stream().max(Long::compare).orElse(null);
+    }
+
+    @Override
+    public List<OrderHistoryEntry> findPage(Long userId, OrderStatus status,
+                                            LocalDateTime afterOrderDate, Long afterOrderId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM order_history WHERE user_id = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        if (status != null) {
+            sql.append(" AND status = ?");
+            params.add(status.name());
+        }
+        if (afterOrderDate != null && afterOrderId != null) {
+            // Row comparison matches the (order_date DESC, order_id DESC) index order
+            sql.append(" AND (order_date, order_id) < (?, ?)");
+            params.add(Timestamp.valueOf(afterOrderDate));
+            params.add(afterOrderId);
+        }
+        sql.append(" ORDER BY order_date DESC, order_id DESC LIMIT ?");
+        params.add(limit);
+        return jdbcUtils.query(sql.toString(), entryRowMapper, params.toArray());
+    }
+}
@@ -1,17 +1,24 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.impl;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity.SalesMeasure;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.SalesRollupRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderItem;
-
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderHistoryRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderItemRepository;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 /**
  * JDBC-based OrderItem Repository Implementation
@@ -20,9 +27,20 @@ import java.util.*;
 public class OrderItemRepositoryImpl implements OrderItemRepository {
 
     private final JdbcUtils jdbcUtils;
+    private final OrderHistoryRepository orderHistoryRepository;
+    private final SalesRollupRepository salesRollupRepository;
+
+    /**
+     * Start of the all-time range used for lifetime product statistics
+     */
+    private static final LocalDateTime ALL_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
 
-    public OrderItemRepositoryImpl(JdbcUtils jdbcUtils) {
+    public OrderItemRepositoryImpl(JdbcUtils jdbcUtils,
+                                   OrderHistoryRepository orderHistoryRepository,
+                                   SalesRollupRepository salesRollupRepository) {
         this.jdbcUtils = jdbcUtils;
+        this.orderHistoryRepository = orderHistoryRepository;
+        this.salesRollupRepository = salesRollupRepository;
     }
 
     /**
@@ -53,6 +71,14 @@ public class OrderItemRepositoryImpl implements OrderItemRepository {
 
     @Override
     public OrderItem save(OrderItem orderItem) {
+        insert(orderItem);
+        if (orderItem.getOrder() != null) {
+            orderHistoryRepository.refresh(List.of(orderItem.getOrder().getId()));
+        }
+        return orderItem;
+    }
+
+    private void insert(OrderItem orderItem) {
         String sql = """
             INSERT INTO order_items (
                 order_id, product_id, product_name, quantity, unit_price, 
@@ -79,8 +105,6 @@ public class OrderItemRepositoryImpl implements OrderItemRepository {
             orderItem.setId(result.getGeneratedKey());
         }
         orderItem.setTotalPrice(totalPrice);
-
-        return orderItem;
     }
 
     @Override
@@ -90,11 +114,12 @@ public class OrderItemRepositoryImpl implements OrderItemRepository {
                 product_name = ?, quantity = ?, unit_price = ?, 
                 discount = ?, product_image_url = ?, total_price = ?, updated_at = ?
             WHERE id = ?
+            RETURNING order_id
         """;
 
         BigDecimal totalPrice = calculateTotalPrice(orderItem);
 
-        jdbcUtils.executePreparedQuery(sql,
+        List<Long> orderIds = jdbcUtils.query(sql, (rs, rowNum) -> rs.getLong("order_id"),
                 orderItem.getProductName(),
                 orderItem.getQuantity(),
                 orderItem.getUnitPrice(),
@@ -104,6 +129,7 @@ public class OrderItemRepositoryImpl implements OrderItemRepository {
                 LocalDateTime.now(),
                 orderItem.getId()
         );
+        orderHistoryRepository.refresh(orderIds);
 
         orderItem.setTotalPrice(totalPrice);
         return orderItem;
@@ -136,49 +162,51 @@ public class OrderItemRepositoryImpl implements OrderItemRepository {
 
     @Override
     public List<Map<String, Object>> findBestSellingProducts(int limit) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (SalesRollupRepository.ProductSales sales : salesRollupRepository.findTopProducts(
+                SalesMeasure.DELIVERED, ALL_TIME, LocalDateTime.now(), limit)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("product_id", sales.productId());
+            row.put("product_name", sales.productName());
+            row.put("total_quantity_sold", sales.units());
+            row.put("total_orders", sales.orders());
+            row.put("total_revenue", sales.revenue());
+            results.add(row);
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOrderProducts(long afterOrderId, LocalDateTime since, BiConsumer<Long, Long> consumer) {
         String sql = """
-            SELECT 
-                oi.product_id,
-                oi.product_name,
-                SUM(oi.quantity) as total_quantity_sold,
-                COUNT(DISTINCT oi.order_id) as total_orders,
-                SUM(oi.total_price) as total_revenue
+            SELECT oi.order_id, oi.product_id
             FROM order_items oi
             JOIN orders o ON oi.order_id = o.id
-            WHERE o.status = 'DELIVERED'
-            GROUP BY oi.product_id, oi.product_name
-            ORDER BY total_quantity_sold DESC
-            LIMIT ?
+            WHERE o.id > ?
+              AND o.order_date >= ?
+              AND o.status NOT IN ('CANCELLED', 'REFUNDED', 'FAILED')
+              AND oi.product_id IS NOT NULL
+            ORDER BY oi.order_id
         """;
 
-        JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(sql, limit);
-        return result.getResultSet();
+        // The PostgreSQL driver only honours the fetch size with autocommit off, hence the transaction;
+        // otherwise it buffers every pair of the window before the first callback
+        jdbcUtils.getJdbcTemplate().query(sql,
+                (RowCallbackHandler) rs -> consumer.accept(rs.getLong("order_id"), rs.getLong("product_id")),
+                afterOrderId, Timestamp.valueOf(since));
     }
 
     @Override
     public Long getTotalQuantitySoldByProductId(Long productId) {
-        String sql = """
-            SELECT COALESCE(SUM(oi.quantity), 0) as total_quantity
-            FROM order_items oi
-            JOIN orders o ON oi.order_id = o.id
-            WHERE oi.product_id = ? AND o.status = 'DELIVERED'
-        """;
-
-        Long quantity = jdbcUtils.queryForObject(sql, Long.class, productId);
-        return quantity != null ? quantity : 0L;
+        return salesRollupRepository.findProductSales(
+                productId, SalesMeasure.DELIVERED, ALL_TIME, LocalDateTime.now()).units();
     }
 
     @Override
     public BigDecimal getTotalRevenueByProductId(Long productId) {
-        String sql = """
-            SELECT COALESCE(SUM(oi.total_price), 0) as total_revenue
-            FROM order_items oi
-            JOIN orders o ON oi.order_id = o.id
-            WHERE oi.product_id = ? AND o.payment_status = 'PAID'
-        """;
-
-        BigDecimal revenue = jdbcUtils.queryForObject(sql, BigDecimal.class, productId);
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        return salesRollupRepository.findProductSales(
+                productId, SalesMeasure.PAID, ALL_TIME, LocalDateTime.now()).revenue();
     }
 
     @Override
@@ -190,15 +218,17 @@ public class OrderItemRepositoryImpl implements OrderItemRepository {
 
     @Override
     public boolean deleteById(Long id) {
-        String sql = "DELETE FROM order_items WHERE id = ?";
-        JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(sql, id);
-        return result.getAffectedRows() > 0;
+        String sql = "DELETE FROM order_items WHERE id = ? RETURNING order_id";
+        List<Long> orderIds = jdbcUtils.query(sql, (rs, rowNum) -> rs.getLong("order_id"), id);
+        orderHistoryRepository.refresh(orderIds);
+        return !orderIds.isEmpty();
     }
 
     @Override
     public int deleteByOrderId(Long orderId) {
         String sql = "DELETE FROM order_items WHERE order_id = ?";
         JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(sql, orderId);
+        orderHistoryRepository.refresh(List.of(orderId));
         return result.getAffectedRows();
     }
 
@@ -212,11 +242,16 @@ public class OrderItemRepositoryImpl implements OrderItemRepository {
     @Override
     public List<OrderItem> saveAll(List<OrderItem> orderItems) {
         List<OrderItem> savedItems = new ArrayList<>();
+        Set<Long> orderIds = new HashSet<>();
 
         for (OrderItem item : orderItems) {
-            OrderItem savedItem = save(item);
-            savedItems.add(savedItem);
+            insert(item);
+            savedItems.add(item);
+            if (item.getOrder() != null) {
+                orderIds.add(item.getOrder().getId());
+            }
         }
+        orderHistoryRepository.refresh(orderIds);
 
         return savedItems;
     }
@@ -225,13 +260,6 @@ public class OrderItemRepositoryImpl implements OrderItemRepository {
      * Helper method to calculate total price for an order item
      */
     private BigDecimal calculateTotalPrice(OrderItem orderItem) {
-        BigDecimal total = orderItem.getUnitPrice()
-                .multiply(BigDecimal.valueOf(orderItem.getQuantity()));
-
-        if (orderItem.getDiscount() != null && orderItem.getDiscount().compareTo(BigDecimal.ZERO) > 0) {
-            total = total.subtract(orderItem.getDiscount());
-        }
-
-        return total.max(BigDecimal.ZERO);
+        return orderItem.lineTotal().toBigDecimal();
     }
 }
\ No newline at end of file
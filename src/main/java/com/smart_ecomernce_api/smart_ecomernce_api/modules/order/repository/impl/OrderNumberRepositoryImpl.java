@@ -0,0 +1,62 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderNumberRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC-based implementation of OrderNumberRepository
+ */
+@Repository
+public class OrderNumberRepositoryImpl implements OrderNumberRepository {
+
+    private final JdbcUtils jdbcUtils;
+
+    public OrderNumberRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    /**
+     * Two instances picking the same id both reach the conflict clause; the second finds
+     * the lease already renewed, updates nothing and gets no row back.
+     */
+    @Override
+    public Optional<Integer> claimNodeId(int nodeCount, String owner, int leaseSeconds) {
+        String sql = """
+                INSERT INTO order_number_nodes (node_id, owner, lease_until, is_active, created_at, updated_at)
+                SELECT n, ?, LOCALTIMESTAMP + make_interval(secs => ?), true, LOCALTIMESTAMP, LOCALTIMESTAMP
+                FROM generate_series(0, ? - 1) n
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM order_number_nodes x WHERE x.node_id = n AND x.lease_until > LOCALTIMESTAMP
+                )
+                ORDER BY n
+                LIMIT 1
+                ON CONFLICT (node_id) DO UPDATE SET
+                    owner = EXCLUDED.owner,
+                    lease_until = EXCLUDED.lease_until,
+                    updated_at = EXCLUDED.updated_at
+                WHERE order_number_nodes.lease_until <= LOCALTIMESTAMP
+                RETURNING node_id
+                """;
+        List<Integer> claimed = jdbcUtils.query(sql, (rs, rowNum) -> rs.getInt("node_id"),
+                owner, leaseSeconds, nodeCount);
+        return claimed.stream().findFirst();
+    }
+
+    @Override
+    public boolean renewLease(int nodeId, String owner, int leaseSeconds) {
+        String sql = "UPDATE order_number_nodes SET lease_until = LOCALTIMESTAMP + make_interval(secs => ?), " +
+                "updated_at = LOCALTIMESTAMP WHERE node_id = ? AND owner = ?";
+        JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(sql, leaseSeconds, nodeId, owner);
+        return !result.hasError() && result.getAffectedRows() > 0;
+    }
+
+    @Override
+    public void releaseNodeId(int nodeId, String owner) {
+        jdbcUtils.executePreparedQuery("DELETE FROM order_number_nodes WHERE node_id = ? AND owner = ?",
+                nodeId, owner);
+    }
+}
@@ -2,17 +2,26 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.imp
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.SalesRollupRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderStatsResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.*;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderHistoryRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderStatsRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * JDBC-based Order Repository Implementation
@@ -21,11 +30,51 @@ import java.util.*;
 public class OrderRepositoryImpl implements OrderRepository {
 
     private final JdbcUtils jdbcUtils;
-
-    public OrderRepositoryImpl(JdbcUtils jdbcUtils) {
+    private final OrderStatsRepository orderStatsRepository;
+    private final OrderHistoryRepository orderHistoryRepository;
+    private final SalesRollupRepository salesRollupRepository;
+
+    public OrderRepositoryImpl(JdbcUtils jdbcUtils,
+                               OrderStatsRepository orderStatsRepository,
+                               OrderHistoryRepository orderHistoryRepository,
+                               SalesRollupRepository salesRollupRepository) {
         this.jdbcUtils = jdbcUtils;
+        this.orderStatsRepository = orderStatsRepository;
+        this.orderHistoryRepository = orderHistoryRepository;
+        this.salesRollupRepository = salesRollupRepository;
     }
 
+    /**
+     * Counter-relevant state of an order before and after a write
+     */
+    private record StatsTransition(LocalDate day,
+                                   String oldStatus, String oldPaymentStatus, BigDecimal oldTotal,
+                                   String newStatus, String newPaymentStatus, BigDecimal newTotal) {}
+
+    private final RowMapper<StatsTransition> transitionRowMapper = (rs, rowNum) -> new StatsTransition(
+            rs.getTimestamp("order_date").toLocalDateTime().toLocalDate(),
+            rs.getString("old_status"),
+            rs.getString("old_payment_status"),
+            rs.getBigDecimal("old_total"),
+            rs.getString("new_status"),
+            rs.getString("new_payment_status"),
+            rs.getBigDecimal("new_total"));
+
+    /**
+     * Locks the order row and exposes its pre-update values as {@code p}
+     */
+    private static final String LOCK_PREVIOUS = """
+            WITH p AS (
+                SELECT id, status, payment_status, total_amount FROM orders WHERE id = ? FOR UPDATE
+            )
+            """;
+
+    private static final String TRANSITION_RETURNING = """
+            RETURNING o.order_date,
+                      p.status AS old_status, p.payment_status AS old_payment_status, p.total_amount AS old_total,
+                      o.status AS new_status, o.payment_status AS new_payment_status, o.total_amount AS new_total
+            """;
+
     /**
      * RowMapper for Order entity
      */
@@ -96,9 +145,14 @@ public class OrderRepositoryImpl implements OrderRepository {
                 paid_at, delivered_at, cancelled_at, cancellation_reason, refunded_at, refund_amount,
                 refund_reason, created_at, updated_at
             ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            RETURNING id
         """;
 
-        JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(sql,
+        if (order.getOrderDate() == null) {
+            order.setOrderDate(LocalDateTime.now());
+        }
+
+        List<Long> ids = jdbcUtils.query(sql, (rs, rowNum) -> rs.getLong("id"),
                 order.getOrderNumber(),
                 order.getUser() != null ? order.getUser().getId() : null,
                 order.getCustomerEmail(),
@@ -127,8 +181,12 @@ public class OrderRepositoryImpl implements OrderRepository {
                 LocalDateTime.now()
         );
 
-        if (result.getGeneratedKey() != null) {
-            order.setId(result.getGeneratedKey());
+        if (!ids.isEmpty()) {
+            order.setId(ids.get(0));
+            orderStatsRepository.applyDeltas(List.of(new OrderStatsRepository.Delta(
+                    order.getOrderDate().toLocalDate(), order.getStatus(), order.getPaymentStatus(),
+                    1, nullToZero(order.getTotalAmount()))));
+            orderHistoryRepository.refresh(List.of(order.getId()));
         }
 
         return order;
@@ -136,18 +194,20 @@ public class OrderRepositoryImpl implements OrderRepository {
 
     @Override
     public Order update(Order order) {
-        String sql = """
-            UPDATE orders SET
+        String sql = LOCK_PREVIOUS + """
+            UPDATE orders o SET
                 order_number = ?, customer_email = ?, customer_name = ?, status = ?,
                 subtotal = ?, tax_amount = ?, tax_rate = ?, shipping_cost = ?, discount_amount = ?,
                 total_amount = ?, coupon_code = ?, coupon_discount = ?, payment_status = ?,
                 payment_method = ?, payment_transaction_id = ?, paid_at = ?, delivered_at = ?,
                 cancelled_at = ?, cancellation_reason = ?, refunded_at = ?, refund_amount = ?,
                 refund_reason = ?, updated_at = ?
-            WHERE id = ?
-        """;
+            FROM p
+            WHERE o.id = p.id
+        """ + TRANSITION_RETURNING;
 
-        jdbcUtils.executePreparedQuery(sql,
+        List<StatsTransition> transitions = jdbcUtils.query(sql, transitionRowMapper,
+                order.getId(),
                 order.getOrderNumber(),
                 order.getCustomerEmail(),
                 order.getCustomerName(),
@@ -170,9 +230,12 @@ public class OrderRepositoryImpl implements OrderRepository {
                 order.getRefundedAt(),
                 order.getRefundAmount(),
                 order.getRefundReason(),
-                LocalDateTime.now(),
-                order.getId()
+                LocalDateTime.now()
         );
+        recordTransitions(transitions);
+        if (!transitions.isEmpty()) {
+            orderHistoryRepository.refresh(List.of(order.getId()));
+        }
 
         return order;
     }
@@ -244,23 +307,25 @@ public class OrderRepositoryImpl implements OrderRepository {
 
     @Override
     public long count() {
-        String sql = "SELECT COUNT(*) FROM orders";
-        Long count = jdbcUtils.queryForObject(sql, Long.class);
-        return count != null ? count : 0L;
+        return orderStatsRepository.findTotals().stream()
+                .mapToLong(OrderStatsRepository.Bucket::orderCount)
+                .sum();
     }
 
     @Override
     public long countByStatus(OrderStatus status) {
-        String sql = "SELECT COUNT(*) FROM orders WHERE status = ?";
-        Long count = jdbcUtils.queryForObject(sql, Long.class, status.name());
-        return count != null ? count : 0L;
+        return orderStatsRepository.findTotals().stream()
+                .filter(bucket -> bucket.status() == status)
+                .mapToLong(OrderStatsRepository.Bucket::orderCount)
+                .sum();
     }
 
     @Override
     public long countByPaymentStatus(PaymentStatus paymentStatus) {
-        String sql = "SELECT COUNT(*) FROM orders WHERE payment_status = ?";
-        Long count = jdbcUtils.queryForObject(sql, Long.class, paymentStatus.name());
-        return count != null ? count : 0L;
+        return orderStatsRepository.findTotals().stream()
+                .filter(bucket -> bucket.paymentStatus() == paymentStatus)
+                .mapToLong(OrderStatsRepository.Bucket::orderCount)
+                .sum();
     }
 
     @Override
@@ -272,50 +337,44 @@ public class OrderRepositoryImpl implements OrderRepository {
 
     @Override
     public BigDecimal calculateTotalRevenue() {
-        String sql = "SELECT COALESCE(SUM(total_amount), 0) FROM orders WHERE payment_status = 'PAID'";
-        BigDecimal revenue = jdbcUtils.queryForObject(sql, BigDecimal.class);
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        return orderStatsRepository.findTotals().stream()
+                .filter(bucket -> bucket.paymentStatus() == PaymentStatus.PAID)
+                .map(OrderStatsRepository.Bucket::totalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
     @Override
     public BigDecimal calculateRevenue(LocalDateTime startDate, LocalDateTime endDate) {
-        String sql = """
-            SELECT COALESCE(SUM(total_amount), 0) 
-            FROM orders 
-            WHERE payment_status = 'PAID' AND order_date BETWEEN ? AND ?
-        """;
-        BigDecimal revenue = jdbcUtils.queryForObject(sql, BigDecimal.class, startDate, endDate);
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        // Rollup ranges are end-exclusive; the end date has always been inclusive here
+        return salesRollupRepository.sumRevenue(startDate, endDate.plusNanos(1000));
     }
 
     @Override
     public OrderStatsResponse getOrderStatistics() {
-        String countSql = """
-            SELECT 
-                COUNT(*) as total_orders,
-                SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END) as pending_orders,
-                SUM(CASE WHEN status = 'PROCESSING' THEN 1 ELSE 0 END) as processing_orders,
-                SUM(CASE WHEN status = 'SHIPPED' THEN 1 ELSE 0 END) as shipped_orders,
-                SUM(CASE WHEN status = 'DELIVERED' THEN 1 ELSE 0 END) as delivered_orders,
-                SUM(CASE WHEN status = 'CANCELLED' THEN 1 ELSE 0 END) as cancelled_orders,
-                COALESCE(SUM(CASE WHEN payment_status = 'PAID' THEN total_amount ELSE 0 END), 0) as total_revenue
-            FROM orders
-        """;
-
-        Map<String, Object> statsMap = jdbcUtils.queryForMap(countSql);
+        Map<OrderStatus, Long> byStatus = new EnumMap<>(OrderStatus.class);
+        long totalOrders = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        for (OrderStatsRepository.Bucket bucket : orderStatsRepository.findTotals()) {
+            byStatus.merge(bucket.status(), bucket.orderCount(), Long::sum);
+            totalOrders += bucket.orderCount();
+            if (bucket.paymentStatus() == PaymentStatus.PAID) {
+                totalRevenue = totalRevenue.add(bucket.totalAmount());
+            }
+        }
 
-        // Calculate monthly revenue (current month)
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        BigDecimal monthlyRevenue = calculateRevenue(startOfMonth, LocalDateTime.now());
+        // Revenue for the current month
+        LocalDate today = LocalDate.now();
+        BigDecimal monthlyRevenue = orderStatsRepository.sumAmount(PaymentStatus.PAID, today.withDayOfMonth(1), today);
 
         return  OrderStatsResponse.builder()
-                .totalOrders(getLongValue(statsMap, "total_orders"))
-                .pendingOrders(getLongValue(statsMap, "pending_orders"))
-                .processingOrders(getLongValue(statsMap, "processing_orders"))
-                .shippedOrders(getLongValue(statsMap, "shipped_orders"))
-                .deliveredOrders(getLongValue(statsMap, "delivered_orders"))
-                .cancelledOrders(getLongValue(statsMap, "cancelled_orders"))
-                .totalRevenue((BigDecimal) statsMap.getOrDefault("total_revenue", BigDecimal.ZERO))
+                .totalOrders(totalOrders)
+                .pendingOrders(byStatus.getOrDefault(OrderStatus.PENDING, 0L))
+                .confirmedOrders(byStatus.getOrDefault(OrderStatus.CONFIRMED, 0L))
+                .processingOrders(byStatus.getOrDefault(OrderStatus.PROCESSING, 0L))
+                .shippedOrders(byStatus.getOrDefault(OrderStatus.SHIPPED, 0L))
+                .deliveredOrders(byStatus.getOrDefault(OrderStatus.DELIVERED, 0L))
+                .cancelledOrders(byStatus.getOrDefault(OrderStatus.CANCELLED, 0L))
+                .totalRevenue(totalRevenue)
                 .monthlyRevenue(monthlyRevenue)
                 .build();
     }
@@ -340,9 +399,22 @@ public class OrderRepositoryImpl implements OrderRepository {
         }
 
 
-        String sql = "DELETE FROM orders WHERE id = ?";
-        JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(sql, id);
-        return result.getAffectedRows() > 0;
+        String sql = "DELETE FROM orders WHERE id = ? RETURNING order_date, status, payment_status, total_amount";
+        List<LocalDateTime> orderDates = new ArrayList<>();
+        List<OrderStatsRepository.Delta> removed = jdbcUtils.query(sql, (rs, rowNum) -> {
+            LocalDateTime orderDate = rs.getTimestamp("order_date").toLocalDateTime();
+            orderDates.add(orderDate);
+            return new OrderStatsRepository.Delta(
+                    orderDate.toLocalDate(),
+                    OrderStatus.valueOf(rs.getString("status")),
+                    PaymentStatus.valueOf(rs.getString("payment_status")),
+                    -1,
+                    nullToZero(rs.getBigDecimal("total_amount")).negate());
+        }, id);
+        orderStatsRepository.applyDeltas(removed);
+        salesRollupRepository.recordDeletedOrders(orderDates);
+        orderHistoryRepository.deleteByOrderIds(List.of(id));
+        return !removed.isEmpty();
     }
 
     @Override
@@ -361,31 +433,168 @@ public class OrderRepositoryImpl implements OrderRepository {
 
     @Override
     public void updateStatus(Long orderId, OrderStatus newStatus) {
-        String sql = "UPDATE orders SET status = ?, updated_at = ? WHERE id = ?";
-        jdbcUtils.executePreparedQuery(sql, newStatus.name(), LocalDateTime.now(), orderId);
+        String sql = LOCK_PREVIOUS
+                + "UPDATE orders o SET status = ?, updated_at = ? FROM p WHERE o.id = p.id\n"
+                + TRANSITION_RETURNING;
+        recordTransitions(jdbcUtils.query(sql, transitionRowMapper, orderId, newStatus.name(), LocalDateTime.now()));
+        orderHistoryRepository.refresh(List.of(orderId));
     }
 
     @Override
     public void updatePaymentStatus(Long orderId, PaymentStatus newStatus) {
-        String sql = "UPDATE orders SET payment_status = ?, updated_at = ? WHERE id = ?";
-        jdbcUtils.executePreparedQuery(sql, newStatus.name(), LocalDateTime.now(), orderId);
+        String sql = LOCK_PREVIOUS
+                + "UPDATE orders o SET payment_status = ?, updated_at = ? FROM p WHERE o.id = p.id\n"
+                + TRANSITION_RETURNING;
+        recordTransitions(jdbcUtils.query(sql, transitionRowMapper, orderId, newStatus.name(), LocalDateTime.now()));
+        orderHistoryRepository.refresh(List.of(orderId));
     }
 
-    /**
-     * Helper method to safely extract Long values from Map
-     */
-    private Long getLongValue(Map<String, Object> map, String key) {
-        Object value = map.get(key);
-        if (value == null) {
-            return 0L;
+    @Override
+    public List<Order> findAllByIdForUpdate(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
         }
-        if (value instanceof Long) {
-            return (Long) value;
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        String sql = "SELECT * FROM orders WHERE id IN (" + placeholders + ") ORDER BY id FOR UPDATE";
+        return jdbcUtils.query(sql, new OrderRowMapper(), ids.toArray());
+    }
+
+    @Override
+    public int[] batchUpdateTransitions(List<Order> orders, Map<Long, OrderStatus> previousStatuses) {
+        if (orders.isEmpty()) {
+            return new int[0];
         }
-        if (value instanceof Number) {
-            return ((Number) value).longValue();
+        String sql = """
+            UPDATE orders SET
+                status = ?, tracking_number = COALESCE(?, tracking_number), carrier = COALESCE(?, carrier),
+                shipped_at = COALESCE(?, shipped_at), delivered_at = COALESCE(?, delivered_at),
+                cancelled_at = COALESCE(?, cancelled_at), cancellation_reason = COALESCE(?, cancellation_reason),
+                updated_at = ?
+            WHERE id = ? AND status = ?
+        """;
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batchArgs = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            batchArgs.add(new Object[]{
+                    order.getStatus().name(),
+                    order.getTrackingNumber(),
+                    order.getCarrier(),
+                    order.getShippedAt(),
+                    order.getDeliveredAt(),
+                    order.getCancelledAt(),
+                    order.getCancellationReason(),
+                    now,
+                    order.getId(),
+                    previousStatuses.get(order.getId()).name()
+            });
         }
-        return 0L;
+        int[] counts = jdbcUtils.batchUpdate(sql, batchArgs);
+
+        List<OrderStatsRepository.Delta> deltas = new ArrayList<>();
+        List<Long> updated = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            OrderStatus previous = previousStatuses.get(order.getId());
+            if (counts[i] > 0) {
+                updated.add(order.getId());
+            }
+            if (counts[i] <= 0 || previous == order.getStatus()) {
+                continue;
+            }
+            LocalDate day = order.getOrderDate().toLocalDate();
+            BigDecimal total = nullToZero(order.getTotalAmount());
+            deltas.add(new OrderStatsRepository.Delta(day, previous, order.getPaymentStatus(), -1, total.negate()));
+            deltas.add(new OrderStatsRepository.Delta(day, order.getStatus(), order.getPaymentStatus(), 1, total));
+        }
+        orderStatsRepository.applyDeltas(deltas);
+        orderHistoryRepository.refresh(updated);
+        return counts;
+    }
+
+    /**
+     * Move each changed order from its old counter bucket to its new one
+     */
+    private void recordTransitions(List<StatsTransition> transitions) {
+        List<OrderStatsRepository.Delta> deltas = new ArrayList<>();
+        for (StatsTransition t : transitions) {
+            BigDecimal oldTotal = nullToZero(t.oldTotal());
+            BigDecimal newTotal = nullToZero(t.newTotal());
+            if (t.oldStatus().equals(t.newStatus())
+                    && t.oldPaymentStatus().equals(t.newPaymentStatus())
+                    && oldTotal.compareTo(newTotal) == 0) {
+                continue;
+            }
+            deltas.add(new OrderStatsRepository.Delta(t.day(),
+                    OrderStatus.valueOf(t.oldStatus()), PaymentStatus.valueOf(t.oldPaymentStatus()),
+                    -1, oldTotal.negate()));
+            deltas.add(new OrderStatsRepository.Delta(t.day(),
+                    OrderStatus.valueOf(t.newStatus()), PaymentStatus.valueOf(t.newPaymentStatus()),
+                    1, newTotal));
+        }
+        orderStatsRepository.applyDeltas(deltas);
+    }
+
+    @Override
+    public void streamForExport(LocalDateTime from, LocalDateTime to, OrderStatus status, int fetchSize,
+                                Consumer<ExportRow> consumer) {
+        String sql = """
+            SELECT o.id, o.order_number, o.order_date, o.user_id, o.customer_email, o.customer_name,
+                   o.status, o.payment_status, o.payment_method, o.payment_transaction_id,
+                   o.subtotal, o.tax_amount, o.shipping_cost, o.discount_amount, o.total_amount,
+                   o.coupon_code, o.paid_at, o.refund_amount,
+                   oi.id AS item_id, oi.product_id, oi.product_name, oi.quantity, oi.unit_price,
+                   oi.discount AS item_discount, oi.total_price AS item_total
+            FROM orders o
+            LEFT JOIN order_items oi ON oi.order_id = o.id
+            WHERE o.order_date >= ? AND o.order_date < ?
+        """ + (status != null ? " AND o.status = ?" : "") + " ORDER BY o.order_date, o.id, oi.id";
+
+        // Forward-only with a fetch size makes the PostgreSQL driver use a cursor instead of buffering every row.
+        // The shared template would reset the fetch size to its own and cut the export off at its query timeout.
+        JdbcTemplate exportTemplate = new JdbcTemplate(Objects.requireNonNull(jdbcUtils.getJdbcTemplate().getDataSource()));
+        exportTemplate.setFetchSize(fetchSize);
+        exportTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setObject(1, from);
+            ps.setObject(2, to);
+            if (status != null) {
+                ps.setString(3, status.name());
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new ExportRow(
+                rs.getLong("id"),
+                rs.getString("order_number"),
+                toLocalDateTime(rs.getTimestamp("order_date")),
+                rs.getObject("user_id", Long.class),
+                rs.getString("customer_email"),
+                rs.getString("customer_name"),
+                rs.getString("status"),
+                rs.getString("payment_status"),
+                rs.getString("payment_method"),
+                rs.getString("payment_transaction_id"),
+                rs.getBigDecimal("subtotal"),
+                rs.getBigDecimal("tax_amount"),
+                rs.getBigDecimal("shipping_cost"),
+                rs.getBigDecimal("discount_amount"),
+                rs.getBigDecimal("total_amount"),
+                rs.getString("coupon_code"),
+                toLocalDateTime(rs.getTimestamp("paid_at")),
+                rs.getBigDecimal("refund_amount"),
+                rs.getObject("item_id", Long.class),
+                rs.getObject("product_id", Long.class),
+                rs.getString("product_name"),
+                rs.getObject("quantity", Integer.class),
+                rs.getBigDecimal("unit_price"),
+                rs.getBigDecimal("item_discount"),
+                rs.getBigDecimal("item_total"))));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static BigDecimal nullToZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
     }
 }
 
@@ -0,0 +1,240 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * JDBC-based implementation of OrderStatsRepository
+ */
+@Repository
+public class OrderStatsRepositoryImpl implements OrderStatsRepository {
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatsRepositoryImpl.class);
+
+    // Fixed lock order across transactions touching several buckets
+    private static final int TOTAL_SHARDS = 16;
+
+    private static final String UPSERT_TOTAL = """
+            ON CONFLICT (status, payment_status, shard) DO UPDATE SET
+                order_count = order_stat_totals.order_count + EXCLUDED.order_count,
+                total_amount = order_stat_totals.total_amount + EXCLUDED.total_amount,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final Comparator<Delta> BUCKET_ORDER = Comparator
+            .comparing(Delta::day)
+            .thenComparing(Delta::status)
+            .thenComparing(Delta::paymentStatus);
+
+    private final JdbcUtils jdbcUtils;
+
+    public OrderStatsRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    private final RowMapper<Bucket> bucketRowMapper = (rs, rowNum) -> new Bucket(
+            OrderStatus.valueOf(rs.getString("status")),
+            PaymentStatus.valueOf(rs.getString("payment_status")),
+            rs.getLong("order_count"),
+            rs.getBigDecimal("total_amount"));
+
+    @Override
+    public void applyDeltas(Collection<Delta> deltas) {
+        Map<String, Delta> merged = new HashMap<>();
+        for (Delta delta : deltas) {
+            String key = delta.day() + "|" + delta.status() + "|" + delta.paymentStatus();
+            merged.merge(key, delta, (a, b) -> new Delta(a.day(), a.status(), a.paymentStatus(),
+                    a.count() + b.count(), a.amount().add(b.amount())));
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = merged.values().stream()
+                .filter(d -> d.count() != 0 || d.amount().signum() != 0)
+                .sorted(BUCKET_ORDER)
+                .map(d -> new Object[]{
+                        Date.valueOf(d.day()), d.status().name(), d.paymentStatus().name(),
+                        d.count(), d.amount(), now, now})
+                .toList();
+        if (batchArgs.isEmpty()) {
+            return;
+        }
+
+        String sql = """
+                INSERT INTO order_stats
+                    (stat_day, status, payment_status, order_count, total_amount, is_active, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, true, ?, ?)
+                ON CONFLICT (stat_day, status, payment_status) DO UPDATE SET
+                    order_count = order_stats.order_count + EXCLUDED.order_count,
+                    total_amount = order_stats.total_amount + EXCLUDED.total_amount,
+                    updated_at = EXCLUDED.updated_at
+                """;
+        jdbcUtils.batchUpdate(sql, batchArgs);
+
+        // Day rows first, then totals in bucket order, so every writer locks in the same order
+        Map<String, Delta> totals = new TreeMap<>();
+        for (Delta d : merged.values()) {
+            totals.merge(d.status() + "|" + d.paymentStatus(), d, (a, b) -> new Delta(null, a.status(),
+                    a.paymentStatus(), a.count() + b.count(), a.amount().add(b.amount())));
+        }
+        int shard = ThreadLocalRandom.current().nextInt(TOTAL_SHARDS);
+        String totalsSql = """
+                INSERT INTO order_stat_totals
+                    (status, payment_status, shard, order_count, total_amount, is_active, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, true, ?, ?)
+                """ + UPSERT_TOTAL;
+        jdbcUtils.batchUpdate(totalsSql, totals.values().stream()
+                .filter(d -> d.count() != 0 || d.amount().signum() != 0)
+                .map(d -> new Object[]{d.status().name(), d.paymentStatus().name(), shard,
+                        d.count(), d.amount(), now, now})
+                .toList());
+    }
+
+    @Override
+    public List<Bucket> findTotals() {
+        String sql = """
+                SELECT status, payment_status,
+                       COALESCE(SUM(order_count), 0) AS order_count,
+                       COALESCE(SUM(total_amount), 0) AS total_amount
+                FROM order_stat_totals
+                GROUP BY status, payment_status
+                """;
+        return jdbcUtils.query(sql, bucketRowMapper);
+    }
+
+    @Override
+    public BigDecimal sumAmount(PaymentStatus paymentStatus, LocalDate fromDay, LocalDate toDay) {
+        String sql = """
+                SELECT COALESCE(SUM(total_amount), 0)
+                FROM order_stats
+                WHERE payment_status = ? AND stat_day BETWEEN ? AND ?
+                """;
+        BigDecimal amount = jdbcUtils.queryForObject(sql, BigDecimal.class,
+                paymentStatus.name(), Date.valueOf(fromDay), Date.valueOf(toDay));
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    /**
+     * Orders and counters are read in one statement snapshot, so the difference is
+     * exact for that snapshot. It is added rather than assigned, which keeps deltas
+     * from transactions committing concurrently intact. The same difference goes to
+     * shard 0 of the totals from within the statement.
+     */
+    @Override
+    public int reconcile(LocalDate fromDay, LocalDate toDay) {
+        String sql = """
+                WITH actual AS (
+                    SELECT CAST(order_date AS DATE) AS stat_day, status, payment_status,
+                           COUNT(*) AS order_count, COALESCE(SUM(total_amount), 0) AS total_amount
+                    FROM orders
+                    WHERE order_date >= ? AND order_date < ?
+                    GROUP BY CAST(order_date AS DATE), status, payment_status
+                ),
+                counted AS (
+                    SELECT stat_day, status, payment_status, order_count, total_amount
+                    FROM order_stats
+                    WHERE stat_day >= ? AND stat_day < ?
+                ),
+                drift AS (
+                    SELECT COALESCE(a.stat_day, c.stat_day) AS stat_day,
+                           COALESCE(a.status, c.status) AS status,
+                           COALESCE(a.payment_status, c.payment_status) AS payment_status,
+                           COALESCE(a.order_count, 0) - COALESCE(c.order_count, 0) AS count_delta,
+                           COALESCE(a.total_amount, 0) - COALESCE(c.total_amount, 0) AS amount_delta
+                    FROM actual a
+                    FULL JOIN counted c
+                        ON a.stat_day = c.stat_day AND a.status = c.status AND a.payment_status = c.payment_status
+                ),
+                corrected_totals AS (
+                    INSERT INTO order_stat_totals
+                        (status, payment_status, shard, order_count, total_amount, is_active, created_at, updated_at)
+                    SELECT status, payment_status, 0, SUM(count_delta), SUM(amount_delta), true, ?, ?
+                    FROM drift
+                    WHERE count_delta <> 0 OR amount_delta <> 0
+                    GROUP BY status, payment_status
+                    ORDER BY status, payment_status
+                    %s
+                )
+                INSERT INTO order_stats
+                    (stat_day, status, payment_status, order_count, total_amount, is_active, created_at, updated_at)
+                SELECT stat_day, status, payment_status, count_delta, amount_delta, true, ?, ?
+                FROM drift
+                WHERE count_delta <> 0 OR amount_delta <> 0
+                ORDER BY stat_day, status, payment_status
+                ON CONFLICT (stat_day, status, payment_status) DO UPDATE SET
+                    order_count = order_stats.order_count + EXCLUDED.order_count,
+                    total_amount = order_stats.total_amount + EXCLUDED.total_amount,
+                    updated_at = EXCLUDED.updated_at
+                """.formatted(UPSERT_TOTAL.strip());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(sql,
+                Timestamp.valueOf(fromDay.atStartOfDay()), Timestamp.valueOf(toDay.atStartOfDay()),
+                Date.valueOf(fromDay), Date.valueOf(toDay),
+                now, now, now, now);
+
+        if (result.hasError()) {
+            logger.error("Failed to reconcile order stats for [{}, {}): {}", fromDay, toDay, result.getError());
+            throw new IllegalStateException("Failed to reconcile order stats");
+        }
+        return result.getAffectedRows();
+    }
+
+    /**
+     * Read in one statement snapshot and added to shard 0, as in {@link #reconcile}
+     */
+    @Override
+    public int reconcileTotals() {
+        String sql = """
+                WITH days AS (
+                    SELECT status, payment_status, SUM(order_count) AS order_count, SUM(total_amount) AS total_amount
+                    FROM order_stats
+                    GROUP BY status, payment_status
+                ),
+                totals AS (
+                    SELECT status, payment_status, SUM(order_count) AS order_count, SUM(total_amount) AS total_amount
+                    FROM order_stat_totals
+                    GROUP BY status, payment_status
+                ),
+                drift AS (
+                    SELECT COALESCE(d.status, t.status) AS status,
+                           COALESCE(d.payment_status, t.payment_status) AS payment_status,
+                           COALESCE(d.order_count, 0) - COALESCE(t.order_count, 0) AS count_delta,
+                           COALESCE(d.total_amount, 0) - COALESCE(t.total_amount, 0) AS amount_delta
+                    FROM days d
+                    FULL JOIN totals t ON d.status = t.status AND d.payment_status = t.payment_status
+                )
+                INSERT INTO order_stat_totals
+                    (status, payment_status, shard, order_count, total_amount, is_active, created_at, updated_at)
+                SELECT status, payment_status, 0, count_delta, amount_delta, true, ?, ?
+                FROM drift
+                WHERE count_delta <> 0 OR amount_delta <> 0
+                ORDER BY status, payment_status
+                """ + UPSERT_TOTAL;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(sql, now, now);
+
+        if (result.hasError()) {
+            logger.error("Failed to reconcile order stat totals: {}", result.getError());
+            throw new IllegalStateException("Failed to reconcile order stat totals");
+        }
+        return result.getAffectedRows();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        List<Integer> rows = jdbcUtils.query("SELECT 1 FROM order_stats LIMIT 1", (rs, rowNum) -> rs.getInt(1));
+        return rows.isEmpty();
+    }
+}
@@ -0,0 +1,184 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.StockReservation;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.StockReservationRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.InventoryShardRepository;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * JDBC-based implementation of StockReservationRepository
+ */
+@Repository
+public class StockReservationRepositoryImpl implements StockReservationRepository {
+
+    /**
+     * Releases the rows selected by a {@code target} CTE and returns their units to
+     * products, aggregated per product
+     */
+    private static final String RELEASE_TAIL = """
+            released AS (
+                UPDATE stock_reservations r
+                SET status = 'RELEASED', released_at = ?, updated_at = ?
+                FROM target t
+                WHERE r.id = t.id
+                RETURNING r.order_id, r.product_id, r.quantity
+            ),
+            restocked AS (
+                UPDATE products p
+                SET reserved_quantity = GREATEST(0, p.reserved_quantity - x.quantity), updated_at = ?
+                FROM (SELECT product_id, SUM(quantity) AS quantity FROM released GROUP BY product_id) x
+                WHERE p.id = x.product_id
+                  AND NOT EXISTS (SELECT 1 FROM product_inventory_shards s WHERE s.product_id = p.id)
+            )
+            SELECT order_id, product_id, quantity FROM released
+            """;
+
+    private final JdbcUtils jdbcUtils;
+    private final InventoryShardRepository inventoryShardRepository;
+
+    public StockReservationRepositoryImpl(JdbcUtils jdbcUtils, InventoryShardRepository inventoryShardRepository) {
+        this.jdbcUtils = jdbcUtils;
+        this.inventoryShardRepository = inventoryShardRepository;
+    }
+
+    private final RowMapper<Released> releasedRowMapper = (rs, rowNum) -> new Released(
+            rs.getLong("order_id"),
+            rs.getLong("product_id"),
+            rs.getInt("quantity"));
+
+    @Override
+    public void holdAll(Long orderId, Map<Long, Integer> quantities, LocalDateTime expiresAt) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        String sql = """
+                INSERT INTO stock_reservations
+                    (order_id, product_id, quantity, status, expires_at, is_active, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, true, ?, ?)
+                ON CONFLICT (order_id, product_id) DO UPDATE SET
+                    quantity = stock_reservations.quantity + EXCLUDED.quantity,
+                    status = EXCLUDED.status,
+                    expires_at = EXCLUDED.expires_at,
+                    updated_at = EXCLUDED.updated_at
+                """;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp expires = Timestamp.valueOf(expiresAt);
+        List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+        new TreeMap<>(quantities).forEach((productId, quantity) -> batchArgs.add(new Object[]{
+                orderId, productId, quantity, StockReservation.STATUS_HELD, expires, now, now}));
+        jdbcUtils.batchUpdate(sql, batchArgs);
+    }
+
+    @Override
+    public List<Released> releaseExpired(LocalDateTime now, int limit) {
+        String sql = """
+                WITH target AS (
+                    SELECT r.id
+                    FROM stock_reservations r
+                    JOIN orders o ON o.id = r.order_id
+                    WHERE r.status = 'HELD' AND r.expires_at <= ?
+                      AND o.status = 'PENDING' AND o.payment_status <> 'PAID'
+                    ORDER BY r.expires_at, r.id
+                    LIMIT ?
+                    FOR UPDATE OF r, o SKIP LOCKED
+                ),
+                """ + RELEASE_TAIL;
+        Timestamp ts = Timestamp.valueOf(now);
+        return releaseShardedUnits(jdbcUtils.query(sql, releasedRowMapper, ts, limit, ts, ts, ts));
+    }
+
+    @Override
+    public List<Released> releaseForOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(orderIds.size(), "?"));
+        String sql = """
+                WITH target AS (
+                    SELECT r.id
+                    FROM stock_reservations r
+                    WHERE r.status = 'HELD' AND r.order_id IN (%s)
+                    ORDER BY r.id
+                    FOR UPDATE
+                ),
+                """.formatted(placeholders) + RELEASE_TAIL;
+
+        Timestamp ts = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> params = new ArrayList<>(orderIds);
+        params.add(ts);
+        params.add(ts);
+        params.add(ts);
+        return releaseShardedUnits(jdbcUtils.query(sql, releasedRowMapper, params.toArray()));
+    }
+
+    /**
+     * The release statement only restocks product rows; give units of sharded products back to their shards
+     */
+    private List<Released> releaseShardedUnits(List<Released> released) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        released.forEach(r -> quantities.merge(r.productId(), r.quantity(), Integer::sum));
+        for (Long productId : new TreeSet<>(inventoryShardRepository.findShardedAmong(quantities.keySet()))) {
+            inventoryShardRepository.release(productId, quantities.get(productId));
+        }
+        return released;
+    }
+
+    @Override
+    public int consumeForOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(orderIds.size(), "?"));
+        String sql = "UPDATE stock_reservations SET status = ?, updated_at = ? "
+                + "WHERE status = ? AND order_id IN (" + placeholders + ")";
+
+        List<Object> params = new ArrayList<>();
+        params.add(StockReservation.STATUS_CONSUMED);
+        params.add(Timestamp.valueOf(LocalDateTime.now()));
+        params.add(StockReservation.STATUS_HELD);
+        params.addAll(orderIds);
+        JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(sql, params.toArray());
+        return result.hasError() ? 0 : result.getAffectedRows();
+    }
+
+    @Override
+    public Set<Long> findOrderIdsWithReservations(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(orderIds.size(), "?"));
+        String sql = "SELECT DISTINCT order_id FROM stock_reservations WHERE order_id IN (" + placeholders + ")";
+        return new HashSet<>(jdbcUtils.query(sql, (rs, rowNum) -> rs.getLong("order_id"), orderIds.toArray()));
+    }
+
+    @Override
+    public List<LocalDateTime> findUpcomingExpiries(LocalDateTime until, int limit) {
+        String sql = """
+                SELECT DISTINCT date_trunc('second', expires_at + INTERVAL '999999 microseconds') AS expiry
+                FROM stock_reservations
+                WHERE status = 'HELD' AND expires_at <= ?
+                ORDER BY expiry
+                LIMIT ?
+                """;
+        return jdbcUtils.query(sql, (rs, rowNum) -> rs.getTimestamp("expiry").toLocalDateTime(),
+                Timestamp.valueOf(until), limit);
+    }
+
+    @Override
+    public HeldTotals findHeldTotals() {
+        String sql = """
+                SELECT COUNT(*) AS reservations, COALESCE(SUM(quantity), 0) AS units
+                FROM stock_reservations
+                WHERE status = 'HELD'
+                """;
+        List<HeldTotals> totals = jdbcUtils.query(sql, (rs, rowNum) ->
+                new HeldTotals(rs.getLong("reservations"), rs.getLong("units")));
+        return totals.isEmpty() ? new HeldTotals(0, 0) : totals.get(0);
+    }
+}
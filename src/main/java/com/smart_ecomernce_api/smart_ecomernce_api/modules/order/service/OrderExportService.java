@@ -0,0 +1,259 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams orders with their items as gzipped CSV or JSON Lines for finance reconciliation.
+ * Rows come from a server-side cursor inside a read-only transaction (autocommit off,
+ * which PostgreSQL needs to honour the fetch size) and are written as they arrive,
+ * so memory use does not depend on the number of orders exported.
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+
+    private static final String[] CSV_HEADER = {
+            "order_id", "order_number", "order_date", "user_id", "customer_email", "customer_name",
+            "status", "payment_status", "payment_method", "payment_transaction_id",
+            "subtotal", "tax_amount", "shipping_cost", "discount_amount", "total_amount",
+            "coupon_code", "paid_at", "refund_amount",
+            "item_id", "product_id", "product_name", "quantity", "unit_price", "item_discount", "item_total"
+    };
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${order.export.request-timeout-ms:1800000}")
+    private long requestTimeoutMs;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public enum Format {
+        CSV("csv"),
+        JSONL("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Async timeout for an export request, which runs far longer than ordinary requests
+     */
+    public long getRequestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    public void validate(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new InvalidDataException("'from' must not be after 'to'");
+        }
+    }
+
+    /**
+     * Write orders placed between {@code from} and {@code to} (both inclusive) to the stream, gzip-compressed
+     * @return number of orders written
+     */
+    public long export(Format format, LocalDate from, LocalDate to, OrderStatus status, OutputStream out)
+            throws IOException {
+        validate(from, to);
+        long started = System.currentTimeMillis();
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+        RowSink sink = format == Format.CSV ? new CsvSink(writer) : new JsonLinesSink(writer);
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> orderRepository.streamForExport(
+                    from.atStartOfDay(), to.plusDays(1).atStartOfDay(), status, fetchSize, row -> {
+                        try {
+                            sink.accept(row);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+            sink.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        gzip.finish();
+
+        log.info("Exported {} orders from {} to {} as {} in {} ms",
+                sink.orders(), from, to, format, System.currentTimeMillis() - started);
+        return sink.orders();
+    }
+
+    private abstract static class RowSink {
+
+        protected final Writer writer;
+        private Long currentOrderId;
+        private long orders;
+
+        RowSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        void accept(OrderRepository.ExportRow row) throws IOException {
+            if (!row.orderId().equals(currentOrderId)) {
+                endOrder();
+                currentOrderId = row.orderId();
+                orders++;
+            }
+            write(row);
+        }
+
+        void finish() throws IOException {
+            endOrder();
+        }
+
+        long orders() {
+            return orders;
+        }
+
+        abstract void write(OrderRepository.ExportRow row) throws IOException;
+
+        void endOrder() throws IOException {
+        }
+    }
+
+    /**
+     * One line per order item, order columns repeated
+     */
+    private static final class CsvSink extends RowSink {
+
+        CsvSink(Writer writer) throws IOException {
+            super(writer);
+            writeLine(CSV_HEADER);
+        }
+
+        @Override
+        void write(OrderRepository.ExportRow r) throws IOException {
+            writeLine(new Object[]{
+                    r.orderId(), r.orderNumber(), r.orderDate(), r.userId(), r.customerEmail(), r.customerName(),
+                    r.status(), r.paymentStatus(), r.paymentMethod(), r.paymentTransactionId(),
+                    r.subtotal(), r.taxAmount(), r.shippingCost(), r.discountAmount(), r.totalAmount(),
+                    r.couponCode(), r.paidAt(), r.refundAmount(),
+                    r.itemId(), r.productId(), r.productName(), r.quantity(), r.unitPrice(), r.itemDiscount(),
+                    r.itemTotal()
+            });
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        private static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            // Spreadsheets run text starting with these as a formula; numbers such as -5.00 are left alone
+            if (!(value instanceof Number) && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * One JSON object per order with its items nested
+     */
+    private final class JsonLinesSink extends RowSink {
+
+        private Map<String, Object> order;
+        private List<Map<String, Object>> items;
+
+        JsonLinesSink(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void write(OrderRepository.ExportRow r) {
+            if (order == null) {
+                order = new LinkedHashMap<>();
+                order.put("orderId", r.orderId());
+                order.put("orderNumber", r.orderNumber());
+                order.put("orderDate", r.orderDate());
+                order.put("userId", r.userId());
+                order.put("customerEmail", r.customerEmail());
+                order.put("customerName", r.customerName());
+                order.put("status", r.status());
+                order.put("paymentStatus", r.paymentStatus());
+                order.put("paymentMethod", r.paymentMethod());
+                order.put("paymentTransactionId", r.paymentTransactionId());
+                order.put("subtotal", r.subtotal());
+                order.put("taxAmount", r.taxAmount());
+                order.put("shippingCost", r.shippingCost());
+                order.put("discountAmount", r.discountAmount());
+                order.put("totalAmount", r.totalAmount());
+                order.put("couponCode", r.couponCode());
+                order.put("paidAt", r.paidAt());
+                order.put("refundAmount", r.refundAmount());
+                items = new ArrayList<>();
+                order.put("items", items);
+            }
+            if (r.itemId() != null) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("itemId", r.itemId());
+                item.put("productId", r.productId());
+                item.put("productName", r.productName());
+                item.put("quantity", r.quantity());
+                item.put("unitPrice", r.unitPrice());
+                item.put("discount", r.itemDiscount());
+                item.put("totalPrice", r.itemTotal());
+                items.add(item);
+            }
+        }
+
+        @Override
+        void endOrder() throws IOException {
+            if (order != null) {
+                writer.write(objectMapper.writeValueAsString(order));
+                writer.write('\n');
+                order = null;
+                items = null;
+            }
+        }
+    }
+}
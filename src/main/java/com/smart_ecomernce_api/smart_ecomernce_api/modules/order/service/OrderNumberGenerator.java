@@ -0,0 +1,80 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 63-bit ids in the Snowflake layout: 41 bits of milliseconds since
+ * 2024-01-01 UTC, 10 bits of node id and a 12 bit per-millisecond sequence.
+ * The last (millisecond, sequence) pair lives in a single AtomicLong so callers
+ * never block: a new millisecond resets the sequence, otherwise the pair is
+ * incremented and an exhausted sequence simply carries into the next millisecond.
+ * A clock that steps back is ignored the same way, so ids stay strictly increasing.
+ */
+public final class OrderNumberGenerator {
+
+    public static final int NODE_BITS = 10;
+    public static final int MAX_NODES = 1 << NODE_BITS;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    private static final String PREFIX = "ORD-";
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final long node;
+    private final LongSupplier clock;
+    private final AtomicLong last = new AtomicLong();
+
+    public OrderNumberGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    OrderNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId >= MAX_NODES) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + (MAX_NODES - 1));
+        }
+        this.node = nodeId;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long prev;
+        long next;
+        do {
+            prev = last.get();
+            next = now > prev ? now : prev + 1;
+        } while (!last.compareAndSet(prev, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * Next order number, e.g. ORD-20240115-0CKXQ2M8G4003
+     */
+    public String nextOrderNumber() {
+        return format(nextId());
+    }
+
+    /**
+     * Render an id as ORD-yyyyMMdd-XXXXXXXXXXXXX: the UTC day it was issued and the
+     * fixed-width Crockford base32 id, so order numbers sort in issue order
+     */
+    public static String format(long id) {
+        long millis = (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+        char[] encoded = new char[ENCODED_LENGTH];
+        long rest = id;
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            encoded[i] = ALPHABET[(int) (rest & 31)];
+            rest >>>= 5;
+        }
+        return PREFIX + DAY.format(Instant.ofEpochMilli(millis)) + "-" + new String(encoded);
+    }
+}
@@ -0,0 +1,114 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderNumberRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues order numbers for this node. Each node owns one of the
+ * {@link OrderNumberGenerator#MAX_NODES} blocks of the id space, so nodes never
+ * coordinate per order and never hand out the same number.
+ *
+ * <p>The node id is either configured or leased from the order_number_nodes table once
+ * the application is ready (or by the first order, should one arrive earlier). The lease is renewed well before it runs out and released on shutdown, so
+ * ids of stopped nodes are reused instead of wrapping around onto live ones. Should a
+ * renewal find the lease taken over (e.g. after a pause longer than the lease), the
+ * node stops using that id and leases a fresh one.
+ */
+@Service
+@Slf4j
+public class OrderNumberService {
+
+    private static final int CLAIM_ATTEMPTS = 5;
+
+    private final OrderNumberRepository orderNumberRepository;
+    private final String owner = UUID.randomUUID().toString();
+    private final boolean leased;
+    private final int configuredNodeId;
+    private final int leaseSeconds;
+
+    private volatile int nodeId;
+    private volatile OrderNumberGenerator generator;
+
+    public OrderNumberService(OrderNumberRepository orderNumberRepository,
+                              @Value("${order.number.node-id:-1}") int configuredNodeId,
+                              @Value("${order.number.lease-seconds:300}") int leaseSeconds) {
+        this.orderNumberRepository = orderNumberRepository;
+        this.leased = configuredNodeId < 0;
+        this.configuredNodeId = configuredNodeId;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    /**
+     * Take the node id once the schema is in place; claiming is a database write
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (generator == null) {
+            use(leased ? claim() : configuredNodeId);
+        }
+    }
+
+    public String nextOrderNumber() {
+        OrderNumberGenerator current = generator;
+        if (current == null) {
+            start();
+            current = generator;
+        }
+        return current.nextOrderNumber();
+    }
+
+    /**
+     * Extend the node id lease; runs several times per lease period
+     */
+    @Scheduled(fixedDelayString = "${order.number.heartbeat-interval-ms:60000}")
+    public synchronized void renewLease() {
+        if (!leased || generator == null) {
+            return;
+        }
+        try {
+            if (!orderNumberRepository.renewLease(nodeId, owner, leaseSeconds)) {
+                log.warn("Lease on order number node {} was lost, claiming a new node id", nodeId);
+                use(claim());
+            }
+        } catch (Exception e) {
+            log.error("Error renewing order number node lease for node {}", nodeId, e);
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (leased && generator != null) {
+            try {
+                orderNumberRepository.releaseNodeId(nodeId, owner);
+            } catch (Exception e) {
+                log.warn("Failed to release order number node {}: {}", nodeId, e.getMessage());
+            }
+        }
+    }
+
+    private int claim() {
+        for (int attempt = 0; attempt < CLAIM_ATTEMPTS; attempt++) {
+            Optional<Integer> claimed = orderNumberRepository.claimNodeId(
+                    OrderNumberGenerator.MAX_NODES, owner, leaseSeconds);
+            if (claimed.isPresent()) {
+                return claimed.get();
+            }
+        }
+        throw new IllegalStateException("No free order number node id among " + OrderNumberGenerator.MAX_NODES);
+    }
+
+    private void use(int id) {
+        this.generator = new OrderNumberGenerator(id);
+        this.nodeId = id;
+        log.info("Order numbers issued as node {}", id);
+    }
+}
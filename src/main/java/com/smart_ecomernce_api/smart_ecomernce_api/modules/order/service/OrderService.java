@@ -1,6 +1,10 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service;
 
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.BulkDeliverRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.BulkShipRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.BulkTransitionResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderCreateRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderHistoryResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderStatsResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.OrderUpdateRequest;
@@ -15,6 +19,7 @@ public interface OrderService {
         // Create & Retrieve
         OrderResponse createOrder(OrderCreateRequest request, Long userId);
         OrderResponse getOrderById(Long id, Long userId);
+        OrderHistoryResponse getOrderHistory(Long userId, OrderStatus status, String cursor, int size);
         OrderResponse getOrderByOrderNumber(String orderNumber, Long userId);
 
         // User Orders
@@ -37,8 +42,13 @@ public interface OrderService {
         OrderResponse cancelOrder(Long id, String reason, Long userId);
         OrderResponse refundOrder(Long id, BigDecimal amount, String reason);
 
+        // Bulk Order Actions
+        BulkTransitionResponse bulkShipOrders(BulkShipRequest request);
+        BulkTransitionResponse bulkDeliverOrders(BulkDeliverRequest request);
+
         // Statistics
         OrderStatsResponse getOrderStatistics();
+        StockReservationService.ReservationStats getReservationStatistics();
 
         void deleteOrder(Long orderId);
 
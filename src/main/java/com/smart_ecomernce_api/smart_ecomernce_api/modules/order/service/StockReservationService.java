@@ -0,0 +1,279 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.Order;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEventType;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.OrderEventPublisher;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.StockReservationRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.InventoryEngine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds stock for new orders and gives it back when the order stays unpaid.
+ * Expiry deadlines (rounded up to the second) are kept in a sorted set; a single timer
+ * thread sleeps until the earliest one and then releases every due hold in
+ * batches with one set-based statement each, cancelling the orders it released.
+ * Deadlines of holds created on other nodes or before a restart are picked up
+ * by a periodic resync from the database, so the in-memory queue only decides
+ * when to run, never what to release.
+ */
+@Service
+@Slf4j
+public class StockReservationService {
+
+    private static final String EXPIRED_REASON = "Stock reservation expired";
+    private static final int MAX_TRACKED_DEADLINES = 100_000;
+
+    private final StockReservationRepository stockReservationRepository;
+    private final OrderRepository orderRepository;
+    private final OrderEventPublisher orderEventPublisher;
+    private final InventoryEngine inventoryEngine;
+    private final TransactionTemplate transactionTemplate;
+
+    private final TreeSet<Long> deadlines = new TreeSet<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private volatile boolean running;
+    private Thread timer;
+
+    private final AtomicLong releasedReservations = new AtomicLong();
+    private final AtomicLong releasedUnits = new AtomicLong();
+    private final AtomicLong cancelledOrders = new AtomicLong();
+    private final AtomicLong runs = new AtomicLong();
+
+    @Value("${order.reservations.ttl-minutes:30}")
+    private int ttlMinutes;
+
+    @Value("${order.reservations.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.reservations.lookahead-minutes:60}")
+    private int lookaheadMinutes;
+
+    public StockReservationService(StockReservationRepository stockReservationRepository,
+                                   OrderRepository orderRepository,
+                                   OrderEventPublisher orderEventPublisher,
+                                   InventoryEngine inventoryEngine,
+                                   PlatformTransactionManager transactionManager) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.orderRepository = orderRepository;
+        this.orderEventPublisher = orderEventPublisher;
+        this.inventoryEngine = inventoryEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record the units already reserved on the products for an order and schedule their expiry
+     */
+    public void hold(Long orderId, Map<Long, Integer> quantities) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+        stockReservationRepository.holdAll(orderId, quantities, expiresAt);
+        track(expiresAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        timer = Thread.ofPlatform()
+                .name("stock-reservation-timer")
+                .daemon(true)
+                .start(this::runTimer);
+        resync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (timer != null) {
+            timer.interrupt();
+        }
+    }
+
+    /**
+     * Load deadlines of holds expiring within the lookahead window from the database
+     */
+    @Scheduled(initialDelayString = "${order.reservations.resync-interval-ms:300000}",
+            fixedDelayString = "${order.reservations.resync-interval-ms:300000}")
+    public void resync() {
+        try {
+            LocalDateTime until = LocalDateTime.now().plusMinutes(lookaheadMinutes);
+            stockReservationRepository.findUpcomingExpiries(until, MAX_TRACKED_DEADLINES).forEach(this::track);
+        } catch (Exception e) {
+            log.error("Error loading stock reservation deadlines", e);
+        }
+    }
+
+    /**
+     * Release every expired hold of unpaid pending orders and cancel those orders
+     * @return number of holds released
+     */
+    public int releaseExpired() {
+        runs.incrementAndGet();
+        int total = 0;
+        int released;
+        do {
+            Integer count = transactionTemplate.execute(status -> releaseBatch());
+            released = count != null ? count : 0;
+            total += released;
+        } while (released == batchSize);
+        if (total > 0) {
+            log.info("Released {} expired stock reservations", total);
+        }
+        return total;
+    }
+
+    public ReservationStats getStats() {
+        StockReservationRepository.HeldTotals held = stockReservationRepository.findHeldTotals();
+        int tracked;
+        lock.lock();
+        try {
+            tracked = deadlines.size();
+        } finally {
+            lock.unlock();
+        }
+        return new ReservationStats(
+                held.reservations(),
+                held.units(),
+                releasedReservations.get(),
+                releasedUnits.get(),
+                cancelledOrders.get(),
+                runs.get(),
+                tracked);
+    }
+
+    private int releaseBatch() {
+        List<StockReservationRepository.Released> released =
+                stockReservationRepository.releaseExpired(LocalDateTime.now(), batchSize);
+        if (released.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> orderIds = new TreeSet<>();
+        Set<Long> productIds = new TreeSet<>();
+        for (StockReservationRepository.Released r : released) {
+            orderIds.add(r.orderId());
+            productIds.add(r.productId());
+            releasedUnits.addAndGet(r.quantity());
+        }
+        releasedReservations.addAndGet(released.size());
+        inventoryEngine.recompute(productIds);
+
+        Map<Long, OrderStatus> previousStatuses = new HashMap<>();
+        List<Order> expired = new ArrayList<>();
+        for (Order order : orderRepository.findAllByIdForUpdate(orderIds)) {
+            if (!order.canBeCancelled() || order.isPaid()) {
+                continue;
+            }
+            previousStatuses.put(order.getId(), order.getStatus());
+            order.cancel(EXPIRED_REASON);
+            expired.add(order);
+        }
+
+        int[] counts = orderRepository.batchUpdateTransitions(expired, previousStatuses);
+        List<Long> cancelled = new ArrayList<>(expired.size());
+        for (int i = 0; i < expired.size(); i++) {
+            if (counts[i] > 0) {
+                cancelled.add(expired.get(i).getId());
+            }
+        }
+        cancelledOrders.addAndGet(cancelled.size());
+        orderEventPublisher.publishAll(cancelled, OrderEventType.ORDER_CANCELLED);
+        return released.size();
+    }
+
+    /**
+     * The epoch second at which a hold expiring at {@code expiresAt} is due. Rounded up, since
+     * a timer that fires before the fraction has passed would find nothing to release and
+     * leave the hold to the next resync.
+     */
+    static long deadlineOf(LocalDateTime expiresAt) {
+        long second = expiresAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+        return expiresAt.getNano() > 0 ? second + 1 : second;
+    }
+
+    private void track(LocalDateTime expiresAt) {
+        long deadline = deadlineOf(expiresAt);
+        lock.lock();
+        try {
+            if (deadlines.size() >= MAX_TRACKED_DEADLINES && deadline > deadlines.last()) {
+                return;     // the resync will bring it back once it is close enough
+            }
+            boolean earliest = deadlines.isEmpty() || deadline < deadlines.first();
+            deadlines.add(deadline);
+            if (deadlines.size() > MAX_TRACKED_DEADLINES) {
+                deadlines.pollLast();
+            }
+            if (earliest) {
+                changed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runTimer() {
+        while (running) {
+            try {
+                if (awaitNextDeadline()) {
+                    releaseExpired();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error releasing expired stock reservations", e);
+            }
+        }
+    }
+
+    /**
+     * Sleep until the earliest deadline has passed, then drop every due deadline
+     * @return true when at least one deadline is due
+     */
+    private boolean awaitNextDeadline() throws InterruptedException {
+        lock.lock();
+        try {
+            if (deadlines.isEmpty()) {
+                changed.await(lookaheadMinutes, TimeUnit.MINUTES);
+                return false;
+            }
+            long waitMillis = deadlines.first() * 1000 - System.currentTimeMillis();
+            if (waitMillis > 0) {
+                changed.await(waitMillis, TimeUnit.MILLISECONDS);
+                return false;
+            }
+            long now = System.currentTimeMillis() / 1000;
+            deadlines.headSet(now, true).clear();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public record ReservationStats(
+            long heldReservations,
+            long heldUnits,
+            long releasedReservations,
+            long releasedUnits,
+            long cancelledOrders,
+            long releaseRuns,
+            int trackedDeadlines
+    ) {}
+}
@@ -1,17 +1,26 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.impl;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.InsufficientStockException;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.dto.*;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.Order;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEventType;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderHistoryEntry;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderItem;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderStatus;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.PaymentStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.OrderEventPublisher;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.mapper.OrderMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderHistoryRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderItemRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.OrderNumberService;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.OrderService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service.StockReservationService;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.InventoryEngine;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
 
@@ -26,8 +35,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -37,10 +49,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderHistoryRepository orderHistoryRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final OrderMapper orderMapper;
+    private final OrderEventPublisher orderEventPublisher;
+    private final StockReservationService stockReservationService;
+    private final OrderNumberService orderNumberService;
+    private final InventoryEngine inventoryEngine;
 
     @Override
     public OrderResponse createOrder(OrderCreateRequest request, Long userId) {
@@ -55,6 +75,7 @@ public class OrderServiceImpl implements OrderService {
                 .user(user)
                 .customerEmail(user.getEmail())
                 .customerName(user.getFirstName() + " " + user.getLastName())
+                .orderNumber(orderNumberService.nextOrderNumber())
                 .status(OrderStatus.PENDING)
                 .paymentStatus(PaymentStatus.PENDING)
                 .build();
@@ -77,9 +98,6 @@ public class OrderServiceImpl implements OrderService {
                 );
             }
 
-            // Reserve stock
-            product.reserveStock(itemRequest.getQuantity());
-
             // Create order item
             OrderItem orderItem = OrderItem.builder()
                     .product(product)
@@ -104,8 +122,25 @@ public class OrderServiceImpl implements OrderService {
         // Calculate totals
         order.calculateTotals();
 
-        // Save order
+        // Save order and its items
         Order savedOrder = orderRepository.save(order);
+        orderItemRepository.saveAll(new ArrayList<>(savedOrder.getOrderItems()));
+
+        // Reserve stock on the products, in id order, and hold it until the order is paid
+        Map<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, Product> products = new HashMap<>();
+        for (OrderItem item : savedOrder.getOrderItems()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            products.put(item.getProduct().getId(), item.getProduct());
+        }
+        quantities.forEach((productId, quantity) -> {
+            if (!productRepository.reserveStock(productId, quantity)) {
+                Product product = products.get(productId);
+                throw new InsufficientStockException(product.getName(), product.getAvailableQuantity(), quantity);
+            }
+        });
+        inventoryEngine.recompute(quantities.keySet());
+        stockReservationService.hold(savedOrder.getId(), quantities);
 
         log.info("Order created successfully: {} with total: ${}",
                 savedOrder.getOrderNumber(),
@@ -151,6 +186,57 @@ public class OrderServiceImpl implements OrderService {
         return new PageImpl<>(orders.stream().map(orderMapper::toDto).collect(Collectors.toList()), pageable, total);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public OrderHistoryResponse getOrderHistory(Long userId, OrderStatus status, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        LocalDateTime afterOrderDate = null;
+        Long afterOrderId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("_", 2);
+                afterOrderDate = LocalDateTime.parse(parts[0]);
+                afterOrderId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new InvalidDataException("Invalid order history cursor");
+            }
+        }
+
+        // One extra row tells whether another page follows
+        List<OrderHistoryEntry> rows = orderHistoryRepository.findPage(userId, status, afterOrderDate, afterOrderId, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<OrderHistoryEntry> page = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            OrderHistoryEntry last = page.get(page.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getOrderDate() + "_" + last.getOrderId()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return OrderHistoryResponse.builder()
+                .orders(page.stream().map(entry -> OrderHistoryResponse.Entry.builder()
+                        .orderId(entry.getOrderId())
+                        .orderNumber(entry.getOrderNumber())
+                        .orderDate(entry.getOrderDate())
+                        .status(entry.getStatus())
+                        .paymentStatus(entry.getPaymentStatus())
+                        .itemCount(entry.getItemCount())
+                        .totalQuantity(entry.getTotalQuantity())
+                        .firstItemName(entry.getFirstItemName())
+                        .firstItemImageUrl(entry.getFirstItemImageUrl())
+                        .subtotal(entry.getSubtotal())
+                        .discountAmount(entry.getDiscountAmount())
+                        .taxAmount(entry.getTaxAmount())
+                        .shippingCost(entry.getShippingCost())
+                        .totalAmount(entry.getTotalAmount())
+                        .build())
+                        .toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<OrderResponse> getUserOrdersByStatus(
@@ -233,7 +319,8 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> ResourceNotFoundException.forResource("Order", id));
 
         order.confirm();
-        Order confirmed = orderRepository.save(order);
+        Order confirmed = orderRepository.update(order);
+        orderEventPublisher.publish(id, OrderEventType.ORDER_CONFIRMED);
 
         log.info("Order confirmed: {}", order.getOrderNumber());
         return orderMapper.toDto(confirmed);
@@ -245,15 +332,12 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> ResourceNotFoundException.forResource("user", id));
 
-        // Deduct stock when shipped (complete the reservation)
-        for (OrderItem item : order.getOrderItems()) {
-            item.getProduct().deductStock(item.getQuantity());
-        }
-
         order.ship();
         order.setPaymentTransactionId(trackingNumber);
 
-        Order shipped = orderRepository.save(order);
+        Order shipped = orderRepository.update(order);
+        // Stock is deducted (completing the reservation) by the order event consumers
+        orderEventPublisher.publish(id, OrderEventType.ORDER_SHIPPED);
 
         log.info("Order shipped: {} with tracking: {}", order.getOrderNumber(), trackingNumber);
         return orderMapper.toDto(shipped);
@@ -267,7 +351,8 @@ public class OrderServiceImpl implements OrderService {
 
 
         order.deliver();
-        Order delivered = orderRepository.save(order);
+        Order delivered = orderRepository.update(order);
+        orderEventPublisher.publish(id, OrderEventType.ORDER_DELIVERED);
 
         log.info("Order delivered: {}", order.getOrderNumber());
         return orderMapper.toDto(delivered);
@@ -288,13 +373,10 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalStateException("Order cannot be cancelled at this stage");
         }
 
-        // Release reserved stock
-        for (OrderItem item : order.getOrderItems()) {
-            item.getProduct().releaseReservedStock(item.getQuantity());
-        }
-
         order.cancel(reason);
-        Order cancelled = orderRepository.save(order);
+        Order cancelled = orderRepository.update(order);
+        // Reserved stock is released by the order event consumers
+        orderEventPublisher.publish(id, OrderEventType.ORDER_CANCELLED);
 
         log.info("Order cancelled: {} - Reason: {}", order.getOrderNumber(), reason);
         return orderMapper.toDto(cancelled);
@@ -311,18 +393,49 @@ public class OrderServiceImpl implements OrderService {
         }
 
         order.refund(amount, reason);
-        Order refunded = orderRepository.save(order);
+        Order refunded = orderRepository.update(order);
+        orderEventPublisher.publish(id, OrderEventType.ORDER_REFUNDED);
 
         log.info("Order refunded: {} - Amount: ${}", order.getOrderNumber(), amount);
         return orderMapper.toDto(refunded);
     }
 
+    @Override
+    @Transactional
+    public BulkTransitionResponse bulkShipOrders(BulkShipRequest request) {
+        Map<Long, BulkShipRequest.Shipment> shipments = new LinkedHashMap<>();
+        for (BulkShipRequest.Shipment shipment : request.getShipments()) {
+            shipments.putIfAbsent(shipment.getOrderId(), shipment);
+        }
+
+        return applyBulkTransition(shipments.keySet(), OrderEventType.ORDER_SHIPPED, order -> {
+            BulkShipRequest.Shipment shipment = shipments.get(order.getId());
+            order.ship();
+            order.setTrackingNumber(shipment.getTrackingNumber());
+            if (shipment.getCarrier() != null) {
+                order.setCarrier(shipment.getCarrier());
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public BulkTransitionResponse bulkDeliverOrders(BulkDeliverRequest request) {
+        return applyBulkTransition(new LinkedHashSet<>(request.getOrderIds()),
+                OrderEventType.ORDER_DELIVERED, Order::deliver);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public OrderStatsResponse getOrderStatistics() {
         return orderRepository.getOrderStatistics();
     }
 
+    @Override
+    public StockReservationService.ReservationStats getReservationStatistics() {
+        return stockReservationService.getStats();
+    }
+
     @Override
     public void deleteOrder(Long orderId) {
         log.info("Deleting order with ID: {}", orderId);
@@ -372,6 +485,73 @@ public class OrderServiceImpl implements OrderService {
     }
 
 
+    /**
+     * Lock the orders, run the state machine in memory, write all valid transitions
+     * in one batch and record one outbox event per changed order
+     */
+    private BulkTransitionResponse applyBulkTransition(Collection<Long> orderIds,
+                                                       OrderEventType eventType,
+                                                       Consumer<Order> transition) {
+        Map<Long, Order> orders = orderRepository.findAllByIdForUpdate(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        Map<Long, BulkTransitionResponse.Result> results = new HashMap<>();
+        Map<Long, OrderStatus> previousStatuses = new HashMap<>();
+        List<Order> changed = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            Order order = orders.get(orderId);
+            if (order == null) {
+                results.put(orderId, bulkResult(orderId, null, false, null, null, "Order not found"));
+                continue;
+            }
+            OrderStatus previous = order.getStatus();
+            try {
+                transition.accept(order);
+            } catch (IllegalStateException e) {
+                results.put(orderId, bulkResult(orderId, order, false, previous, previous, e.getMessage()));
+                continue;
+            }
+            previousStatuses.put(orderId, previous);
+            changed.add(order);
+        }
+
+        int[] counts = orderRepository.batchUpdateTransitions(changed, previousStatuses);
+        List<Long> succeeded = new ArrayList<>(changed.size());
+        for (int i = 0; i < changed.size(); i++) {
+            Order order = changed.get(i);
+            OrderStatus previous = previousStatuses.get(order.getId());
+            if (counts[i] > 0) {
+                succeeded.add(order.getId());
+                results.put(order.getId(), bulkResult(order.getId(), order, true, previous, order.getStatus(), null));
+            } else {
+                results.put(order.getId(), bulkResult(order.getId(), order, false, previous, previous,
+                        "Order was modified concurrently"));
+            }
+        }
+        orderEventPublisher.publishAll(succeeded, eventType);
+
+        List<BulkTransitionResponse.Result> ordered = orderIds.stream().map(results::get).toList();
+        log.info("Bulk {}: {} of {} orders updated", eventType, succeeded.size(), orderIds.size());
+        return BulkTransitionResponse.builder()
+                .requested(orderIds.size())
+                .succeeded(succeeded.size())
+                .failed(orderIds.size() - succeeded.size())
+                .results(ordered)
+                .build();
+    }
+
+    private BulkTransitionResponse.Result bulkResult(Long orderId, Order order, boolean success,
+                                                     OrderStatus previousStatus, OrderStatus status, String message) {
+        return BulkTransitionResponse.Result.builder()
+                .orderId(orderId)
+                .orderNumber(order != null ? order.getOrderNumber() : null)
+                .success(success)
+                .previousStatus(previousStatus)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
     private Order findOrderById(Long id) {
         return orderRepository.findById(id)
                 .orElseThrow(() -> ResourceNotFoundException.forResource("Order", id));
@@ -3,10 +3,26 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.controller;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.ApiResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.response.PaginatedResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.BulkOperationResultDto;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.BulkPriceStockUpdateRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.FacetedSearchRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.FacetedSearchResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductCreateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductUpdateRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductCriteria;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.AutocompleteIndex;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.AutocompleteService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.CatalogSnapshotService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.InventoryEngine;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductBulkUpdateService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductFacetService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductImportService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductSearchService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.InventoryShardService;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.RelatedProductsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -21,7 +37,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 @Slf4j
 @RestController
@@ -31,6 +52,15 @@ import java.math.BigDecimal;
 public class ProductController {
 
     private final ProductService productService;
+    private final InventoryShardService inventoryShardService;
+    private final InventoryEngine inventoryEngine;
+    private final ProductSearchService productSearchService;
+    private final ProductFacetService productFacetService;
+    private final AutocompleteService autocompleteService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ProductImportService productImportService;
+    private final ProductBulkUpdateService productBulkUpdateService;
+    private final RelatedProductsService relatedProductsService;
 
     @PostMapping
     @Operation(summary = "Create a new product", description = "Create a new product with details")
@@ -50,6 +80,17 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/{id}/related")
+    @Operation(summary = "Get related products", description = "Products related by category, price band and co-purchases, best first")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getRelatedProducts(
+            @Parameter(description = "Product ID", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Maximum number of products", example = "8")
+            @RequestParam(defaultValue = "8") int limit) {
+        List<ProductResponse> related = relatedProductsService.getRelated(id, limit);
+        return ResponseEntity.ok(ApiResponse.success("Related products fetched successfully", related));
+    }
+
     @GetMapping
     @Operation(summary = "List all product with advanced filtering",
             description = "Retrieve paginated list of product with optional filtering by category, price range, and search")
@@ -64,12 +105,17 @@ public class ProductController {
             @RequestParam(defaultValue = "ASC", name = "direction") String direction,
             @Parameter(description = "Filter by category ID (optional)")
             @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "Filter by any of several category IDs (optional)")
+            @RequestParam(required = false) List<Long> categoryIds,
             @Parameter(description = "Minimum price (optional)")
             @RequestParam(required = false) BigDecimal minPrice,
             @Parameter(description = "Maximum price (optional)")
             @RequestParam(required = false) BigDecimal maxPrice,
             @Parameter(description = "Search product by name (optional)")
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean featured,
+            @RequestParam(required = false) Boolean isNew,
+            @RequestParam(required = false) Boolean inStock) {
 
         Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction)
                 ? Sort.Direction.DESC
@@ -79,14 +125,27 @@ public class ProductController {
 
         Page<ProductResponse> response;
 
-        // Advanced search with all filters
-        if ((categoryId != null || minPrice != null || maxPrice != null) || search != null) {
-            Long filterCategoryId = categoryId;
-            BigDecimal filterMinPrice = minPrice != null ? minPrice : BigDecimal.ZERO;
-            BigDecimal filterMaxPrice = maxPrice != null ? maxPrice : new BigDecimal("999999");
-            String filterSearch = search != null ? search : "";
-
-            response = productService.advancedProductSearch(filterCategoryId, filterMinPrice, filterMaxPrice, filterSearch, pageable);
+        // Only the filters that were supplied become predicates
+        List<Long> filterCategoryIds = new ArrayList<>();
+        if (categoryId != null) {
+            filterCategoryIds.add(categoryId);
+        }
+        if (categoryIds != null) {
+            filterCategoryIds.addAll(categoryIds);
+        }
+        ProductCriteria criteria = ProductCriteria.builder()
+                .categoryIds(filterCategoryIds.isEmpty() ? null : filterCategoryIds.stream().distinct().toList())
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .nameContains(search)
+                .featured(featured)
+                .isNew(isNew)
+                .inStock(inStock)
+                .build();
+
+        if (!filterCategoryIds.isEmpty() || minPrice != null || maxPrice != null || search != null
+                || featured != null || isNew != null || inStock != null) {
+            response = productService.filterProducts(criteria, pageable);
         } else {
             response = productService.getAllProducts(pageable);
         }
@@ -177,6 +236,61 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success(paginatedResponse));
     }
 
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Search box suggestions", description = "Product names, categories and popular searches starting with the typed prefix, most popular first")
+    public ResponseEntity<ApiResponse<List<AutocompleteIndex.Suggestion>>> autocomplete(
+            @Parameter(description = "Typed prefix", required = true)
+            @RequestParam(value = "q", defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(ApiResponse.success("Suggestions fetched successfully", autocompleteService.suggest(prefix, limit)));
+    }
+
+    @GetMapping("/faceted")
+    @Operation(summary = "Faceted product search",
+            description = "Retrieve a page of matching products together with counts by category, price band, inventory status and rating")
+    public ResponseEntity<ApiResponse<FacetedSearchResponse>> facetedSearch(
+            @Parameter(description = "Search term (optional)")
+            @RequestParam(value = "q", required = false) String search,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) InventoryStatus inventoryStatus,
+            @Parameter(description = "Minimum average rating, 1 to 5 (optional)")
+            @RequestParam(required = false) Integer minRating,
+            @RequestParam(required = false) Boolean featured,
+            @RequestParam(required = false) Boolean isNew,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "relevance, id, price, createdAt or rating")
+            @RequestParam(defaultValue = "relevance") String sortBy,
+            @RequestParam(defaultValue = "ASC", name = "direction") String direction) {
+
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction)
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+
+        FacetedSearchRequest request = FacetedSearchRequest.builder()
+                .search(search)
+                .categoryId(categoryId)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inventoryStatus(inventoryStatus)
+                .minRating(minRating)
+                .featured(featured)
+                .isNew(isNew)
+                .inStock(inStock)
+                .build();
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        ProductFacetService.FacetedResult result = productFacetService.search(request, pageable);
+
+        FacetedSearchResponse response = FacetedSearchResponse.builder()
+                .products(PaginatedResponse.from(result.page()))
+                .facets(result.facets())
+                .build();
+        return ResponseEntity.ok(ApiResponse.success("Products fetched successfully", response));
+    }
+
     @GetMapping("/featured")
     @Operation(summary = "Get featured product", description = "Retrieve featured product")
     public ResponseEntity<ApiResponse<PaginatedResponse<ProductResponse>>> getFeaturedProducts(
@@ -190,6 +304,36 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success(paginatedResponse));
     }
 
+    @GetMapping("/new")
+    @Operation(summary = "Get new products", description = "Retrieve products flagged as new")
+    public ResponseEntity<ApiResponse<PaginatedResponse<ProductResponse>>> getNewProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        Page<ProductResponse> products = productService.getNewProducts(PageRequest.of(page, size));
+        return ResponseEntity.ok(ApiResponse.success(PaginatedResponse.from(products)));
+    }
+
+    @GetMapping("/bestsellers")
+    @Operation(summary = "Get bestseller products", description = "Retrieve products flagged as bestsellers")
+    public ResponseEntity<ApiResponse<PaginatedResponse<ProductResponse>>> getBestsellerProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        Page<ProductResponse> products = productService.getBestsellerProducts(PageRequest.of(page, size));
+        return ResponseEntity.ok(ApiResponse.success(PaginatedResponse.from(products)));
+    }
+
+    @GetMapping("/discounted")
+    @Operation(summary = "Get discounted products", description = "Retrieve products whose discount price is below the list price")
+    public ResponseEntity<ApiResponse<PaginatedResponse<ProductResponse>>> getDiscountedProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        Page<ProductResponse> products = productService.getDiscountedProducts(PageRequest.of(page, size));
+        return ResponseEntity.ok(ApiResponse.success(PaginatedResponse.from(products)));
+    }
+
     @GetMapping("slug/{slug}")
     @Operation(summary = "Get product by slug", description = "Retrieve product details by product slug")
     public ResponseEntity<ApiResponse<ProductResponse>> getProductBySlug(
@@ -230,6 +374,91 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success("Stock reduced successfully", response));
     }
 
+    @PostMapping("/admin/{id}/inventory-shards")
+    @Operation(summary = "Shard product inventory (Admin)", description = "Split a hot product's stock over several rows for flash sales")
+    public ResponseEntity<ApiResponse<InventoryShardService.ShardedInventory>> enableInventorySharding(
+            @Parameter(description = "Product ID", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Number of shards", required = true)
+            @RequestParam Integer shards) {
+        InventoryShardService.ShardedInventory response = inventoryShardService.enableSharding(id, shards);
+        return ResponseEntity.ok(ApiResponse.success("Inventory sharded successfully", response));
+    }
+
+    @GetMapping("/admin/{id}/inventory-shards")
+    @Operation(summary = "Get sharded inventory (Admin)", description = "Per-shard and aggregate stock of a sharded product")
+    public ResponseEntity<ApiResponse<InventoryShardService.ShardedInventory>> getShardedInventory(
+            @Parameter(description = "Product ID", required = true)
+            @PathVariable Long id) {
+        InventoryShardService.ShardedInventory response = inventoryShardService.getShardedInventory(id);
+        return ResponseEntity.ok(ApiResponse.success("Sharded inventory fetched successfully", response));
+    }
+
+    @DeleteMapping("/admin/{id}/inventory-shards")
+    @Operation(summary = "Merge inventory shards (Admin)", description = "Fold a product's shards back into its row")
+    public ResponseEntity<ApiResponse<Void>> disableInventorySharding(
+            @Parameter(description = "Product ID", required = true)
+            @PathVariable Long id) {
+        inventoryShardService.disableSharding(id);
+        return ResponseEntity.ok(ApiResponse.success("Inventory shards merged successfully", null));
+    }
+
+    @GetMapping("/admin/inventory/engine")
+    @Operation(summary = "Get inventory engine statistics (Admin)", description = "Sizes of the low-stock, out-of-stock and reorder sets and threshold event counts")
+    public ResponseEntity<ApiResponse<InventoryEngine.InventoryEngineStats>> getInventoryEngineStats() {
+        return ResponseEntity.ok(ApiResponse.success("Inventory engine statistics fetched successfully", inventoryEngine.getStats()));
+    }
+
+    @GetMapping("/admin/autocomplete")
+    @Operation(summary = "Get autocomplete index statistics (Admin)", description = "Size and freshness of the typeahead index and tracked queries")
+    public ResponseEntity<ApiResponse<AutocompleteService.AutocompleteStats>> getAutocompleteStats() {
+        return ResponseEntity.ok(ApiResponse.success("Autocomplete statistics fetched successfully", autocompleteService.getStats()));
+    }
+
+    @GetMapping("/admin/catalog-snapshot")
+    @Operation(summary = "Get catalog snapshot statistics (Admin)", description = "Whether listings are served from the in-memory catalog snapshot, its size and freshness")
+    public ResponseEntity<ApiResponse<CatalogSnapshotService.CatalogSnapshotStats>> getCatalogSnapshotStats() {
+        return ResponseEntity.ok(ApiResponse.success("Catalog snapshot statistics fetched successfully", catalogSnapshotService.getStats()));
+    }
+
+    @PostMapping(value = "/admin/import", consumes = {"text/csv", "application/x-ndjson", "application/jsonl", "text/plain", "application/octet-stream"})
+    @Operation(summary = "Bulk import products (Admin)", description = "Stream a CSV or JSON Lines catalog feed and upsert its products by SKU; send Content-Encoding: gzip for compressed feeds")
+    public ResponseEntity<ApiResponse<ProductImportService.ImportReport>> importProducts(
+            @Parameter(description = "Feed format", example = "CSV")
+            @RequestParam(defaultValue = "CSV") ProductImportService.Format format,
+            @RequestHeader(value = "Content-Encoding", required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, 64 * 1024) : body;
+        ProductImportService.ImportReport report = productImportService.importCatalog(format, in);
+        return ResponseEntity.ok(ApiResponse.success("Product import completed", report));
+    }
+
+    @GetMapping("/admin/import/status")
+    @Operation(summary = "Get product import status (Admin)", description = "Progress of the running import and the report of the last finished one")
+    public ResponseEntity<ApiResponse<ProductImportService.ImportStatus>> getImportStatus() {
+        return ResponseEntity.ok(ApiResponse.success("Product import status fetched successfully", productImportService.getStatus()));
+    }
+
+    @PatchMapping("/admin/bulk/price-stock")
+    @Operation(summary = "Bulk update prices and stock (Admin)", description = "Apply price, discount and stock changes to many products, addressed by id or SKU, in one set-based update")
+    public ResponseEntity<ApiResponse<BulkOperationResultDto>> bulkUpdatePriceStock(
+            @Valid @RequestBody BulkPriceStockUpdateRequest request) {
+        BulkOperationResultDto result = productBulkUpdateService.applyPriceStockUpdates(request);
+        return ResponseEntity.ok(ApiResponse.success("Bulk price and stock update applied", result));
+    }
+
+    @GetMapping("/admin/related")
+    @Operation(summary = "Get related-products table statistics (Admin)", description = "Size and freshness of the precomputed related-products table")
+    public ResponseEntity<ApiResponse<RelatedProductsService.RelatedProductsStats>> getRelatedProductsStats() {
+        return ResponseEntity.ok(ApiResponse.success("Related-products statistics fetched successfully", relatedProductsService.getStats()));
+    }
+
+    @GetMapping("/admin/search/index")
+    @Operation(summary = "Get search index statistics (Admin)", description = "Size and freshness of the in-process product search index")
+    public ResponseEntity<ApiResponse<ProductSearchService.SearchIndexStats>> getSearchIndexStats() {
+        return ResponseEntity.ok(ApiResponse.success("Search index statistics fetched successfully", productSearchService.getStats()));
+    }
+
     @GetMapping("/inventory-status/{status}")
     @Operation(summary = "Get products by inventory status", description = "Retrieve products filtered by inventory status")
     public ResponseEntity<ApiResponse<PaginatedResponse<ProductResponse>>> getProductsByInventoryStatus(
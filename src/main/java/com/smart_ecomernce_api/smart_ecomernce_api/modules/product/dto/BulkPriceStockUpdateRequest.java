@@ -0,0 +1,51 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkPriceStockUpdateRequest {
+
+    @NotEmpty(message = "At least one update is required")
+    @Size(max = 50000, message = "At most 50000 updates per request")
+    private List<@Valid Item> updates;
+
+    /**
+     * New values for one product, addressed by id or SKU; omitted values are left unchanged
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+
+        private Long productId;
+
+        @Size(min = 3, max = 50, message = "SKU must be between 3 and 50 characters")
+        private String sku;
+
+        @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+        private BigDecimal price;
+
+        @DecimalMin(value = "0.01", message = "Discounted price must be greater than 0")
+        private BigDecimal discountPrice;
+
+        private Boolean clearDiscount;
+
+        @PositiveOrZero(message = "Stock quantity cannot be negative")
+        private Integer stockQuantity;
+    }
+}
@@ -0,0 +1,37 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters of a faceted product search; every field is optional
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetedSearchRequest {
+
+    private String search;
+
+    private Long categoryId;
+
+    private BigDecimal minPrice;
+
+    private BigDecimal maxPrice;
+
+    private InventoryStatus inventoryStatus;
+
+    private Integer minRating;
+
+    private Boolean featured;
+
+    private Boolean isNew;
+
+    private Boolean inStock;
+}
@@ -0,0 +1,19 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.response.PaginatedResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductFacetIndex;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetedSearchResponse {
+
+    private PaginatedResponse<ProductResponse> products;
+
+    private ProductFacetIndex.Facets facets;
+}
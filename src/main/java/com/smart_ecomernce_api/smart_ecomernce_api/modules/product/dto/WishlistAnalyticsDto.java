@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -43,7 +44,7 @@ public class WishlistAnalyticsDto {
     public static class CategoryAnalytics {
         private String categoryName;
         private Integer itemCount;
-        private Double totalValue;
-        private Double averagePrice;
+        private BigDecimal totalValue;
+        private BigDecimal averagePrice;
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,13 +17,13 @@ public class WishlistCostSummaryDto {
 
     private Integer totalItems;
 
-    private Double subtotal;
+    private BigDecimal subtotal;
 
-    private Double estimatedTax;
+    private BigDecimal estimatedTax;
 
-    private Double estimatedShipping;
+    private BigDecimal estimatedShipping;
 
-    private Double totalCost;
+    private BigDecimal totalCost;
 
     private Integer inStockItems;
 
@@ -37,6 +38,6 @@ public class WishlistCostSummaryDto {
     public static class PriorityBreakdown {
         private String priority;
         private Integer itemCount;
-        private Double totalCost;
+        private BigDecimal totalCost;
     }
 }
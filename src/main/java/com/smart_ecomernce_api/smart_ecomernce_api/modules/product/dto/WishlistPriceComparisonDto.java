@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,11 +17,11 @@ public class WishlistPriceComparisonDto {
 
     private Integer totalItems;
 
-    private Double totalOriginalPrice;
+    private BigDecimal totalOriginalPrice;
 
-    private Double totalCurrentPrice;
+    private BigDecimal totalCurrentPrice;
 
-    private Double totalSavings;
+    private BigDecimal totalSavings;
 
     private Double averageDiscount;
 
@@ -33,9 +34,9 @@ public class WishlistPriceComparisonDto {
     public static class PriceComparisonItem {
         private Long productId;
         private String productName;
-        private Double originalPrice;
-        private Double currentPrice;
-        private Double savings;
+        private BigDecimal originalPrice;
+        private BigDecimal currentPrice;
+        private BigDecimal savings;
         private Double discountPercentage;
         private Boolean bestDeal;
     }
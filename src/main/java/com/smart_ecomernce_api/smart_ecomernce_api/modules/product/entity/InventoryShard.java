@@ -0,0 +1,38 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * One slice of a hot product's stock.
+ * While a product has shard rows they hold its authoritative stock and reserved
+ * quantities; the product row carries their sums as of the last rebalance.
+ */
+@Entity
+@Table(name = "product_inventory_shards",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_inventory_shard_product_shard",
+                columnNames = {"product_id", "shard_no"}))
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryShard extends BaseEntity {
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "shard_no", nullable = false)
+    private Integer shardNo;
+
+    @Column(name = "stock_quantity", nullable = false)
+    @Builder.Default
+    private Integer stockQuantity = 0;
+
+    @Column(name = "reserved_quantity", nullable = false)
+    @Builder.Default
+    private Integer reservedQuantity = 0;
+}
@@ -1,6 +1,7 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.base.BaseEntity;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.money.Money;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderItem;
 import com.smart_ecomernce_api.smart_ecomernce_api.validator.ValidPriceRange;
@@ -28,7 +29,11 @@ import java.util.List;
                 @Index(name = "idx_product_status", columnList = "inventory_status"),
                 @Index(name = "idx_product_stock", columnList = "stock_quantity"),
                 @Index(name = "idx_product_featured", columnList = "featured"),
-                @Index(name = "idx_product_active", columnList = "is_active")
+                @Index(name = "idx_product_active", columnList = "is_active"),
+                @Index(name = "idx_product_updated", columnList = "updated_at"),
+                @Index(name = "idx_product_active_category", columnList = "is_active, category_id"),
+                @Index(name = "idx_product_active_featured", columnList = "is_active, featured"),
+                @Index(name = "idx_product_active_new", columnList = "is_active, is_new")
         }
 )
 @Getter
@@ -251,6 +256,13 @@ public class Product extends BaseEntity {
                 : price;
     }
 
+    /**
+     * Effective selling price as {@link Money}, for totals and other price arithmetic
+     */
+    public Money effectiveUnitPrice() {
+        return Money.of(getEffectivePrice());
+    }
+
     /**
      * Check if product has discount
      */
@@ -0,0 +1,38 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.event;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.WishlistRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the wishlist subscribers of a product when it comes back in stock,
+ * looking them up by product instead of checking every wishlist
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BackInStockNotifier {
+
+    private final WishlistRepository wishlistRepository;
+    private final AtomicLong notified = new AtomicLong();
+
+    @EventListener(condition = "#event.type.name() == 'BACK_IN_STOCK'")
+    public void onBackInStock(InventoryThresholdEvent event) {
+        List<WishlistRepository.StockSubscriber> subscribers = wishlistRepository.findStockSubscribers(event.productId());
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        notified.addAndGet(subscribers.size());
+        log.info("Product {} is back in stock ({} available), notifying {} wishlist subscribers",
+                event.productId(), event.availableQuantity(), subscribers.size());
+    }
+
+    public long getNotifiedCount() {
+        return notified.get();
+    }
+}
@@ -0,0 +1,50 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.event;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+
+/**
+ * Published after commit when a product's inventory status crosses a stock threshold
+ */
+public record InventoryThresholdEvent(
+        Long productId,
+        Type type,
+        InventoryStatus previousStatus,
+        InventoryStatus status,
+        int availableQuantity
+) {
+
+    public enum Type {
+        LOW_STOCK,
+        OUT_OF_STOCK,
+        BACK_IN_STOCK;
+
+        /**
+         * The threshold crossed by moving from one status to another, or null when none was
+         */
+        public static Type between(InventoryStatus previous, InventoryStatus current) {
+            if (previous == null || current == null || previous == current) {
+                return null;
+            }
+            boolean wasOut = isOut(previous);
+            boolean isOut = isOut(current);
+            if (isOut && !wasOut) {
+                return OUT_OF_STOCK;
+            }
+            if (wasOut && isAvailable(current)) {
+                return BACK_IN_STOCK;
+            }
+            if (previous == InventoryStatus.IN_STOCK && current == InventoryStatus.LOW_STOCK) {
+                return LOW_STOCK;
+            }
+            return null;
+        }
+
+        private static boolean isOut(InventoryStatus status) {
+            return status == InventoryStatus.OUT_OF_STOCK || status == InventoryStatus.BACKORDER;
+        }
+
+        private static boolean isAvailable(InventoryStatus status) {
+            return status == InventoryStatus.IN_STOCK || status == InventoryStatus.LOW_STOCK;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC Repository for the product columns the catalog snapshot is built from
+ */
+public interface CatalogSnapshotRepository {
+
+    /**
+     * Stream every product, active or not, with its category
+     */
+    void streamAll(Consumer<CatalogRow> consumer);
+
+    /**
+     * Products whose row or category was updated at or after the given time
+     */
+    List<CatalogRow> findChangedSince(LocalDateTime since);
+
+    /**
+     * One product as read from the database; timestamps are epoch milliseconds
+     */
+    record CatalogRow(
+            long id,
+            String name,
+            String slug,
+            String sku,
+            String description,
+            String imageUrl,
+            BigDecimal price,
+            BigDecimal discountPrice,
+            int stockQuantity,
+            int availableQuantity,
+            boolean trackInventory,
+            boolean active,
+            boolean featured,
+            boolean isNew,
+            boolean bestseller,
+            Long categoryId,
+            String categorySlug,
+            String categoryName,
+            Long createdAt,
+            Long updatedAt
+    ) {}
+}
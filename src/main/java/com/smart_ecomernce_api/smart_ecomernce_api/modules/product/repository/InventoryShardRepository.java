@@ -0,0 +1,70 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC Repository for sharded inventory of hot products.
+ * Stock operations mirror the ones on the product row; each returns false
+ * when the product has no shards so callers can fall back to the row.
+ */
+public interface InventoryShardRepository {
+
+    /**
+     * Whether the product is known to be sharded, from the in-memory routing table
+     */
+    boolean isSharded(Long productId);
+
+    /**
+     * Ids among the given products that have shard rows, read from the database
+     */
+    Set<Long> findShardedAmong(Collection<Long> productIds);
+
+    /**
+     * Reload the routing table from the database
+     */
+    void refreshRouting();
+
+    /**
+     * Split the product row's stock and reservations into {@code shardCount} shards
+     * @return false if the product does not exist or is already sharded
+     */
+    boolean createShards(Long productId, int shardCount);
+
+    /**
+     * Fold the shards back into the product row and delete them
+     * @return false if the product was not sharded
+     */
+    boolean removeShards(Long productId);
+
+    /**
+     * Sum of available units over the product's shards, or null if it has none
+     */
+    Integer findAvailableQuantity(Long productId);
+
+    boolean reserve(Long productId, int quantity);
+
+    boolean release(Long productId, int quantity);
+
+    boolean deduct(Long productId, int quantity);
+
+    boolean setStock(Long productId, int quantity);
+
+    /**
+     * Even out free units across the product's shards and copy the sums onto the product row
+     */
+    void rebalance(Long productId);
+
+    /**
+     * Ids of every sharded product
+     */
+    List<Long> findShardedProductIds();
+
+    /**
+     * Per-shard stock of a product, by shard number
+     */
+    List<Shard> findShards(Long productId);
+
+    record Shard(int shardNo, int stockQuantity, int reservedQuantity) {}
+}
@@ -0,0 +1,42 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC Repository for inventory status derived from stock levels
+ */
+public interface InventoryStatusRepository {
+
+    /**
+     * Recompute inventory_status of the given products from their current stock and
+     * reserved quantity; discontinued and pre-order products keep their status
+     * @return the level of every product found, with its status before and after
+     */
+    List<InventoryLevel> recompute(Collection<Long> productIds);
+
+    /**
+     * Levels of active tracked products that are low on stock, out of stock or at their reorder point
+     */
+    List<InventoryLevel> findWatchedLevels();
+
+    record InventoryLevel(
+            Long productId,
+            InventoryStatus previousStatus,
+            InventoryStatus status,
+            int stockQuantity,
+            int reservedQuantity,
+            int reorderPoint,
+            boolean tracked
+    ) {
+        public int availableQuantity() {
+            return stockQuantity - reservedQuantity;
+        }
+
+        public boolean needsReorder() {
+            return tracked && stockQuantity <= reorderPoint;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * JDBC Repository for set-based price and stock changes across many products
+ */
+public interface ProductBulkUpdateRepository {
+
+    /**
+     * Stage the deltas in a temporary table and apply them with a single joined UPDATE.
+     * Must run inside a transaction, since the staging table lives until commit.
+     * Only products whose price, discount or stock actually differ are touched.
+     */
+    BulkApplyResult apply(List<PriceStockDelta> deltas);
+
+    /**
+     * New values for one product, addressed by id or, when the id is null, by SKU.
+     * Null values leave the stored value unchanged; {@code clearDiscount} removes the discount.
+     */
+    record PriceStockDelta(
+            int line,
+            Long productId,
+            String sku,
+            BigDecimal price,
+            BigDecimal discountPrice,
+            boolean clearDiscount,
+            Integer stockQuantity
+    ) {}
+
+    /**
+     * A product the update changed
+     */
+    record AppliedChange(long productId, boolean priceChanged, boolean stockChanged, boolean featured) {}
+
+    /**
+     * Stock for a product whose inventory is split into shards; the caller sets it through the shards
+     */
+    record ShardedStock(long productId, int stockQuantity) {}
+
+    record BulkApplyResult(
+            List<AppliedChange> applied,
+            List<ShardedStock> shardedStock,
+            List<Integer> unmatchedLines,
+            List<Integer> rejectedLines,
+            int superseded
+    ) {}
+}
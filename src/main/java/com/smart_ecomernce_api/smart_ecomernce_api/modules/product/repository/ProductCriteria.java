@@ -0,0 +1,37 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Optional filters of a product listing; only the ones that are set become predicates.
+ * Prices are compared against the effective price (the discount price when it is lower).
+ */
+@Getter
+@Builder(toBuilder = true)
+public class ProductCriteria {
+
+    /** Restrict to these products, e.g. the matches of a keyword search */
+    private final List<Long> productIds;
+
+    private final List<Long> categoryIds;
+
+    private final BigDecimal minPrice;
+
+    private final BigDecimal maxPrice;
+
+    /** Case-insensitive substring of the product name */
+    private final String nameContains;
+
+    private final Boolean featured;
+
+    private final Boolean isNew;
+
+    private final Boolean inStock;
+
+    /** Include inactive products as well */
+    private final boolean includeInactive;
+}
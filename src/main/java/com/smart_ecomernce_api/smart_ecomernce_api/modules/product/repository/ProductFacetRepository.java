@@ -0,0 +1,39 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC Repository for the per-product values the facet index is built from
+ */
+public interface ProductFacetRepository {
+
+    /**
+     * Stream every active product with its category, effective price, stock flags and average rating
+     */
+    void streamActiveDocuments(Consumer<FacetDocument> consumer);
+
+    /**
+     * Documents of products changed at or after {@code since}, whose category was, or that had
+     * a review written or moderated since; inactive products are included
+     */
+    List<FacetDocument> findDocumentsChangedSince(LocalDateTime since);
+
+    record FacetDocument(
+            long productId,
+            Long categoryId,
+            String categoryName,
+            BigDecimal price,
+            InventoryStatus inventoryStatus,
+            boolean featured,
+            boolean isNew,
+            boolean inStock,
+            Double averageRating,
+            long createdAtEpochMillis,
+            boolean active
+    ) {}
+}
@@ -0,0 +1,50 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository.ShardedStock;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC Repository for bulk catalog upserts keyed by SKU
+ */
+public interface ProductImportRepository {
+
+    /**
+     * Insert or update every row in one JDBC batch. New products get the row's slug; existing
+     * products keep theirs, and optional values left null keep the stored value. Stock of a
+     * product whose inventory is sharded is not written; it is returned for the caller to set
+     * through the shards.
+     */
+    List<ShardedStock> upsertBatch(List<ImportRow> rows);
+
+    /**
+     * Insert or update a single row; used to isolate the failing line when a batch is rejected
+     */
+    List<ShardedStock> upsert(ImportRow row);
+
+    /**
+     * Ids of the products with the given SKUs
+     */
+    List<Long> findIdsBySkus(Collection<String> skus);
+
+    /**
+     * A validated feed line ready to be written
+     */
+    record ImportRow(
+            String sku,
+            String name,
+            String slug,
+            String description,
+            BigDecimal price,
+            BigDecimal discountPrice,
+            BigDecimal costPrice,
+            Integer stockQuantity,
+            Long categoryId,
+            String imageUrl,
+            Boolean featured,
+            Boolean isNew,
+            Boolean active
+    ) {}
+}
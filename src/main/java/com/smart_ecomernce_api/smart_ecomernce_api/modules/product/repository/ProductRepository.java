@@ -9,6 +9,7 @@ import org.springframework.data.domain.Sort;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -111,6 +112,18 @@ public interface ProductRepository {
      */
     boolean existsBySku(String sku);
 
+    /**
+     * Highest numeric suffix in use for a base slug in one query: null when neither
+     * the base slug nor any {@code base-N} variant exists, 0 when only the base does
+     */
+    Integer findHighestSlugSuffix(String baseSlug);
+
+    /**
+     * Insert a new product unless its slug or SKU is already taken. Empty when a
+     * unique constraint conflicted; the surrounding transaction stays usable.
+     */
+    Optional<Product> insertIfAbsent(Product product);
+
     /**
      * Find active product by ID
      */
@@ -142,11 +155,16 @@ public interface ProductRepository {
     Page<Product> searchProducts(String keyword, Pageable pageable);
 
     /**
-     * Find products with advanced filters
+     * Find products with advanced filters; null or blank filters are ignored
      */
     Page<Product> findByAdvancedFilters(Long categoryId, BigDecimal minPrice,
                                         BigDecimal maxPrice, String search, Pageable pageable);
 
+    /**
+     * Find products matching every filter set on the criteria
+     */
+    Page<Product> findByCriteria(ProductCriteria criteria, Pageable pageable);
+
     // ==================== Inventory Management Methods ====================
 
     /**
@@ -219,6 +237,17 @@ public interface ProductRepository {
      */
     boolean deductStock(Long productId, Integer quantity);
 
+    /**
+     * Deduct stock for several products in one JDBC batch
+     * @return ids of products that did not have enough stock
+     */
+    List<Long> deductStockBatch(Map<Long, Integer> quantities);
+
+    /**
+     * Release reserved stock for several products in one JDBC batch
+     */
+    void releaseReservedStockBatch(Map<Long, Integer> quantities);
+
     /**
      * Update inventory status
      */
@@ -0,0 +1,36 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC Repository for the text fields the product search index is built from
+ */
+public interface ProductSearchRepository {
+
+    /**
+     * Stream every active product
+     */
+    void streamActiveDocuments(Consumer<SearchDocument> consumer);
+
+    /**
+     * Documents of the given products, active or not; deleted products are absent
+     */
+    List<SearchDocument> findDocuments(Collection<Long> productIds);
+
+    /**
+     * Documents of products changed at or after {@code since}, or whose category was
+     */
+    List<SearchDocument> findDocumentsChangedSince(LocalDateTime since);
+
+    record SearchDocument(
+            Long productId,
+            String name,
+            String description,
+            String sku,
+            String categoryName,
+            boolean active
+    ) {}
+}
@@ -89,6 +89,11 @@ public interface WishlistRepository {
 
     List<WishlistItem> findItemsNeedingStockNotification(Long userId);
 
+    /**
+     * Users and guests waiting for a product to come back in stock
+     */
+    List<StockSubscriber> findStockSubscribers(Long productId);
+
     List<WishlistItem> findItemsNeedingPriceNotification(Long userId);
 
     List<WishlistItem> findItemsBelowTargetPrice(Long userId);
@@ -216,4 +221,6 @@ public interface WishlistRepository {
      * Get all user IDs that have at least one wishlist item
      */
     List<Long> findAllUserIdsWithWishlists();
-}
\ No newline at end of file
+
+    record StockSubscriber(Long wishlistItemId, Long userId, String guestEmail) {}
+}
@@ -0,0 +1,78 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.CatalogSnapshotRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.CatalogSnapshotRepository.CatalogRow;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC-based implementation of CatalogSnapshotRepository
+ */
+@Repository
+public class CatalogSnapshotRepositoryImpl implements CatalogSnapshotRepository {
+
+    private static final String BASE_SELECT = """
+            SELECT p.id, p.name, p.slug, p.sku, p.description, p.image_url, p.price, p.discount_price,
+                   p.stock_quantity, (p.stock_quantity - p.reserved_quantity) AS available_quantity,
+                   p.track_inventory, p.is_active, p.featured, p.is_new, p.is_bestseller,
+                   p.category_id, c.slug AS category_slug, c.name AS category_name,
+                   p.created_at, p.updated_at
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            """;
+
+    private final JdbcUtils jdbcUtils;
+
+    private final RowMapper<CatalogRow> rowMapper = (rs, rowNum) -> {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new CatalogRow(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("slug"),
+                rs.getString("sku"),
+                rs.getString("description"),
+                rs.getString("image_url"),
+                rs.getBigDecimal("price"),
+                rs.getBigDecimal("discount_price"),
+                rs.getInt("stock_quantity"),
+                rs.getInt("available_quantity"),
+                rs.getObject("track_inventory") == null || rs.getBoolean("track_inventory"),
+                rs.getBoolean("is_active"),
+                rs.getBoolean("featured"),
+                rs.getBoolean("is_new"),
+                rs.getBoolean("is_bestseller"),
+                rs.getObject("category_id", Long.class),
+                rs.getString("category_slug"),
+                rs.getString("category_name"),
+                createdAt != null ? createdAt.getTime() : null,
+                updatedAt != null ? updatedAt.getTime() : null);
+    };
+
+    public CatalogSnapshotRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<CatalogRow> consumer) {
+        // The PostgreSQL driver only honours the fetch size with autocommit off, hence the transaction
+        jdbcUtils.getJdbcTemplate().query(BASE_SELECT, (RowCallbackHandler) rs ->
+                consumer.accept(rowMapper.mapRow(rs, 0)));
+    }
+
+    @Override
+    public List<CatalogRow> findChangedSince(LocalDateTime since) {
+        String sql = BASE_SELECT + " WHERE p.updated_at >= ? OR c.updated_at >= ?";
+        Timestamp ts = Timestamp.valueOf(since);
+        return jdbcUtils.query(sql, rowMapper, ts, ts);
+    }
+}
@@ -0,0 +1,134 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
+
+/**
+ * Arithmetic for spreading a product's stock over its inventory shards.
+ * Works on parallel stock/reserved arrays indexed by shard number and never
+ * touches the database, so every routing decision can be checked in isolation.
+ */
+public final class InventoryShardAllocator {
+
+    private InventoryShardAllocator() {
+    }
+
+    /**
+     * Starting shard for a reservation, from a hash of the calling thread and a sequence
+     */
+    public static int startShard(long threadId, long sequence, int shardCount) {
+        long h = (threadId * 0x9E3779B97F4A7C15L) ^ (sequence * 0xC2B2AE3D27D4EB4FL);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) shardCount);
+    }
+
+    /**
+     * Split {@code total} into {@code n} near-equal parts; the first shards get the remainder
+     */
+    public static int[] spread(int total, int n) {
+        int[] parts = new int[n];
+        int base = total / n;
+        int remainder = total % n;
+        for (int i = 0; i < n; i++) {
+            parts[i] = base + (i < remainder ? 1 : 0);
+        }
+        return parts;
+    }
+
+    /**
+     * Take {@code quantity} out of the given per-shard capacities, greedily, starting at {@code start}
+     * @return amount taken from each shard, or null when the capacities do not add up to the quantity
+     */
+    public static int[] take(int[] capacity, int quantity, int start) {
+        int n = capacity.length;
+        int[] taken = new int[n];
+        int remaining = quantity;
+        for (int k = 0; k < n && remaining > 0; k++) {
+            int i = (start + k) % n;
+            int amount = Math.min(Math.max(0, capacity[i]), remaining);
+            taken[i] = amount;
+            remaining -= amount;
+        }
+        return remaining == 0 ? taken : null;
+    }
+
+    /**
+     * Reserve units across shards
+     * @return false, leaving the arrays untouched, when there is not enough available stock
+     */
+    public static boolean reserve(int[] stock, int[] reserved, int quantity, int start) {
+        int[] available = new int[stock.length];
+        for (int i = 0; i < stock.length; i++) {
+            available[i] = stock[i] - reserved[i];
+        }
+        int[] taken = take(available, quantity, start);
+        if (taken == null) {
+            return false;
+        }
+        for (int i = 0; i < stock.length; i++) {
+            reserved[i] += taken[i];
+        }
+        return true;
+    }
+
+    /**
+     * Release reserved units; releasing more than is reserved clears the reservations
+     */
+    public static void release(int[] reserved, int quantity) {
+        int[] taken = take(reserved, Math.min(quantity, sum(reserved)), 0);
+        for (int i = 0; i < reserved.length; i++) {
+            reserved[i] -= taken[i];
+        }
+    }
+
+    /**
+     * Remove shipped units from stock, consuming reserved units first, like a single
+     * product row does ({@code stock -= q, reserved -= min(reserved, q)})
+     * @return false, leaving the arrays untouched, when stock is short
+     */
+    public static boolean deduct(int[] stock, int[] reserved, int quantity) {
+        if (sum(stock) < quantity) {
+            return false;
+        }
+        int[] fromReserved = take(reserved, Math.min(quantity, sum(reserved)), 0);
+        int[] free = new int[stock.length];
+        for (int i = 0; i < stock.length; i++) {
+            free[i] = stock[i] - reserved[i];
+        }
+        int[] fromFree = take(free, quantity - sum(fromReserved), 0);
+        if (fromFree == null) {
+            return false;
+        }
+        for (int i = 0; i < stock.length; i++) {
+            stock[i] -= fromReserved[i] + fromFree[i];
+            reserved[i] -= fromReserved[i];
+        }
+        return true;
+    }
+
+    /**
+     * New per-shard stock holding {@code totalStock} units: every shard keeps its
+     * reserved units and the free units are spread evenly. When the total does not
+     * cover the reservations the total itself is spread.
+     */
+    public static int[] rebalance(int[] reserved, int totalStock) {
+        int n = reserved.length;
+        int free = totalStock - sum(reserved);
+        if (free < 0) {
+            return spread(totalStock, n);
+        }
+        int[] share = spread(free, n);
+        int[] stock = new int[n];
+        for (int i = 0; i < n; i++) {
+            stock[i] = reserved[i] + share[i];
+        }
+        return stock;
+    }
+
+    public static int sum(int[] values) {
+        int total = 0;
+        for (int v : values) {
+            total += v;
+        }
+        return total;
+    }
+}
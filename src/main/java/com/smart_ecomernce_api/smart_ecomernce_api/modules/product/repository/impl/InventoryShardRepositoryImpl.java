@@ -0,0 +1,298 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.InventoryShardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JDBC-based implementation of InventoryShardRepository.
+ * A reservation first tries one shard, picked by hash, with SKIP LOCKED so
+ * concurrent checkouts land on different rows instead of queueing behind one.
+ * Only when no single unlocked shard can take it are all shards locked and
+ * the quantity split across them. Changes to the in-memory routing map made by a
+ * transaction are applied only once it commits, so other threads never route to shard
+ * rows they cannot see yet, and a rollback leaves the map as it was.
+ */
+@Repository
+public class InventoryShardRepositoryImpl implements InventoryShardRepository {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryShardRepositoryImpl.class);
+
+    private static final String TABLE_NAME = "product_inventory_shards";
+
+    private final JdbcUtils jdbcUtils;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** product id -> shard count */
+    private volatile Map<Long, Integer> routing = Map.of();
+
+    public InventoryShardRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    private final RowMapper<LockedShard> lockedShardRowMapper = (rs, rowNum) -> new LockedShard(
+            rs.getLong("id"),
+            rs.getInt("stock_quantity"),
+            rs.getInt("reserved_quantity"));
+
+    @Override
+    public boolean isSharded(Long productId) {
+        return routing.containsKey(productId);
+    }
+
+    @Override
+    public Set<Long> findShardedAmong(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        String sql = "SELECT DISTINCT product_id FROM " + TABLE_NAME + " WHERE product_id IN (" + placeholders + ")";
+        return new HashSet<>(jdbcUtils.query(sql, (rs, rowNum) -> rs.getLong("product_id"), productIds.toArray()));
+    }
+
+    @Override
+    public void refreshRouting() {
+        String sql = "SELECT product_id, COUNT(*) AS shards FROM " + TABLE_NAME + " GROUP BY product_id";
+        Map<Long, Integer> loaded = new HashMap<>();
+        jdbcUtils.getJdbcTemplate().query(sql,
+                (RowCallbackHandler) rs -> loaded.put(rs.getLong("product_id"), rs.getInt("shards")));
+        synchronized (this) {
+            routing = Map.copyOf(loaded);
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean createShards(Long productId, int shardCount) {
+        List<int[]> product = jdbcUtils.query(
+                "SELECT stock_quantity, reserved_quantity FROM products WHERE id = ? FOR UPDATE",
+                (rs, rowNum) -> new int[]{rs.getInt("stock_quantity"), rs.getInt("reserved_quantity")},
+                productId);
+        if (product.isEmpty() || !lockShards(productId).isEmpty()) {
+            return false;
+        }
+
+        int[] reserved = InventoryShardAllocator.spread(product.get(0)[1], shardCount);
+        int[] stock = InventoryShardAllocator.rebalance(reserved, product.get(0)[0]);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            batchArgs.add(new Object[]{productId, i, stock[i], reserved[i], now, now});
+        }
+        jdbcUtils.batchUpdate("INSERT INTO " + TABLE_NAME +
+                " (product_id, shard_no, stock_quantity, reserved_quantity, is_active, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, true, ?, ?)", batchArgs);
+
+        afterCommit(() -> route(productId, shardCount));
+        logger.info("Split inventory of product {} into {} shards", productId, shardCount);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean removeShards(Long productId) {
+        List<LockedShard> shards = lockShards(productId);
+        if (shards.isEmpty()) {
+            return false;
+        }
+        writeProductTotals(productId);
+        jdbcUtils.executePreparedQuery("DELETE FROM " + TABLE_NAME + " WHERE product_id = ?", productId);
+
+        afterCommit(() -> route(productId, null));
+        logger.info("Merged inventory shards of product {} back into the product row", productId);
+        return true;
+    }
+
+    @Override
+    public Integer findAvailableQuantity(Long productId) {
+        String sql = "SELECT COUNT(*) AS shards, COALESCE(SUM(stock_quantity - reserved_quantity), 0) AS available " +
+                "FROM " + TABLE_NAME + " WHERE product_id = ?";
+        List<Integer> result = jdbcUtils.query(sql,
+                (rs, rowNum) -> rs.getInt("shards") > 0 ? rs.getInt("available") : null, productId);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    @Transactional
+    public boolean reserve(Long productId, int quantity) {
+        Integer shardCount = routing.get(productId);
+        if (shardCount != null) {
+            int start = InventoryShardAllocator.startShard(
+                    Thread.currentThread().threadId(), sequence.getAndIncrement(), shardCount);
+            String sql = "UPDATE " + TABLE_NAME + " SET reserved_quantity = reserved_quantity + ?, updated_at = ? " +
+                    "WHERE id = (SELECT id FROM " + TABLE_NAME +
+                    " WHERE product_id = ? AND stock_quantity - reserved_quantity >= ?" +
+                    " ORDER BY (shard_no + ?) % ?, shard_no LIMIT 1 FOR UPDATE SKIP LOCKED)";
+            JdbcUtils.QueryResult result = jdbcUtils.executePreparedQuery(sql,
+                    quantity, Timestamp.valueOf(LocalDateTime.now()),
+                    productId, quantity, shardCount - start, shardCount);
+            if (!result.hasError() && result.getAffectedRows() > 0) {
+                return true;
+            }
+        }
+
+        // Every candidate shard was busy or too small on its own: lock them all and split
+        List<LockedShard> shards = lockShards(productId);
+        if (shards.isEmpty()) {
+            return false;
+        }
+        int[] stock = stockOf(shards);
+        int[] reserved = reservedOf(shards);
+        if (!InventoryShardAllocator.reserve(stock, reserved, quantity, 0)) {
+            return false;
+        }
+        writeShards(shards, stock, reserved);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean release(Long productId, int quantity) {
+        List<LockedShard> shards = lockShards(productId);
+        if (shards.isEmpty()) {
+            return false;
+        }
+        int[] reserved = reservedOf(shards);
+        InventoryShardAllocator.release(reserved, quantity);
+        writeShards(shards, stockOf(shards), reserved);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean deduct(Long productId, int quantity) {
+        List<LockedShard> shards = lockShards(productId);
+        if (shards.isEmpty()) {
+            return false;
+        }
+        int[] stock = stockOf(shards);
+        int[] reserved = reservedOf(shards);
+        if (!InventoryShardAllocator.deduct(stock, reserved, quantity)) {
+            return false;
+        }
+        writeShards(shards, stock, reserved);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean setStock(Long productId, int quantity) {
+        List<LockedShard> shards = lockShards(productId);
+        if (shards.isEmpty()) {
+            return false;
+        }
+        int[] reserved = reservedOf(shards);
+        writeShards(shards, InventoryShardAllocator.rebalance(reserved, quantity), reserved);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void rebalance(Long productId) {
+        List<LockedShard> shards = lockShards(productId);
+        if (shards.isEmpty()) {
+            return;
+        }
+        int[] stock = stockOf(shards);
+        int[] reserved = reservedOf(shards);
+        int[] balanced = InventoryShardAllocator.rebalance(reserved, InventoryShardAllocator.sum(stock));
+        writeShards(shards, balanced, reserved);
+        writeProductTotals(productId);
+        int shardCount = shards.size();
+        afterCommit(() -> route(productId, shardCount));
+    }
+
+    @Override
+    public List<Long> findShardedProductIds() {
+        String sql = "SELECT DISTINCT product_id FROM " + TABLE_NAME + " ORDER BY product_id";
+        return jdbcUtils.query(sql, (rs, rowNum) -> rs.getLong("product_id"));
+    }
+
+    @Override
+    public List<Shard> findShards(Long productId) {
+        String sql = "SELECT shard_no, stock_quantity, reserved_quantity FROM " + TABLE_NAME +
+                " WHERE product_id = ? ORDER BY shard_no";
+        return jdbcUtils.query(sql, (rs, rowNum) -> new Shard(
+                rs.getInt("shard_no"), rs.getInt("stock_quantity"), rs.getInt("reserved_quantity")), productId);
+    }
+
+    /**
+     * Lock every shard of a product, in shard order so concurrent lockers cannot deadlock
+     */
+    private List<LockedShard> lockShards(Long productId) {
+        String sql = "SELECT id, stock_quantity, reserved_quantity FROM " + TABLE_NAME +
+                " WHERE product_id = ? ORDER BY shard_no FOR UPDATE";
+        return jdbcUtils.query(sql, lockedShardRowMapper, productId);
+    }
+
+    private void writeShards(List<LockedShard> shards, int[] stock, int[] reserved) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            LockedShard shard = shards.get(i);
+            if (shard.stockQuantity() != stock[i] || shard.reservedQuantity() != reserved[i]) {
+                batchArgs.add(new Object[]{stock[i], reserved[i], now, shard.id()});
+            }
+        }
+        if (!batchArgs.isEmpty()) {
+            jdbcUtils.batchUpdate("UPDATE " + TABLE_NAME +
+                    " SET stock_quantity = ?, reserved_quantity = ?, updated_at = ? WHERE id = ?", batchArgs);
+        }
+    }
+
+    private void writeProductTotals(Long productId) {
+        String sql = "UPDATE products p SET stock_quantity = s.stock, reserved_quantity = s.reserved, updated_at = ? " +
+                "FROM (SELECT SUM(stock_quantity) AS stock, SUM(reserved_quantity) AS reserved FROM " + TABLE_NAME +
+                " WHERE product_id = ?) s WHERE p.id = ? AND s.stock IS NOT NULL";
+        jdbcUtils.executePreparedQuery(sql, Timestamp.valueOf(LocalDateTime.now()), productId, productId);
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Point a product at its shard count, or back at the product row when null
+     */
+    private synchronized void route(Long productId, Integer shardCount) {
+        if (!Objects.equals(routing.get(productId), shardCount)) {
+            Map<Long, Integer> updated = new HashMap<>(routing);
+            if (shardCount != null) {
+                updated.put(productId, shardCount);
+            } else {
+                updated.remove(productId);
+            }
+            routing = Map.copyOf(updated);
+        }
+    }
+
+    private static int[] stockOf(List<LockedShard> shards) {
+        return shards.stream().mapToInt(LockedShard::stockQuantity).toArray();
+    }
+
+    private static int[] reservedOf(List<LockedShard> shards) {
+        return shards.stream().mapToInt(LockedShard::reservedQuantity).toArray();
+    }
+
+    private record LockedShard(long id, int stockQuantity, int reservedQuantity) {}
+}
@@ -0,0 +1,84 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.InventoryStatusRepository;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * JDBC-based implementation of InventoryStatusRepository
+ */
+@Repository
+public class InventoryStatusRepositoryImpl implements InventoryStatusRepository {
+
+    /** Same rules as Product.updateInventoryStatus, evaluated on the stored row */
+    private static final String STATUS_EXPRESSION = """
+            CASE
+                WHEN inventory_status IN ('DISCONTINUED', 'PRE_ORDER') THEN inventory_status
+                WHEN NOT COALESCE(track_inventory, true) THEN 'IN_STOCK'
+                WHEN stock_quantity - reserved_quantity <= 0 THEN
+                    CASE WHEN COALESCE(allow_backorder, false) THEN 'BACKORDER' ELSE 'OUT_OF_STOCK' END
+                WHEN stock_quantity - reserved_quantity <= COALESCE(low_stock_threshold, 10) THEN 'LOW_STOCK'
+                ELSE 'IN_STOCK'
+            END""";
+
+    private static final String LEVEL_COLUMNS =
+            "id, stock_quantity, reserved_quantity, COALESCE(reorder_point, 0) AS reorder_point, " +
+            "COALESCE(track_inventory, true) AND COALESCE(is_active, true) AS tracked";
+
+    private final JdbcUtils jdbcUtils;
+
+    public InventoryStatusRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    private final RowMapper<InventoryLevel> levelRowMapper = (rs, rowNum) -> new InventoryLevel(
+            rs.getLong("id"),
+            toStatus(rs.getString("previous_status")),
+            toStatus(rs.getString("status")),
+            rs.getInt("stock_quantity"),
+            rs.getInt("reserved_quantity"),
+            rs.getInt("reorder_point"),
+            rs.getBoolean("tracked"));
+
+    @Override
+    public List<InventoryLevel> recompute(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        // The data-modifying CTE runs even though the outer query only reads the levels
+        String sql = """
+                WITH levels AS (
+                    SELECT %1$s, inventory_status AS previous_status, %2$s AS status
+                    FROM products
+                    WHERE id IN (%3$s)
+                ),
+                changed AS (
+                    UPDATE products p
+                    SET inventory_status = l.status
+                    FROM levels l
+                    WHERE p.id = l.id AND p.inventory_status IS DISTINCT FROM l.status
+                )
+                SELECT * FROM levels
+                """.formatted(LEVEL_COLUMNS, STATUS_EXPRESSION, placeholders);
+        return jdbcUtils.query(sql, levelRowMapper, new TreeSet<>(productIds).toArray());
+    }
+
+    @Override
+    public List<InventoryLevel> findWatchedLevels() {
+        String sql = "SELECT " + LEVEL_COLUMNS + ", inventory_status AS previous_status, inventory_status AS status " +
+                "FROM products " +
+                "WHERE COALESCE(track_inventory, true) AND COALESCE(is_active, true) " +
+                "AND (inventory_status IN ('LOW_STOCK', 'OUT_OF_STOCK', 'BACKORDER') " +
+                "OR stock_quantity <= COALESCE(reorder_point, 0))";
+        return jdbcUtils.query(sql, levelRowMapper);
+    }
+
+    private static InventoryStatus toStatus(String value) {
+        return value != null ? InventoryStatus.valueOf(value) : null;
+    }
+}
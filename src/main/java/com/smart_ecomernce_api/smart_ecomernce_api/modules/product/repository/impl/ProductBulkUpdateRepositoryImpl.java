@@ -0,0 +1,114 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC-based implementation of ProductBulkUpdateRepository
+ */
+@Repository
+public class ProductBulkUpdateRepositoryImpl implements ProductBulkUpdateRepository {
+
+    private static final String STAGING_TABLE = "product_bulk_updates";
+
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMP TABLE " + STAGING_TABLE + " (" +
+                    "line INTEGER NOT NULL, product_id BIGINT, sku VARCHAR(50), " +
+                    "price NUMERIC(10, 2), discount_price NUMERIC(10, 2), clear_discount BOOLEAN NOT NULL, " +
+                    "stock_quantity INTEGER) ON COMMIT DROP";
+
+    private static final String STAGE_SQL =
+            "INSERT INTO " + STAGING_TABLE +
+                    " (line, product_id, sku, price, discount_price, clear_discount, stock_quantity)" +
+                    " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String RESOLVE_SKUS_SQL =
+            "UPDATE " + STAGING_TABLE + " d SET product_id = p.id FROM products p " +
+                    "WHERE d.product_id IS NULL AND p.sku = d.sku";
+
+    private static final String DROP_UNMATCHED_SQL =
+            "DELETE FROM " + STAGING_TABLE + " d " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.id = d.product_id) RETURNING d.line";
+
+    // Several lines for one product: the last one wins
+    private static final String DROP_SUPERSEDED_SQL =
+            "DELETE FROM " + STAGING_TABLE + " a USING " + STAGING_TABLE + " b " +
+                    "WHERE a.product_id = b.product_id AND a.line < b.line RETURNING a.line";
+
+    private static final String NEW_DISCOUNT =
+            "(CASE WHEN d.clear_discount THEN NULL ELSE COALESCE(d.discount_price, p.discount_price) END)";
+
+    private static final String DROP_INVALID_DISCOUNT_SQL =
+            "DELETE FROM " + STAGING_TABLE + " d USING products p " +
+                    "WHERE p.id = d.product_id AND " + NEW_DISCOUNT + " >= COALESCE(d.price, p.price) " +
+                    "RETURNING d.line";
+
+    private static final String SHARDED_STOCK_SQL =
+            "SELECT d.product_id, d.stock_quantity FROM " + STAGING_TABLE + " d " +
+                    "WHERE d.stock_quantity IS NOT NULL " +
+                    "AND EXISTS (SELECT 1 FROM product_inventory_shards s WHERE s.product_id = d.product_id)";
+
+    // "old" is a second scan of products that still sees the pre-update row, so RETURNING can compare
+    private static final String APPLY_SQL = """
+            UPDATE products p SET
+                price = COALESCE(d.price, old.price),
+                discount_price = CASE WHEN d.clear_discount THEN NULL ELSE COALESCE(d.discount_price, old.discount_price) END,
+                stock_quantity = CASE WHEN d.stock_quantity IS NULL OR d.sharded THEN old.stock_quantity ELSE d.stock_quantity END,
+                updated_at = ?
+            FROM (SELECT u.*, EXISTS (SELECT 1 FROM product_inventory_shards s WHERE s.product_id = u.product_id) AS sharded
+                  FROM %s u) d
+            JOIN products old ON old.id = d.product_id
+            WHERE p.id = d.product_id
+              AND (COALESCE(d.price, old.price) <> old.price
+                   OR (CASE WHEN d.clear_discount THEN NULL ELSE COALESCE(d.discount_price, old.discount_price) END)
+                          IS DISTINCT FROM old.discount_price
+                   OR (d.stock_quantity IS NOT NULL AND NOT d.sharded AND d.stock_quantity <> old.stock_quantity))
+            RETURNING p.id,
+                      (p.price <> old.price OR p.discount_price IS DISTINCT FROM old.discount_price) AS price_changed,
+                      (p.stock_quantity <> old.stock_quantity) AS stock_changed,
+                      p.featured
+            """.formatted(STAGING_TABLE);
+
+    private final JdbcUtils jdbcUtils;
+
+    public ProductBulkUpdateRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BulkApplyResult apply(List<PriceStockDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return new BulkApplyResult(List.of(), List.of(), List.of(), List.of(), 0);
+        }
+        jdbcUtils.getJdbcTemplate().execute(CREATE_STAGING_SQL);
+        jdbcUtils.batchUpdate(STAGE_SQL, deltas.stream()
+                .map(d -> new Object[]{d.line(), d.productId(), d.sku(), d.price(), d.discountPrice(),
+                        d.clearDiscount(), d.stockQuantity()})
+                .toList());
+
+        jdbcUtils.getJdbcTemplate().update(RESOLVE_SKUS_SQL);
+        List<Integer> unmatched = jdbcUtils.query(DROP_UNMATCHED_SQL, (rs, rowNum) -> rs.getInt("line"));
+        int superseded = jdbcUtils.query(DROP_SUPERSEDED_SQL, (rs, rowNum) -> rs.getInt("line")).size();
+        List<Integer> rejected = jdbcUtils.query(DROP_INVALID_DISCOUNT_SQL, (rs, rowNum) -> rs.getInt("line"));
+
+        List<ShardedStock> shardedStock = jdbcUtils.query(SHARDED_STOCK_SQL, (rs, rowNum) ->
+                new ShardedStock(rs.getLong("product_id"), rs.getInt("stock_quantity")));
+        List<AppliedChange> applied = jdbcUtils.query(APPLY_SQL, (rs, rowNum) -> new AppliedChange(
+                rs.getLong("id"),
+                rs.getBoolean("price_changed"),
+                rs.getBoolean("stock_changed"),
+                rs.getBoolean("featured")
+        ), Timestamp.valueOf(LocalDateTime.now()));
+
+        return new BulkApplyResult(applied, shardedStock, unmatched.stream().sorted().toList(),
+                rejected.stream().sorted().toList(), superseded);
+    }
+}
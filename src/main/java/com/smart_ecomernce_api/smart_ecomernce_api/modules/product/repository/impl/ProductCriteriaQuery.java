@@ -0,0 +1,174 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductCriteria;
+import org.springframework.data.domain.Sort;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns {@link ProductCriteria} into SQL with a predicate only for each filter that is set.
+ * Predicates are emitted in a fixed order, and product and category lists bind as one
+ * array parameter ({@code = ANY(?)}) whatever their length, so every request with the same
+ * set of filters and sort produces the same statement text. That text is assembled once
+ * per shape and cached, and the driver can reuse its server-side prepared statement.
+ */
+final class ProductCriteriaQuery {
+
+    private static final String EFFECTIVE_PRICE = "LEAST(p.price, COALESCE(p.discount_price, p.price))";
+
+    /** Sortable properties; anything else is rejected rather than spliced into SQL */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "p.id",
+            "name", "p.name",
+            "price", "p.price",
+            "effectivePrice", EFFECTIVE_PRICE,
+            "discountPrice", "p.discount_price",
+            "stockQuantity", "p.stock_quantity",
+            "createdAt", "p.created_at",
+            "updatedAt", "p.updated_at");
+
+    private enum Predicate {
+        ACTIVE("p.is_active = true"),
+        PRODUCT_IDS("p.id = ANY(?)"),
+        CATEGORY("p.category_id = ?"),
+        CATEGORIES("p.category_id = ANY(?)"),
+        FEATURED("p.featured = ?"),
+        NEW("p.is_new = ?"),
+        IN_STOCK("(NOT COALESCE(p.track_inventory, true) OR p.stock_quantity - p.reserved_quantity > 0)"),
+        OUT_OF_STOCK("(COALESCE(p.track_inventory, true) AND p.stock_quantity - p.reserved_quantity <= 0)"),
+        MIN_PRICE(EFFECTIVE_PRICE + " >= ?"),
+        MAX_PRICE(EFFECTIVE_PRICE + " <= ?"),
+        NAME_LIKE("LOWER(p.name) LIKE ?");
+
+        private final String sql;
+
+        Predicate(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private final String selectPrefix;
+    private final String countPrefix;
+    private final Map<String, Templates> templates = new ConcurrentHashMap<>();
+
+    /**
+     * @param selectPrefix SELECT ... FROM products p [JOIN ...] without a WHERE clause
+     * @param countPrefix SELECT COUNT(*) FROM products p without a WHERE clause
+     */
+    ProductCriteriaQuery(String selectPrefix, String countPrefix) {
+        this.selectPrefix = selectPrefix;
+        this.countPrefix = countPrefix;
+    }
+
+    Statement prepare(ProductCriteria criteria, Sort sort) {
+        EnumSet<Predicate> shape = EnumSet.noneOf(Predicate.class);
+        List<Object> params = new ArrayList<>();
+
+        if (!criteria.isIncludeInactive()) {
+            shape.add(Predicate.ACTIVE);
+        }
+        if (criteria.getProductIds() != null) {
+            shape.add(Predicate.PRODUCT_IDS);
+            params.add(criteria.getProductIds().toArray(new Long[0]));
+        }
+        List<Long> categoryIds = criteria.getCategoryIds();
+        if (categoryIds != null && categoryIds.size() == 1) {
+            shape.add(Predicate.CATEGORY);
+            params.add(categoryIds.get(0));
+        } else if (categoryIds != null && !categoryIds.isEmpty()) {
+            shape.add(Predicate.CATEGORIES);
+            params.add(categoryIds.toArray(new Long[0]));
+        }
+        if (criteria.getFeatured() != null) {
+            shape.add(Predicate.FEATURED);
+            params.add(criteria.getFeatured());
+        }
+        if (criteria.getIsNew() != null) {
+            shape.add(Predicate.NEW);
+            params.add(criteria.getIsNew());
+        }
+        if (criteria.getInStock() != null) {
+            shape.add(criteria.getInStock() ? Predicate.IN_STOCK : Predicate.OUT_OF_STOCK);
+        }
+        if (criteria.getMinPrice() != null) {
+            shape.add(Predicate.MIN_PRICE);
+            params.add(criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            shape.add(Predicate.MAX_PRICE);
+            params.add(criteria.getMaxPrice());
+        }
+        if (criteria.getNameContains() != null && !criteria.getNameContains().isBlank()) {
+            shape.add(Predicate.NAME_LIKE);
+            params.add("%" + escapeLike(criteria.getNameContains().trim().toLowerCase()) + "%");
+        }
+
+        String orderBy = orderBy(sort);
+        Templates t = templates.computeIfAbsent(shape + orderBy, k -> {
+            String where = where(shape);
+            return new Templates(countPrefix + where, selectPrefix + where + orderBy + " LIMIT ? OFFSET ?");
+        });
+        return new Statement(t.countSql(), t.pageSql(), List.copyOf(params));
+    }
+
+    /**
+     * Number of distinct statement shapes built so far
+     */
+    int templateCount() {
+        return templates.size();
+    }
+
+    private static String where(EnumSet<Predicate> shape) {
+        if (shape.isEmpty()) {
+            return "";
+        }
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "");
+        shape.forEach(predicate -> where.add(predicate.sql));
+        return where.toString();
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return " ORDER BY p.id";
+        }
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new InvalidDataException("Unsupported sort property: " + order.getProperty());
+            }
+            byId |= "p.id".equals(column);
+            orderBy.add(column + " " + order.getDirection().name());
+        }
+        if (!byId) {
+            orderBy.add("p.id");    // keeps pages stable when sort values tie
+        }
+        return orderBy.toString();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record Templates(String countSql, String pageSql) {}
+
+    /**
+     * A ready-to-run count and page statement with their parameters
+     */
+    record Statement(String countSql, String pageSql, List<Object> params) {
+
+        Object[] countParams() {
+            return params.toArray();
+        }
+
+        Object[] pageParams(int limit, long offset) {
+            List<Object> all = new ArrayList<>(params);
+            all.add(limit);
+            all.add(offset);
+            return all.toArray();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductFacetRepository;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC-based implementation of ProductFacetRepository
+ */
+@Repository
+public class ProductFacetRepositoryImpl implements ProductFacetRepository {
+
+    private static final String DOCUMENT_COLUMNS = """
+            p.id, p.category_id, c.name AS category_name,
+                   CASE WHEN p.discount_price IS NOT NULL AND p.discount_price < p.price
+                        THEN p.discount_price ELSE p.price END AS effective_price,
+                   p.inventory_status, p.featured, p.is_new,
+                   (NOT COALESCE(p.track_inventory, true) OR p.stock_quantity - p.reserved_quantity > 0) AS in_stock,
+                   p.created_at, COALESCE(p.is_active, false) AS active""";
+
+    private final JdbcUtils jdbcUtils;
+
+    public ProductFacetRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    private final RowMapper<FacetDocument> documentRowMapper = (rs, rowNum) -> {
+        String status = rs.getString("inventory_status");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new FacetDocument(
+                rs.getLong("id"),
+                rs.getObject("category_id", Long.class),
+                rs.getString("category_name"),
+                rs.getBigDecimal("effective_price"),
+                status != null ? InventoryStatus.valueOf(status) : null,
+                rs.getBoolean("featured"),
+                rs.getBoolean("is_new"),
+                rs.getBoolean("in_stock"),
+                rs.getObject("average_rating") != null ? rs.getDouble("average_rating") : null,
+                createdAt != null ? createdAt.getTime() : 0L,
+                rs.getBoolean("active"));
+    };
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamActiveDocuments(Consumer<FacetDocument> consumer) {
+        String sql = """
+            SELECT %s, r.average_rating
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            LEFT JOIN (
+                SELECT product_id, AVG(rating) AS average_rating
+                FROM reviews
+                WHERE approved = true AND deleted = false
+                GROUP BY product_id
+            ) r ON r.product_id = p.id
+            WHERE p.is_active = true
+        """.formatted(DOCUMENT_COLUMNS);
+
+        // The PostgreSQL driver only honours the fetch size with autocommit off, hence the transaction
+        jdbcUtils.getJdbcTemplate().query(sql,
+                (RowCallbackHandler) rs -> consumer.accept(documentRowMapper.mapRow(rs, 0)));
+    }
+
+    @Override
+    public List<FacetDocument> findDocumentsChangedSince(LocalDateTime since) {
+        // Ratings are averaged only for the changed products
+        String sql = """
+            SELECT %s,
+                   (SELECT AVG(rv.rating) FROM reviews rv
+                    WHERE rv.product_id = p.id AND rv.approved = true AND rv.deleted = false) AS average_rating
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            WHERE p.updated_at >= ? OR c.updated_at >= ?
+               OR p.id IN (SELECT product_id FROM reviews WHERE updated_at >= ? OR deleted_at >= ?)
+        """.formatted(DOCUMENT_COLUMNS);
+        Timestamp ts = Timestamp.valueOf(since);
+        return jdbcUtils.query(sql, documentRowMapper, ts, ts, ts, ts);
+    }
+}
@@ -0,0 +1,127 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.counter.RowCountRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.counter.RowCounter;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository.ShardedStock;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductImportRepository;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * JDBC-based implementation of ProductImportRepository
+ */
+@Repository
+public class ProductImportRepositoryImpl implements ProductImportRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO products (sku, name, slug, description, price, discount_price, cost_price,
+                                  stock_quantity, category_id, image_url, featured, is_new, is_active,
+                                  reserved_quantity, low_stock_threshold, reorder_point, inventory_status,
+                                  track_inventory, allow_backorder, is_bestseller, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, COALESCE(?, 0), ?, ?, COALESCE(?, false), COALESCE(?, false), COALESCE(?, true),
+                    0, 10, 5, 'IN_STOCK', true, false, false, ?, ?)
+            ON CONFLICT (sku) DO UPDATE SET
+                name = EXCLUDED.name,
+                description = COALESCE(?, products.description),
+                price = EXCLUDED.price,
+                discount_price = COALESCE(?, products.discount_price),
+                cost_price = COALESCE(?, products.cost_price),
+                stock_quantity = CASE WHEN EXISTS (SELECT 1 FROM product_inventory_shards s WHERE s.product_id = products.id)
+                                      THEN products.stock_quantity
+                                      ELSE COALESCE(?, products.stock_quantity) END,
+                category_id = EXCLUDED.category_id,
+                image_url = COALESCE(?, products.image_url),
+                featured = COALESCE(?, products.featured),
+                is_new = COALESCE(?, products.is_new),
+                is_active = COALESCE(?, products.is_active),
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String SHARDED_SKUS_SQL = """
+            SELECT p.id, p.sku FROM products p
+            WHERE p.sku = ANY(?)
+              AND EXISTS (SELECT 1 FROM product_inventory_shards s WHERE s.product_id = p.id)
+            """;
+
+    private final JdbcUtils jdbcUtils;
+    private final RowCountRepository rowCountRepository;
+
+    public ProductImportRepositoryImpl(JdbcUtils jdbcUtils, RowCountRepository rowCountRepository) {
+        this.jdbcUtils = jdbcUtils;
+        this.rowCountRepository = rowCountRepository;
+    }
+
+    @Override
+    public List<ShardedStock> upsertBatch(List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        long inserted = countNewSkus(rows);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcUtils.batchUpdate(UPSERT_SQL, rows.stream().map(row -> params(row, now)).toList());
+        rowCountRepository.add(RowCounter.PRODUCTS, inserted);
+        return shardedStock(rows);
+    }
+
+    @Override
+    public List<ShardedStock> upsert(ImportRow row) {
+        long inserted = countNewSkus(List.of(row));
+        jdbcUtils.getJdbcTemplate().update(UPSERT_SQL, params(row, Timestamp.valueOf(LocalDateTime.now())));
+        rowCountRepository.add(RowCounter.PRODUCTS, inserted);
+        return shardedStock(List.of(row));
+    }
+
+    @Override
+    public List<Long> findIdsBySkus(Collection<String> skus) {
+        if (skus.isEmpty()) {
+            return List.of();
+        }
+        return jdbcUtils.query("SELECT id FROM products WHERE sku = ANY(?)",
+                (rs, rowNum) -> rs.getLong("id"), (Object) skus.toArray(new String[0]));
+    }
+
+    /**
+     * SKUs among the rows that do not exist yet, i.e. rows the upsert will insert. A product
+     * inserted concurrently under the same SKU can skew this; the row-count reconciler fixes it.
+     */
+    private long countNewSkus(List<ImportRow> rows) {
+        String[] skus = rows.stream().map(ImportRow::sku).distinct().toArray(String[]::new);
+        Long existing = jdbcUtils.queryForObject("SELECT COUNT(*) FROM products WHERE sku = ANY(?)",
+                Long.class, (Object) skus);
+        return skus.length - (existing != null ? existing : 0L);
+    }
+
+    /**
+     * Stock the feed supplied for products with sharded inventory, which the upsert left alone;
+     * when a SKU appears twice the last line wins, as in the batch
+     */
+    private List<ShardedStock> shardedStock(List<ImportRow> rows) {
+        Map<String, Integer> stockBySku = new HashMap<>();
+        for (ImportRow row : rows) {
+            if (row.stockQuantity() != null) {
+                stockBySku.put(row.sku(), row.stockQuantity());
+            }
+        }
+        if (stockBySku.isEmpty()) {
+            return List.of();
+        }
+        return jdbcUtils.query(SHARDED_SKUS_SQL, (rs, rowNum) ->
+                        new ShardedStock(rs.getLong("id"), stockBySku.get(rs.getString("sku"))),
+                (Object) stockBySku.keySet().toArray(new String[0]));
+    }
+
+    private static Object[] params(ImportRow row, Timestamp now) {
+        return new Object[]{
+                row.sku(), row.name(), row.slug(), row.description(), row.price(), row.discountPrice(),
+                row.costPrice(), row.stockQuantity(), row.categoryId(), row.imageUrl(),
+                row.featured(), row.isNew(), row.active(), now, now,
+                // Optional values only overwrite when the feed supplied them
+                row.description(), row.discountPrice(), row.costPrice(), row.stockQuantity(),
+                row.imageUrl(), row.featured(), row.isNew(), row.active()
+        };
+    }
+}
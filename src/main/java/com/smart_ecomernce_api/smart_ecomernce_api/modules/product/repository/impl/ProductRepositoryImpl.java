@@ -1,5 +1,7 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
 
+import com.smart_ecomernce_api.smart_ecomernce_api.common.counter.RowCountRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.counter.RowCounter;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils.QueryResult;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
@@ -7,6 +9,8 @@ import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundExc
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.InventoryShardRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductCriteria;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,10 +35,16 @@ public class ProductRepositoryImpl implements ProductRepository {
     private static final Logger logger = LoggerFactory.getLogger(ProductRepositoryImpl.class);
 
     private final JdbcUtils jdbcUtils;
+    private final InventoryShardRepository inventoryShardRepository;
+    private final RowCountRepository rowCountRepository;
 
     // Table and column names
     private static final String TABLE_NAME = "products";
 
+    /** Keeps row-level stock writes off products whose stock lives in inventory shards */
+    private static final String NOT_SHARDED =
+            " AND NOT EXISTS (SELECT 1 FROM product_inventory_shards s WHERE s.product_id = " + TABLE_NAME + ".id)";
+
     private static final String BASE_SELECT =
             "SELECT p.id, p.name, p.description, p.slug, p.sku, p.price, p.discount_price, p.cost_price, " +
                     "p.stock_quantity, p.reserved_quantity, p.low_stock_threshold, p.reorder_point, " +
@@ -46,8 +56,15 @@ public class ProductRepositoryImpl implements ProductRepository {
                     "FROM " + TABLE_NAME + " p " +
                     "LEFT JOIN categories c ON p.category_id = c.id";
 
-    public ProductRepositoryImpl(JdbcUtils jdbcUtils) {
+    private final ProductCriteriaQuery criteriaQuery =
+            new ProductCriteriaQuery(BASE_SELECT, "SELECT COUNT(*) FROM " + TABLE_NAME + " p");
+
+    public ProductRepositoryImpl(JdbcUtils jdbcUtils,
+                                 InventoryShardRepository inventoryShardRepository,
+                                 RowCountRepository rowCountRepository) {
         this.jdbcUtils = jdbcUtils;
+        this.inventoryShardRepository = inventoryShardRepository;
+        this.rowCountRepository = rowCountRepository;
     }
 
     /**
@@ -205,9 +222,7 @@ public class ProductRepositoryImpl implements ProductRepository {
 
     @Override
     public long count() {
-        String query = "SELECT COUNT(*) FROM " + TABLE_NAME;
-        Long count = jdbcUtils.queryForObject(query, Long.class);
-        return count != null ? count : 0L;
+        return rowCountRepository.total(RowCounter.PRODUCTS);
     }
 
     @Override
@@ -256,6 +271,7 @@ public class ProductRepositoryImpl implements ProductRepository {
             logger.warn("Delete product with id {} did not affect any rows", id);
             throw new ResourceNotFoundException("Product not found with id: " + id);
         }
+        rowCountRepository.add(RowCounter.PRODUCTS, -1);
 
         logger.info("Deleted product with id: {}", id);
     }
@@ -283,6 +299,7 @@ public class ProductRepositoryImpl implements ProductRepository {
     public void deleteAll() {
         String query = "DELETE FROM " + TABLE_NAME;
         jdbcUtils.executePreparedQuery(query);
+        rowCountRepository.reset(RowCounter.PRODUCTS);
         logger.warn("Deleted all products from database");
     }
 
@@ -309,6 +326,17 @@ public class ProductRepositoryImpl implements ProductRepository {
         return count != null && count > 0;
     }
 
+    @Override
+    public Integer findHighestSlugSuffix(String baseSlug) {
+        String likePattern = baseSlug.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "-%";
+        String suffixPattern = "^" + baseSlug.replaceAll("[\\\\.^$|?*+()\\[\\]{}-]", "\\\\$0") + "-([0-9]{1,9})$";
+        String query = "SELECT MAX(CASE WHEN slug = ? THEN 0 " +
+                "ELSE CAST(substring(slug FROM ?) AS INTEGER) END) FROM " + TABLE_NAME +
+                " WHERE slug = ? OR (slug LIKE ? AND slug ~ ?)";
+        return jdbcUtils.queryForObject(query, Integer.class,
+                baseSlug, suffixPattern, baseSlug, likePattern, suffixPattern);
+    }
+
     @Override
     public boolean existsBySku(String sku) {
         String query = "SELECT COUNT(*) FROM " + TABLE_NAME + " WHERE sku = ?";
@@ -432,30 +460,27 @@ public class ProductRepositoryImpl implements ProductRepository {
     @Override
     public Page<Product> findByAdvancedFilters(Long categoryId, BigDecimal minPrice,
                                                BigDecimal maxPrice, String search, Pageable pageable) {
-        Map<String, Object> params = new HashMap<>();
-        params.put("categoryId", categoryId);
-        params.put("minPrice", minPrice);
-        params.put("maxPrice", maxPrice);
-        params.put("search", "%" + search.toLowerCase() + "%");
-
-        String countQuery = "SELECT COUNT(*) FROM " + TABLE_NAME + " p" +
-                " WHERE p.is_active = true AND p.category_id = :categoryId " +
-                "AND p.discount_price >= :minPrice AND p.discount_price <= :maxPrice " +
-                "AND LOWER(p.name) LIKE :search";
-        Long total = jdbcUtils.queryForObject(countQuery, Long.class, params);
-        long totalCount = total != null ? total : 0L;
+        ProductCriteria criteria = ProductCriteria.builder()
+                .categoryIds(categoryId != null ? List.of(categoryId) : null)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .nameContains(search)
+                .build();
+        return findByCriteria(criteria, pageable);
+    }
 
-        String query = BASE_SELECT +
-                " WHERE p.is_active = true AND p.category_id = :categoryId " +
-                "AND p.discount_price >= :minPrice AND p.discount_price <= :maxPrice " +
-                "AND LOWER(p.name) LIKE :search" +
-                buildOrderByClause(pageable.getSort()) +
-                " LIMIT :limit OFFSET :offset";
+    @Override
+    public Page<Product> findByCriteria(ProductCriteria criteria, Pageable pageable) {
+        ProductCriteriaQuery.Statement statement = criteriaQuery.prepare(criteria, pageable.getSort());
 
-        params.put("limit", pageable.getPageSize());
-        params.put("offset", pageable.getOffset());
+        Long total = jdbcUtils.queryForObject(statement.countSql(), Long.class, statement.countParams());
+        long totalCount = total != null ? total : 0L;
+        if (totalCount == 0 || pageable.getOffset() >= totalCount) {
+            return new PageImpl<>(List.of(), pageable, totalCount);
+        }
 
-        List<Product> products = jdbcUtils.query(query, productRowMapper, params);
+        List<Product> products = jdbcUtils.query(statement.pageSql(), productRowMapper,
+                statement.pageParams(pageable.getPageSize(), pageable.getOffset()));
 
         return new PageImpl<>(products, pageable, totalCount);
     }
@@ -581,6 +606,12 @@ public class ProductRepositoryImpl implements ProductRepository {
 
     @Override
     public boolean hasSufficientStock(Long productId, Integer quantity) {
+        if (inventoryShardRepository.isSharded(productId)) {
+            Integer available = inventoryShardRepository.findAvailableQuantity(productId);
+            if (available != null) {
+                return available >= quantity;
+            }
+        }
         String query = "SELECT CASE WHEN (stock_quantity - reserved_quantity) >= ? " +
                 "THEN 1 ELSE 0 END AS sufficient FROM " + TABLE_NAME + " WHERE id = ?";
 
@@ -591,21 +622,30 @@ public class ProductRepositoryImpl implements ProductRepository {
     @Override
     @Transactional
     public boolean updateStock(Long productId, Integer quantity) {
+        if (inventoryShardRepository.isSharded(productId) && inventoryShardRepository.setStock(productId, quantity)) {
+            return true;
+        }
         Map<String, Object> params = new HashMap<>();
         params.put("quantity", quantity);
         params.put("updatedAt", Timestamp.valueOf(LocalDateTime.now()));
         params.put("id", productId);
 
         String query = "UPDATE " + TABLE_NAME +
-                " SET stock_quantity = :quantity, updated_at = :updatedAt WHERE id = :id";
+                " SET stock_quantity = :quantity, updated_at = :updatedAt WHERE id = :id" + NOT_SHARDED;
 
         QueryResult result = jdbcUtils.executeNamedQuery(query, params);
-        return !result.hasError() && result.getAffectedRows() > 0;
+        if (!result.hasError() && result.getAffectedRows() > 0) {
+            return true;
+        }
+        return shardedInDatabase(productId) && inventoryShardRepository.setStock(productId, quantity);
     }
 
     @Override
     @Transactional
     public boolean reserveStock(Long productId, Integer quantity) {
+        if (inventoryShardRepository.isSharded(productId)) {
+            return inventoryShardRepository.reserve(productId, quantity);
+        }
         Map<String, Object> params = new HashMap<>();
         params.put("quantity", quantity);
         params.put("updatedAt", Timestamp.valueOf(LocalDateTime.now()));
@@ -613,15 +653,21 @@ public class ProductRepositoryImpl implements ProductRepository {
 
         String query = "UPDATE " + TABLE_NAME +
                 " SET reserved_quantity = reserved_quantity + :quantity, updated_at = :updatedAt " +
-                "WHERE id = :id AND (stock_quantity - reserved_quantity) >= :quantity";
+                "WHERE id = :id AND (stock_quantity - reserved_quantity) >= :quantity" + NOT_SHARDED;
 
         QueryResult result = jdbcUtils.executeNamedQuery(query, params);
-        return !result.hasError() && result.getAffectedRows() > 0;
+        if (!result.hasError() && result.getAffectedRows() > 0) {
+            return true;
+        }
+        return shardedInDatabase(productId) && inventoryShardRepository.reserve(productId, quantity);
     }
 
     @Override
     @Transactional
     public boolean releaseReservedStock(Long productId, Integer quantity) {
+        if (inventoryShardRepository.isSharded(productId)) {
+            return inventoryShardRepository.release(productId, quantity);
+        }
         Map<String, Object> params = new HashMap<>();
         params.put("quantity", quantity);
         params.put("updatedAt", Timestamp.valueOf(LocalDateTime.now()));
@@ -629,15 +675,21 @@ public class ProductRepositoryImpl implements ProductRepository {
 
         String query = "UPDATE " + TABLE_NAME +
                 " SET reserved_quantity = GREATEST(0, reserved_quantity - :quantity), updated_at = :updatedAt " +
-                "WHERE id = :id";
+                "WHERE id = :id" + NOT_SHARDED;
 
         QueryResult result = jdbcUtils.executeNamedQuery(query, params);
-        return !result.hasError() && result.getAffectedRows() > 0;
+        if (!result.hasError() && result.getAffectedRows() > 0) {
+            return true;
+        }
+        return shardedInDatabase(productId) && inventoryShardRepository.release(productId, quantity);
     }
 
     @Override
     @Transactional
     public boolean deductStock(Long productId, Integer quantity) {
+        if (inventoryShardRepository.isSharded(productId)) {
+            return inventoryShardRepository.deduct(productId, quantity);
+        }
         Map<String, Object> params = new HashMap<>();
         params.put("quantity", quantity);
         params.put("updatedAt", Timestamp.valueOf(LocalDateTime.now()));
@@ -647,10 +699,107 @@ public class ProductRepositoryImpl implements ProductRepository {
                 " SET stock_quantity = stock_quantity - :quantity, " +
                 "reserved_quantity = GREATEST(0, reserved_quantity - :quantity), " +
                 "updated_at = :updatedAt " +
-                "WHERE id = :id AND stock_quantity >= :quantity";
+                "WHERE id = :id AND stock_quantity >= :quantity" + NOT_SHARDED;
 
         QueryResult result = jdbcUtils.executeNamedQuery(query, params);
-        return !result.hasError() && result.getAffectedRows() > 0;
+        if (!result.hasError() && result.getAffectedRows() > 0) {
+            return true;
+        }
+        return shardedInDatabase(productId) && inventoryShardRepository.deduct(productId, quantity);
+    }
+
+    @Override
+    @Transactional
+    public List<Long> deductStockBatch(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Product id order keeps concurrent batches from deadlocking on each other
+        List<Long> productIds = new ArrayList<>();
+        List<Long> insufficient = new ArrayList<>();
+        for (Long id : new TreeSet<>(quantities.keySet())) {
+            if (!inventoryShardRepository.isSharded(id)) {
+                productIds.add(id);
+            } else if (!inventoryShardRepository.deduct(id, quantities.get(id))) {
+                insufficient.add(id);
+            }
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = productIds.stream()
+                .map(id -> new Object[]{quantities.get(id), quantities.get(id), now, id, quantities.get(id)})
+                .collect(Collectors.toList());
+
+        String query = "UPDATE " + TABLE_NAME +
+                " SET stock_quantity = stock_quantity - ?, " +
+                "reserved_quantity = GREATEST(0, reserved_quantity - ?), " +
+                "updated_at = ? " +
+                "WHERE id = ? AND stock_quantity >= ?" + NOT_SHARDED;
+        int[] counts = productIds.isEmpty() ? new int[0] : jdbcUtils.batchUpdate(query, batchArgs);
+
+        List<Long> missed = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missed.add(productIds.get(i));
+            }
+        }
+        Set<Long> sharded = shardedInDatabase(missed);
+        for (Long id : missed) {
+            if (!sharded.contains(id) || !inventoryShardRepository.deduct(id, quantities.get(id))) {
+                insufficient.add(id);
+            }
+        }
+        return insufficient;
+    }
+
+    @Override
+    @Transactional
+    public void releaseReservedStockBatch(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>();
+        for (Long id : new TreeSet<>(quantities.keySet())) {
+            if (!inventoryShardRepository.isSharded(id)) {
+                productIds.add(id);
+            } else {
+                inventoryShardRepository.release(id, quantities.get(id));
+            }
+        }
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = productIds.stream()
+                .map(id -> new Object[]{quantities.get(id), now, id})
+                .collect(Collectors.toList());
+
+        String query = "UPDATE " + TABLE_NAME +
+                " SET reserved_quantity = GREATEST(0, reserved_quantity - ?), updated_at = ? " +
+                "WHERE id = ?" + NOT_SHARDED;
+        int[] counts = jdbcUtils.batchUpdate(query, batchArgs);
+
+        List<Long> missed = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missed.add(productIds.get(i));
+            }
+        }
+        shardedInDatabase(missed).forEach(id -> inventoryShardRepository.release(id, quantities.get(id)));
+    }
+
+    /**
+     * Whether a product the routing table missed has been sharded since; refreshes the table if so
+     */
+    private boolean shardedInDatabase(Long productId) {
+        return !shardedInDatabase(List.of(productId)).isEmpty();
+    }
+
+    private Set<Long> shardedInDatabase(List<Long> productIds) {
+        Set<Long> sharded = inventoryShardRepository.findShardedAmong(productIds);
+        if (!sharded.isEmpty()) {
+            inventoryShardRepository.refreshRouting();
+        }
+        return sharded;
     }
 
     @Override
@@ -833,6 +982,17 @@ public class ProductRepositoryImpl implements ProductRepository {
 
     @Transactional
     private Product insert(Product product) {
+        return insert(product, false);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Product> insertIfAbsent(Product product) {
+        Product inserted = insert(product, true);
+        return inserted.getId() != null ? Optional.of(inserted) : Optional.empty();
+    }
+
+    private Product insert(Product product, boolean skipOnConflict) {
         LocalDateTime now = LocalDateTime.now();
         product.setCreatedAt(now);
         product.setUpdatedAt(now);
@@ -853,12 +1013,18 @@ public class ProductRepositoryImpl implements ProductRepository {
                 ":stockQuantity, :reservedQuantity, :lowStockThreshold, :reorderPoint, " +
                 ":reorderQuantity, :maxStockQuantity, :inventoryStatus, :trackInventory, " +
                 ":allowBackorder, :expectedRestockDate, :lastRestockedAt, :featured, :isNew, " +
-                ":isBestseller, :imageUrl, :thumbnailUrl, :categoryId, :isActive, :createdAt, :updatedAt)";
+                ":isBestseller, :imageUrl, :thumbnailUrl, :categoryId, :isActive, :createdAt, :updatedAt)" +
+                (skipOnConflict ? " ON CONFLICT DO NOTHING" : "");
 
         QueryResult result = jdbcUtils.executeNamedQuery(query, params);
 
+        if (result.hasError()) {
+            throw new InvalidDataException("Failed to insert product " + product.getSku() + ": " + result.getError());
+        }
+
         if (result.getGeneratedKey() != null) {
             product.setId(result.getGeneratedKey());
+            rowCountRepository.add(RowCounter.PRODUCTS, 1);
         }
 
         logger.info("Inserted product with id: {}", product.getId());
@@ -0,0 +1,64 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductSearchRepository;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * JDBC-based implementation of ProductSearchRepository
+ */
+@Repository
+public class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    private static final String BASE_SELECT =
+            "SELECT p.id, p.name, p.description, p.sku, c.name AS category_name, " +
+                    "COALESCE(p.is_active, true) AS active " +
+                    "FROM products p LEFT JOIN categories c ON c.id = p.category_id";
+
+    private final JdbcUtils jdbcUtils;
+
+    public ProductSearchRepositoryImpl(JdbcUtils jdbcUtils) {
+        this.jdbcUtils = jdbcUtils;
+    }
+
+    private final RowMapper<SearchDocument> documentRowMapper = (rs, rowNum) -> new SearchDocument(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("description"),
+            rs.getString("sku"),
+            rs.getString("category_name"),
+            rs.getBoolean("active"));
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamActiveDocuments(Consumer<SearchDocument> consumer) {
+        // The PostgreSQL driver only honours the fetch size with autocommit off, hence the transaction
+        jdbcUtils.getJdbcTemplate().query(BASE_SELECT + " WHERE p.is_active = true",
+                (RowCallbackHandler) rs -> consumer.accept(documentRowMapper.mapRow(rs, 0)));
+    }
+
+    @Override
+    public List<SearchDocument> findDocuments(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        return jdbcUtils.query(BASE_SELECT + " WHERE p.id IN (" + placeholders + ")",
+                documentRowMapper, productIds.toArray());
+    }
+
+    @Override
+    public List<SearchDocument> findDocumentsChangedSince(LocalDateTime since) {
+        String sql = BASE_SELECT + " WHERE p.updated_at >= ? OR c.updated_at >= ?";
+        Timestamp ts = Timestamp.valueOf(since);
+        return jdbcUtils.query(sql, documentRowMapper, ts, ts);
+    }
+}
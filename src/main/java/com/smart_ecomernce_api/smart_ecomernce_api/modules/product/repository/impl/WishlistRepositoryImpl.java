@@ -327,6 +327,17 @@ public class WishlistRepositoryImpl implements WishlistRepository {
         return jdbcUtils.query(query, wishlistItemRowMapper, userId);
     }
 
+    @Override
+    public List<StockSubscriber> findStockSubscribers(Long productId) {
+        String query = "SELECT id, user_id, guest_email FROM " + TABLE_NAME +
+                " WHERE product_id = ? AND notify_on_stock = true AND purchased = false";
+
+        return jdbcUtils.query(query, (rs, rowNum) -> new StockSubscriber(
+                rs.getLong("id"),
+                rs.getObject("user_id", Long.class),
+                rs.getString("guest_email")), productId);
+    }
+
     @Override
     public List<WishlistItem> findItemsNeedingPriceNotification(Long userId) {
         String query = BASE_SELECT + " w " +
@@ -0,0 +1,452 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import java.util.*;
+
+/**
+ * Immutable typeahead index over product names, category names and popular queries.
+ * Each suggestion text is normalised once into a pool; the index itself is a sorted
+ * long[] of (text, start) pairs, one per word start, so "head" finds "wireless
+ * headphones" without storing the suffix as a separate string. A prefix maps to a
+ * contiguous range of that array found by binary search. Small ranges are scanned;
+ * for prefixes whose range is too large to scan the best texts are precomputed at
+ * build time. Product changes are merged into a copy with {@link #withProducts}
+ * instead of rebuilding from scratch; the copy keeps the precomputed lists and
+ * redoes only those of prefixes the changed texts start with.
+ */
+public final class AutocompleteIndex {
+
+    /** Ranges up to this size are scanned; larger ones use the precomputed lists */
+    private static final int SCAN_LIMIT = 256;
+    public static final int MAX_SUGGESTIONS = 16;
+    private static final int MAX_WORD_STARTS = 4;
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final AutocompleteIndex EMPTY = new Builder().build();
+
+    private final String[] texts;
+    private final String[] labels;
+    private final Kind[] kinds;
+    private final long[] refIds;
+    private final long[] weights;
+    private final boolean[] removed;
+    private final long[] entries;
+    private final Map<String, int[]> heavyPrefixes;
+    private final int liveTexts;
+
+    /**
+     * @param heavyPrefixes precomputed lists to start from, or null to compute them all
+     */
+    private AutocompleteIndex(String[] texts, String[] labels, Kind[] kinds, long[] refIds, long[] weights,
+                              boolean[] removed, long[] entries, Map<String, int[]> heavyPrefixes) {
+        this.texts = texts;
+        this.labels = labels;
+        this.kinds = kinds;
+        this.refIds = refIds;
+        this.weights = weights;
+        this.removed = removed;
+        this.entries = entries;
+        this.heavyPrefixes = heavyPrefixes != null ? new HashMap<>(heavyPrefixes) : computeHeavyPrefixes();
+        int live = 0;
+        for (boolean r : removed) {
+            if (!r) {
+                live++;
+            }
+        }
+        this.liveTexts = live;
+    }
+
+    public static AutocompleteIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Number of suggestions that can be returned
+     */
+    public int size() {
+        return liveTexts;
+    }
+
+    /**
+     * Number of (text, word start) keys, including keys of replaced texts not yet compacted
+     */
+    public int keyCount() {
+        return entries.length;
+    }
+
+    /**
+     * Best suggestions whose text, or one of its first words, starts with the prefix
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        int max = Math.min(limit, MAX_SUGGESTIONS);
+        if (key.isEmpty() || max <= 0 || entries.length == 0) {
+            return List.of();
+        }
+
+        int from = bound(key, false);
+        int to = bound(key, true);
+        if (from >= to) {
+            return List.of();
+        }
+
+        int[] best;
+        if (to - from > SCAN_LIMIT && heavyPrefixes.containsKey(key)) {
+            best = heavyPrefixes.get(key);
+        } else {
+            best = topTexts(from, to, MAX_SUGGESTIONS);
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(Math.min(max, best.length));
+        for (int i = 0; i < best.length && suggestions.size() < max; i++) {
+            int t = best[i];
+            suggestions.add(new Suggestion(labels[t], kinds[t], kinds[t] == Kind.QUERY ? null : refIds[t], weights[t]));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Copy of this index with the given products replaced: earlier texts of those
+     * products are dropped, active ones are added back under their new name and
+     * keep the weight they had
+     */
+    public AutocompleteIndex withProducts(Collection<ProductName> products) {
+        if (products.isEmpty()) {
+            return this;
+        }
+        Map<Long, ProductName> changed = new HashMap<>();
+        products.forEach(p -> changed.put(p.productId(), p));
+
+        boolean[] nextRemoved = removed.clone();
+        Map<Long, Long> previousWeights = new HashMap<>();
+        List<Integer> changedTexts = new ArrayList<>();
+        for (int t = 0; t < texts.length; t++) {
+            if (!removed[t] && kinds[t] == Kind.PRODUCT && changed.containsKey(refIds[t])) {
+                nextRemoved[t] = true;
+                previousWeights.put(refIds[t], weights[t]);
+                changedTexts.add(t);
+            }
+        }
+
+        List<ProductName> added = changed.values().stream()
+                .filter(p -> p.active() && !normalize(p.name()).isEmpty())
+                .toList();
+        int n = texts.length + added.size();
+        String[] nextTexts = Arrays.copyOf(texts, n);
+        String[] nextLabels = Arrays.copyOf(labels, n);
+        Kind[] nextKinds = Arrays.copyOf(kinds, n);
+        long[] nextRefIds = Arrays.copyOf(refIds, n);
+        long[] nextWeights = Arrays.copyOf(weights, n);
+        nextRemoved = Arrays.copyOf(nextRemoved, n);
+
+        int t = texts.length;
+        for (ProductName product : added) {
+            nextTexts[t] = normalize(product.name());
+            nextLabels[t] = product.name().trim();
+            nextKinds[t] = Kind.PRODUCT;
+            nextRefIds[t] = product.productId();
+            nextWeights[t] = previousWeights.getOrDefault(product.productId(), 0L);
+            changedTexts.add(t);
+            t++;
+        }
+
+        long[] newEntries = entriesOf(nextTexts, texts.length, n);
+        sortEntries(newEntries, nextTexts);
+
+        // Both runs are sorted: merge them, dropping keys of replaced texts
+        long[] merged = new long[entries.length + newEntries.length];
+        int i = 0, j = 0, m = 0;
+        while (i < entries.length || j < newEntries.length) {
+            long next;
+            if (j >= newEntries.length
+                    || (i < entries.length && compareEntries(nextTexts, entries[i], newEntries[j]) <= 0)) {
+                next = entries[i++];
+            } else {
+                next = newEntries[j++];
+            }
+            if (!nextRemoved[textOf(next)]) {
+                merged[m++] = next;
+            }
+        }
+
+        AutocompleteIndex next = new AutocompleteIndex(nextTexts, nextLabels, nextKinds, nextRefIds, nextWeights,
+                nextRemoved, Arrays.copyOf(merged, m), heavyPrefixes);
+        next.updateHeavyPrefixes(changedTexts);
+        return next;
+    }
+
+    /**
+     * Lowercase, collapse every run of non letters and digits into one space
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(Math.min(text.length(), MAX_TEXT_LENGTH));
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length() && sb.length() < MAX_TEXT_LENGTH; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && !sb.isEmpty()) {
+                    sb.append(' ');
+                }
+                pendingSpace = false;
+                sb.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    private int[] topTexts(int from, int to, int limit) {
+        Set<Integer> seen = new HashSet<>();
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, rank().reversed());
+        for (int e = from; e < to; e++) {
+            int t = textOf(entries[e]);
+            if (!seen.add(t)) {
+                continue;
+            }
+            heap.offer(t);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        int[] result = new int[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = heap.poll();
+        }
+        return result;
+    }
+
+    /**
+     * Heaviest first, then shorter texts, then alphabetical
+     */
+    private Comparator<Integer> rank() {
+        return Comparator.<Integer>comparingLong(t -> weights[t]).reversed()
+                .thenComparingInt(t -> texts[t].length())
+                .thenComparing(t -> texts[t]);
+    }
+
+    /**
+     * Record the best texts of every prefix whose range is larger than {@link #SCAN_LIMIT}.
+     * A prefix can only be heavy if its one-shorter prefix is, so lengths are walked
+     * upwards until none is left.
+     */
+    private Map<String, int[]> computeHeavyPrefixes() {
+        Map<String, int[]> heavy = new HashMap<>();
+        if (entries.length <= SCAN_LIMIT) {
+            return heavy;
+        }
+        for (int length = 1; ; length++) {
+            boolean found = false;
+            int e = 0;
+            while (e < entries.length) {
+                String prefix = keyPrefix(entries[e], length);
+                if (prefix == null) {
+                    e++;
+                    continue;
+                }
+                int end = e + 1;
+                while (end < entries.length && prefix.equals(keyPrefix(entries[end], length))) {
+                    end++;
+                }
+                if (end - e > SCAN_LIMIT) {
+                    heavy.put(prefix, topTexts(e, end, MAX_SUGGESTIONS));
+                    found = true;
+                }
+                e = end;
+            }
+            if (!found) {
+                return heavy;
+            }
+        }
+    }
+
+    /**
+     * Redo the precomputed lists of every prefix of a key of the given texts, dropping
+     * prefixes that are no longer heavy. Only called on a new copy before it is handed out.
+     */
+    private void updateHeavyPrefixes(Collection<Integer> changedTexts) {
+        Set<String> done = new HashSet<>();
+        for (int t : changedTexts) {
+            String text = texts[t];
+            int starts = 0;
+            for (int i = 0; i < text.length() && starts < MAX_WORD_STARTS; i++) {
+                if (i > 0 && text.charAt(i - 1) != ' ') {
+                    continue;
+                }
+                starts++;
+                // Walk lengths upwards; once a prefix is light every longer one is too
+                boolean heavy = true;
+                for (int end = i + 1; end <= text.length(); end++) {
+                    String prefix = text.substring(i, end);
+                    if (!heavy) {
+                        heavyPrefixes.remove(prefix);
+                        continue;
+                    }
+                    if (done.add(prefix)) {
+                        int from = bound(prefix, false);
+                        int to = bound(prefix, true);
+                        if (to - from > SCAN_LIMIT) {
+                            heavyPrefixes.put(prefix, topTexts(from, to, MAX_SUGGESTIONS));
+                        } else {
+                            heavyPrefixes.remove(prefix);
+                        }
+                    }
+                    heavy = heavyPrefixes.containsKey(prefix);
+                }
+            }
+        }
+    }
+
+    private String keyPrefix(long entry, int length) {
+        String text = texts[textOf(entry)];
+        int start = startOf(entry);
+        return text.length() - start >= length ? text.substring(start, start + length) : null;
+    }
+
+    /**
+     * First entry whose key is not below the prefix range ({@code upper} false),
+     * or first entry after it ({@code upper} true)
+     */
+    private int bound(String prefix, boolean upper) {
+        int lo = 0, hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = comparePrefix(entries[mid], prefix);
+            if (cmp < 0 || (upper && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Negative when the key sorts before every key starting with the prefix, zero when
+     * it starts with the prefix, positive when it sorts after
+     */
+    private int comparePrefix(long entry, String prefix) {
+        String text = texts[textOf(entry)];
+        int start = startOf(entry);
+        int n = Math.min(text.length() - start, prefix.length());
+        for (int i = 0; i < n; i++) {
+            char a = text.charAt(start + i);
+            char b = prefix.charAt(i);
+            if (a != b) {
+                return a < b ? -1 : 1;
+            }
+        }
+        return text.length() - start >= prefix.length() ? 0 : -1;
+    }
+
+    private static int compareEntries(String[] pool, long a, long b) {
+        String ta = pool[textOf(a)];
+        String tb = pool[textOf(b)];
+        int sa = startOf(a);
+        int sb = startOf(b);
+        int n = Math.min(ta.length() - sa, tb.length() - sb);
+        for (int i = 0; i < n; i++) {
+            char ca = ta.charAt(sa + i);
+            char cb = tb.charAt(sb + i);
+            if (ca != cb) {
+                return ca - cb;
+            }
+        }
+        int byLength = Integer.compare(ta.length() - sa, tb.length() - sb);
+        return byLength != 0 ? byLength : Long.compare(a, b);
+    }
+
+    private static void sortEntries(long[] entries, String[] pool) {
+        Long[] boxed = Arrays.stream(entries).boxed().toArray(Long[]::new);
+        Arrays.sort(boxed, (a, b) -> compareEntries(pool, a, b));
+        for (int i = 0; i < boxed.length; i++) {
+            entries[i] = boxed[i];
+        }
+    }
+
+    private static long[] entriesOf(String[] pool, int fromText, int toText) {
+        long[] result = new long[(toText - fromText) * MAX_WORD_STARTS];
+        int n = 0;
+        for (int t = fromText; t < toText; t++) {
+            String text = pool[t];
+            int starts = 0;
+            for (int i = 0; i < text.length() && starts < MAX_WORD_STARTS; i++) {
+                if (i == 0 || text.charAt(i - 1) == ' ') {
+                    result[n++] = entry(t, i);
+                    starts++;
+                }
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static long entry(int text, int start) {
+        return ((long) text << 8) | start;
+    }
+
+    private static int textOf(long entry) {
+        return (int) (entry >>> 8);
+    }
+
+    private static int startOf(long entry) {
+        return (int) (entry & 0xFF);
+    }
+
+    /**
+     * Collects suggestion texts and builds an index
+     */
+    public static final class Builder {
+
+        private final List<String> texts = new ArrayList<>();
+        private final List<String> labels = new ArrayList<>();
+        private final List<Kind> kinds = new ArrayList<>();
+        private final List<Long> refIds = new ArrayList<>();
+        private final List<Long> weights = new ArrayList<>();
+        private final Set<String> queries = new HashSet<>();
+
+        /**
+         * Add a product, category or query; blank texts and repeated queries are ignored
+         */
+        public Builder add(Kind kind, Long refId, String label, long weight) {
+            String text = normalize(label);
+            if (text.isEmpty() || (kind == Kind.QUERY && !queries.add(text))) {
+                return this;
+            }
+            texts.add(text);
+            labels.add(kind == Kind.QUERY ? text : label.trim());
+            kinds.add(kind);
+            refIds.add(refId != null ? refId : 0L);
+            weights.add(weight);
+            return this;
+        }
+
+        public AutocompleteIndex build() {
+            int n = texts.size();
+            String[] pool = texts.toArray(new String[0]);
+            long[] entries = entriesOf(pool, 0, n);
+            sortEntries(entries, pool);
+            return new AutocompleteIndex(
+                    pool,
+                    labels.toArray(new String[0]),
+                    kinds.toArray(new Kind[0]),
+                    refIds.stream().mapToLong(Long::longValue).toArray(),
+                    weights.stream().mapToLong(Long::longValue).toArray(),
+                    new boolean[n],
+                    entries,
+                    null);
+        }
+    }
+
+    public enum Kind {
+        PRODUCT, CATEGORY, QUERY
+    }
+
+    /**
+     * A suggestion; {@code id} is the product or category id, null for queries
+     */
+    public record Suggestion(String text, Kind kind, Long id, long weight) {}
+
+    public record ProductName(long productId, String name, boolean active) {}
+}
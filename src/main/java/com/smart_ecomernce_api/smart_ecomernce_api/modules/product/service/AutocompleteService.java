@@ -0,0 +1,188 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.entity.SalesMeasure;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.SalesRollupRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.repository.CategoryRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductSearchRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductSearchRepository.SearchDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Search-box suggestions from an in-memory {@link AutocompleteIndex}.
+ * The index is rebuilt hourly from active products and categories, weighted by
+ * units sold over the sales window, plus the queries shoppers searched for most
+ * (counted here and halved on every rebuild so old favourites fade). Between
+ * rebuilds, renamed, new and deactivated products are merged in from a short
+ * periodic refresh.
+ */
+@Service
+@Slf4j
+public class AutocompleteService {
+
+    private static final int MAX_TRACKED_QUERIES = 10_000;
+    private static final int MAX_INDEXED_QUERIES = 2_000;
+    private static final int MIN_QUERY_SEARCHES = 2;
+    /** A search for a query counts as much as this many units sold */
+    private static final long QUERY_WEIGHT = 5;
+    private static final int MIN_QUERY_LENGTH = 2;
+    private static final int MAX_QUERY_LENGTH = 60;
+    private static final int REFRESH_LAG_SECONDS = 60;
+
+    private final ProductSearchRepository productSearchRepository;
+    private final CategoryRepository categoryRepository;
+    private final SalesRollupRepository salesRollupRepository;
+
+    private final Map<String, LongAdder> queryCounts = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+
+    private volatile AutocompleteIndex index = AutocompleteIndex.empty();
+    private volatile LocalDateTime watermark;
+    private volatile LocalDateTime builtAt;
+
+    @Value("${product.autocomplete.sales-window-days:90}")
+    private int salesWindowDays;
+
+    public AutocompleteService(ProductSearchRepository productSearchRepository,
+                               CategoryRepository categoryRepository,
+                               SalesRollupRepository salesRollupRepository) {
+        this.productSearchRepository = productSearchRepository;
+        this.categoryRepository = categoryRepository;
+        this.salesRollupRepository = salesRollupRepository;
+    }
+
+    public List<AutocompleteIndex.Suggestion> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > AutocompleteIndex.MAX_SUGGESTIONS) {
+            throw new InvalidDataException("limit must be between 1 and " + AutocompleteIndex.MAX_SUGGESTIONS);
+        }
+        requests.incrementAndGet();
+        return index.suggest(prefix, limit);
+    }
+
+    /**
+     * Count a search that returned results so it can be suggested to others
+     */
+    public void recordQuery(String query) {
+        String text = AutocompleteIndex.normalize(query);
+        if (text.length() < MIN_QUERY_LENGTH || text.length() > MAX_QUERY_LENGTH) {
+            return;
+        }
+        LongAdder count = queryCounts.get(text);
+        if (count == null) {
+            if (queryCounts.size() >= MAX_TRACKED_QUERIES) {
+                return;     // room is made again when the rebuild decays the counts
+            }
+            count = queryCounts.computeIfAbsent(text, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${product.autocomplete.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${product.autocomplete.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime runStart = LocalDateTime.now();
+            LocalDateTime since = runStart.minusDays(salesWindowDays);
+
+            Map<Long, Long> productUnits = new HashMap<>();
+            salesRollupRepository.findTopProducts(SalesMeasure.PAID, since, runStart, Integer.MAX_VALUE)
+                    .forEach(s -> productUnits.put(s.productId(), s.units()));
+            Map<Long, Long> categoryUnits = new HashMap<>();
+            salesRollupRepository.findCategorySales(SalesMeasure.PAID, since, runStart).stream()
+                    .filter(s -> s.categoryId() != null)
+                    .forEach(s -> categoryUnits.put(s.categoryId(), s.units()));
+
+            AutocompleteIndex.Builder builder = new AutocompleteIndex.Builder();
+            productSearchRepository.streamActiveDocuments(doc -> builder.add(AutocompleteIndex.Kind.PRODUCT,
+                    doc.productId(), doc.name(), 1 + productUnits.getOrDefault(doc.productId(), 0L)));
+            for (Category category : categoryRepository.findAllActive()) {
+                builder.add(AutocompleteIndex.Kind.CATEGORY, category.getId(), category.getName(),
+                        1 + categoryUnits.getOrDefault(category.getId(), 0L));
+            }
+            popularQueries().forEach((text, searches) ->
+                    builder.add(AutocompleteIndex.Kind.QUERY, null, text, searches * QUERY_WEIGHT));
+            decayQueryCounts();
+
+            AutocompleteIndex fresh = builder.build();
+            index = fresh;
+            watermark = runStart;
+            builtAt = runStart;
+            log.info("Built autocomplete index: {} suggestions, {} keys in {} ms",
+                    fresh.size(), fresh.keyCount(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Error building autocomplete index", e);
+        }
+    }
+
+    /**
+     * Merge products changed since the last refresh, on this node or another
+     */
+    @Scheduled(initialDelayString = "${product.autocomplete.refresh-interval-ms:30000}",
+            fixedDelayString = "${product.autocomplete.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        if (watermark == null) {
+            return;
+        }
+        try {
+            LocalDateTime runStart = LocalDateTime.now();
+            List<SearchDocument> changed =
+                    productSearchRepository.findDocumentsChangedSince(watermark.minusSeconds(REFRESH_LAG_SECONDS));
+            if (!changed.isEmpty()) {
+                index = index.withProducts(changed.stream()
+                        .map(doc -> new AutocompleteIndex.ProductName(doc.productId(), doc.name(), doc.active()))
+                        .toList());
+            }
+            watermark = runStart;
+        } catch (Exception e) {
+            log.error("Error refreshing autocomplete index", e);
+        }
+    }
+
+    public AutocompleteStats getStats() {
+        AutocompleteIndex current = index;
+        return new AutocompleteStats(current.size(), current.keyCount(), queryCounts.size(),
+                requests.get(), builtAt, watermark);
+    }
+
+    private Map<String, Long> popularQueries() {
+        Map<String, Long> popular = new LinkedHashMap<>();
+        queryCounts.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .filter(e -> e.getValue() >= MIN_QUERY_SEARCHES)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(MAX_INDEXED_QUERIES)
+                .forEach(e -> popular.put(e.getKey(), e.getValue()));
+        return popular;
+    }
+
+    private void decayQueryCounts() {
+        queryCounts.entrySet().removeIf(e -> {
+            long halved = e.getValue().sumThenReset() / 2;
+            e.getValue().add(halved);
+            return halved == 0;
+        });
+    }
+
+    public record AutocompleteStats(
+            int suggestions,
+            int keys,
+            int trackedQueries,
+            long requests,
+            LocalDateTime builtAt,
+            LocalDateTime refreshedUntil
+    ) {}
+}
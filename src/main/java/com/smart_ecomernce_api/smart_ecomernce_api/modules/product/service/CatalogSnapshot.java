@@ -0,0 +1,509 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.CatalogSnapshotRepository.CatalogRow;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, read-optimized copy of the product catalog used to serve listing pages
+ * without touching the database.
+ *
+ * <p>Products are stored column by column, ordered by id: primitive arrays for ids,
+ * stock and prices (in cents), bitsets for the boolean flags, a dictionary for
+ * categories and plain arrays for the text fields. Each supported sort has a
+ * precomputed permutation of ordinals and each listing a precomputed membership
+ * bitset, so a page is a walk along one permutation that skips non-members.
+ * Changes produce a new snapshot; readers keep whichever instance they started with.
+ */
+public final class CatalogSnapshot {
+
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    public enum SortKey { ID, NAME, PRICE, CREATED_AT, UPDATED_AT }
+
+    /**
+     * The listing pages a snapshot can answer. {@code ALL} mirrors the unfiltered
+     * catalog listing, which includes inactive products; the others are active-only.
+     */
+    public enum Listing { ALL, FEATURED, NEW, BESTSELLER, DISCOUNTED }
+
+    private final long[] ids;
+    private final String[] names;
+    private final String[] slugs;
+    private final String[] skus;
+    private final String[] descriptions;
+    private final String[] imageUrls;
+    private final long[] priceCents;
+    private final long[] discountCents;
+    private final int[] stock;
+    private final int[] available;
+    private final long[] createdAt;
+    private final long[] updatedAt;
+    private final int[] categoryOrdinals;
+
+    private final BitSet trackInventory;
+    private final BitSet active;
+    private final BitSet featured;
+    private final BitSet isNew;
+    private final BitSet bestseller;
+
+    private final long[] categoryIds;
+    private final String[] categorySlugs;
+    private final String[] categoryNames;
+
+    private final EnumMap<SortKey, int[]> orderings = new EnumMap<>(SortKey.class);
+    private final EnumMap<Listing, BitSet> listings = new EnumMap<>(Listing.class);
+    private final EnumMap<Listing, Integer> listingSizes = new EnumMap<>(Listing.class);
+
+    private CatalogSnapshot(Draft draft) {
+        ids = draft.ids;
+        names = draft.names;
+        slugs = draft.slugs;
+        skus = draft.skus;
+        descriptions = draft.descriptions;
+        imageUrls = draft.imageUrls;
+        priceCents = draft.priceCents;
+        discountCents = draft.discountCents;
+        stock = draft.stock;
+        available = draft.available;
+        createdAt = draft.createdAt;
+        updatedAt = draft.updatedAt;
+        categoryOrdinals = draft.categoryOrdinals;
+        trackInventory = draft.trackInventory;
+        active = draft.active;
+        featured = draft.featured;
+        isNew = draft.isNew;
+        bestseller = draft.bestseller;
+        categoryIds = draft.categoryIds.stream().mapToLong(Long::longValue).toArray();
+        categorySlugs = draft.categorySlugs.toArray(String[]::new);
+        categoryNames = draft.categoryNames.toArray(String[]::new);
+        orderings.putAll(draft.orderings);
+        listings.putAll(draft.listings);
+        listings.forEach((listing, members) -> listingSizes.put(listing, members.cardinality()));
+    }
+
+    public static CatalogSnapshot empty() {
+        return new Builder().build();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int categoryCount() {
+        return categoryIds.length;
+    }
+
+    /**
+     * Number of products in a listing
+     */
+    public int total(Listing listing) {
+        return listingSizes.get(listing);
+    }
+
+    /**
+     * One page of a listing in the requested order; ties are broken by id in the same direction
+     */
+    public List<ProductResponse> page(Listing listing, SortKey sortKey, boolean descending, long offset, int limit) {
+        int total = total(listing);
+        if (limit <= 0 || offset >= total) {
+            return List.of();
+        }
+        int[] order = orderings.get(sortKey);
+        BitSet members = listings.get(listing);
+        int wanted = (int) Math.min(limit, total - offset);
+        List<ProductResponse> content = new ArrayList<>(wanted);
+
+        if (listing == Listing.ALL) {
+            // Every ordinal is a member, so the page starts at a known position
+            for (int k = (int) offset; content.size() < wanted; k++) {
+                content.add(toResponse(order[descending ? order.length - 1 - k : k]));
+            }
+            return content;
+        }
+
+        long skipped = 0;
+        for (int k = 0; k < order.length && content.size() < wanted; k++) {
+            int ordinal = order[descending ? order.length - 1 - k : k];
+            if (!members.get(ordinal)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            content.add(toResponse(ordinal));
+        }
+        return content;
+    }
+
+    /**
+     * A new snapshot with the given rows inserted or replaced, matched by product id.
+     * Returns this snapshot when none of the rows differ from what it already holds.
+     * Changed rows are patched into a copy of the columns and spliced into the existing
+     * orderings; only a new id below the highest one forces a full rebuild, since
+     * ordinals must stay in id order.
+     */
+    public CatalogSnapshot withChanges(Collection<CatalogRow> changed) {
+        SortedMap<Long, CatalogRow> byId = new TreeMap<>();
+        for (CatalogRow row : changed) {
+            int ordinal = Arrays.binarySearch(ids, row.id());
+            if (ordinal < 0 || !row(ordinal).equals(row)) {
+                byId.put(row.id(), row);
+            }
+        }
+        if (byId.isEmpty()) {
+            return this;
+        }
+
+        long highestId = ids.length > 0 ? ids[ids.length - 1] : Long.MIN_VALUE;
+        int appended = 0;
+        for (long id : byId.keySet()) {
+            if (Arrays.binarySearch(ids, id) < 0) {
+                if (id < highestId) {
+                    return rebuiltWith(byId);
+                }
+                appended++;
+            }
+        }
+
+        Draft draft = new Draft(this, ids.length + appended);
+        int[] touched = new int[byId.size()];
+        int next = ids.length;
+        int k = 0;
+        for (CatalogRow row : byId.values()) {
+            int ordinal = Arrays.binarySearch(ids, row.id());
+            // Ascending ids, so appended rows keep ordinals in id order
+            if (ordinal < 0) {
+                ordinal = next++;
+            }
+            draft.set(ordinal, row);
+            touched[k++] = ordinal;
+        }
+        Arrays.sort(touched);
+        draft.splice(touched);
+        return new CatalogSnapshot(draft);
+    }
+
+    private CatalogSnapshot rebuiltWith(Map<Long, CatalogRow> changed) {
+        Builder builder = new Builder();
+        for (int i = 0; i < ids.length; i++) {
+            if (!changed.containsKey(ids[i])) {
+                builder.add(row(i));
+            }
+        }
+        changed.values().forEach(builder::add);
+        return builder.build();
+    }
+
+    private CatalogRow row(int i) {
+        int c = categoryOrdinals[i];
+        return new CatalogRow(
+                ids[i], names[i], slugs[i], skus[i], descriptions[i], imageUrls[i],
+                fromCents(priceCents[i]),
+                discountCents[i] != NO_VALUE ? fromCents(discountCents[i]) : null,
+                stock[i], available[i],
+                trackInventory.get(i), active.get(i), featured.get(i), isNew.get(i), bestseller.get(i),
+                c >= 0 ? categoryIds[c] : null,
+                c >= 0 ? categorySlugs[c] : null,
+                c >= 0 ? categoryNames[c] : null,
+                createdAt[i] != NO_VALUE ? createdAt[i] : null,
+                updatedAt[i] != NO_VALUE ? updatedAt[i] : null);
+    }
+
+    private ProductResponse toResponse(int i) {
+        long effective = discountCents[i] != NO_VALUE && discountCents[i] < priceCents[i]
+                ? discountCents[i] : priceCents[i];
+        int c = categoryOrdinals[i];
+        return ProductResponse.builder()
+                .id(ids[i])
+                .slug(slugs[i])
+                .name(names[i])
+                .description(descriptions[i])
+                .price(fromCents(priceCents[i]))
+                .discountPrice(discountCents[i] != NO_VALUE ? fromCents(discountCents[i]) : null)
+                .effectivePrice(fromCents(effective))
+                .sku(skus[i])
+                .stockQuantity(stock[i])
+                .inStock(!trackInventory.get(i) || available[i] > 0)
+                .imageUrl(imageUrls[i])
+                .featured(featured.get(i))
+                .categoryId(c >= 0 ? categoryIds[c] : null)
+                .category(c >= 0 ? new ProductResponse.CategoryInfo(categoryIds[c], categorySlugs[c], categoryNames[c]) : null)
+                .createdAt(toDateTime(createdAt[i]))
+                .updatedAt(toDateTime(updatedAt[i]))
+                .build();
+    }
+
+    private static int compareNames(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : 1) : -1;
+        }
+        int folded = a.compareToIgnoreCase(b);
+        return folded != 0 ? folded : a.compareTo(b);
+    }
+
+    /**
+     * Missing timestamps sort last ascending and first descending, as in PostgreSQL
+     */
+    private static int compareTimes(long a, long b) {
+        if (a == NO_VALUE || b == NO_VALUE) {
+            return a == b ? 0 : (a == NO_VALUE ? 1 : -1);
+        }
+        return Long.compare(a, b);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return epochMillis != NO_VALUE ? new Timestamp(epochMillis).toLocalDateTime() : null;
+    }
+
+    public static final class Builder {
+
+        private final Map<Long, CatalogRow> rows = new HashMap<>();
+
+        public Builder add(CatalogRow row) {
+            rows.put(row.id(), row);
+            return this;
+        }
+
+        public CatalogSnapshot build() {
+            List<CatalogRow> ordered = new ArrayList<>(rows.values());
+            ordered.sort(Comparator.comparingLong(CatalogRow::id));
+            Draft draft = new Draft(ordered.size());
+            for (int i = 0; i < ordered.size(); i++) {
+                draft.set(i, ordered.get(i));
+            }
+            draft.sortAll();
+            return new CatalogSnapshot(draft);
+        }
+    }
+
+    /**
+     * Mutable columns a snapshot is assembled in, either from scratch or as a copy of an
+     * existing snapshot being patched
+     */
+    private static final class Draft {
+
+        private final long[] ids;
+        private final String[] names;
+        private final String[] slugs;
+        private final String[] skus;
+        private final String[] descriptions;
+        private final String[] imageUrls;
+        private final long[] priceCents;
+        private final long[] discountCents;
+        private final int[] stock;
+        private final int[] available;
+        private final long[] createdAt;
+        private final long[] updatedAt;
+        private final int[] categoryOrdinals;
+
+        private final BitSet trackInventory;
+        private final BitSet active;
+        private final BitSet featured;
+        private final BitSet isNew;
+        private final BitSet bestseller;
+
+        private final List<Long> categoryIds;
+        private final List<String> categorySlugs;
+        private final List<String> categoryNames;
+        private final Map<Long, Integer> categoryOrdinalById = new HashMap<>();
+
+        private final EnumMap<SortKey, int[]> orderings = new EnumMap<>(SortKey.class);
+        private final EnumMap<Listing, BitSet> listings = new EnumMap<>(Listing.class);
+
+        Draft(int n) {
+            ids = new long[n];
+            names = new String[n];
+            slugs = new String[n];
+            skus = new String[n];
+            descriptions = new String[n];
+            imageUrls = new String[n];
+            priceCents = new long[n];
+            discountCents = new long[n];
+            stock = new int[n];
+            available = new int[n];
+            createdAt = new long[n];
+            updatedAt = new long[n];
+            categoryOrdinals = new int[n];
+            trackInventory = new BitSet(n);
+            active = new BitSet(n);
+            featured = new BitSet(n);
+            isNew = new BitSet(n);
+            bestseller = new BitSet(n);
+            categoryIds = new ArrayList<>();
+            categorySlugs = new ArrayList<>();
+            categoryNames = new ArrayList<>();
+        }
+
+        /**
+         * A copy of the snapshot's columns grown to {@code n} ordinals, with its orderings
+         * and listings carried over for {@link #splice}
+         */
+        Draft(CatalogSnapshot base, int n) {
+            ids = Arrays.copyOf(base.ids, n);
+            names = Arrays.copyOf(base.names, n);
+            slugs = Arrays.copyOf(base.slugs, n);
+            skus = Arrays.copyOf(base.skus, n);
+            descriptions = Arrays.copyOf(base.descriptions, n);
+            imageUrls = Arrays.copyOf(base.imageUrls, n);
+            priceCents = Arrays.copyOf(base.priceCents, n);
+            discountCents = Arrays.copyOf(base.discountCents, n);
+            stock = Arrays.copyOf(base.stock, n);
+            available = Arrays.copyOf(base.available, n);
+            createdAt = Arrays.copyOf(base.createdAt, n);
+            updatedAt = Arrays.copyOf(base.updatedAt, n);
+            categoryOrdinals = Arrays.copyOf(base.categoryOrdinals, n);
+            trackInventory = (BitSet) base.trackInventory.clone();
+            active = (BitSet) base.active.clone();
+            featured = (BitSet) base.featured.clone();
+            isNew = (BitSet) base.isNew.clone();
+            bestseller = (BitSet) base.bestseller.clone();
+            categoryIds = new ArrayList<>(base.categoryIds.length);
+            for (long categoryId : base.categoryIds) {
+                categoryOrdinalById.put(categoryId, categoryIds.size());
+                categoryIds.add(categoryId);
+            }
+            categorySlugs = new ArrayList<>(Arrays.asList(base.categorySlugs));
+            categoryNames = new ArrayList<>(Arrays.asList(base.categoryNames));
+            orderings.putAll(base.orderings);
+            base.listings.forEach((listing, members) -> listings.put(listing, (BitSet) members.clone()));
+        }
+
+        void set(int i, CatalogRow row) {
+            ids[i] = row.id();
+            names[i] = row.name();
+            slugs[i] = row.slug();
+            skus[i] = row.sku();
+            descriptions[i] = row.description();
+            imageUrls[i] = row.imageUrl();
+            priceCents[i] = toCents(row.price());
+            discountCents[i] = row.discountPrice() != null ? toCents(row.discountPrice()) : NO_VALUE;
+            stock[i] = row.stockQuantity();
+            available[i] = row.availableQuantity();
+            createdAt[i] = row.createdAt() != null ? row.createdAt() : NO_VALUE;
+            updatedAt[i] = row.updatedAt() != null ? row.updatedAt() : NO_VALUE;
+            trackInventory.set(i, row.trackInventory());
+            active.set(i, row.active());
+            featured.set(i, row.featured());
+            isNew.set(i, row.isNew());
+            bestseller.set(i, row.bestseller());
+
+            if (row.categoryId() == null) {
+                categoryOrdinals[i] = -1;
+                return;
+            }
+            Integer c = categoryOrdinalById.get(row.categoryId());
+            if (c == null) {
+                c = categoryIds.size();
+                categoryOrdinalById.put(row.categoryId(), c);
+                categoryIds.add(row.categoryId());
+                categorySlugs.add(row.categorySlug());
+                categoryNames.add(row.categoryName());
+            } else {
+                // A renamed category comes back with every one of its products
+                categorySlugs.set(c, row.categorySlug());
+                categoryNames.set(c, row.categoryName());
+            }
+            categoryOrdinals[i] = c;
+        }
+
+        /**
+         * Compute every ordering and listing from scratch
+         */
+        void sortAll() {
+            int n = ids.length;
+            for (SortKey key : SortKey.values()) {
+                orderings.put(key, key == SortKey.ID
+                        ? IntStream.range(0, n).toArray()
+                        : IntStream.range(0, n).boxed().sorted(order(key)).mapToInt(Integer::intValue).toArray());
+            }
+            for (Listing listing : Listing.values()) {
+                BitSet members = new BitSet(n);
+                for (int i = 0; i < n; i++) {
+                    members.set(i, isMember(listing, i));
+                }
+                listings.put(listing, members);
+            }
+        }
+
+        /**
+         * Move the given ordinals, ascending, to their new places in the carried-over
+         * orderings and listings. The other ordinals keep their relative order, so each
+         * ordering is one merge of its untouched ordinals with the sorted touched ones.
+         */
+        void splice(int[] touched) {
+            int n = ids.length;
+            BitSet isTouched = new BitSet(n);
+            for (int i : touched) {
+                isTouched.set(i);
+            }
+            for (SortKey key : SortKey.values()) {
+                if (key == SortKey.ID) {
+                    orderings.put(key, IntStream.range(0, n).toArray());
+                    continue;
+                }
+                Comparator<Integer> order = order(key);
+                int[] previous = orderings.get(key);
+                int[] moved = Arrays.stream(touched).boxed().sorted(order).mapToInt(Integer::intValue).toArray();
+                int[] merged = new int[n];
+                int p = 0;
+                int m = 0;
+                for (int out = 0; out < n; out++) {
+                    while (p < previous.length && isTouched.get(previous[p])) {
+                        p++;
+                    }
+                    if (p < previous.length && (m == moved.length || order.compare(previous[p], moved[m]) < 0)) {
+                        merged[out] = previous[p++];
+                    } else {
+                        merged[out] = moved[m++];
+                    }
+                }
+                orderings.put(key, merged);
+            }
+            listings.forEach((listing, members) -> {
+                for (int i : touched) {
+                    members.set(i, isMember(listing, i));
+                }
+            });
+        }
+
+        /**
+         * Ordinals are in id order, so ties fall back to ascending id
+         */
+        private Comparator<Integer> order(SortKey key) {
+            Comparator<Integer> byValue = switch (key) {
+                case ID -> (a, b) -> 0;
+                case NAME -> (a, b) -> compareNames(names[a], names[b]);
+                case PRICE -> (a, b) -> Long.compare(priceCents[a], priceCents[b]);
+                case CREATED_AT -> (a, b) -> compareTimes(createdAt[a], createdAt[b]);
+                case UPDATED_AT -> (a, b) -> compareTimes(updatedAt[a], updatedAt[b]);
+            };
+            return byValue.thenComparingInt(i -> i);
+        }
+
+        private boolean isMember(Listing listing, int i) {
+            return switch (listing) {
+                case ALL -> true;
+                case FEATURED -> active.get(i) && featured.get(i);
+                case NEW -> active.get(i) && isNew.get(i);
+                case BESTSELLER -> active.get(i) && bestseller.get(i);
+                case DISCOUNTED -> active.get(i) && discountCents[i] != NO_VALUE && discountCents[i] < priceCents[i];
+            };
+        }
+    }
+}
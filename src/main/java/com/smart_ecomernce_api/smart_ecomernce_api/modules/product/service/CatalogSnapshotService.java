@@ -0,0 +1,156 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.CatalogSnapshotRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Serves the catalog listing pages from an in-memory {@link CatalogSnapshot} when
+ * {@code product.catalog.snapshot-enabled} is set. The snapshot is built at startup
+ * and hourly, and a short periodic refresh folds in products and categories whose
+ * {@code updated_at} moved since the last run. Deletions do not show up in that feed;
+ * instead the gap between the products row counter and the snapshot size is recorded at
+ * each rebuild, and a refresh that finds the gap moved triggers a full rebuild. Comparing
+ * the gap rather than the two numbers keeps counter drift from forcing a rebuild on every
+ * run. Pages may therefore lag writes by up to one refresh interval.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService {
+
+    private static final int REFRESH_LAG_SECONDS = 10;
+
+    private final CatalogSnapshotRepository catalogSnapshotRepository;
+    private final ProductRepository productRepository;
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile LocalDateTime watermark;
+    private volatile LocalDateTime builtAt;
+    /** Products counter minus snapshot size at the last rebuild */
+    private long countGap;
+
+    @Value("${product.catalog.snapshot-enabled:false}")
+    private boolean enabled;
+
+    public CatalogSnapshotService(CatalogSnapshotRepository catalogSnapshotRepository,
+                                  ProductRepository productRepository) {
+        this.catalogSnapshotRepository = catalogSnapshotRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Whether the listing can be answered from the snapshot: it must be enabled and
+     * built, and the page sorted by at most one supported property
+     */
+    public boolean canServe(Pageable pageable) {
+        if (!enabled || snapshot == null) {
+            return false;
+        }
+        List<Sort.Order> orders = pageable.getSort().toList();
+        return orders.isEmpty() || (orders.size() == 1 && sortKey(orders.get(0)) != null);
+    }
+
+    public Page<ProductResponse> page(CatalogSnapshot.Listing listing, Pageable pageable) {
+        CatalogSnapshot current = snapshot;
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(null);
+        CatalogSnapshot.SortKey sortKey = order != null ? sortKey(order) : CatalogSnapshot.SortKey.ID;
+        if (current == null || sortKey == null) {
+            throw new IllegalStateException("Catalog snapshot cannot serve " + pageable);
+        }
+        List<ProductResponse> content = current.page(listing, sortKey,
+                order != null && order.isDescending(), pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, current.total(listing));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${product.catalog.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${product.catalog.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime runStart = LocalDateTime.now();
+            long counted = productRepository.count();
+            CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder();
+            catalogSnapshotRepository.streamAll(builder::add);
+            CatalogSnapshot fresh = builder.build();
+            countGap = counted - fresh.size();
+            snapshot = fresh;
+            watermark = runStart;
+            builtAt = runStart;
+            log.info("Built catalog snapshot: {} products, {} categories in {} ms",
+                    fresh.size(), fresh.categoryCount(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Error building catalog snapshot", e);
+        }
+    }
+
+    /**
+     * Fold in products changed since the last refresh, on this node or another
+     */
+    @Scheduled(initialDelayString = "${product.catalog.refresh-interval-ms:5000}",
+            fixedDelayString = "${product.catalog.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        if (!enabled || snapshot == null) {
+            return;
+        }
+        try {
+            LocalDateTime runStart = LocalDateTime.now();
+            long counted = productRepository.count();
+            CatalogSnapshot next = snapshot.withChanges(
+                    catalogSnapshotRepository.findChangedSince(watermark.minusSeconds(REFRESH_LAG_SECONDS)));
+            if (counted - next.size() != countGap) {
+                log.debug("Catalog snapshot out of step with products table, rebuilding");
+                rebuild();
+                return;
+            }
+            snapshot = next;
+            watermark = runStart;
+        } catch (Exception e) {
+            log.error("Error refreshing catalog snapshot", e);
+        }
+    }
+
+    public CatalogSnapshotStats getStats() {
+        CatalogSnapshot current = snapshot;
+        return new CatalogSnapshotStats(enabled, current != null,
+                current != null ? current.size() : 0,
+                current != null ? current.categoryCount() : 0,
+                builtAt, watermark);
+    }
+
+    private static CatalogSnapshot.SortKey sortKey(Sort.Order order) {
+        return switch (order.getProperty()) {
+            case "id" -> CatalogSnapshot.SortKey.ID;
+            case "name" -> CatalogSnapshot.SortKey.NAME;
+            case "price" -> CatalogSnapshot.SortKey.PRICE;
+            case "createdAt" -> CatalogSnapshot.SortKey.CREATED_AT;
+            case "updatedAt" -> CatalogSnapshot.SortKey.UPDATED_AT;
+            default -> null;
+        };
+    }
+
+    public record CatalogSnapshotStats(
+            boolean enabled,
+            boolean serving,
+            int products,
+            int categories,
+            LocalDateTime builtAt,
+            LocalDateTime refreshedUntil
+    ) {}
+}
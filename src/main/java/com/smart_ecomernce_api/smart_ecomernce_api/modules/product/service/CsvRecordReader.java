@@ -0,0 +1,101 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 reader: one record per call, quoted fields may contain commas,
+ * doubled quotes and line breaks. Only the current record is held in memory.
+ */
+final class CsvRecordReader {
+
+    private final Reader reader;
+    private long line = 1;
+    private long recordLine;
+    private int pushedBack = -2;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Line number the last returned record started on
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    /**
+     * The next record's fields, or null at end of input
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushedBack != -2) {
+            c = pushedBack;
+            pushedBack = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+        if (c == '\n') {
+            line--;
+        }
+    }
+}
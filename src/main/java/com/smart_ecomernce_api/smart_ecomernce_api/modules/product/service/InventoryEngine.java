@@ -0,0 +1,180 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.event.InventoryThresholdEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.InventoryStatusRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.InventoryStatusRepository.InventoryLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps inventory status in step with stock. Every write that changes stock or
+ * reserved quantity calls {@link #recompute} in its own transaction, which rewrites
+ * the status of the touched rows in one statement. Once that transaction commits
+ * the low-stock, out-of-stock and reorder sets are updated and an
+ * {@link InventoryThresholdEvent} is published for each threshold crossed, so
+ * reorder reports and back-in-stock notifications never scan the products table.
+ * Writes made by other nodes are picked up by a periodic resync of the sets.
+ */
+@Service
+@Slf4j
+public class InventoryEngine {
+
+    private final InventoryStatusRepository inventoryStatusRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Map<Long, InventoryLevel> lowStock = new ConcurrentHashMap<>();
+    private volatile Map<Long, InventoryLevel> outOfStock = new ConcurrentHashMap<>();
+    private volatile Map<Long, InventoryLevel> reorder = new ConcurrentHashMap<>();
+
+    private final Map<InventoryThresholdEvent.Type, AtomicLong> eventCounts = new EnumMap<>(InventoryThresholdEvent.Type.class);
+    private final AtomicLong recomputedProducts = new AtomicLong();
+
+    public InventoryEngine(InventoryStatusRepository inventoryStatusRepository,
+                           ApplicationEventPublisher eventPublisher) {
+        this.inventoryStatusRepository = inventoryStatusRepository;
+        this.eventPublisher = eventPublisher;
+        for (InventoryThresholdEvent.Type type : InventoryThresholdEvent.Type.values()) {
+            eventCounts.put(type, new AtomicLong());
+        }
+    }
+
+    /**
+     * Recompute the status of products whose stock just changed; sets and events follow the commit
+     */
+    public void recompute(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<InventoryLevel> levels = inventoryStatusRepository.recompute(productIds);
+        recomputedProducts.addAndGet(levels.size());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(levels);
+                }
+            });
+        } else {
+            apply(levels);
+        }
+    }
+
+    public void recompute(Long productId) {
+        recompute(List.of(productId));
+    }
+
+    /**
+     * Reload the sets from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.engine.resync-interval-ms:300000}",
+            fixedDelayString = "${inventory.engine.resync-interval-ms:300000}")
+    public void resync() {
+        try {
+            Map<Long, InventoryLevel> low = new ConcurrentHashMap<>();
+            Map<Long, InventoryLevel> out = new ConcurrentHashMap<>();
+            Map<Long, InventoryLevel> due = new ConcurrentHashMap<>();
+            for (InventoryLevel level : inventoryStatusRepository.findWatchedLevels()) {
+                place(level, low, out, due);
+            }
+            lowStock = low;
+            outOfStock = out;
+            reorder = due;
+            log.debug("Inventory sets loaded: {} low, {} out of stock, {} to reorder", low.size(), out.size(), due.size());
+        } catch (Exception e) {
+            log.error("Error loading inventory levels", e);
+        }
+    }
+
+    public List<Long> getLowStockProductIds() {
+        return sortedIds(lowStock, Comparator.comparingInt(InventoryLevel::availableQuantity));
+    }
+
+    public List<Long> getOutOfStockProductIds() {
+        return sortedIds(outOfStock, Comparator.comparingInt(InventoryLevel::availableQuantity));
+    }
+
+    /**
+     * Products at or below their reorder point, furthest below first
+     */
+    public List<Long> getReorderProductIds() {
+        return sortedIds(reorder, Comparator.comparingInt(l -> l.stockQuantity() - l.reorderPoint()));
+    }
+
+    public InventoryEngineStats getStats() {
+        return new InventoryEngineStats(
+                lowStock.size(),
+                outOfStock.size(),
+                reorder.size(),
+                recomputedProducts.get(),
+                eventCounts.get(InventoryThresholdEvent.Type.LOW_STOCK).get(),
+                eventCounts.get(InventoryThresholdEvent.Type.OUT_OF_STOCK).get(),
+                eventCounts.get(InventoryThresholdEvent.Type.BACK_IN_STOCK).get());
+    }
+
+    private void apply(List<InventoryLevel> levels) {
+        for (InventoryLevel level : levels) {
+            place(level, lowStock, outOfStock, reorder);
+            InventoryThresholdEvent.Type crossed =
+                    InventoryThresholdEvent.Type.between(level.previousStatus(), level.status());
+            if (crossed == null) {
+                continue;
+            }
+            eventCounts.get(crossed).incrementAndGet();
+            try {
+                eventPublisher.publishEvent(new InventoryThresholdEvent(
+                        level.productId(), crossed, level.previousStatus(), level.status(), level.availableQuantity()));
+            } catch (Exception e) {
+                log.error("Error handling {} event for product {}", crossed, level.productId(), e);
+            }
+        }
+    }
+
+    private static void place(InventoryLevel level,
+                              Map<Long, InventoryLevel> low,
+                              Map<Long, InventoryLevel> out,
+                              Map<Long, InventoryLevel> due) {
+        Long id = level.productId();
+        InventoryStatus status = level.status();
+        putOrRemove(low, id, level, level.tracked() && status == InventoryStatus.LOW_STOCK);
+        putOrRemove(out, id, level, level.tracked()
+                && (status == InventoryStatus.OUT_OF_STOCK || status == InventoryStatus.BACKORDER));
+        putOrRemove(due, id, level, level.needsReorder());
+    }
+
+    private static void putOrRemove(Map<Long, InventoryLevel> set, Long id, InventoryLevel level, boolean member) {
+        if (member) {
+            set.put(id, level);
+        } else {
+            set.remove(id);
+        }
+    }
+
+    private static List<Long> sortedIds(Map<Long, InventoryLevel> set, Comparator<InventoryLevel> order) {
+        return set.values().stream()
+                .sorted(order.thenComparing(InventoryLevel::productId))
+                .map(InventoryLevel::productId)
+                .toList();
+    }
+
+    public record InventoryEngineStats(
+            int lowStockProducts,
+            int outOfStockProducts,
+            int reorderProducts,
+            long recomputedProducts,
+            long lowStockEvents,
+            long outOfStockEvents,
+            long backInStockEvents
+    ) {}
+}
@@ -0,0 +1,100 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.InventoryShardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Opt-in sharded inventory for flash-sale products.
+ * Splitting a product's stock over several rows lets concurrent checkouts reserve
+ * without queueing on the product row; ProductRepository routes stock calls to the
+ * shards on its own. A periodic rebalance evens out free units, so a shard that
+ * sold out early does not push reservations onto the slow all-shards path, and
+ * refreshes the product row with the sums for listings.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryShardService {
+
+    private final InventoryShardRepository inventoryShardRepository;
+    private final InventoryEngine inventoryEngine;
+
+    @Value("${inventory.shards.max-shards:64}")
+    private int maxShards;
+
+    @CacheEvict(value = "product", allEntries = true)
+    public ShardedInventory enableSharding(Long productId, int shardCount) {
+        if (shardCount < 2 || shardCount > maxShards) {
+            throw new InvalidDataException("Shard count must be between 2 and " + maxShards);
+        }
+        if (!inventoryShardRepository.createShards(productId, shardCount)) {
+            if (inventoryShardRepository.findShardedAmong(List.of(productId)).isEmpty()) {
+                throw ResourceNotFoundException.forResource("Product", productId);
+            }
+            throw new InvalidDataException("Inventory of product " + productId + " is already sharded");
+        }
+        return getShardedInventory(productId);
+    }
+
+    @CacheEvict(value = "product", allEntries = true)
+    public void disableSharding(Long productId) {
+        if (!inventoryShardRepository.removeShards(productId)) {
+            throw new InvalidDataException("Inventory of product " + productId + " is not sharded");
+        }
+    }
+
+    public ShardedInventory getShardedInventory(Long productId) {
+        List<InventoryShardRepository.Shard> shards = inventoryShardRepository.findShards(productId);
+        if (shards.isEmpty()) {
+            throw new InvalidDataException("Inventory of product " + productId + " is not sharded");
+        }
+        int stock = shards.stream().mapToInt(InventoryShardRepository.Shard::stockQuantity).sum();
+        int reserved = shards.stream().mapToInt(InventoryShardRepository.Shard::reservedQuantity).sum();
+        return new ShardedInventory(productId, stock, reserved, stock - reserved, shards);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRouting() {
+        try {
+            inventoryShardRepository.refreshRouting();
+        } catch (Exception e) {
+            log.error("Error loading inventory shard routing", e);
+        }
+    }
+
+    /**
+     * Rebalance every sharded product and pick up products sharded on other nodes
+     */
+    @Scheduled(fixedDelayString = "${inventory.shards.rebalance-interval-ms:10000}")
+    public void rebalanceAll() {
+        try {
+            for (Long productId : inventoryShardRepository.findShardedProductIds()) {
+                inventoryShardRepository.rebalance(productId);
+                // The product row only sees shard stock here, so this is where its status catches up
+                inventoryEngine.recompute(productId);
+            }
+            inventoryShardRepository.refreshRouting();
+        } catch (Exception e) {
+            log.error("Error rebalancing inventory shards", e);
+        }
+    }
+
+    public record ShardedInventory(
+            Long productId,
+            int stockQuantity,
+            int reservedQuantity,
+            int availableQuantity,
+            List<InventoryShardRepository.Shard> shards
+    ) {}
+}
@@ -0,0 +1,145 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CartPriceRefreshPipeline;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.BulkOperationResultDto;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.BulkPriceStockUpdateRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.InventoryShardRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository.AppliedChange;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository.BulkApplyResult;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository.PriceStockDelta;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository.ShardedStock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Applies repricing and stock-sync feeds to many products at once.
+ * All deltas go through one staged, set-based UPDATE; afterwards only the products that
+ * actually changed are re-indexed, have their inventory status recomputed and are queued
+ * for cart re-pricing, and listing caches are dropped only when a change can show in them.
+ */
+@Service
+@Slf4j
+public class ProductBulkUpdateService {
+
+    private final ProductBulkUpdateRepository productBulkUpdateRepository;
+    private final InventoryShardRepository inventoryShardRepository;
+    private final InventoryEngine inventoryEngine;
+    private final ProductSearchService productSearchService;
+    private final CartPriceRefreshPipeline cartPriceRefreshPipeline;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductBulkUpdateService(ProductBulkUpdateRepository productBulkUpdateRepository,
+                                    InventoryShardRepository inventoryShardRepository,
+                                    InventoryEngine inventoryEngine,
+                                    ProductSearchService productSearchService,
+                                    CartPriceRefreshPipeline cartPriceRefreshPipeline,
+                                    CacheManager cacheManager,
+                                    PlatformTransactionManager transactionManager) {
+        this.productBulkUpdateRepository = productBulkUpdateRepository;
+        this.inventoryShardRepository = inventoryShardRepository;
+        this.inventoryEngine = inventoryEngine;
+        this.productSearchService = productSearchService;
+        this.cartPriceRefreshPipeline = cartPriceRefreshPipeline;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Apply price, discount and stock changes; lines are numbered from 1 in request order
+     */
+    public BulkOperationResultDto applyPriceStockUpdates(BulkPriceStockUpdateRequest request) {
+        List<BulkPriceStockUpdateRequest.Item> items = request.getUpdates();
+        SortedMap<Integer, String> errors = new TreeMap<>();
+        List<PriceStockDelta> deltas = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            BulkPriceStockUpdateRequest.Item item = items.get(i);
+            int line = i + 1;
+            boolean clearDiscount = Boolean.TRUE.equals(item.getClearDiscount());
+            if (item.getProductId() == null && (item.getSku() == null || item.getSku().isBlank())) {
+                errors.put(line, "productId or sku is required");
+            } else if (item.getPrice() == null && item.getDiscountPrice() == null && !clearDiscount
+                    && item.getStockQuantity() == null) {
+                errors.put(line, "nothing to update");
+            } else if (clearDiscount && item.getDiscountPrice() != null) {
+                errors.put(line, "discountPrice and clearDiscount are mutually exclusive");
+            } else {
+                deltas.add(new PriceStockDelta(line, item.getProductId(),
+                        item.getSku() != null ? item.getSku().trim() : null,
+                        item.getPrice(), item.getDiscountPrice(), clearDiscount, item.getStockQuantity()));
+            }
+        }
+
+        Set<Long> changedIds = new LinkedHashSet<>();
+        Set<Long> priceChangedIds = new HashSet<>();
+        Set<Long> stockChangedIds = new HashSet<>();
+
+        BulkApplyResult result = transactionTemplate.execute(tx -> {
+            BulkApplyResult applied = productBulkUpdateRepository.apply(deltas);
+
+            for (AppliedChange change : applied.applied()) {
+                changedIds.add(change.productId());
+                if (change.priceChanged()) {
+                    priceChangedIds.add(change.productId());
+                }
+                if (change.stockChanged()) {
+                    stockChangedIds.add(change.productId());
+                }
+            }
+            for (ShardedStock sharded : applied.shardedStock()) {
+                if (inventoryShardRepository.setStock(sharded.productId(), sharded.stockQuantity())) {
+                    changedIds.add(sharded.productId());
+                    stockChangedIds.add(sharded.productId());
+                }
+            }
+
+            inventoryEngine.recompute(stockChangedIds);
+            productSearchService.reindex(changedIds);
+            return applied;
+        });
+
+        if (!priceChangedIds.isEmpty()) {
+            cartPriceRefreshPipeline.notifyPriceChanged(priceChangedIds);
+        }
+        if (result.applied().stream().anyMatch(AppliedChange::featured)) {
+            clearCache("featured-product");
+        }
+        if (!stockChangedIds.isEmpty()) {
+            clearCache("product-by-inventory-status");
+        }
+
+        result.unmatchedLines().forEach(line -> errors.put(line, "product not found"));
+        result.rejectedLines().forEach(line -> errors.put(line, "discount price must be less than price"));
+        int failed = errors.size();
+
+        log.info("Bulk price/stock update: {} requested, {} changed, {} unchanged, {} superseded, {} failed",
+                items.size(), changedIds.size(), items.size() - changedIds.size() - result.superseded() - failed,
+                result.superseded(), failed);
+
+        return BulkOperationResultDto.builder()
+                .totalRequested(items.size())
+                .successful(changedIds.size())
+                .failed(failed)
+                .errors(errors.entrySet().stream()
+                        .map(error -> "Line " + error.getKey() + ": " + error.getValue())
+                        .toList())
+                .successfulProductIds(new ArrayList<>(changedIds))
+                .failedProductIds(List.of())
+                .build();
+    }
+
+    private void clearCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
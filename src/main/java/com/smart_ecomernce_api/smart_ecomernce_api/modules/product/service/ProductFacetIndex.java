@@ -0,0 +1,526 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductFacetRepository.FacetDocument;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Immutable facet index over active products.
+ * Products are numbered by ordinal (position in a sorted long[] of ids) and every
+ * facet value - category, price band, inventory status, minimum rating - and every
+ * boolean flag is a bitset over those ordinals. A query ANDs the bitsets of its
+ * filters; the count of each facet value is the popcount of that value's bitset
+ * ANDed with every filter except the one on its own facet, so choosing a category
+ * still shows how many products the other categories would have.
+ *
+ * <p>{@link #withChanges} patches changed products into copies of the arrays and
+ * bitsets. A product that drops out keeps its ordinal and is cleared from the live
+ * bitset, and a new product is appended when its id is above every indexed one, so
+ * ordinals never shift between full builds.
+ */
+public final class ProductFacetIndex {
+
+    /** Upper bounds of the price bands; the last band is open-ended */
+    private static final long[] PRICE_BAND_BOUNDS_CENTS = {2_500, 5_000, 10_000, 25_000, 50_000};
+
+    private static final int MAX_RATING = 5;
+
+    private static final ProductFacetIndex EMPTY = new Builder().build();
+
+    private final long[] productIds;
+    /** Indexed document per ordinal, null once the product has dropped out */
+    private final FacetDocument[] documents;
+    private final long[] priceCents;
+    private final long[] createdAt;
+    private final float[] ratings;
+    private final Map<Long, long[]> byCategory;
+    private final Map<Long, String> categoryNames;
+    private final long[][] byPriceBand;
+    private final Map<InventoryStatus, long[]> byStatus;
+    private final long[][] byMinRating;
+    private final BitSet live;
+    private final BitSet featured;
+    private final BitSet isNew;
+    private final BitSet inStock;
+
+    private ProductFacetIndex(long[] productIds, FacetDocument[] documents,
+                              long[] priceCents, long[] createdAt, float[] ratings,
+                              Map<Long, long[]> byCategory, Map<Long, String> categoryNames,
+                              long[][] byPriceBand, Map<InventoryStatus, long[]> byStatus, long[][] byMinRating,
+                              BitSet live, BitSet featured, BitSet isNew, BitSet inStock) {
+        this.productIds = productIds;
+        this.documents = documents;
+        this.priceCents = priceCents;
+        this.createdAt = createdAt;
+        this.ratings = ratings;
+        this.byCategory = byCategory;
+        this.categoryNames = categoryNames;
+        this.byPriceBand = byPriceBand;
+        this.byStatus = byStatus;
+        this.byMinRating = byMinRating;
+        this.live = live;
+        this.featured = featured;
+        this.isNew = isNew;
+        this.inStock = inStock;
+    }
+
+    public static ProductFacetIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Number of indexed products
+     */
+    public int size() {
+        return live.cardinality();
+    }
+
+    /**
+     * A new index with the given products added or replaced, and dropped where inactive
+     */
+    public ProductFacetIndex withChanges(Collection<FacetDocument> changed) {
+        if (changed.isEmpty()) {
+            return this;
+        }
+        Map<Long, FacetDocument> latest = new TreeMap<>();
+        changed.forEach(doc -> latest.put(doc.productId(), doc));
+
+        long highestId = productIds.length > 0 ? productIds[productIds.length - 1] : Long.MIN_VALUE;
+        List<FacetDocument> appended = new ArrayList<>();
+        for (FacetDocument doc : latest.values()) {
+            if (!doc.active() || Arrays.binarySearch(productIds, doc.productId()) >= 0) {
+                continue;
+            }
+            if (doc.productId() < highestId) {
+                // It would need an ordinal in the middle; rare enough to rebuild from the documents
+                return rebuiltWith(latest.values());
+            }
+            appended.add(doc);
+        }
+
+        Draft draft = new Draft(this, productIds.length + appended.size());
+        for (FacetDocument doc : latest.values()) {
+            int ordinal = Arrays.binarySearch(productIds, doc.productId());
+            if (ordinal < 0) {
+                continue;
+            }
+            if (doc.active()) {
+                draft.put(ordinal, doc);
+            } else {
+                draft.remove(ordinal);
+            }
+        }
+        int ordinal = productIds.length;
+        for (FacetDocument doc : appended) {
+            draft.put(ordinal++, doc);
+        }
+        return draft.freeze();
+    }
+
+    private ProductFacetIndex rebuiltWith(Collection<FacetDocument> changed) {
+        Builder builder = new Builder();
+        changed.forEach(builder::add);
+        for (FacetDocument doc : documents) {
+            if (doc != null) {
+                builder.add(doc);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Filter, count facets and return one page of product ids in the requested order
+     */
+    public Result search(Query query, SortKey sortKey, boolean descending, long offset, int limit) {
+        BitSet common = (BitSet) live.clone();
+        List<Long> ranked = query.matchingProductIds();
+        if (ranked != null) {
+            common.and(ordinals(ranked));
+        }
+        applyFlag(common, featured, query.featured());
+        applyFlag(common, isNew, query.isNew());
+        applyFlag(common, inStock, query.inStock());
+
+        BitSet category = query.categoryId() != null ? fromWords(byCategory.get(query.categoryId())) : null;
+        BitSet price = query.minPrice() != null || query.maxPrice() != null
+                ? priceRange(query.minPrice(), query.maxPrice()) : null;
+        BitSet status = query.inventoryStatus() != null ? fromWords(byStatus.get(query.inventoryStatus())) : null;
+        BitSet rating = query.minRating() != null ? minRating(query.minRating()) : null;
+
+        BitSet matches = and(common, category, price, status, rating);
+
+        Facets facets = new Facets(
+                categoryCounts(and(common, price, status, rating)),
+                priceBandCounts(and(common, category, status, rating)),
+                statusCounts(and(common, category, price, rating)),
+                ratingCounts(and(common, category, price, status)));
+
+        List<Long> page = page(matches, ranked, sortKey, descending, offset, limit);
+        return new Result(page, matches.cardinality(), facets);
+    }
+
+    private List<Long> page(BitSet matches, List<Long> ranked, SortKey sortKey, boolean descending,
+                            long offset, int limit) {
+        int total = matches.cardinality();
+        if (offset >= total || limit <= 0) {
+            return List.of();
+        }
+
+        if (sortKey == SortKey.RELEVANCE && ranked != null) {
+            // Ranked ids are already in relevance order; keep the ones that passed the filters
+            List<Long> page = new ArrayList<>(limit);
+            long skipped = 0;
+            for (Long id : ranked) {
+                int ordinal = Arrays.binarySearch(productIds, id);
+                if (ordinal < 0 || !matches.get(ordinal)) {
+                    continue;
+                }
+                if (skipped++ < offset) {
+                    continue;
+                }
+                page.add(id);
+                if (page.size() == limit) {
+                    break;
+                }
+            }
+            return page;
+        }
+
+        Comparator<Integer> order = switch (sortKey) {
+            case PRICE -> Comparator.comparingLong(o -> priceCents[o]);
+            case CREATED_AT -> Comparator.comparingLong(o -> createdAt[o]);
+            case RATING -> Comparator.comparingDouble(o -> ratings[o]);
+            default -> Comparator.naturalOrder();
+        };
+        if (descending) {
+            order = order.reversed();
+        }
+        // Ordinals follow product id, so the natural order breaks ties by id
+        order = order.thenComparing(Comparator.naturalOrder());
+
+        return matches.stream().boxed()
+                .sorted(order)
+                .skip(offset)
+                .limit(limit)
+                .map(o -> productIds[o])
+                .toList();
+    }
+
+    private List<CategoryCount> categoryCounts(BitSet context) {
+        long[] words = context.toLongArray();
+        List<CategoryCount> counts = new ArrayList<>();
+        for (Map.Entry<Long, long[]> entry : byCategory.entrySet()) {
+            int count = andCardinality(words, entry.getValue());
+            if (count > 0) {
+                counts.add(new CategoryCount(entry.getKey(), categoryNames.get(entry.getKey()), count));
+            }
+        }
+        counts.sort(Comparator.comparingInt(CategoryCount::count).reversed()
+                .thenComparing(CategoryCount::categoryId));
+        return counts;
+    }
+
+    private List<PriceBandCount> priceBandCounts(BitSet context) {
+        long[] words = context.toLongArray();
+        List<PriceBandCount> counts = new ArrayList<>(byPriceBand.length);
+        for (int band = 0; band < byPriceBand.length; band++) {
+            BigDecimal min = band == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(PRICE_BAND_BOUNDS_CENTS[band - 1], 2);
+            BigDecimal max = band < PRICE_BAND_BOUNDS_CENTS.length
+                    ? BigDecimal.valueOf(PRICE_BAND_BOUNDS_CENTS[band], 2) : null;
+            counts.add(new PriceBandCount(min, max, andCardinality(words, byPriceBand[band])));
+        }
+        return counts;
+    }
+
+    private List<StatusCount> statusCounts(BitSet context) {
+        long[] words = context.toLongArray();
+        List<StatusCount> counts = new ArrayList<>(byStatus.size());
+        byStatus.forEach((status, bits) -> {
+            int count = andCardinality(words, bits);
+            if (count > 0) {
+                counts.add(new StatusCount(status, count));
+            }
+        });
+        return counts;
+    }
+
+    private List<RatingCount> ratingCounts(BitSet context) {
+        long[] words = context.toLongArray();
+        List<RatingCount> counts = new ArrayList<>(MAX_RATING - 1);
+        for (int stars = MAX_RATING - 1; stars >= 1; stars--) {
+            counts.add(new RatingCount(stars, andCardinality(words, byMinRating[stars])));
+        }
+        return counts;
+    }
+
+    private BitSet ordinals(List<Long> ids) {
+        BitSet bits = new BitSet(productIds.length);
+        for (Long id : ids) {
+            int ordinal = Arrays.binarySearch(productIds, id);
+            if (ordinal >= 0) {
+                bits.set(ordinal);
+            }
+        }
+        return bits;
+    }
+
+    private BitSet priceRange(BigDecimal min, BigDecimal max) {
+        long minCents = min != null ? toCents(min) : Long.MIN_VALUE;
+        long maxCents = max != null ? toCents(max) : Long.MAX_VALUE;
+        BitSet bits = new BitSet(productIds.length);
+        for (int o = 0; o < priceCents.length; o++) {
+            if (priceCents[o] >= minCents && priceCents[o] <= maxCents) {
+                bits.set(o);
+            }
+        }
+        return bits;
+    }
+
+    private BitSet minRating(int stars) {
+        if (stars <= 0) {
+            return null;
+        }
+        return stars > MAX_RATING ? new BitSet() : fromWords(byMinRating[stars]);
+    }
+
+    private static void applyFlag(BitSet target, BitSet flag, Boolean wanted) {
+        if (Boolean.TRUE.equals(wanted)) {
+            target.and(flag);
+        } else if (Boolean.FALSE.equals(wanted)) {
+            target.andNot(flag);
+        }
+    }
+
+    private static BitSet and(BitSet base, BitSet... filters) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static BitSet fromWords(long[] words) {
+        return words != null ? BitSet.valueOf(words) : new BitSet();
+    }
+
+    private static int andCardinality(long[] a, long[] b) {
+        int count = 0;
+        for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static int priceBand(long cents) {
+        int band = 0;
+        while (band < PRICE_BAND_BOUNDS_CENTS.length && cents >= PRICE_BAND_BOUNDS_CENTS[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    /**
+     * Collects products and freezes them into an index; inactive products are left out
+     */
+    public static final class Builder {
+
+        private final List<FacetDocument> documents = new ArrayList<>();
+        private final Set<Long> seen = new HashSet<>();
+
+        /**
+         * Add a product; later documents of the same product are ignored
+         */
+        public Builder add(FacetDocument document) {
+            if (seen.add(document.productId()) && document.active()) {
+                documents.add(document);
+            }
+            return this;
+        }
+
+        public ProductFacetIndex build() {
+            documents.sort(Comparator.comparingLong(FacetDocument::productId));
+            Draft draft = new Draft(documents.size());
+            for (int o = 0; o < documents.size(); o++) {
+                draft.put(o, documents.get(o));
+            }
+            return draft.freeze();
+        }
+    }
+
+    /**
+     * Mutable arrays and bitsets of an index being built or patched
+     */
+    private static final class Draft {
+
+        private final long[] ids;
+        private final FacetDocument[] documents;
+        private final long[] prices;
+        private final long[] created;
+        private final float[] ratingValues;
+        private final Map<Long, BitSet> categories = new HashMap<>();
+        private final Map<Long, String> names = new HashMap<>();
+        private final BitSet[] bands = new BitSet[PRICE_BAND_BOUNDS_CENTS.length + 1];
+        private final Map<InventoryStatus, BitSet> statuses = new EnumMap<>(InventoryStatus.class);
+        private final BitSet[] minRatings = new BitSet[MAX_RATING + 1];
+        private final BitSet live;
+        private final BitSet featuredBits;
+        private final BitSet newBits;
+        private final BitSet inStockBits;
+
+        Draft(int n) {
+            ids = new long[n];
+            documents = new FacetDocument[n];
+            prices = new long[n];
+            created = new long[n];
+            ratingValues = new float[n];
+            Arrays.setAll(bands, i -> new BitSet(n));
+            Arrays.setAll(minRatings, i -> new BitSet(n));
+            live = new BitSet(n);
+            featuredBits = new BitSet(n);
+            newBits = new BitSet(n);
+            inStockBits = new BitSet(n);
+        }
+
+        /**
+         * A copy of the index with room for {@code n} ordinals
+         */
+        Draft(ProductFacetIndex index, int n) {
+            ids = Arrays.copyOf(index.productIds, n);
+            documents = Arrays.copyOf(index.documents, n);
+            prices = Arrays.copyOf(index.priceCents, n);
+            created = Arrays.copyOf(index.createdAt, n);
+            ratingValues = Arrays.copyOf(index.ratings, n);
+            index.byCategory.forEach((id, words) -> categories.put(id, BitSet.valueOf(words)));
+            names.putAll(index.categoryNames);
+            Arrays.setAll(bands, i -> BitSet.valueOf(index.byPriceBand[i]));
+            index.byStatus.forEach((status, words) -> statuses.put(status, BitSet.valueOf(words)));
+            Arrays.setAll(minRatings, i -> BitSet.valueOf(index.byMinRating[i]));
+            live = (BitSet) index.live.clone();
+            featuredBits = (BitSet) index.featured.clone();
+            newBits = (BitSet) index.isNew.clone();
+            inStockBits = (BitSet) index.inStock.clone();
+        }
+
+        void put(int o, FacetDocument doc) {
+            remove(o);
+            ids[o] = doc.productId();
+            documents[o] = doc;
+            prices[o] = doc.price() != null ? toCents(doc.price()) : 0L;
+            created[o] = doc.createdAtEpochMillis();
+            ratingValues[o] = doc.averageRating() != null ? doc.averageRating().floatValue() : 0f;
+
+            if (doc.categoryId() != null) {
+                categories.computeIfAbsent(doc.categoryId(), k -> new BitSet()).set(o);
+                if (doc.categoryName() != null) {
+                    names.put(doc.categoryId(), doc.categoryName());
+                }
+            }
+            bands[priceBand(prices[o])].set(o);
+            if (doc.inventoryStatus() != null) {
+                statuses.computeIfAbsent(doc.inventoryStatus(), k -> new BitSet()).set(o);
+            }
+            for (int stars = 1; stars <= MAX_RATING && ratingValues[o] >= stars; stars++) {
+                minRatings[stars].set(o);
+            }
+            featuredBits.set(o, doc.featured());
+            newBits.set(o, doc.isNew());
+            inStockBits.set(o, doc.inStock());
+            live.set(o);
+        }
+
+        /**
+         * Clear the bits of the product at an ordinal; the ordinal itself stays taken
+         */
+        void remove(int o) {
+            FacetDocument old = documents[o];
+            if (old == null) {
+                return;
+            }
+            if (old.categoryId() != null) {
+                categories.get(old.categoryId()).clear(o);
+            }
+            bands[priceBand(prices[o])].clear(o);
+            if (old.inventoryStatus() != null) {
+                statuses.get(old.inventoryStatus()).clear(o);
+            }
+            for (BitSet bits : minRatings) {
+                bits.clear(o);
+            }
+            featuredBits.clear(o);
+            newBits.clear(o);
+            inStockBits.clear(o);
+            live.clear(o);
+            documents[o] = null;
+        }
+
+        ProductFacetIndex freeze() {
+            Map<Long, long[]> categoryWords = new HashMap<>();
+            categories.forEach((id, bits) -> {
+                if (!bits.isEmpty()) {
+                    categoryWords.put(id, bits.toLongArray());
+                }
+            });
+            Map<InventoryStatus, long[]> statusWords = new EnumMap<>(InventoryStatus.class);
+            statuses.forEach((status, bits) -> statusWords.put(status, bits.toLongArray()));
+
+            return new ProductFacetIndex(ids, documents, prices, created, ratingValues,
+                    categoryWords, names,
+                    Arrays.stream(bands).map(BitSet::toLongArray).toArray(long[][]::new),
+                    statusWords,
+                    Arrays.stream(minRatings).map(BitSet::toLongArray).toArray(long[][]::new),
+                    live, featuredBits, newBits, inStockBits);
+        }
+    }
+
+    /**
+     * Filters of a faceted search; null means "any". {@code matchingProductIds}
+     * restricts the search to the given products, most relevant first
+     */
+    public record Query(
+            Long categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            InventoryStatus inventoryStatus,
+            Integer minRating,
+            Boolean featured,
+            Boolean isNew,
+            Boolean inStock,
+            List<Long> matchingProductIds
+    ) {}
+
+    public enum SortKey {
+        ID, PRICE, CREATED_AT, RATING, RELEVANCE
+    }
+
+    public record Result(List<Long> productIds, int total, Facets facets) {}
+
+    public record Facets(
+            List<CategoryCount> categories,
+            List<PriceBandCount> priceBands,
+            List<StatusCount> inventoryStatuses,
+            List<RatingCount> ratings
+    ) {}
+
+    public record StatusCount(InventoryStatus status, int count) {}
+
+    public record CategoryCount(Long categoryId, String categoryName, int count) {}
+
+    /**
+     * Products whose effective price is at least {@code min} and below {@code max} (no upper bound when null)
+     */
+    public record PriceBandCount(BigDecimal min, BigDecimal max, int count) {}
+
+    /**
+     * Products rated {@code stars} or more on average
+     */
+    public record RatingCount(int stars, int count) {}
+}
@@ -0,0 +1,189 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.FacetedSearchRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.mapper.ProductMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductFacetRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductFacetRepository.FacetDocument;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Faceted product search. Filters and facet counts are answered from an in-memory
+ * {@link ProductFacetIndex}; keyword filters are resolved through {@link ProductSearchService}.
+ * Only the requested page of products is then loaded from the database, so the page
+ * content is always current even when the counts are up to one refresh old.
+ *
+ * <p>The index is built at startup and rebuilt hourly. In between, a short periodic
+ * refresh patches in products whose row, category or reviews changed since the last
+ * run, averaging ratings for those products only. Deleted products and review restores
+ * do not show up in that feed and wait for the hourly rebuild.
+ */
+@Service
+@Slf4j
+public class ProductFacetService {
+
+    private static final int REFRESH_LAG_SECONDS = 60;
+
+    private static final Map<String, ProductFacetIndex.SortKey> SORT_FIELDS = Map.of(
+            "id", ProductFacetIndex.SortKey.ID,
+            "price", ProductFacetIndex.SortKey.PRICE,
+            "effectivePrice", ProductFacetIndex.SortKey.PRICE,
+            "createdAt", ProductFacetIndex.SortKey.CREATED_AT,
+            "rating", ProductFacetIndex.SortKey.RATING,
+            "averageRating", ProductFacetIndex.SortKey.RATING,
+            "relevance", ProductFacetIndex.SortKey.RELEVANCE);
+
+    private final ProductFacetRepository productFacetRepository;
+    private final ProductRepository productRepository;
+    private final ProductSearchService productSearchService;
+    private final ProductMapper productMapper;
+
+    private volatile ProductFacetIndex index = ProductFacetIndex.empty();
+    private volatile LocalDateTime builtAt;
+    private volatile LocalDateTime watermark;
+
+    public ProductFacetService(ProductFacetRepository productFacetRepository,
+                               ProductRepository productRepository,
+                               ProductSearchService productSearchService,
+                               ProductMapper productMapper) {
+        this.productFacetRepository = productFacetRepository;
+        this.productRepository = productRepository;
+        this.productSearchService = productSearchService;
+        this.productMapper = productMapper;
+    }
+
+    /**
+     * Whether the index can answer the request; keyword searches also need the search index
+     */
+    public boolean isReady(FacetedSearchRequest request) {
+        return builtAt != null && (!hasKeyword(request) || productSearchService.isReady());
+    }
+
+    public FacetedResult search(FacetedSearchRequest request, Pageable pageable) {
+        if (!isReady(request)) {
+            throw new InvalidDataException("Faceted search is not available yet, please retry shortly");
+        }
+        if (request.getMinRating() != null && (request.getMinRating() < 1 || request.getMinRating() > 5)) {
+            throw new InvalidDataException("minRating must be between 1 and 5");
+        }
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice().compareTo(request.getMaxPrice()) > 0) {
+            throw new InvalidDataException("minPrice must not be greater than maxPrice");
+        }
+
+        boolean keyword = hasKeyword(request);
+        ProductFacetIndex.Query query = new ProductFacetIndex.Query(
+                request.getCategoryId(),
+                request.getMinPrice(),
+                request.getMaxPrice(),
+                request.getInventoryStatus(),
+                request.getMinRating(),
+                request.getFeatured(),
+                request.getIsNew(),
+                request.getInStock(),
+                // Totals and facet counts cover every match, so the capped result list would undercount
+                keyword ? productSearchService.searchAll(request.getSearch()) : null);
+
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(null);
+        if (!supportsSort(pageable.getSort())) {
+            throw new InvalidDataException("Unsupported sort field: " + order.getProperty()
+                    + "; use relevance, id, price, createdAt or rating");
+        }
+        ProductFacetIndex.SortKey sortKey = sortKey(order, keyword);
+        boolean descending = order != null && order.isDescending();
+
+        ProductFacetIndex.Result result = index.search(query, sortKey, descending,
+                pageable.getOffset(), pageable.getPageSize());
+
+        Map<Long, Product> byId = result.productIds().isEmpty() ? Map.of()
+                : productRepository.findAllById(result.productIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductResponse> content = result.productIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(productMapper::toDto)
+                .toList();
+
+        return new FacetedResult(new PageImpl<>(content, pageable, result.total()), result.facets());
+    }
+
+    /**
+     * Whether the first sort field, if any, is one the index can order by
+     */
+    public boolean supportsSort(Sort sort) {
+        return sort.stream().findFirst()
+                .map(order -> SORT_FIELDS.containsKey(order.getProperty()))
+                .orElse(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${product.facets.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${product.facets.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime runStart = LocalDateTime.now();
+            ProductFacetIndex.Builder builder = new ProductFacetIndex.Builder();
+            productFacetRepository.streamActiveDocuments(builder::add);
+            ProductFacetIndex fresh = builder.build();
+            index = fresh;
+            watermark = runStart;
+            builtAt = runStart;
+            log.debug("Built product facet index: {} products in {} ms",
+                    fresh.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Error building product facet index", e);
+        }
+    }
+
+    /**
+     * Patch in products changed since the last refresh, on this node or another
+     */
+    @Scheduled(initialDelayString = "${product.facets.refresh-interval-ms:60000}",
+            fixedDelayString = "${product.facets.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        if (builtAt == null) {
+            return;
+        }
+        try {
+            LocalDateTime runStart = LocalDateTime.now();
+            List<FacetDocument> changed =
+                    productFacetRepository.findDocumentsChangedSince(watermark.minusSeconds(REFRESH_LAG_SECONDS));
+            index = index.withChanges(changed);
+            watermark = runStart;
+            if (!changed.isEmpty()) {
+                log.debug("Product facet index refreshed {} products", changed.size());
+            }
+        } catch (Exception e) {
+            log.error("Error refreshing product facet index", e);
+        }
+    }
+
+    private static boolean hasKeyword(FacetedSearchRequest request) {
+        return request.getSearch() != null && !request.getSearch().isBlank();
+    }
+
+    private static ProductFacetIndex.SortKey sortKey(Sort.Order order, boolean keyword) {
+        ProductFacetIndex.SortKey sortKey = order != null
+                ? SORT_FIELDS.get(order.getProperty()) : ProductFacetIndex.SortKey.RELEVANCE;
+        return sortKey == ProductFacetIndex.SortKey.RELEVANCE && !keyword ? ProductFacetIndex.SortKey.ID : sortKey;
+    }
+
+    public record FacetedResult(Page<ProductResponse> page, ProductFacetIndex.Facets facets) {}
+}
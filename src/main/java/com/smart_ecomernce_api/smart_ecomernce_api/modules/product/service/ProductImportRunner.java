@@ -0,0 +1,50 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Runs a one-off catalog import at startup, e.g.
+ * {@code java -jar app.jar --product.import.file=/data/feed.csv.gz}. The format follows the
+ * file extension; a trailing {@code .gz} is decompressed on the fly.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "product.import.file")
+public class ProductImportRunner implements ApplicationRunner {
+
+    private final ProductImportService productImportService;
+
+    @Value("${product.import.file}")
+    private String file;
+
+    public ProductImportRunner(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path path = Path.of(file);
+        ProductImportService.Format format = ProductImportService.Format.fromFileName(path.getFileName().toString());
+        log.info("Importing products from {} as {}", path, format);
+
+        try (InputStream raw = Files.newInputStream(path);
+             InputStream in = file.endsWith(".gz") ? new GZIPInputStream(raw, 64 * 1024) : raw) {
+            ProductImportService.ImportReport report = productImportService.importCatalog(format, in);
+            report.errors().forEach(error ->
+                    log.warn("Line {} (sku {}): {}", error.line(), error.sku(), error.message()));
+            if (report.errorsTruncated()) {
+                log.warn("{} further line errors not listed", report.failed() - report.errors().size());
+            }
+        }
+    }
+}
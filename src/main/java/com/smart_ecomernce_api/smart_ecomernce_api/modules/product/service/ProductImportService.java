@@ -0,0 +1,483 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.SlugGenerator;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.repository.CategoryRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.InventoryShardRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository.ShardedStock;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductImportRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductImportRepository.ImportRow;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams a supplier catalog feed (CSV with a header row, or JSON Lines) into the products
+ * table. Lines are parsed one at a time and collected into batches; each batch is validated
+ * in parallel against an in-memory category map and upserted by SKU in one JDBC batch and
+ * its own transaction. When the database rejects a batch, its rows are retried one by one
+ * so that only the offending lines fail. Stock of products with sharded inventory is set
+ * through the shards rather than the products row. Memory is bounded by the batch size and the cap
+ * on reported errors, not by the size of the feed.
+ *
+ * <p>Recognised columns (case, {@code _} and {@code -} ignored): sku, name, price, category
+ * (id, slug or name) are required; description, discount_price, cost_price, stock_quantity,
+ * image_url, featured, is_new and is_active are optional, and when left blank an existing
+ * product keeps its current value.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("sku", "name", "price", "category");
+    private static final Map<String, String> COLUMN_ALIASES = Map.ofEntries(
+            Map.entry("categoryid", "category"),
+            Map.entry("categoryslug", "category"),
+            Map.entry("categoryname", "category"),
+            Map.entry("discountedprice", "discountprice"),
+            Map.entry("stock", "stockquantity"),
+            Map.entry("new", "isnew"),
+            Map.entry("active", "isactive"));
+
+    private final ProductImportRepository productImportRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final InventoryShardRepository inventoryShardRepository;
+    private final SlugGenerator slugGenerator;
+    private final InventoryEngine inventoryEngine;
+    private final ProductSearchService productSearchService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicReference<ImportProgress> running = new AtomicReference<>();
+    private volatile ImportReport lastReport;
+
+    @Value("${product.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${product.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ProductImportService(ProductImportRepository productImportRepository,
+                                ProductRepository productRepository,
+                                CategoryRepository categoryRepository,
+                                InventoryShardRepository inventoryShardRepository,
+                                SlugGenerator slugGenerator,
+                                InventoryEngine inventoryEngine,
+                                ProductSearchService productSearchService,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.productImportRepository = productImportRepository;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.inventoryShardRepository = inventoryShardRepository;
+        this.slugGenerator = slugGenerator;
+        this.inventoryEngine = inventoryEngine;
+        this.productSearchService = productSearchService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public enum Format {
+        CSV, JSONL;
+
+        /**
+         * Format implied by a file name such as {@code feed.csv} or {@code feed.jsonl.gz}
+         */
+        public static Format fromFileName(String fileName) {
+            String name = fileName.toLowerCase(Locale.ROOT).replaceFirst("\\.gz$", "");
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                return JSONL;
+            }
+            throw new InvalidDataException("Cannot tell the feed format of " + fileName + ", expected .csv or .jsonl");
+        }
+    }
+
+    /**
+     * Import a whole feed. Only one import runs at a time.
+     */
+    @CacheEvict(value = {"product", "categories", "featured-product"}, allEntries = true)
+    public ImportReport importCatalog(Format format, InputStream in) throws IOException {
+        ImportProgress progress = new ImportProgress(format, maxReportedErrors);
+        if (!running.compareAndSet(null, progress)) {
+            throw new InvalidDataException("A catalog import is already running");
+        }
+        try {
+            Map<String, Long> categories = loadCategoryKeys();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+            List<FeedLine> batch = new ArrayList<>(batchSize);
+
+            FeedLineSource source = format == Format.CSV ? csvSource(reader) : jsonLinesSource(reader);
+            FeedLine line;
+            while ((line = source.next(progress)) != null) {
+                batch.add(line);
+                if (batch.size() >= batchSize) {
+                    process(batch, categories, progress);
+                    batch.clear();
+                }
+            }
+            process(batch, categories, progress);
+
+            ImportReport report = progress.report();
+            lastReport = report;
+            log.info("Catalog import ({}) finished: {} lines, {} imported, {} failed in {} ms",
+                    format, report.linesRead(), report.imported(), report.failed(), report.durationMs());
+            return report;
+        } finally {
+            running.set(null);
+        }
+    }
+
+    public ImportStatus getStatus() {
+        ImportProgress current = running.get();
+        return new ImportStatus(current != null, current != null ? current.snapshot() : null, lastReport);
+    }
+
+    private void process(List<FeedLine> batch, Map<String, Long> categories, ImportProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Validated> validated = batch.parallelStream()
+                .map(line -> validate(line, categories))
+                .toList();
+
+        List<Validated> valid = new ArrayList<>(validated.size());
+        for (Validated v : validated) {
+            if (v.error() != null) {
+                progress.fail(v.line(), v.sku(), v.error());
+            } else {
+                valid.add(v);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<ImportRow> rows = valid.stream().map(Validated::row).toList();
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                setShardedStock(productImportRepository.upsertBatch(rows));
+                afterWrite(rows);
+            });
+            progress.imported(rows.size());
+        } catch (DataAccessException e) {
+            log.debug("Import batch rejected, retrying {} rows individually: {}",
+                    rows.size(), e.getMostSpecificCause().getMessage());
+            valid.forEach(v -> writeOne(v, progress));
+        }
+        log.debug("Catalog import progress: {} lines, {} imported, {} failed",
+                progress.linesRead.get(), progress.imported.get(), progress.failed.get());
+    }
+
+    private void writeOne(Validated v, ImportProgress progress) {
+        ImportRow row = v.row();
+        try {
+            try {
+                upsertOne(row);
+            } catch (DuplicateKeyException e) {
+                // SKU conflicts are upserts, so this is the generated slug clashing with another product.
+                // PostgreSQL has aborted that transaction, so the retry runs in a fresh one.
+                Integer highest = productRepository.findHighestSlugSuffix(row.slug());
+                upsertOne(withSlug(row, row.slug() + "-" + (highest != null ? highest + 1 : 1)));
+            }
+            progress.imported(1);
+        } catch (DataAccessException e) {
+            progress.fail(v.line(), v.sku(), e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void upsertOne(ImportRow row) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            setShardedStock(productImportRepository.upsert(row));
+            afterWrite(List.of(row));
+        });
+    }
+
+    private void setShardedStock(List<ShardedStock> shardedStock) {
+        for (ShardedStock sharded : shardedStock) {
+            inventoryShardRepository.setStock(sharded.productId(), sharded.stockQuantity());
+        }
+    }
+
+    private void afterWrite(List<ImportRow> rows) {
+        List<Long> ids = productImportRepository.findIdsBySkus(rows.stream().map(ImportRow::sku).toList());
+        inventoryEngine.recompute(ids);
+        productSearchService.reindex(ids);
+    }
+
+    private Validated validate(FeedLine line, Map<String, Long> categories) {
+        Map<String, String> f = line.fields();
+        String sku = trimToNull(f.get("sku"));
+        try {
+            if (sku == null || sku.length() < 3 || sku.length() > 50) {
+                throw new InvalidDataException("sku must be between 3 and 50 characters");
+            }
+            String name = trimToNull(f.get("name"));
+            if (name == null || name.length() < 2 || name.length() > 200) {
+                throw new InvalidDataException("name must be between 2 and 200 characters");
+            }
+            BigDecimal price = decimal(f, "price");
+            if (price == null || price.compareTo(new BigDecimal("0.01")) < 0) {
+                throw new InvalidDataException("price is required and must be at least 0.01");
+            }
+            BigDecimal discountPrice = decimal(f, "discountprice");
+            if (discountPrice != null && (discountPrice.signum() <= 0 || discountPrice.compareTo(price) >= 0)) {
+                throw new InvalidDataException("discount_price must be positive and less than price");
+            }
+            BigDecimal costPrice = decimal(f, "costprice");
+            if (costPrice != null && costPrice.signum() <= 0) {
+                throw new InvalidDataException("cost_price must be positive");
+            }
+            Integer stock = integer(f, "stockquantity");
+            if (stock != null && stock < 0) {
+                throw new InvalidDataException("stock_quantity cannot be negative");
+            }
+            String category = trimToNull(f.get("category"));
+            Long categoryId = category != null ? categories.get(category.toLowerCase(Locale.ROOT)) : null;
+            if (categoryId == null) {
+                throw new InvalidDataException(category == null ? "category is required" : "unknown category '" + category + "'");
+            }
+
+            ImportRow row = new ImportRow(sku, name, slugGenerator.generateSlug(name + " " + sku),
+                    trimToNull(f.get("description")), price, discountPrice, costPrice, stock, categoryId,
+                    trimToNull(f.get("imageurl")), bool(f, "featured"), bool(f, "isnew"), bool(f, "isactive"));
+            return new Validated(line.number(), sku, row, null);
+        } catch (InvalidDataException e) {
+            return new Validated(line.number(), sku, null, e.getMessage());
+        }
+    }
+
+    /**
+     * Category id, slug and name (lower-cased) to id; slugs win over names that collide with them
+     */
+    private Map<String, Long> loadCategoryKeys() {
+        Map<String, Long> keys = new HashMap<>();
+        List<Category> all = categoryRepository.findAll();
+        for (Category category : all) {
+            keys.put(String.valueOf(category.getId()), category.getId());
+            if (category.getName() != null) {
+                keys.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category.getId());
+            }
+        }
+        for (Category category : all) {
+            if (category.getSlug() != null) {
+                keys.put(category.getSlug().toLowerCase(Locale.ROOT), category.getId());
+            }
+        }
+        return keys;
+    }
+
+    private FeedLineSource csvSource(Reader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new InvalidDataException("The feed is empty");
+        }
+        List<String> columns = header.stream().map(ProductImportService::normalizeColumn).toList();
+        Set<String> missing = new TreeSet<>(REQUIRED_COLUMNS);
+        columns.forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw new InvalidDataException("The CSV header is missing required columns: " + missing);
+        }
+
+        return progress -> {
+            List<String> values;
+            while ((values = csv.next()) != null) {
+                if (values.size() == 1 && values.get(0).isBlank()) {
+                    continue;
+                }
+                progress.linesRead.incrementAndGet();
+                if (values.size() > columns.size()) {
+                    progress.fail(csv.recordLine(), null,
+                            "expected at most " + columns.size() + " fields but found " + values.size());
+                    continue;
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < values.size(); i++) {
+                    fields.put(columns.get(i), values.get(i));
+                }
+                return new FeedLine(csv.recordLine(), fields);
+            }
+            return null;
+        };
+    }
+
+    private FeedLineSource jsonLinesSource(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return progress -> {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                progress.linesRead.incrementAndGet();
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (IOException e) {
+                    progress.fail(lineNumber[0], null, "malformed JSON: " + e.getMessage());
+                    continue;
+                }
+                if (!node.isObject()) {
+                    progress.fail(lineNumber[0], null, "expected a JSON object");
+                    continue;
+                }
+                Map<String, String> fields = new HashMap<>();
+                node.fields().forEachRemaining(entry -> {
+                    if (!entry.getValue().isNull()) {
+                        fields.put(normalizeColumn(entry.getKey()), entry.getValue().asText());
+                    }
+                });
+                return new FeedLine(lineNumber[0], fields);
+            }
+            return null;
+        };
+    }
+
+    private static String normalizeColumn(String column) {
+        String key = column.trim().toLowerCase(Locale.ROOT).replace("_", "").replace("-", "").replace(" ", "");
+        return COLUMN_ALIASES.getOrDefault(key, key);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static BigDecimal decimal(Map<String, String> fields, String column) {
+        String value = trimToNull(fields.get(column));
+        if (value == null) {
+            return null;
+        }
+        try {
+            BigDecimal decimal = new BigDecimal(value);
+            if (decimal.scale() > 2 || decimal.precision() - decimal.scale() > 8) {
+                throw new InvalidDataException(column + " must fit 8 digits and 2 decimals: " + value);
+            }
+            return decimal;
+        } catch (NumberFormatException e) {
+            throw new InvalidDataException(column + " is not a number: " + value);
+        }
+    }
+
+    private static Integer integer(Map<String, String> fields, String column) {
+        String value = trimToNull(fields.get(column));
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidDataException(column + " is not a whole number: " + value);
+        }
+    }
+
+    private static Boolean bool(Map<String, String> fields, String column) {
+        String value = trimToNull(fields.get(column));
+        if (value == null) {
+            return null;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes", "y" -> true;
+            case "false", "0", "no", "n" -> false;
+            default -> throw new InvalidDataException(column + " is not a boolean: " + value);
+        };
+    }
+
+    private static ImportRow withSlug(ImportRow row, String slug) {
+        return new ImportRow(row.sku(), row.name(), slug, row.description(), row.price(), row.discountPrice(),
+                row.costPrice(), row.stockQuantity(), row.categoryId(), row.imageUrl(),
+                row.featured(), row.isNew(), row.active());
+    }
+
+    @FunctionalInterface
+    private interface FeedLineSource {
+        FeedLine next(ImportProgress progress) throws IOException;
+    }
+
+    private record FeedLine(long number, Map<String, String> fields) {}
+
+    private record Validated(long line, String sku, ImportRow row, String error) {}
+
+    /**
+     * Counters for the import in flight; read concurrently by the status endpoint
+     */
+    private static final class ImportProgress {
+
+        private final Format format;
+        private final int maxErrors;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedMillis = System.currentTimeMillis();
+        private final AtomicLong linesRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<LineError> errors = Collections.synchronizedList(new ArrayList<>());
+
+        ImportProgress(Format format, int maxErrors) {
+            this.format = format;
+            this.maxErrors = maxErrors;
+        }
+
+        void imported(int count) {
+            imported.addAndGet(count);
+        }
+
+        void fail(long line, String sku, String message) {
+            failed.incrementAndGet();
+            if (errors.size() < maxErrors) {
+                errors.add(new LineError(line, sku, message));
+            }
+        }
+
+        ImportSnapshot snapshot() {
+            return new ImportSnapshot(format, startedAt, linesRead.get(), imported.get(), failed.get());
+        }
+
+        ImportReport report() {
+            List<LineError> reported = List.copyOf(errors);
+            return new ImportReport(format, startedAt, linesRead.get(), imported.get(), failed.get(),
+                    reported, failed.get() > reported.size(), System.currentTimeMillis() - startedMillis);
+        }
+    }
+
+    public record LineError(long line, String sku, String message) {}
+
+    public record ImportSnapshot(Format format, LocalDateTime startedAt, long linesRead, long imported, long failed) {}
+
+    public record ImportReport(
+            Format format,
+            LocalDateTime startedAt,
+            long linesRead,
+            long imported,
+            long failed,
+            List<LineError> errors,
+            boolean errorsTruncated,
+            long durationMs
+    ) {}
+
+    public record ImportStatus(boolean running, ImportSnapshot current, ImportReport lastReport) {}
+}
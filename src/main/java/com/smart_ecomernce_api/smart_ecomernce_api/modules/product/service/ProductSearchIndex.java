@@ -0,0 +1,274 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, SKU, category name and description,
+ * ranked with BM25. Field matches are weighted into a single term frequency per
+ * document (name and SKU count three times a description match). The term
+ * dictionary is sorted so a query term also matches terms it is a prefix of;
+ * a term with no exact or prefix match is looked up with up to one typo (two for
+ * longer terms). Every query term must match; when none of the documents match
+ * them all, documents matching any of them are returned instead.
+ * Documents are added, replaced and removed one at a time under a write lock.
+ */
+public final class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float SKU_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_FACTOR = 0.8;
+    private static final double FUZZY_FACTOR = 0.6;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    /** term -> (product id -> weighted term frequency) */
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    /** product id -> its terms, to remove them on update */
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    private final Map<Long, Float> lengths = new HashMap<>();
+    private double totalLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Index a product, replacing any earlier version of it
+     */
+    public void put(long productId, String name, String description, String sku, String categoryName) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, ProductTextAnalyzer.terms(name), NAME_WEIGHT);
+        addField(terms, ProductTextAnalyzer.terms(description), DESCRIPTION_WEIGHT);
+        addField(terms, ProductTextAnalyzer.terms(categoryName), CATEGORY_WEIGHT);
+        addField(terms, ProductTextAnalyzer.tokenize(sku), SKU_WEIGHT);
+        if (sku != null && !sku.isBlank()) {
+            // The whole SKU as one term, so "AB-1234" matches as typed
+            terms.merge(sku.toLowerCase(Locale.ROOT).trim(), SKU_WEIGHT, Float::sum);
+        }
+        float length = 0;
+        for (float tf : terms.values()) {
+            length += tf;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            if (terms.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(productId, term.getValue());
+            }
+            documents.put(productId, terms);
+            lengths.put(productId, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Products matching the query, best first (ties by product id)
+     */
+    public List<Hit> search(String query, int limit) {
+        return matches(query, limit).hits();
+    }
+
+    /**
+     * The {@code limit} best products matching the query and the number of matches in all
+     */
+    public Matches matches(String query, int limit) {
+        List<String> tokens = ProductTextAnalyzer.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return Matches.NONE;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return Matches.NONE;
+            }
+            double avgLength = totalLength / documents.size();
+            List<Map<Long, Double>> perToken = new ArrayList<>(tokens.size());
+            for (String token : new LinkedHashSet<>(tokens)) {
+                perToken.add(scoreToken(token, avgLength));
+            }
+
+            Map<Long, Double> all = combine(perToken, true);
+            if (all.isEmpty() && perToken.size() > 1) {
+                all = combine(perToken, false);
+            }
+            List<Hit> hits = all.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(e -> new Hit(e.getKey(), e.getValue()))
+                    .toList();
+            return new Matches(hits, all.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best score of each document over the exact, prefix and fuzzy variants of one query token
+     */
+    private Map<Long, Double> scoreToken(String token, double avgLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        String stemmed = ProductTextAnalyzer.stem(token);
+        boolean exact = accumulate(scores, stemmed, 1.0, avgLength);
+        if (!stemmed.equals(token)) {
+            exact |= accumulate(scores, token, 1.0, avgLength);
+        }
+
+        int expansions = 0;
+        for (String term : postings.tailMap(token, false).keySet()) {
+            if (!term.startsWith(token) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            if (!term.equals(stemmed)) {
+                accumulate(scores, term, PREFIX_FACTOR, avgLength);
+            }
+        }
+
+        if (!exact && expansions == 0 && token.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = token.length() >= 8 ? 2 : 1;
+            for (String term : postings.keySet()) {
+                if (Math.abs(term.length() - stemmed.length()) <= maxEdits
+                        && withinEdits(stemmed, term, maxEdits)) {
+                    accumulate(scores, term, FUZZY_FACTOR, avgLength);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private boolean accumulate(Map<Long, Double> scores, String term, double factor, double avgLength) {
+        Map<Long, Float> list = postings.get(term);
+        if (list == null) {
+            return false;
+        }
+        int n = documents.size();
+        double idf = Math.log(1 + (n - list.size() + 0.5) / (list.size() + 0.5));
+        for (Map.Entry<Long, Float> posting : list.entrySet()) {
+            double tf = posting.getValue();
+            double norm = K1 * (1 - B + B * lengths.get(posting.getKey()) / avgLength);
+            double score = factor * idf * tf * (K1 + 1) / (tf + norm);
+            scores.merge(posting.getKey(), score, Math::max);
+        }
+        return true;
+    }
+
+    private static Map<Long, Double> combine(List<Map<Long, Double>> perToken, boolean requireAll) {
+        Map<Long, Double> combined = new HashMap<>();
+        Map<Long, Integer> matched = new HashMap<>();
+        for (Map<Long, Double> scores : perToken) {
+            for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                combined.merge(e.getKey(), e.getValue(), Double::sum);
+                matched.merge(e.getKey(), 1, Integer::sum);
+            }
+        }
+        if (requireAll) {
+            combined.keySet().removeIf(id -> matched.get(id) < perToken.size());
+        }
+        return combined;
+    }
+
+    /**
+     * Optimal string alignment distance of at most {@code max}, stopping early once exceeded
+     */
+    static boolean withinEdits(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        int[] prevPrev = new int[m + 1];
+        int[] prev = new int[m + 1];
+        int[] curr = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            curr[0] = i;
+            int rowMin = curr[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, curr[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prevPrev[j - 2] + 1);
+                }
+                curr[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = curr;
+            curr = recycled;
+        }
+        return prev[m] <= max;
+    }
+
+    private void removeLocked(long productId) {
+        Map<String, Float> terms = documents.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> list = postings.get(term);
+            if (list != null) {
+                list.remove(productId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        Float length = lengths.remove(productId);
+        if (length != null) {
+            totalLength -= length;
+        }
+    }
+
+    private static void addField(Map<String, Float> terms, List<String> fieldTerms, float weight) {
+        for (String term : fieldTerms) {
+            terms.merge(term, weight, Float::sum);
+        }
+    }
+
+    public record Hit(long productId, double score) {}
+
+    public record Matches(List<Hit> hits, int total) {
+        static final Matches NONE = new Matches(List.of(), 0);
+    }
+}
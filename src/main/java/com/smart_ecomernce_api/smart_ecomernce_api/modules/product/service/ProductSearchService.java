@@ -0,0 +1,179 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductSearchRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductSearchRepository.SearchDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Owns the in-process product search index. It is built from the database at
+ * startup and nightly; product writes on this node re-index the touched products
+ * once their transaction commits, and a short periodic refresh picks up products
+ * and categories changed on other nodes since the last run.
+ */
+@Service
+@Slf4j
+public class ProductSearchService {
+
+    private static final int REFRESH_LAG_SECONDS = 60;
+
+    private final ProductSearchRepository productSearchRepository;
+
+    private volatile ProductSearchIndex index = new ProductSearchIndex();
+    private volatile boolean ready;
+    private volatile LocalDateTime watermark;
+    private volatile LocalDateTime builtAt;
+
+    @Value("${product.search.max-results:1000}")
+    private int maxResults;
+
+    public ProductSearchService(ProductSearchRepository productSearchRepository) {
+        this.productSearchRepository = productSearchRepository;
+    }
+
+    /**
+     * Whether the index has been built and can answer searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of the products matching the query, most relevant first, up to {@code product.search.max-results}
+     */
+    public List<Long> search(String query) {
+        return search(query, maxResults).productIds();
+    }
+
+    /**
+     * Ids of every product matching the query, most relevant first. Not capped by
+     * {@code product.search.max-results}, for callers that filter or count the matches further
+     */
+    public List<Long> searchAll(String query) {
+        return search(query, Integer.MAX_VALUE).productIds();
+    }
+
+    /**
+     * Ids of the {@code limit} most relevant products matching the query, and how many match in all
+     */
+    public SearchMatches search(String query, int limit) {
+        ProductSearchIndex.Matches matches = index.matches(query, limit);
+        return new SearchMatches(matches.hits().stream()
+                .map(ProductSearchIndex.Hit::productId)
+                .toList(), matches.total());
+    }
+
+    /**
+     * Re-index products after the current transaction commits
+     */
+    public void reindex(Collection<Long> productIds) {
+        List<Long> ids = productIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reindexNow(ids);
+                }
+            });
+        } else {
+            reindexNow(ids);
+        }
+    }
+
+    public void reindex(Long productId) {
+        reindex(List.of(productId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${product.search.rebuild-cron:0 0 4 * * *}")
+    public synchronized void rebuild() {
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime runStart = LocalDateTime.now();
+            ProductSearchIndex fresh = new ProductSearchIndex();
+            productSearchRepository.streamActiveDocuments(doc -> put(fresh, doc));
+            index = fresh;
+            watermark = runStart;
+            builtAt = runStart;
+            ready = true;
+            log.info("Built product search index: {} products, {} terms in {} ms",
+                    fresh.size(), fresh.termCount(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Error building product search index", e);
+        }
+    }
+
+    /**
+     * Fold in products changed since the last refresh, on this node or another
+     */
+    @Scheduled(initialDelayString = "${product.search.refresh-interval-ms:30000}",
+            fixedDelayString = "${product.search.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        if (!ready) {
+            return;
+        }
+        try {
+            LocalDateTime runStart = LocalDateTime.now();
+            List<SearchDocument> changed =
+                    productSearchRepository.findDocumentsChangedSince(watermark.minusSeconds(REFRESH_LAG_SECONDS));
+            ProductSearchIndex current = index;
+            changed.forEach(doc -> put(current, doc));
+            watermark = runStart;
+            if (!changed.isEmpty()) {
+                log.debug("Product search index refreshed {} products", changed.size());
+            }
+        } catch (Exception e) {
+            log.error("Error refreshing product search index", e);
+        }
+    }
+
+    public SearchIndexStats getStats() {
+        ProductSearchIndex current = index;
+        return new SearchIndexStats(ready, current.size(), current.termCount(), builtAt, watermark);
+    }
+
+    private void reindexNow(List<Long> productIds) {
+        try {
+            ProductSearchIndex current = index;
+            Set<Long> missing = new HashSet<>(productIds);
+            for (SearchDocument doc : productSearchRepository.findDocuments(productIds)) {
+                put(current, doc);
+                missing.remove(doc.productId());
+            }
+            missing.forEach(current::remove);
+        } catch (Exception e) {
+            // The periodic refresh will catch up
+            log.error("Error re-indexing products {}", productIds, e);
+        }
+    }
+
+    private static void put(ProductSearchIndex target, SearchDocument doc) {
+        if (doc.active()) {
+            target.put(doc.productId(), doc.name(), doc.description(), doc.sku(), doc.categoryName());
+        } else {
+            target.remove(doc.productId());
+        }
+    }
+
+    public record SearchMatches(List<Long> productIds, int total) {}
+
+    public record SearchIndexStats(
+            boolean ready,
+            int products,
+            int terms,
+            LocalDateTime builtAt,
+            LocalDateTime refreshedUntil
+    ) {}
+}
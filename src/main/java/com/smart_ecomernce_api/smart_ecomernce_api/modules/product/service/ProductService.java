@@ -3,6 +3,7 @@ package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductCreateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductCriteria;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductUpdateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
 import org.springframework.data.domain.Page;
@@ -26,8 +27,17 @@ public interface ProductService {
 
     Page<ProductResponse> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
     Page<ProductResponse> advancedProductSearch(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, String search, Pageable pageable);
+
+    /**
+     * List products matching every filter set on the criteria; a name filter is
+     * resolved through the search index when it is available
+     */
+    Page<ProductResponse> filterProducts(ProductCriteria criteria, Pageable pageable);
     Page<ProductResponse> searchProducts(String search, Pageable pageable);
     Page<ProductResponse> getFeaturedProducts(Pageable pageable);
+    Page<ProductResponse> getNewProducts(Pageable pageable);
+    Page<ProductResponse> getBestsellerProducts(Pageable pageable);
+    Page<ProductResponse> getDiscountedProducts(Pageable pageable);
     void deleteProduct(Long id);
     ProductResponse reduceStock(Long productId, Integer quantity);
 
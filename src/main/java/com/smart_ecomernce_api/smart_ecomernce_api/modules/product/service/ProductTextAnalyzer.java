@@ -0,0 +1,113 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits product text into search terms: lower-cased letter/digit runs, common
+ * English stop words dropped, and a light suffix stemmer so that "shoes",
+ * "running" and "charged" match "shoe", "run" and "charge".
+ */
+public final class ProductTextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into", "is", "it",
+            "of", "on", "or", "the", "this", "to", "with");
+
+    private ProductTextAnalyzer() {
+    }
+
+    /**
+     * Lower-cased tokens in text order, stop words removed, not stemmed
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Stemmed terms of the text
+     */
+    public static List<String> terms(String text) {
+        List<String> tokens = tokenize(text);
+        tokens.replaceAll(ProductTextAnalyzer::stem);
+        return tokens;
+    }
+
+    /**
+     * Strip plural and -ing/-ed/-ly endings; tokens containing digits are left as they are
+     */
+    public static String stem(String token) {
+        if (token.length() <= 3 || !isAlphabetic(token)) {
+            return token;
+        }
+        String t = token;
+        if (t.endsWith("ies") && t.length() > 4) {
+            t = t.substring(0, t.length() - 3) + "y";
+        } else if (t.endsWith("sses")) {
+            t = t.substring(0, t.length() - 2);
+        } else if (t.endsWith("ches") || t.endsWith("shes") || t.endsWith("xes") || t.endsWith("zes")) {
+            t = t.substring(0, t.length() - 2);
+        } else if (t.endsWith("s") && !t.endsWith("ss") && !t.endsWith("us") && !t.endsWith("is")) {
+            t = t.substring(0, t.length() - 1);
+        }
+
+        if (t.endsWith("ing") && hasVowel(t, t.length() - 3) && t.length() > 5) {
+            t = undouble(t.substring(0, t.length() - 3));
+        } else if (t.endsWith("ed") && hasVowel(t, t.length() - 2) && t.length() > 4) {
+            t = undouble(t.substring(0, t.length() - 2));
+        } else if (t.endsWith("ly") && t.length() > 5) {
+            t = t.substring(0, t.length() - 2);
+        }
+        // "charge" and "charged" both end up as "charg"
+        if (t.endsWith("e") && t.length() >= 4) {
+            t = t.substring(0, t.length() - 1);
+        }
+        return t;
+    }
+
+    private static String undouble(String t) {
+        int n = t.length();
+        if (n >= 3 && t.charAt(n - 1) == t.charAt(n - 2) && "lsz".indexOf(t.charAt(n - 1)) < 0) {
+            return t.substring(0, n - 1);
+        }
+        return t;
+    }
+
+    private static boolean hasVowel(String t, int end) {
+        for (int i = 0; i < end; i++) {
+            if ("aeiouy".indexOf(t.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAlphabetic(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isLetter(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
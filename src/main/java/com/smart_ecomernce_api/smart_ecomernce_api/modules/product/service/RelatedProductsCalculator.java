@@ -0,0 +1,254 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.RelatedProductsTable.Related;
+
+import java.util.*;
+import java.util.function.LongFunction;
+
+/**
+ * Scores related-product candidates for one catalog state. Read-only after construction,
+ * so {@link #compute} may be called from several threads.
+ *
+ * <p>Candidates come from the product's own category and its neighbours in the category
+ * tree (parent, siblings and children), taking the products closest in price from each,
+ * plus whatever is frequently bought together with it. Each candidate is scored as a
+ * weighted sum of category proximity (the share of category ancestors the two have in
+ * common), price-band similarity (1 for equal prices, falling to 0 at a 3x difference)
+ * and co-purchase similarity. Only the products handed in are ever returned, so callers
+ * pass the active catalog.
+ */
+final class RelatedProductsCalculator {
+
+    static final float CATEGORY_WEIGHT = 0.5f;
+    static final float PRICE_WEIGHT = 0.2f;
+    static final float CO_PURCHASE_WEIGHT = 0.3f;
+
+    private static final double LOG_PRICE_BAND = Math.log(3.0);
+    private static final int MAX_CATEGORY_DEPTH = 32;
+    private static final int MAX_NEARBY_CATEGORIES = 8;
+
+    private final Map<Long, Item> items = new HashMap<>();
+    private final Map<Long, Long> categoryParents;
+    private final Map<Long, List<Long>> childCategories = new HashMap<>();
+    private final Map<Long, long[]> categoryPaths = new HashMap<>();
+    private final Map<Long, PriceOrder> categoryMembers = new HashMap<>();
+    private final LongFunction<Map<Long, Float>> coPurchased;
+    private final int topN;
+    private final int window;
+
+    /**
+     * @param categoryParents parent id of every category, null for roots
+     * @param coPurchased     co-purchase similarity (0..1) of the products bought with a product
+     * @param topN            length of each related list
+     * @param window          products taken from the product's own category, half as many from each nearby one
+     */
+    RelatedProductsCalculator(Collection<Item> products,
+                              Map<Long, Long> categoryParents,
+                              LongFunction<Map<Long, Float>> coPurchased,
+                              int topN,
+                              int window) {
+        this.categoryParents = categoryParents;
+        this.coPurchased = coPurchased;
+        this.topN = topN;
+        this.window = window;
+
+        categoryParents.forEach((category, parent) -> {
+            if (parent != null) {
+                childCategories.computeIfAbsent(parent, key -> new ArrayList<>()).add(category);
+            }
+        });
+        childCategories.values().forEach(Collections::sort);
+        categoryParents.keySet().forEach(category -> categoryPaths.put(category, walkUp(category)));
+
+        Map<Long, List<Item>> byCategory = new HashMap<>();
+        for (Item item : products) {
+            items.put(item.id(), item);
+            if (item.categoryId() != null) {
+                byCategory.computeIfAbsent(item.categoryId(), key -> new ArrayList<>()).add(item);
+            }
+        }
+        byCategory.forEach((category, members) -> categoryMembers.put(category, new PriceOrder(members)));
+    }
+
+    /**
+     * The best {@code topN} related products, highest score first; empty for unknown products
+     */
+    List<Related> compute(long productId) {
+        Item item = items.get(productId);
+        if (item == null) {
+            return List.of();
+        }
+
+        Set<Long> candidates = new LinkedHashSet<>();
+        if (item.categoryId() != null) {
+            for (Long category : nearbyCategories(item.categoryId(), MAX_NEARBY_CATEGORIES)) {
+                PriceOrder members = categoryMembers.get(category);
+                if (members != null) {
+                    int count = category.equals(item.categoryId()) ? window + 1 : Math.max(1, window / 2);
+                    members.nearest(item.priceCents(), count, candidates);
+                }
+            }
+        }
+        Map<Long, Float> coScores = coPurchased.apply(productId);
+        candidates.addAll(coScores.keySet());
+        candidates.remove(productId);
+
+        List<Related> scored = new ArrayList<>(candidates.size());
+        for (Long candidateId : candidates) {
+            Item candidate = items.get(candidateId);
+            if (candidate == null) {
+                continue;
+            }
+            float score = CATEGORY_WEIGHT * categoryProximity(item.categoryId(), candidate.categoryId())
+                    + PRICE_WEIGHT * priceSimilarity(item.priceCents(), candidate.priceCents())
+                    + CO_PURCHASE_WEIGHT * coScores.getOrDefault(candidateId, 0f);
+            if (score > 0f) {
+                scored.add(new Related(candidateId, score));
+            }
+        }
+        scored.sort(Comparator.comparingDouble((Related related) -> -related.score())
+                .thenComparingLong(Related::productId));
+        return scored.size() > topN ? List.copyOf(scored.subList(0, topN)) : List.copyOf(scored);
+    }
+
+    /**
+     * Categories whose products' lists can include products of the given one: the category
+     * itself, its parent, all its siblings and all its children
+     */
+    Set<Long> influencedCategories(long categoryId) {
+        return nearbyCategories(categoryId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The category, its parent, and up to {@code limit} siblings and {@code limit} children
+     */
+    private Set<Long> nearbyCategories(long categoryId, int limit) {
+        Set<Long> nearby = new LinkedHashSet<>();
+        nearby.add(categoryId);
+        Long parent = categoryParents.get(categoryId);
+        if (parent != null) {
+            nearby.add(parent);
+            limited(childCategories.get(parent), limit, nearby);
+        }
+        limited(childCategories.get(categoryId), limit, nearby);
+        return nearby;
+    }
+
+    /**
+     * Ids of the products in any of the given categories
+     */
+    Set<Long> productsIn(Collection<Long> categoryIds) {
+        Set<Long> ids = new HashSet<>();
+        for (Long category : categoryIds) {
+            PriceOrder members = categoryMembers.get(category);
+            if (members != null) {
+                for (long id : members.ids) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void limited(List<Long> categories, int limit, Set<Long> into) {
+        if (categories == null) {
+            return;
+        }
+        int added = 0;
+        for (Long category : categories) {
+            if (added == limit) {
+                break;
+            }
+            if (into.add(category)) {
+                added++;
+            }
+        }
+    }
+
+    float categoryProximity(Long a, Long b) {
+        if (a == null || b == null) {
+            return 0f;
+        }
+        if (a.equals(b)) {
+            return 1f;
+        }
+        long[] pathA = path(a);
+        long[] pathB = path(b);
+        int shared = 0;
+        while (shared < pathA.length && shared < pathB.length && pathA[shared] == pathB[shared]) {
+            shared++;
+        }
+        return (float) shared / Math.max(pathA.length, pathB.length);
+    }
+
+    static float priceSimilarity(long a, long b) {
+        if (a <= 0 || b <= 0) {
+            return 0f;
+        }
+        double ratio = (double) Math.max(a, b) / Math.min(a, b);
+        return (float) Math.max(0.0, 1.0 - Math.log(ratio) / LOG_PRICE_BAND);
+    }
+
+    private long[] path(long categoryId) {
+        long[] path = categoryPaths.get(categoryId);
+        return path != null ? path : new long[]{categoryId};
+    }
+
+    /**
+     * Category ids from the root down to the category itself
+     */
+    private long[] walkUp(long categoryId) {
+        Deque<Long> path = new ArrayDeque<>();
+        Long current = categoryId;
+        // The depth cap also guards against a cycle in bad data
+        while (current != null && path.size() < MAX_CATEGORY_DEPTH) {
+            path.addFirst(current);
+            current = categoryParents.get(current);
+        }
+        return path.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * The product columns the calculator scores on; price is the effective price in cents
+     */
+    record Item(long id, Long categoryId, long priceCents) {}
+
+    /**
+     * One category's products ordered by price, then id
+     */
+    private static final class PriceOrder {
+
+        private final long[] ids;
+        private final long[] prices;
+
+        PriceOrder(List<Item> members) {
+            List<Item> sorted = new ArrayList<>(members);
+            sorted.sort(Comparator.comparingLong(Item::priceCents).thenComparingLong(Item::id));
+            ids = new long[sorted.size()];
+            prices = new long[sorted.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = sorted.get(i).id();
+                prices[i] = sorted.get(i).priceCents();
+            }
+        }
+
+        /**
+         * Add the {@code count} products whose price is closest to the given one
+         */
+        void nearest(long price, int count, Set<Long> into) {
+            int position = Arrays.binarySearch(prices, price);
+            if (position < 0) {
+                position = -position - 1;
+            }
+            int below = position - 1;
+            int above = position;
+            for (int taken = 0; taken < count && (below >= 0 || above < ids.length); taken++) {
+                if (above >= ids.length || (below >= 0 && price - prices[below] <= prices[above] - price)) {
+                    into.add(ids[below--]);
+                } else {
+                    into.add(ids[above++]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.common.money.Money;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CoPurchaseIndex;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CoPurchaseRecommender;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.repository.CategoryRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.mapper.ProductMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.CatalogSnapshotRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.CatalogSnapshotRepository.CatalogRow;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.RelatedProductsTable.Related;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * "Related products" for product pages, precomputed into a {@link RelatedProductsTable}.
+ *
+ * <p>The table is built at startup and rebuilt hourly from every active product, scored by
+ * {@link RelatedProductsCalculator} on category-tree proximity, price band and the
+ * co-purchase index. A short periodic refresh reads products whose {@code updated_at}
+ * moved and recomputes only the lists that can have changed: those of the changed
+ * products and of the products in their own and neighbouring categories. Category tree
+ * moves trigger a full rebuild. Deletions do not show up in that feed and wait for the
+ * hourly rebuild, as do co-purchase changes; a deleted product is dropped from lists at
+ * read time, like a deactivated one.
+ */
+@Service
+@Slf4j
+public class RelatedProductsService {
+
+    private static final int REFRESH_LAG_SECONDS = 10;
+
+    private final CatalogSnapshotRepository catalogSnapshotRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final CoPurchaseRecommender coPurchaseRecommender;
+
+    /** Guarded by this; only the table is read outside the scheduled jobs */
+    private final Map<Long, RelatedProductsCalculator.Item> activeItems = new HashMap<>();
+    private Map<Long, Long> categoryParents = Map.of();
+    private boolean stale;
+
+    private volatile RelatedProductsTable table;
+    private volatile LocalDateTime watermark;
+    private volatile LocalDateTime builtAt;
+    private volatile long lastBuildMs;
+
+    @Value("${product.related.top-n:12}")
+    private int topN;
+
+    @Value("${product.related.candidate-window:40}")
+    private int candidateWindow;
+
+    public RelatedProductsService(CatalogSnapshotRepository catalogSnapshotRepository,
+                                  CategoryRepository categoryRepository,
+                                  ProductRepository productRepository,
+                                  ProductMapper productMapper,
+                                  CoPurchaseRecommender coPurchaseRecommender) {
+        this.catalogSnapshotRepository = catalogSnapshotRepository;
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.coPurchaseRecommender = coPurchaseRecommender;
+    }
+
+    /**
+     * Up to {@code limit} active products related to the given one, best first
+     * @throws ResourceNotFoundException when the product does not exist or is inactive
+     */
+    public List<ProductResponse> getRelated(Long productId, int limit) {
+        if (productRepository.findActiveById(productId).isEmpty()) {
+            throw ResourceNotFoundException.forResource("Product", productId);
+        }
+        return getRelated(List.of(productId), limit).get(0);
+    }
+
+    /**
+     * Related products for several products with one product lookup, in the order given;
+     * the limit is capped at the precomputed list length
+     */
+    public List<List<ProductResponse>> getRelated(List<Long> productIds, int limit) {
+        RelatedProductsTable current = table != null ? table : RelatedProductsTable.empty();
+        int capped = Math.min(Math.max(limit, 0), topN);
+        List<List<Related>> lists = productIds.stream()
+                .map(id -> current.related(id, capped))
+                .toList();
+
+        Set<Long> ids = lists.stream()
+                .flatMap(List::stream)
+                .map(Related::productId)
+                .collect(Collectors.toSet());
+        // A product deactivated since its list was computed is dropped rather than shown
+        Map<Long, ProductResponse> byId = productRepository.findAllById(ids).stream()
+                .filter(product -> Boolean.TRUE.equals(product.getIsActive()))
+                .collect(Collectors.toMap(Product::getId, productMapper::toDto));
+
+        return lists.stream()
+                .map(list -> list.stream()
+                        .map(related -> byId.get(related.productId()))
+                        .filter(Objects::nonNull)
+                        .toList())
+                .toList();
+    }
+
+    /**
+     * Length of the precomputed lists, used when no limit is asked for
+     */
+    public int getTopN() {
+        return topN;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${product.related.rebuild-initial-delay-ms:300000}",
+            fixedDelayString = "${product.related.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime runStart = LocalDateTime.now();
+
+            activeItems.clear();
+            catalogSnapshotRepository.streamAll(row -> {
+                if (row.active()) {
+                    activeItems.put(row.id(), toItem(row));
+                }
+            });
+            categoryParents = loadCategoryParents();
+
+            RelatedProductsCalculator calculator = calculator();
+            RelatedProductsTable.Builder builder = new RelatedProductsTable.Builder();
+            computeAll(calculator, activeItems.keySet()).forEach(builder::put);
+            RelatedProductsTable fresh = builder.build();
+
+            table = fresh;
+            stale = false;
+            watermark = runStart;
+            builtAt = runStart;
+            lastBuildMs = System.currentTimeMillis() - started;
+            log.info("Built related-products table: {} products, {} entries in {} ms",
+                    fresh.size(), fresh.entryCount(), lastBuildMs);
+        } catch (Exception e) {
+            stale = true;
+            log.error("Error building related-products table", e);
+        }
+    }
+
+    /**
+     * Recompute the lists affected by products changed since the last refresh
+     */
+    @Scheduled(initialDelayString = "${product.related.refresh-interval-ms:60000}",
+            fixedDelayString = "${product.related.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        if (table == null) {
+            return;
+        }
+        if (stale) {
+            rebuild();
+            return;
+        }
+        try {
+            LocalDateTime runStart = LocalDateTime.now();
+            Set<Long> touchedProducts = new HashSet<>();
+            Set<Long> touchedCategories = new HashSet<>();
+
+            for (CatalogRow row : catalogSnapshotRepository.findChangedSince(watermark.minusSeconds(REFRESH_LAG_SECONDS))) {
+                RelatedProductsCalculator.Item before = activeItems.get(row.id());
+                RelatedProductsCalculator.Item after = row.active() ? toItem(row) : null;
+                if (Objects.equals(before, after)) {
+                    continue;
+                }
+                touchedProducts.add(row.id());
+                if (before != null && before.categoryId() != null) {
+                    touchedCategories.add(before.categoryId());
+                }
+                if (after != null && after.categoryId() != null) {
+                    touchedCategories.add(after.categoryId());
+                }
+                if (after != null) {
+                    activeItems.put(row.id(), after);
+                } else {
+                    activeItems.remove(row.id());
+                }
+            }
+
+            if (touchedProducts.isEmpty()) {
+                watermark = runStart;
+                return;
+            }
+            Map<Long, Long> parents = loadCategoryParents();
+            if (!parents.equals(categoryParents)) {
+                log.debug("Category tree changed, rebuilding related-products table");
+                rebuild();
+                return;
+            }
+
+            RelatedProductsCalculator calculator = calculator();
+            Set<Long> influenced = new HashSet<>();
+            touchedCategories.forEach(category -> influenced.addAll(calculator.influencedCategories(category)));
+            Set<Long> affected = calculator.productsIn(influenced);
+            affected.addAll(touchedProducts);
+
+            table = table.withReplaced(computeAll(calculator, affected));
+            watermark = runStart;
+            log.debug("Related-products refresh: {} changed products, {} lists recomputed",
+                    touchedProducts.size(), affected.size());
+        } catch (Exception e) {
+            // The product map may already hold changes whose lists were not recomputed
+            stale = true;
+            log.error("Error refreshing related-products table", e);
+        }
+    }
+
+    public RelatedProductsStats getStats() {
+        RelatedProductsTable current = table;
+        return new RelatedProductsStats(current != null,
+                current != null ? current.size() : 0,
+                current != null ? current.entryCount() : 0,
+                topN, builtAt, watermark, lastBuildMs);
+    }
+
+    private RelatedProductsCalculator calculator() {
+        return new RelatedProductsCalculator(List.copyOf(activeItems.values()), categoryParents,
+                this::coPurchaseScores, topN, candidateWindow);
+    }
+
+    private Map<Long, List<Related>> computeAll(RelatedProductsCalculator calculator, Collection<Long> productIds) {
+        return productIds.parallelStream()
+                .collect(Collectors.toConcurrentMap(id -> id, calculator::compute));
+    }
+
+    private Map<Long, Float> coPurchaseScores(long productId) {
+        List<CoPurchaseIndex.Recommendation> boughtWith = coPurchaseRecommender.boughtWith(productId, topN);
+        if (boughtWith.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Float> scores = new HashMap<>();
+        boughtWith.forEach(recommendation ->
+                scores.put(recommendation.productId(), Math.min(1f, recommendation.score())));
+        return scores;
+    }
+
+    private Map<Long, Long> loadCategoryParents() {
+        Map<Long, Long> parents = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            parents.put(category.getId(), category.getParent() != null ? category.getParent().getId() : null);
+        }
+        return parents;
+    }
+
+    private static RelatedProductsCalculator.Item toItem(CatalogRow row) {
+        Money price = Money.ofNullable(row.price());
+        if (row.discountPrice() != null) {
+            Money discount = Money.of(row.discountPrice());
+            if (discount.isLessThan(price)) {
+                price = discount;
+            }
+        }
+        return new RelatedProductsCalculator.Item(row.id(), row.categoryId(), price.minorUnits());
+    }
+
+    public record RelatedProductsStats(
+            boolean ready,
+            int products,
+            int entries,
+            int topN,
+            LocalDateTime builtAt,
+            LocalDateTime refreshedUntil,
+            long lastBuildMs
+    ) {}
+}
@@ -0,0 +1,166 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import java.util.*;
+
+/**
+ * Immutable top-N related-products table.
+ * Product ids are kept sorted in a long[] and looked up by binary search; the related
+ * lists of all products are concatenated into one long[] of ids and a parallel float[]
+ * of scores, best first, with an offsets array marking where each product's list starts.
+ */
+public final class RelatedProductsTable {
+
+    private static final RelatedProductsTable EMPTY =
+            new RelatedProductsTable(new long[0], new int[]{0}, new long[0], new float[0]);
+
+    private final long[] productIds;
+    private final int[] offsets;
+    private final long[] relatedIds;
+    private final float[] scores;
+
+    private RelatedProductsTable(long[] productIds, int[] offsets, long[] relatedIds, float[] scores) {
+        this.productIds = productIds;
+        this.offsets = offsets;
+        this.relatedIds = relatedIds;
+        this.scores = scores;
+    }
+
+    public static RelatedProductsTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Number of products that have a related list
+     */
+    public int size() {
+        return productIds.length;
+    }
+
+    /**
+     * Total number of related entries across all products
+     */
+    public int entryCount() {
+        return relatedIds.length;
+    }
+
+    /**
+     * Up to {@code limit} products related to the given one, best first
+     */
+    public List<Related> related(long productId, int limit) {
+        int position = Arrays.binarySearch(productIds, productId);
+        if (position < 0 || limit <= 0) {
+            return List.of();
+        }
+        int from = offsets[position];
+        int to = Math.min(offsets[position + 1], from + limit);
+        List<Related> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(new Related(relatedIds[i], scores[i]));
+        }
+        return result;
+    }
+
+    /**
+     * A new table with the given products' lists replaced; an empty list removes the product.
+     * Untouched lists are copied array to array.
+     */
+    public RelatedProductsTable withReplaced(Map<Long, List<Related>> replaced) {
+        if (replaced.isEmpty()) {
+            return this;
+        }
+        long[] replacedIds = replaced.entrySet().stream()
+                .filter(entry -> !entry.getValue().isEmpty())
+                .mapToLong(Map.Entry::getKey)
+                .sorted()
+                .toArray();
+
+        int products = replacedIds.length;
+        int entries = 0;
+        for (long id : replacedIds) {
+            entries += replaced.get(id).size();
+        }
+        for (int p = 0; p < productIds.length; p++) {
+            if (!replaced.containsKey(productIds[p])) {
+                products++;
+                entries += offsets[p + 1] - offsets[p];
+            }
+        }
+
+        long[] ids = new long[products];
+        int[] newOffsets = new int[products + 1];
+        long[] newRelatedIds = new long[entries];
+        float[] newScores = new float[entries];
+        int out = 0;
+        int entry = 0;
+        int p = 0;
+        int r = 0;
+        while (p < productIds.length || r < replacedIds.length) {
+            if (p < productIds.length && replaced.containsKey(productIds[p])) {
+                p++;
+                continue;
+            }
+            ids[out] = p < productIds.length && (r == replacedIds.length || productIds[p] < replacedIds[r])
+                    ? productIds[p] : replacedIds[r];
+            newOffsets[out] = entry;
+            if (p < productIds.length && ids[out] == productIds[p]) {
+                int length = offsets[p + 1] - offsets[p];
+                System.arraycopy(relatedIds, offsets[p], newRelatedIds, entry, length);
+                System.arraycopy(scores, offsets[p], newScores, entry, length);
+                entry += length;
+                p++;
+            } else {
+                for (Related related : replaced.get(replacedIds[r])) {
+                    newRelatedIds[entry] = related.productId();
+                    newScores[entry] = related.score();
+                    entry++;
+                }
+                r++;
+            }
+            out++;
+        }
+        newOffsets[out] = entry;
+        return new RelatedProductsTable(ids, newOffsets, newRelatedIds, newScores);
+    }
+
+    /**
+     * A related product and how strongly it relates, higher is closer
+     */
+    public record Related(long productId, float score) {}
+
+    public static final class Builder {
+
+        private final Map<Long, List<Related>> lists = new HashMap<>();
+
+        public Builder put(long productId, List<Related> related) {
+            if (related.isEmpty()) {
+                lists.remove(productId);
+            } else {
+                lists.put(productId, related);
+            }
+            return this;
+        }
+
+        public RelatedProductsTable build() {
+            long[] ids = lists.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            int[] offsets = new int[ids.length + 1];
+            int total = 0;
+            for (int p = 0; p < ids.length; p++) {
+                offsets[p] = total;
+                total += lists.get(ids[p]).size();
+            }
+            offsets[ids.length] = total;
+
+            long[] relatedIds = new long[total];
+            float[] scores = new float[total];
+            for (int p = 0; p < ids.length; p++) {
+                int i = offsets[p];
+                for (Related related : lists.get(ids[p])) {
+                    relatedIds[i] = related.productId();
+                    scores[i] = related.score();
+                    i++;
+                }
+            }
+            return new RelatedProductsTable(ids, offsets, relatedIds, scores);
+        }
+    }
+}
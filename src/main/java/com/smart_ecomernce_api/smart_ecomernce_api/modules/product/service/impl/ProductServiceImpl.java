@@ -14,28 +14,43 @@ import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Invent
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.Product;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.ProductImage;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.mapper.ProductMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductCriteria;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.AutocompleteService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.CatalogSnapshot;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.CatalogSnapshotService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.InventoryEngine;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductSearchService;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductServiceImpl implements ProductService {
+    private static final int MAX_SLUG_ATTEMPTS = 5;
+
     private final ProductMapper productMapper;
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final SlugGenerator slugGenerator;
+    private final InventoryEngine inventoryEngine;
+    private final ProductSearchService productSearchService;
+    private final AutocompleteService autocompleteService;
+    private final CatalogSnapshotService catalogSnapshotService;
 
     @Override
     @Transactional
@@ -44,27 +59,44 @@ public class ProductServiceImpl implements ProductService {
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> ResourceNotFoundException.forResource("Category", request.getCategoryId()));
 
-        if (productRepository.findBySku(request.getSku()).isPresent()) {
-            throw new InvalidDataException("Product with SKU " + request.getSku() + " already exists");
-        }
         log.info("Creating new product: {}", request.getName());
 
-       // Generate unique slug
-        String baseSlug = slugGenerator.generateSlug(request.getName());
-        String uniqueSlug = baseSlug;
-        int counter = 1;
-        while (productRepository.existsBySlug(uniqueSlug)) {
-            uniqueSlug = baseSlug + "-" + counter++;
-        }
-
         var product = productMapper.toEntity(request);
         product.setCategory(category);
-        product.setSlug(uniqueSlug);
-        Product savedProduct = productRepository.save(product);
+        Product savedProduct = insertWithUniqueSlug(product, slugGenerator.generateSlug(request.getName()));
         log.info("Product created with id: {}", savedProduct.getId());
         return productMapper.toDto(savedProduct);
     }
 
+    /**
+     * Insert the product under the next free {@code base-N} slug. The unique constraints on
+     * slug and SKU arbitrate concurrent creates: a conflicting insert is skipped, and the slug
+     * is re-allocated unless it was the SKU that clashed.
+     */
+    private Product insertWithUniqueSlug(Product product, String baseSlug) {
+        for (int attempt = 1; ; attempt++) {
+            product.setSlug(nextFreeSlug(baseSlug));
+            Optional<Product> inserted = productRepository.insertIfAbsent(product);
+            if (inserted.isPresent()) {
+                inventoryEngine.recompute(inserted.get().getId());
+                productSearchService.reindex(inserted.get().getId());
+                return inserted.get();
+            }
+            if (product.getSku() != null && productRepository.existsBySku(product.getSku())) {
+                throw new InvalidDataException("Product with SKU " + product.getSku() + " already exists");
+            }
+            if (attempt >= MAX_SLUG_ATTEMPTS) {
+                throw new InvalidDataException("Could not allocate a unique slug for " + baseSlug + ", please retry");
+            }
+            log.debug("Slug {} was taken concurrently, re-allocating", product.getSlug());
+        }
+    }
+
+    private String nextFreeSlug(String baseSlug) {
+        Integer highestSuffix = productRepository.findHighestSlugSuffix(baseSlug);
+        return highestSuffix == null ? baseSlug : baseSlug + "-" + (highestSuffix + 1);
+    }
+
     @Override
     @Transactional
     @CacheEvict(value = {"product", "categories"}, allEntries = true)
@@ -90,7 +122,7 @@ public class ProductServiceImpl implements ProductService {
             });
         }
 
-        Product updatedProduct = productRepository.save(product);
+        Product updatedProduct = save(product);
         log.info("Product updated with id: {}", id);
         return productMapper.toDto(updatedProduct);
     }
@@ -106,6 +138,9 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
+        if (catalogSnapshotService.canServe(pageable)) {
+            return catalogSnapshotService.page(CatalogSnapshot.Listing.ALL, pageable);
+        }
         return productRepository.findAll(pageable).map(productMapper::toDto);
     }
 
@@ -139,14 +174,48 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponse> searchProducts(String keyword, Pageable pageable) {
-        return productRepository.searchProducts(keyword, pageable).map(productMapper::toDto);
+        if (keyword == null || keyword.isBlank() || !productSearchService.isReady()) {
+            return productRepository.searchProducts(keyword, pageable).map(productMapper::toDto);
+        }
+        // Ranked by relevance; only the matches up to the requested page are ranked out and loaded
+        int pageEnd = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        ProductSearchService.SearchMatches matches = productSearchService.search(keyword, pageEnd);
+        if (matches.total() > 0) {
+            autocompleteService.recordQuery(keyword);
+        }
+        List<Long> ids = matches.productIds();
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        List<ProductResponse> content = findInOrder(ids.subList(from, ids.size())).stream()
+                .map(productMapper::toDto)
+                .toList();
+        return new PageImpl<>(content, pageable, matches.total());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponse> advancedProductSearch(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, String search, Pageable pageable) {
-        return productRepository.findByAdvancedFilters(categoryId, minPrice, maxPrice, search, pageable)
-                .map(productMapper::toDto);
+        return filterProducts(ProductCriteria.builder()
+                .categoryIds(categoryId != null ? List.of(categoryId) : null)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .nameContains(search)
+                .build(), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> filterProducts(ProductCriteria criteria, Pageable pageable) {
+        String keyword = criteria.getNameContains();
+        if (keyword != null && !keyword.isBlank() && productSearchService.isReady()) {
+            // Swap the LIKE scan for the index matches; the other filters, the sort and the total still apply,
+            // so every match is passed rather than the capped result list
+            List<Long> ids = productSearchService.searchAll(keyword);
+            if (ids.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            criteria = criteria.toBuilder().nameContains(null).productIds(ids).build();
+        }
+        return productRepository.findByCriteria(criteria, pageable).map(productMapper::toDto);
     }
 
     @Override
@@ -156,6 +225,7 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> ResourceNotFoundException.forResource("Product", id));
 
         productRepository.deleteById(id);
+        productSearchService.reindex(id);
         log.info("Product deleted with id: {}", id);
     }
 
@@ -171,7 +241,7 @@ public class ProductServiceImpl implements ProductService {
         }
 
         product.setStockQuantity(product.getStockQuantity() - quantity);
-        Product updatedProduct = productRepository.save(product);
+        Product updatedProduct = save(product);
         log.info("Product stock reduced for id: {}", productId);
         return productMapper.toDto(updatedProduct);
     }
@@ -196,10 +266,40 @@ public class ProductServiceImpl implements ProductService {
     @Transactional(readOnly = true)
     public Page<ProductResponse> getFeaturedProducts(Pageable pageable) {
         log.info("Fetching featured product");
+        if (catalogSnapshotService.canServe(pageable)) {
+            return catalogSnapshotService.page(CatalogSnapshot.Listing.FEATURED, pageable);
+        }
         Page<Product> products = productRepository.findFeaturedProducts(pageable);
         return products.map(productMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getNewProducts(Pageable pageable) {
+        if (catalogSnapshotService.canServe(pageable)) {
+            return catalogSnapshotService.page(CatalogSnapshot.Listing.NEW, pageable);
+        }
+        return productRepository.findNewProducts(pageable).map(productMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getBestsellerProducts(Pageable pageable) {
+        if (catalogSnapshotService.canServe(pageable)) {
+            return catalogSnapshotService.page(CatalogSnapshot.Listing.BESTSELLER, pageable);
+        }
+        return productRepository.findBestsellerProducts(pageable).map(productMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductResponse> getDiscountedProducts(Pageable pageable) {
+        if (catalogSnapshotService.canServe(pageable)) {
+            return catalogSnapshotService.page(CatalogSnapshot.Listing.DISCOUNTED, pageable);
+        }
+        return productRepository.findDiscountedProducts(pageable).map(productMapper::toDto);
+    }
+
     /**
      * Reserve stock for order
      */
@@ -219,7 +319,7 @@ public class ProductServiceImpl implements ProductService {
         }
 
         product.reserveStock(quantity);
-        productRepository.save(product);
+        save(product);
 
         log.info("Reserved {} units. Available: {}", quantity, product.getAvailableQuantity());
     }
@@ -234,7 +334,7 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> ResourceNotFoundException.forResource("Product",productId));
 
         product.releaseReservedStock(quantity);
-        productRepository.save(product);
+        save(product);
     }
 
     /**
@@ -247,7 +347,7 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> ResourceNotFoundException.forResource("Product", productId));
 
         product.deductStock(quantity);
-        productRepository.save(product);
+        save(product);
 
         log.info("Deducted {} units. Remaining: {}", quantity, product.getStockQuantity());
     }
@@ -262,7 +362,7 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> ResourceNotFoundException.forResource("Product", productId));
 
         product.addStock(quantity);
-        productRepository.save(product);
+        save(product);
 
         log.info("Restocked. New quantity: {}", product.getStockQuantity());
     }
@@ -272,7 +372,7 @@ public class ProductServiceImpl implements ProductService {
      */
     @Transactional(readOnly = true)
     public List<Product> getLowStockProducts() {
-        return productRepository.findLowStockProducts();
+        return findInOrder(inventoryEngine.getLowStockProductIds());
     }
 
     /**
@@ -281,7 +381,33 @@ public class ProductServiceImpl implements ProductService {
     @Transactional(readOnly = true)
     @Override
     public Page<ProductResponse> getProductsNeedingReorder(Pageable pageable) {
-        return productRepository.findProductsNeedingReorder(pageable).map(productMapper::toDto);
+        // Most urgent first; the reorder set is small, so only the requested page is loaded
+        List<Long> ids = inventoryEngine.getReorderProductIds();
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<ProductResponse> content = findInOrder(ids.subList(from, to)).stream()
+                .map(productMapper::toDto)
+                .toList();
+        return new PageImpl<>(content, pageable, ids.size());
+    }
+
+    /**
+     * Save the product, bring its stored inventory status up to date and re-index it
+     */
+    private Product save(Product product) {
+        Product saved = productRepository.save(product);
+        inventoryEngine.recompute(product.getId());
+        productSearchService.reindex(product.getId());
+        return saved;
+    }
+
+    private List<Product> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
 
     /**
@@ -303,7 +429,7 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
 
         product.setStockQuantity(product.getStockQuantity() + quantity);
-        productRepository.save(product);
+        save(product);
 
         log.info("Stock restored for product {}: +{} (total: {})",
                 productId, quantity, product.getStockQuantity());
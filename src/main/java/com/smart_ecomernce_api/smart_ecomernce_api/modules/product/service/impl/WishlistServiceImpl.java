@@ -1,5 +1,6 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.impl;
 
+import com.smart_ecomernce_api.smart_ecomernce_api.common.money.Money;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.DuplicateResourceException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.*;
@@ -34,6 +35,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class WishlistServiceImpl implements WishlistService {
 
+    private static final BigDecimal ESTIMATED_TAX_PERCENT = BigDecimal.TEN;
+    private static final BigDecimal ESTIMATED_SHIPPING_PERCENT = BigDecimal.valueOf(5);
+    private static final Money MINIMUM_SHIPPING = Money.ofMinor(10_00);
+
     private final WishlistRepository wishlistRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
@@ -634,16 +639,16 @@ public class WishlistServiceImpl implements WishlistService {
         List<WishlistAnalyticsDto.CategoryAnalytics> categoryBreakdown = itemsByCategory.entrySet().stream()
                 .map(entry -> {
                     List<WishlistItem> categoryItems = entry.getValue();
-                    Double totalValue = categoryItems.stream()
-                            .mapToDouble(item -> item.getProduct().getEffectivePrice().doubleValue())
-                            .sum();
-                    Double avgPrice = totalValue / categoryItems.size();
+                    Money totalValue = Money.zero();
+                    for (WishlistItem item : categoryItems) {
+                        totalValue = totalValue.plus(item.getProduct().effectiveUnitPrice());
+                    }
 
                     return WishlistAnalyticsDto.CategoryAnalytics.builder()
                             .categoryName(entry.getKey())
                             .itemCount(categoryItems.size())
-                            .totalValue(totalValue)
-                            .averagePrice(avgPrice)
+                            .totalValue(totalValue.toBigDecimal())
+                            .averagePrice(totalValue.dividedBy(categoryItems.size()).toBigDecimal())
                             .build();
                 })
                 .collect(Collectors.toList());
@@ -694,7 +699,7 @@ public class WishlistServiceImpl implements WishlistService {
             csv.append(String.format("\"%s\",\"%s\",%.2f,%s,%d,\"%s\",%s\n",
                     product.getName(),
                     product.getSku(),
-                    product.getEffectivePrice().doubleValue(),
+                    product.getEffectivePrice(),
                     item.getPriority(),
                     item.getDesiredQuantity(),
                     item.getNotes() != null ? item.getNotes().replace("\"", "\"\"") : "",
@@ -730,17 +735,16 @@ public class WishlistServiceImpl implements WishlistService {
 
         List<WishlistItem> items = wishlistRepository.findByUserIdOrderByCreatedAtDesc(userId);
 
-        double totalOriginalPrice = items.stream()
-                .mapToDouble(item -> item.getPriceWhenAdded().doubleValue() * item.getDesiredQuantity())
-                .sum();
-
-        double totalCurrentPrice = items.stream()
-                .mapToDouble(item -> item.getProduct().getEffectivePrice().doubleValue() * item.getDesiredQuantity())
-                .sum();
+        Money totalOriginalPrice = Money.zero();
+        Money totalCurrentPrice = Money.zero();
+        for (WishlistItem item : items) {
+            totalOriginalPrice = totalOriginalPrice.plus(originalCost(item));
+            totalCurrentPrice = totalCurrentPrice.plus(currentCost(item));
+        }
 
-        double totalSavings = totalOriginalPrice - totalCurrentPrice;
-        double averageDiscount = totalOriginalPrice > 0
-                ? (totalSavings / totalOriginalPrice) * 100
+        Money totalSavings = totalOriginalPrice.minus(totalCurrentPrice);
+        double averageDiscount = totalOriginalPrice.isPositive()
+                ? totalOriginalPrice.percentageOf(totalSavings)
                 : 0.0;
 
         // Find best deals (highest savings percentage)
@@ -753,17 +757,17 @@ public class WishlistServiceImpl implements WishlistService {
 
         List<WishlistPriceComparisonDto.PriceComparisonItem> comparisonItems = items.stream()
                 .map(item -> {
-                    double originalPrice = item.getPriceWhenAdded().doubleValue() * item.getDesiredQuantity();
-                    double currentPrice = item.getProduct().getEffectivePrice().doubleValue() * item.getDesiredQuantity();
-                    double savings = originalPrice - currentPrice;
-                    double discountPercentage = originalPrice > 0 ? (savings / originalPrice) * 100 : 0.0;
+                    Money originalPrice = originalCost(item);
+                    Money currentPrice = currentCost(item);
+                    Money savings = originalPrice.minus(currentPrice);
+                    double discountPercentage = originalPrice.isPositive() ? originalPrice.percentageOf(savings) : 0.0;
 
                     return WishlistPriceComparisonDto.PriceComparisonItem.builder()
                             .productId(item.getProduct().getId())
                             .productName(item.getProduct().getName())
-                            .originalPrice(originalPrice)
-                            .currentPrice(currentPrice)
-                            .savings(savings)
+                            .originalPrice(originalPrice.toBigDecimal())
+                            .currentPrice(currentPrice.toBigDecimal())
+                            .savings(savings.toBigDecimal())
                             .discountPercentage(discountPercentage)
                             .bestDeal(item.getProduct().getId().equals(bestDealId))
                             .build();
@@ -772,9 +776,9 @@ public class WishlistServiceImpl implements WishlistService {
 
         return WishlistPriceComparisonDto.builder()
                 .totalItems(items.size())
-                .totalOriginalPrice(totalOriginalPrice)
-                .totalCurrentPrice(totalCurrentPrice)
-                .totalSavings(totalSavings)
+                .totalOriginalPrice(totalOriginalPrice.toBigDecimal())
+                .totalCurrentPrice(totalCurrentPrice.toBigDecimal())
+                .totalSavings(totalSavings.toBigDecimal())
                 .averageDiscount(averageDiscount)
                 .items(comparisonItems)
                 .build();
@@ -787,17 +791,18 @@ public class WishlistServiceImpl implements WishlistService {
 
         List<WishlistItem> items = wishlistRepository.findByUserIdOrderByCreatedAtDesc(userId);
 
-        double subtotal = items.stream()
-                .mapToDouble(item -> item.getProduct().getEffectivePrice().doubleValue() * item.getDesiredQuantity())
-                .sum();
+        Money subtotal = Money.zero();
+        for (WishlistItem item : items) {
+            subtotal = subtotal.plus(currentCost(item));
+        }
 
         // Estimated tax (10%)
-        double estimatedTax = subtotal * 0.10;
+        Money estimatedTax = subtotal.percent(ESTIMATED_TAX_PERCENT);
 
         // Estimated shipping (5% or $10 minimum)
-        double estimatedShipping = Math.max(subtotal * 0.05, 10.0);
+        Money estimatedShipping = subtotal.percent(ESTIMATED_SHIPPING_PERCENT).max(MINIMUM_SHIPPING);
 
-        double totalCost = subtotal + estimatedTax + estimatedShipping;
+        Money totalCost = subtotal.plus(estimatedTax).plus(estimatedShipping);
 
         long inStockCount = items.stream()
                 .filter(item -> item.getProduct().isInStock())
@@ -813,24 +818,25 @@ public class WishlistServiceImpl implements WishlistService {
 
         List<WishlistCostSummaryDto.PriorityBreakdown> priorityBreakdown = itemsByPriority.entrySet().stream()
                 .map(entry -> {
-                    double priorityCost = entry.getValue().stream()
-                            .mapToDouble(item -> item.getProduct().getEffectivePrice().doubleValue() * item.getDesiredQuantity())
-                            .sum();
+                    Money priorityCost = Money.zero();
+                    for (WishlistItem item : entry.getValue()) {
+                        priorityCost = priorityCost.plus(currentCost(item));
+                    }
 
                     return WishlistCostSummaryDto.PriorityBreakdown.builder()
                             .priority(entry.getKey().name())
                             .itemCount(entry.getValue().size())
-                            .totalCost(priorityCost)
+                            .totalCost(priorityCost.toBigDecimal())
                             .build();
                 })
                 .collect(Collectors.toList());
 
         return WishlistCostSummaryDto.builder()
                 .totalItems(items.size())
-                .subtotal(subtotal)
-                .estimatedTax(estimatedTax)
-                .estimatedShipping(estimatedShipping)
-                .totalCost(totalCost)
+                .subtotal(subtotal.toBigDecimal())
+                .estimatedTax(estimatedTax.toBigDecimal())
+                .estimatedShipping(estimatedShipping.toBigDecimal())
+                .totalCost(totalCost.toBigDecimal())
                 .inStockItems((int) inStockCount)
                 .outOfStockItems((int) outOfStockCount)
                 .byPriority(priorityBreakdown)
@@ -953,13 +959,14 @@ public class WishlistServiceImpl implements WishlistService {
 
     private List<WishlistItem> applyBudgetConstraint(List<WishlistItem> items, Double maxBudget) {
         List<WishlistItem> result = new ArrayList<>();
-        double currentTotal = 0.0;
+        Money budget = Money.of(BigDecimal.valueOf(maxBudget));
+        Money currentTotal = Money.zero();
 
         for (WishlistItem item : items) {
-            double itemCost = item.getProduct().getEffectivePrice().doubleValue() * item.getDesiredQuantity();
-            if (currentTotal + itemCost <= maxBudget) {
+            Money withItem = currentTotal.plus(currentCost(item));
+            if (withItem.compareTo(budget) <= 0) {
                 result.add(item);
-                currentTotal += itemCost;
+                currentTotal = withItem;
             } else {
                 break;
             }
@@ -967,5 +974,13 @@ public class WishlistServiceImpl implements WishlistService {
 
         return result;
     }
+
+    private static Money originalCost(WishlistItem item) {
+        return Money.of(item.getPriceWhenAdded()).times(item.getDesiredQuantity());
+    }
+
+    private static Money currentCost(WishlistItem item) {
+        return item.getProduct().effectiveUnitPrice().times(item.getDesiredQuantity());
+    }
 }
 
@@ -33,6 +33,8 @@ import java.util.List;
         @Index(name = "idx_review_verified", columnList = "verified_purchase"),
         @Index(name = "idx_review_approved", columnList = "approved"),
         @Index(name = "idx_review_created", columnList = "created_at"),
+        @Index(name = "idx_review_updated", columnList = "updated_at"),
+        @Index(name = "idx_review_deleted_at", columnList = "deleted_at"),
         @Index(name = "idx_review_deleted", columnList = "deleted")
 }, uniqueConstraints = {
         @UniqueConstraint(name = "uk_user_product", columnNames = {"user_id", "product_id"})
@@ -1,9 +1,12 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.impl;
 
+import com.smart_ecomernce_api.smart_ecomernce_api.common.counter.RowCountRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.counter.RowCounter;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils;
 import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.JdbcUtils.QueryResult;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
 import com.smart_ecomernce_api.smart_ecomernce_api.exception.ResourceNotFoundException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.SalesRollupRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.Role;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.entity.User;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.user.repository.UserRepository;
@@ -31,6 +34,8 @@ public class UserRepositoryImpl implements UserRepository {
     private static final Logger logger = LoggerFactory.getLogger(UserRepositoryImpl.class);
 
     private final JdbcUtils jdbcUtils;
+    private final RowCountRepository rowCountRepository;
+    private final SalesRollupRepository salesRollupRepository;
 
     // Table and column names
     private static final String TABLE_NAME = "users";
@@ -51,8 +56,11 @@ public class UserRepositoryImpl implements UserRepository {
             "SELECT id, email, username, password, first_name, last_name, phone_number, " +
                     "role, is_active, created_at, updated_at FROM " + TABLE_NAME;
 
-    public UserRepositoryImpl(JdbcUtils jdbcUtils) {
+    public UserRepositoryImpl(JdbcUtils jdbcUtils, RowCountRepository rowCountRepository,
+                              SalesRollupRepository salesRollupRepository) {
         this.jdbcUtils = jdbcUtils;
+        this.rowCountRepository = rowCountRepository;
+        this.salesRollupRepository = salesRollupRepository;
     }
 
     /**
@@ -162,9 +170,7 @@ public class UserRepositoryImpl implements UserRepository {
 
     @Override
     public long count() {
-        String query = "SELECT COUNT(*) FROM " + TABLE_NAME;
-        Long count = jdbcUtils.queryForObject(query, Long.class);
-        return count != null ? count : 0L;
+        return rowCountRepository.total(RowCounter.USERS);
     }
 
     @Override
@@ -240,13 +246,12 @@ public class UserRepositoryImpl implements UserRepository {
             throw new InvalidDataException("Failed to delete order items for user with id " + id + ": " + deleteOrderItemsResult.getError());
         }
 
-        String deleteOrdersQuery = "DELETE FROM orders WHERE user_id = ?";
-        QueryResult deleteOrdersResult = jdbcUtils.executePreparedQuery(deleteOrdersQuery, id);
-        if (deleteOrdersResult.hasError()) {
-            logger.error("Error deleting orders for user id {}: {}", id, deleteOrdersResult.getError());
-            throw new InvalidDataException("Failed to delete orders for user with id " + id + ": " + deleteOrdersResult.getError());
-        }
+        String deleteOrdersQuery = "DELETE FROM orders WHERE user_id = ? RETURNING order_date";
+        List<LocalDateTime> orderDates = jdbcUtils.query(deleteOrdersQuery,
+                (rs, rowNum) -> rs.getTimestamp("order_date").toLocalDateTime(), id);
+        salesRollupRepository.recordDeletedOrders(orderDates);
 
+        Map<Long, Boolean> wasActive = lockActiveFlags(List.of(id));
         String query = "DELETE FROM " + TABLE_NAME + " WHERE id = ?";
         QueryResult result = jdbcUtils.executePreparedQuery(query, id);
         if (result.hasError()) {
@@ -258,6 +263,10 @@ public class UserRepositoryImpl implements UserRepository {
             logger.warn("Delete user with id {} did not affect any rows", id);
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
+        rowCountRepository.add(RowCounter.USERS, -1);
+        if (Boolean.TRUE.equals(wasActive.get(id))) {
+            rowCountRepository.add(RowCounter.ACTIVE_USERS, -1);
+        }
 
         logger.info("Deleted user with id: {}", id);
     }
@@ -282,6 +291,8 @@ public class UserRepositoryImpl implements UserRepository {
     public void deleteAll() {
         String query = "DELETE FROM " + TABLE_NAME;
         jdbcUtils.executePreparedQuery(query);
+        rowCountRepository.reset(RowCounter.USERS);
+        rowCountRepository.reset(RowCounter.ACTIVE_USERS);
         logger.warn("Deleted all users from database");
     }
 
@@ -318,9 +329,8 @@ public class UserRepositoryImpl implements UserRepository {
 
     @Override
     public Long countByIsActive(boolean isActive) {
-        String query = "SELECT COUNT(*) FROM " + TABLE_NAME + " WHERE is_active = ?";
-        Long count = jdbcUtils.queryForObject(query, Long.class, isActive);
-        return count != null ? count : 0L;
+        long active = rowCountRepository.total(RowCounter.ACTIVE_USERS);
+        return isActive ? active : rowCountRepository.total(RowCounter.USERS) - active;
     }
 
 
@@ -429,6 +439,7 @@ public class UserRepositoryImpl implements UserRepository {
                 "role = :role, is_active = :isActive, updated_at = :updatedAt " +
                 "WHERE id = :id";
 
+        Map<Long, Boolean> wasActive = lockActiveFlags(users.stream().map(User::getId).toList());
         List<SqlParameterSource> batchParams = users.stream()
                 .map(user -> {
                     user.setUpdatedAt(LocalDateTime.now());
@@ -452,6 +463,14 @@ public class UserRepositoryImpl implements UserRepository {
         int[] results = jdbcUtils.batchUpdate(query, batchParams.toArray(new SqlParameterSource[0]));
         int totalUpdated = Arrays.stream(results).sum();
 
+        long activeDelta = 0;
+        for (int i = 0; i < users.size(); i++) {
+            if (results[i] > 0) {
+                activeDelta += activeDelta(wasActive.get(users.get(i).getId()), users.get(i).getIsActive());
+            }
+        }
+        rowCountRepository.add(RowCounter.ACTIVE_USERS, activeDelta);
+
         logger.info("Batch updated {} users", totalUpdated);
         return totalUpdated;
     }
@@ -496,6 +515,10 @@ public class UserRepositoryImpl implements UserRepository {
 
         if (result.getGeneratedKey() != null) {
             user.setId(result.getGeneratedKey());
+            rowCountRepository.add(RowCounter.USERS, 1);
+            if (Boolean.TRUE.equals(user.getIsActive())) {
+                rowCountRepository.add(RowCounter.ACTIVE_USERS, 1);
+            }
         } else {
             logger.error("No generated key returned for user insert! Params: {}", params);
             throw new RuntimeException("User insert failed: No generated key returned.");
@@ -530,9 +553,14 @@ public class UserRepositoryImpl implements UserRepository {
                 "role = :role, is_active = :isActive, updated_at = :updatedAt " +
                 "WHERE id = :id";
 
+        Map<Long, Boolean> wasActive = lockActiveFlags(List.of(user.getId()));
         QueryResult result = jdbcUtils.executeNamedQuery(query, params);
 
         if (!result.hasError()) {
+            if (result.getAffectedRows() > 0) {
+                rowCountRepository.add(RowCounter.ACTIVE_USERS,
+                        activeDelta(wasActive.get(user.getId()), user.getIsActive()));
+            }
             logger.info("Updated user with id: {}", user.getId());
         } else {
             logger.error("Error updating user with id {}: {}", user.getId(), result.getError());
@@ -541,6 +569,22 @@ public class UserRepositoryImpl implements UserRepository {
         return user;
     }
 
+    /**
+     * Lock the given users and read their current is_active flags, so the active-user
+     * counter can be adjusted by what the following write actually changes
+     */
+    private Map<Long, Boolean> lockActiveFlags(List<Long> ids) {
+        String query = "SELECT id, is_active FROM " + TABLE_NAME + " WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+        return jdbcUtils.query(query,
+                        (rs, rowNum) -> Map.entry(rs.getLong(COL_ID), rs.getBoolean(COL_IS_ACTIVE)),
+                        (Object) ids.toArray(new Long[0])).stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private static long activeDelta(Boolean before, Boolean after) {
+        return (Boolean.TRUE.equals(after) ? 1 : 0) - (Boolean.TRUE.equals(before) ? 1 : 0);
+    }
+
     /**
      * Build ORDER BY clause from Sort object
      */
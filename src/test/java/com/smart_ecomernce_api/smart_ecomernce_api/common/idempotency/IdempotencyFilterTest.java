@@ -0,0 +1,43 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private static final List<String> CALLER_PARAMETERS = List.of("userId", "username");
+
+    @Test
+    void scopedKey_ShouldDifferPerCaller() {
+        assertThat(IdempotencyFilter.scopedKey("principal:alice", "order-1"))
+                .isEqualTo(IdempotencyFilter.scopedKey("principal:alice", "order-1"))
+                .isNotEqualTo(IdempotencyFilter.scopedKey("principal:bob", "order-1"))
+                .isNotEqualTo(IdempotencyFilter.scopedKey(null, "order-1"))
+                .hasSize(64);
+    }
+
+    @Test
+    void scopedKey_ShouldNotLetNameAndKeyRunTogether() {
+        assertThat(IdempotencyFilter.scopedKey("ab", "c"))
+                .isNotEqualTo(IdempotencyFilter.scopedKey("a", "bc"));
+    }
+
+    @Test
+    void caller_ShouldPreferPrincipalThenCallerParameters() {
+        MockHttpServletRequest authenticated = new MockHttpServletRequest("POST", "/v1/orders");
+        authenticated.setUserPrincipal(() -> "alice");
+        authenticated.setQueryString("userId=7");
+        MockHttpServletRequest byUserId = new MockHttpServletRequest("POST", "/v1/orders");
+        byUserId.setQueryString("dryRun=true&username=bob&userId=7");
+        MockHttpServletRequest anonymous = new MockHttpServletRequest("POST", "/v1/carts");
+        anonymous.setQueryString("dryRun=true");
+
+        assertThat(IdempotencyFilter.caller(authenticated, CALLER_PARAMETERS)).isEqualTo("principal:alice");
+        assertThat(IdempotencyFilter.caller(byUserId, CALLER_PARAMETERS)).isEqualTo("userId:7");
+        assertThat(IdempotencyFilter.caller(anonymous, CALLER_PARAMETERS)).isNull();
+    }
+}
@@ -0,0 +1,40 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.common.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void arithmetic_ShouldBeExactInMinorUnits() {
+        Money total = Money.zero();
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.of(new BigDecimal("0.10")));
+        }
+
+        assertThat(total.minorUnits()).isEqualTo(100);
+        assertThat(Money.of(new BigDecimal("19.99")).times(3).toBigDecimal()).isEqualTo(new BigDecimal("59.97"));
+        assertThat(Money.ofMinor(500).minus(Money.ofMinor(750)).clampAtZero().isZero()).isTrue();
+    }
+
+    @Test
+    void rounding_ShouldBeHalfUpToMinorUnits() {
+        assertThat(Money.of(new BigDecimal("2.345")).minorUnits()).isEqualTo(235);
+        assertThat(Money.ofMinor(10_05).percent(new BigDecimal("8.25")).minorUnits()).isEqualTo(83);
+        assertThat(Money.ofMinor(10_00).dividedBy(3).minorUnits()).isEqualTo(333);
+        assertThat(Money.ofMinor(5).dividedBy(2).minorUnits()).isEqualTo(3);
+    }
+
+    @Test
+    void mixedCurrencies_ShouldBeRejected() {
+        Money euros = Money.ofMinor(100, Currency.getInstance("EUR"));
+
+        assertThatThrownBy(() -> Money.ofMinor(100).plus(euros))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
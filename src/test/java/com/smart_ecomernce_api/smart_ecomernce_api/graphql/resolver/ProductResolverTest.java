@@ -6,7 +6,11 @@ import com.smart_ecomernce_api.smart_ecomernce_api.graphql.input.ProductFilterIn
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductCreateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductUpdateRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductCriteria;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductFacetIndex;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductFacetService;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductService;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.RelatedProductsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,6 +36,12 @@ class ProductResolverTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductFacetService productFacetService;
+
+    @Mock
+    private RelatedProductsService relatedProductsService;
+
     @InjectMocks
     private ProductResolver productResolver;
 
@@ -129,26 +139,42 @@ class ProductResolverTest {
     void products_WithFilters_ShouldReturnFilteredProducts() {
         List<ProductResponse> products = List.of(productResponse);
         Page<ProductResponse> productPage = new PageImpl<>(products, PageRequest.of(0, 20), 1);
-        when(productService.advancedProductSearch(
-                eq(1L),
-                eq(new BigDecimal("10.00")),
-                eq(new BigDecimal("100.00")),
-                eq("test"),
-                any(Pageable.class)
-        )).thenReturn(productPage);
+        when(productService.filterProducts(any(ProductCriteria.class), any(Pageable.class))).thenReturn(productPage);
 
         ProductDto result = productResolver.products(pageInput, filterInput);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getPageInfo()).isNotNull();
-        verify(productService).advancedProductSearch(
-                eq(1L),
-                eq(new BigDecimal("10.00")),
-                eq(new BigDecimal("100.00")),
-                eq("test"),
-                any(Pageable.class)
-        );
+        verify(productService).filterProducts(argThat(c ->
+                c.getCategoryIds().equals(List.of(1L))
+                        && new BigDecimal("10.00").equals(c.getMinPrice())
+                        && new BigDecimal("100.00").equals(c.getMaxPrice())
+                        && "test".equals(c.getNameContains())
+                        && Boolean.FALSE.equals(c.getFeatured())
+                        && Boolean.FALSE.equals(c.getIsNew())
+                        && Boolean.TRUE.equals(c.getInStock())
+        ), any(Pageable.class));
+    }
+
+    @Test
+    void products_WithFlagFiltersOnly_ShouldUseFacetIndex() {
+        ProductFilterInput flags = new ProductFilterInput();
+        flags.setFeatured(true);
+        flags.setInStock(true);
+        Page<ProductResponse> productPage = new PageImpl<>(List.of(productResponse), PageRequest.of(0, 20), 1);
+        ProductFacetIndex.Facets facets = new ProductFacetIndex.Facets(List.of(), List.of(), List.of(), List.of());
+        when(productFacetService.isReady(any())).thenReturn(true);
+        when(productFacetService.supportsSort(any())).thenReturn(true);
+        when(productFacetService.search(argThat(r -> Boolean.TRUE.equals(r.getFeatured())
+                && Boolean.TRUE.equals(r.getInStock())), any(Pageable.class)))
+                .thenReturn(new ProductFacetService.FacetedResult(productPage, facets));
+
+        ProductDto result = productResolver.products(pageInput, flags);
+
+        assertThat(result.getContent()).hasSize(1);
+        verify(productService, never()).getAllProducts(any(Pageable.class));
+        verify(productService, never()).filterProducts(any(), any());
     }
 
     @Test
@@ -215,6 +241,22 @@ class ProductResolverTest {
         verify(productService).updateProduct(1L, updateRequest);
     }
 
+    @Test
+    void related_ShouldResolveAllProductsInOneCall() {
+        ProductResponse other = ProductResponse.builder().id(2L).name("Other Product").build();
+        ProductResponse relatedProduct = ProductResponse.builder().id(3L).name("Related Product").build();
+        when(relatedProductsService.getTopN()).thenReturn(12);
+        when(relatedProductsService.getRelated(List.of(1L, 2L), 12))
+                .thenReturn(List.of(List.of(relatedProduct), List.of()));
+
+        List<List<ProductResponse>> result = productResolver.related(List.of(productResponse, other));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0)).extracting(ProductResponse::getId).containsExactly(3L);
+        assertThat(result.get(1)).isEmpty();
+        verify(relatedProductsService).getRelated(List.of(1L, 2L), 12);
+    }
+
     @Test
     void deleteProduct_ShouldReturnTrue() {
         doNothing().when(productService).deleteProduct(1L);
@@ -0,0 +1,54 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.impl.RollupRangePlanner.Segment;
+import static com.smart_ecomernce_api.smart_ecomernce_api.modules.analytics.repository.impl.RollupRangePlanner.Source;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollupRangePlannerTest {
+
+    private static LocalDateTime at(int day, int hour, int minute) {
+        return LocalDateTime.of(2026, 3, day, hour, minute);
+    }
+
+    @Test
+    void plan_ShouldUseDaysInTheMiddleAndHoursAndRawAtTheEdges() {
+        List<Segment> plan = RollupRangePlanner.plan(at(1, 22, 30), at(4, 2, 15), at(10, 0, 0), null);
+
+        assertThat(plan).containsExactly(
+                new Segment(Source.RAW, at(1, 22, 30), at(1, 23, 0)),
+                new Segment(Source.HOUR, at(1, 23, 0), at(2, 0, 0)),
+                new Segment(Source.DAY, at(2, 0, 0), at(4, 0, 0)),
+                new Segment(Source.HOUR, at(4, 0, 0), at(4, 2, 0)),
+                new Segment(Source.RAW, at(4, 2, 0), at(4, 2, 15)));
+    }
+
+    @Test
+    void plan_ShouldReadRawRowsPastTheWatermark() {
+        List<Segment> plan = RollupRangePlanner.plan(at(1, 0, 0), at(3, 0, 0), at(2, 5, 40), null);
+
+        assertThat(plan).containsExactly(
+                new Segment(Source.DAY, at(1, 0, 0), at(2, 0, 0)),
+                new Segment(Source.HOUR, at(2, 0, 0), at(2, 5, 0)),
+                new Segment(Source.RAW, at(2, 5, 0), at(3, 0, 0)));
+    }
+
+    @Test
+    void plan_ShouldFallBackToRawWhereHourlyBucketsWerePurged() {
+        List<Segment> plan = RollupRangePlanner.plan(at(1, 20, 0), at(3, 0, 0), at(10, 0, 0), at(5, 0, 0));
+
+        assertThat(plan).containsExactly(
+                new Segment(Source.RAW, at(1, 20, 0), at(2, 0, 0)),
+                new Segment(Source.DAY, at(2, 0, 0), at(3, 0, 0)));
+    }
+
+    @Test
+    void plan_ShouldBeAllRawWhenNothingIsRolledUp() {
+        assertThat(RollupRangePlanner.plan(at(1, 0, 0), at(2, 0, 0), null, null))
+                .containsExactly(new Segment(Source.RAW, at(1, 0, 0), at(2, 0, 0)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoPurchaseIndexTest {
+
+    @Test
+    void recommend_ShouldRankMostFrequentCoPurchaseFirst() {
+        CoPurchaseIndex.Builder builder = new CoPurchaseIndex.Builder(50);
+        builder.addBasket(new long[]{1L, 2L});
+        builder.addBasket(new long[]{1L, 2L});
+        builder.addBasket(new long[]{1L, 3L});
+        builder.addBasket(new long[]{4L, 5L});
+
+        List<CoPurchaseIndex.Recommendation> result = builder.build(10).recommend(List.of(1L), 5);
+
+        assertThat(result).extracting(CoPurchaseIndex.Recommendation::productId).containsExactly(2L, 3L);
+        assertThat(result.get(0).becauseOfProductId()).isEqualTo(1L);
+    }
+
+    @Test
+    void recommend_ShouldExcludeSeedProductsAndMergeNeighborLists() {
+        CoPurchaseIndex.Builder builder = new CoPurchaseIndex.Builder(50);
+        builder.addBasket(new long[]{1L, 2L, 3L});
+        builder.addBasket(new long[]{2L, 4L});
+
+        List<CoPurchaseIndex.Recommendation> result = builder.build(10).recommend(List.of(1L, 2L), 5);
+
+        assertThat(result).extracting(CoPurchaseIndex.Recommendation::productId)
+                .doesNotContain(1L, 2L)
+                .containsExactly(3L, 4L);
+    }
+
+    @Test
+    void build_ShouldKeepOnlyTopKNeighbors() {
+        CoPurchaseIndex.Builder builder = new CoPurchaseIndex.Builder(50);
+        builder.addBasket(new long[]{1L, 2L, 3L, 4L, 5L});
+
+        CoPurchaseIndex index = builder.build(2);
+
+        assertThat(index.recommend(List.of(1L), 10)).hasSize(2);
+    }
+
+    @Test
+    void recommend_ShouldReturnEmptyForUnknownProducts() {
+        assertThat(CoPurchaseIndex.empty().recommend(List.of(42L), 5)).isEmpty();
+    }
+}
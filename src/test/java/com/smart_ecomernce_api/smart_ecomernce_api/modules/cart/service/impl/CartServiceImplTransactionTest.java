@@ -0,0 +1,35 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CartServiceImplTransactionTest {
+
+    private final AnnotationTransactionAttributeSource attributes = new AnnotationTransactionAttributeSource();
+
+    @Test
+    void createShareableCart_ShouldRunInReadWriteTransaction() throws NoSuchMethodException {
+        // The share token is inserted in this method, which a read-only connection rejects
+        Method method = CartServiceImpl.class.getMethod("createShareableCart", Long.class);
+
+        TransactionAttribute attribute = attributes.getTransactionAttribute(method, CartServiceImpl.class);
+
+        assertThat(attribute).isNotNull();
+        assertThat(attribute.isReadOnly()).isFalse();
+    }
+
+    @Test
+    void getSharedCart_ShouldStayReadOnly() throws NoSuchMethodException {
+        Method method = CartServiceImpl.class.getMethod("getSharedCart", String.class);
+
+        TransactionAttribute attribute = attributes.getTransactionAttribute(method, CartServiceImpl.class);
+
+        assertThat(attribute).isNotNull();
+        assertThat(attribute.isReadOnly()).isTrue();
+    }
+}
@@ -0,0 +1,66 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.event.consumer;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InsufficientStockException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEvent;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.entity.OrderEventType;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.StockReservationRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.InventoryEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockEventConsumerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private InventoryEngine inventoryEngine;
+
+    @InjectMocks
+    private StockEventConsumer consumer;
+
+    @Test
+    void handleBatch_ShouldFailWhenSummedDeductionFallsShort() {
+        // Stock 10: each shipment of 6 fits on its own, the sum of 12 does not
+        when(productRepository.deductStockBatch(Map.of(1L, 12))).thenReturn(List.of(1L));
+
+        assertThatThrownBy(() -> consumer.handleBatch(List.of(shipped(100L, 6), shipped(101L, 6))))
+                .isInstanceOf(InsufficientStockException.class);
+    }
+
+    @Test
+    void handle_ShouldDeductPerOrderAndFailOnlyTheShortOne() {
+        when(productRepository.deductStockBatch(Map.of(1L, 6))).thenReturn(List.of(), List.of(1L));
+
+        assertThatCode(() -> consumer.handle(shipped(100L, 6))).doesNotThrowAnyException();
+        assertThatThrownBy(() -> consumer.handle(shipped(101L, 6)))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("order 101");
+        verify(stockReservationRepository).consumeForOrders(Set.of(100L));
+    }
+
+    private static OrderEvent shipped(Long orderId, int quantity) {
+        return OrderEvent.builder()
+                .eventType(OrderEventType.ORDER_SHIPPED)
+                .orderId(orderId)
+                .items(List.of(new OrderEvent.Item(1L, quantity)))
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderNumberGeneratorTest {
+
+    private static final long JAN_15_2024 = 1_705_276_800_000L;
+
+    @Test
+    void nextOrderNumber_ShouldKeepOrdFormat() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(7, () -> JAN_15_2024);
+
+        assertThat(generator.nextOrderNumber()).matches("ORD-20240115-[0-9A-Z]{13}");
+    }
+
+    @Test
+    void nextId_ShouldStayIncreasingWhenClockStepsBack() {
+        AtomicLong clock = new AtomicLong(JAN_15_2024);
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, clock::get);
+
+        long first = generator.nextId();
+        clock.addAndGet(-5_000);
+        long second = generator.nextId();
+
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    void nextId_ShouldCarryIntoNextMillisecondWhenSequenceIsExhausted() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(1, () -> JAN_15_2024);
+
+        String previous = generator.nextOrderNumber();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextOrderNumber();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void nextId_ShouldBeUniqueAcrossThreadsAndNodes() {
+        OrderNumberGenerator nodeA = new OrderNumberGenerator(1);
+        OrderNumberGenerator nodeB = new OrderNumberGenerator(2);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 200_000).parallel()
+                .forEach(i -> ids.add(i % 2 == 0 ? nodeA.nextId() : nodeB.nextId()));
+
+        assertThat(ids).hasSize(200_000);
+    }
+
+    @Test
+    void constructor_ShouldRejectNodeOutsideRange() {
+        assertThatThrownBy(() -> new OrderNumberGenerator(OrderNumberGenerator.MAX_NODES))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.order.repository.OrderNumberRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderNumberServiceTest {
+
+    @Mock
+    private OrderNumberRepository orderNumberRepository;
+
+    @Test
+    void renewLease_ShouldClaimNewNodeIdWhenLeaseWasLost() {
+        when(orderNumberRepository.claimNodeId(eq(OrderNumberGenerator.MAX_NODES), anyString(), eq(300)))
+                .thenReturn(Optional.empty(), Optional.of(3), Optional.of(7));
+        when(orderNumberRepository.renewLease(eq(3), anyString(), eq(300))).thenReturn(false);
+
+        OrderNumberService service = new OrderNumberService(orderNumberRepository, -1, 300);
+        service.start();
+        service.renewLease();
+        service.renewLease();
+
+        verify(orderNumberRepository).renewLease(eq(3), anyString(), eq(300));
+        verify(orderNumberRepository).renewLease(eq(7), anyString(), eq(300));
+    }
+
+    @Test
+    void start_ShouldNotLeaseConfiguredNodeId() {
+        OrderNumberService service = new OrderNumberService(orderNumberRepository, 5, 300);
+        service.start();
+        service.renewLease();
+
+        verifyNoInteractions(orderNumberRepository);
+    }
+
+    @Test
+    void start_ShouldFailWhenEveryNodeIdIsHeld() {
+        when(orderNumberRepository.claimNodeId(anyInt(), anyString(), anyInt())).thenReturn(Optional.empty());
+        OrderNumberService service = new OrderNumberService(orderNumberRepository, -1, 300);
+
+        assertThatThrownBy(service::start).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void constructor_ShouldNotTouchTheDatabase() {
+        OrderNumberService service = new OrderNumberService(orderNumberRepository, -1, 300);
+        service.renewLease();
+        service.releaseLease();
+
+        verifyNoInteractions(orderNumberRepository);
+    }
+
+    @Test
+    void nextOrderNumber_ShouldClaimNodeIdWhenCalledBeforeStart() {
+        when(orderNumberRepository.claimNodeId(eq(OrderNumberGenerator.MAX_NODES), anyString(), eq(300)))
+                .thenReturn(Optional.of(4));
+        OrderNumberService service = new OrderNumberService(orderNumberRepository, -1, 300);
+
+        assertThat(service.nextOrderNumber()).isNotBlank();
+        service.start();
+
+        verify(orderNumberRepository, times(1)).claimNodeId(anyInt(), anyString(), anyInt());
+    }
+}
@@ -0,0 +1,26 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.order.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockReservationServiceTest {
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    @Test
+    void deadlineOf_ShouldRoundFractionalExpiryUp() {
+        LocalDateTime whole = LocalDateTime.of(2026, 3, 1, 10, 15, 30);
+
+        assertThat(StockReservationService.deadlineOf(whole.withNano(1_000)))
+                .isEqualTo(epochSecond(whole) + 1);
+        assertThat(StockReservationService.deadlineOf(whole.withNano(999_999_000)))
+                .isEqualTo(epochSecond(whole) + 1);
+        assertThat(StockReservationService.deadlineOf(whole)).isEqualTo(epochSecond(whole));
+    }
+}
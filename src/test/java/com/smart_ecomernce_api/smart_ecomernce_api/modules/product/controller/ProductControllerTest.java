@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductCreateRequest;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductUpdateRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductCriteria;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -135,7 +136,7 @@ class ProductControllerTest {
         // Given
         List<ProductResponse> products = List.of(productResponse);
         Page<ProductResponse> productPage = new PageImpl<>(products, PageRequest.of(0, 20), 1);
-        when(productService.advancedProductSearch(anyLong(), any(), any(), anyString(), any(Pageable.class)))
+        when(productService.filterProducts(any(ProductCriteria.class), any(Pageable.class)))
                 .thenReturn(productPage);
 
         // When & Then
@@ -149,7 +150,12 @@ class ProductControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true));
 
-        verify(productService).advancedProductSearch(anyLong(), any(), any(), anyString(), any(Pageable.class));
+        verify(productService).filterProducts(argThat(c ->
+                c.getCategoryIds().equals(List.of(1L))
+                        && new BigDecimal("10.00").compareTo(c.getMinPrice()) == 0
+                        && new BigDecimal("100.00").compareTo(c.getMaxPrice()) == 0
+                        && "test".equals(c.getNameContains())
+                        && c.getFeatured() == null), any(Pageable.class));
     }
 
     @Test
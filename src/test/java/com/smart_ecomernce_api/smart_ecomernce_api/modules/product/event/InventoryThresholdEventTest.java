@@ -0,0 +1,33 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.event;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryThresholdEventTest {
+
+    @Test
+    void between_ShouldReportLowStockOnlyWhenComingFromInStock() {
+        assertThat(InventoryThresholdEvent.Type.between(InventoryStatus.IN_STOCK, InventoryStatus.LOW_STOCK))
+                .isEqualTo(InventoryThresholdEvent.Type.LOW_STOCK);
+        assertThat(InventoryThresholdEvent.Type.between(InventoryStatus.LOW_STOCK, InventoryStatus.IN_STOCK))
+                .isNull();
+    }
+
+    @Test
+    void between_ShouldTreatBackorderAsOutOfStock() {
+        assertThat(InventoryThresholdEvent.Type.between(InventoryStatus.LOW_STOCK, InventoryStatus.BACKORDER))
+                .isEqualTo(InventoryThresholdEvent.Type.OUT_OF_STOCK);
+        assertThat(InventoryThresholdEvent.Type.between(InventoryStatus.OUT_OF_STOCK, InventoryStatus.BACKORDER))
+                .isNull();
+    }
+
+    @Test
+    void between_ShouldReportBackInStockWhenLeavingOutOfStock() {
+        assertThat(InventoryThresholdEvent.Type.between(InventoryStatus.OUT_OF_STOCK, InventoryStatus.LOW_STOCK))
+                .isEqualTo(InventoryThresholdEvent.Type.BACK_IN_STOCK);
+        assertThat(InventoryThresholdEvent.Type.between(InventoryStatus.OUT_OF_STOCK, InventoryStatus.DISCONTINUED))
+                .isNull();
+    }
+}
@@ -0,0 +1,60 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryShardAllocatorTest {
+
+    @Test
+    void spread_ShouldGiveRemainderToFirstShards() {
+        assertThat(InventoryShardAllocator.spread(10, 4)).containsExactly(3, 3, 2, 2);
+    }
+
+    @Test
+    void reserve_ShouldSpanShardsWhenNoSingleShardHasEnough() {
+        int[] stock = {5, 5, 5};
+        int[] reserved = {4, 4, 0};
+
+        boolean reservedOk = InventoryShardAllocator.reserve(stock, reserved, 6, 0);
+
+        assertThat(reservedOk).isTrue();
+        assertThat(reserved).containsExactly(5, 5, 4);
+    }
+
+    @Test
+    void reserve_ShouldLeaveShardsUntouchedWhenShort() {
+        int[] stock = {2, 2};
+        int[] reserved = {1, 1};
+
+        assertThat(InventoryShardAllocator.reserve(stock, reserved, 3, 1)).isFalse();
+        assertThat(reserved).containsExactly(1, 1);
+    }
+
+    @Test
+    void deduct_ShouldConsumeReservedUnitsFirst() {
+        int[] stock = {5, 5};
+        int[] reserved = {0, 3};
+
+        assertThat(InventoryShardAllocator.deduct(stock, reserved, 4)).isTrue();
+
+        assertThat(InventoryShardAllocator.sum(stock)).isEqualTo(6);
+        assertThat(reserved).containsExactly(0, 0);
+        assertThat(stock).containsExactly(4, 2);
+    }
+
+    @Test
+    void rebalance_ShouldKeepReservationsAndSpreadFreeUnits() {
+        int[] stock = InventoryShardAllocator.rebalance(new int[]{3, 0, 1}, 10);
+
+        assertThat(stock).containsExactly(5, 2, 3);
+        assertThat(InventoryShardAllocator.sum(stock)).isEqualTo(10);
+    }
+
+    @Test
+    void startShard_ShouldStayWithinShardCount() {
+        for (long seq = 0; seq < 1000; seq++) {
+            assertThat(InventoryShardAllocator.startShard(42L, seq, 7)).isBetween(0, 6);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.impl;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductCriteria;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductCriteriaQueryTest {
+
+    private final ProductCriteriaQuery query =
+            new ProductCriteriaQuery("SELECT p.* FROM products p", "SELECT COUNT(*) FROM products p");
+
+    @Test
+    void prepare_ShouldEmitOnlySuppliedPredicates() {
+        ProductCriteriaQuery.Statement statement = query.prepare(
+                ProductCriteria.builder().maxPrice(new BigDecimal("50")).build(), Sort.unsorted());
+
+        assertThat(statement.countSql()).isEqualTo("SELECT COUNT(*) FROM products p WHERE p.is_active = true"
+                + " AND LEAST(p.price, COALESCE(p.discount_price, p.price)) <= ?");
+        assertThat(statement.params()).containsExactly(new BigDecimal("50"));
+        assertThat(statement.pageSql()).endsWith(" ORDER BY p.id LIMIT ? OFFSET ?");
+    }
+
+    @Test
+    void prepare_ShouldShareTemplateAcrossCategoryListSizes() {
+        ProductCriteriaQuery.Statement two = query.prepare(
+                ProductCriteria.builder().categoryIds(List.of(1L, 2L)).inStock(true).build(), Sort.by("price"));
+        ProductCriteriaQuery.Statement five = query.prepare(
+                ProductCriteria.builder().categoryIds(List.of(1L, 2L, 3L, 4L, 5L)).inStock(true).build(), Sort.by("price"));
+
+        assertThat(five.pageSql()).isSameAs(two.pageSql());
+        assertThat(two.pageSql()).contains("p.category_id = ANY(?)").contains("ORDER BY p.price ASC, p.id");
+        assertThat(query.templateCount()).isEqualTo(1);
+        assertThat((Long[]) five.params().get(0)).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void prepare_ShouldEscapeLikeWildcardsAndBindFlags() {
+        ProductCriteriaQuery.Statement statement = query.prepare(
+                ProductCriteria.builder().nameContains(" 100%_Cotton ").featured(false).isNew(true).build(),
+                Sort.unsorted());
+
+        assertThat(statement.countSql()).contains("p.featured = ? AND p.is_new = ? AND LOWER(p.name) LIKE ?");
+        assertThat(statement.params()).containsExactly(false, true, "%100\\%\\_cotton%");
+        assertThat(statement.pageParams(20, 40)).endsWith(20, 40L);
+    }
+
+    @Test
+    void prepare_ShouldRejectUnknownSortProperty() {
+        assertThatThrownBy(() -> query.prepare(ProductCriteria.builder().build(), Sort.by("name; DROP TABLE products")))
+                .isInstanceOf(InvalidDataException.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompleteIndexTest {
+
+    private static List<String> texts(AutocompleteIndex index, String prefix) {
+        return index.suggest(prefix, 10).stream().map(AutocompleteIndex.Suggestion::text).toList();
+    }
+
+    @Test
+    void suggest_ShouldMatchWordStartsAndRankByWeight() {
+        AutocompleteIndex index = new AutocompleteIndex.Builder()
+                .add(AutocompleteIndex.Kind.PRODUCT, 1L, "Wireless Headphones", 5)
+                .add(AutocompleteIndex.Kind.PRODUCT, 2L, "Headband", 50)
+                .add(AutocompleteIndex.Kind.CATEGORY, 3L, "Home & Garden", 1)
+                .add(AutocompleteIndex.Kind.QUERY, null, "Head Torch", 20)
+                .build();
+
+        assertThat(texts(index, "HEAD")).containsExactly("Headband", "head torch", "Wireless Headphones");
+        assertThat(texts(index, "home g")).containsExactly("Home & Garden");
+        assertThat(texts(index, "xyz")).isEmpty();
+        assertThat(index.suggest("head", 10).get(0).id()).isEqualTo(2L);
+    }
+
+    @Test
+    void suggest_ShouldUsePrecomputedListForWideRanges() {
+        AutocompleteIndex.Builder builder = new AutocompleteIndex.Builder();
+        for (long i = 0; i < 1000; i++) {
+            builder.add(AutocompleteIndex.Kind.PRODUCT, i, "Shirt model " + i, i);
+        }
+        AutocompleteIndex index = builder.build();
+
+        List<AutocompleteIndex.Suggestion> suggestions = index.suggest("s", 3);
+
+        assertThat(suggestions).extracting(AutocompleteIndex.Suggestion::id).containsExactly(999L, 998L, 997L);
+    }
+
+    @Test
+    void withProducts_ShouldRedoPrecomputedListsOfChangedPrefixes() {
+        AutocompleteIndex.Builder builder = new AutocompleteIndex.Builder();
+        for (long i = 0; i < 1000; i++) {
+            builder.add(AutocompleteIndex.Kind.PRODUCT, i, "Shirt model " + i, i);
+        }
+        AutocompleteIndex index = builder.build();
+
+        AutocompleteIndex updated = index.withProducts(List.of(
+                new AutocompleteIndex.ProductName(999L, "Trousers", true),
+                new AutocompleteIndex.ProductName(998L, "Shirt model 998", false)));
+
+        assertThat(updated.suggest("s", 3)).extracting(AutocompleteIndex.Suggestion::id)
+                .containsExactly(997L, 996L, 995L);
+        assertThat(updated.suggest("shirt", 1)).extracting(AutocompleteIndex.Suggestion::id)
+                .containsExactly(997L);
+        assertThat(texts(updated, "tro")).containsExactly("Trousers");
+        assertThat(index.suggest("s", 1)).extracting(AutocompleteIndex.Suggestion::id).containsExactly(999L);
+    }
+
+    @Test
+    void withProducts_ShouldReplaceRenamedAndDropInactiveProducts() {
+        AutocompleteIndex index = new AutocompleteIndex.Builder()
+                .add(AutocompleteIndex.Kind.PRODUCT, 1L, "Old Lamp", 7)
+                .add(AutocompleteIndex.Kind.PRODUCT, 2L, "Desk Lamp", 3)
+                .build();
+
+        AutocompleteIndex updated = index.withProducts(List.of(
+                new AutocompleteIndex.ProductName(1L, "Floor Lamp", true),
+                new AutocompleteIndex.ProductName(2L, "Desk Lamp", false),
+                new AutocompleteIndex.ProductName(3L, "Lamp Shade", true)));
+
+        assertThat(texts(updated, "lamp")).containsExactly("Floor Lamp", "Lamp Shade");
+        assertThat(updated.suggest("floor", 1).get(0).weight()).isEqualTo(7);
+        assertThat(texts(updated, "old")).isEmpty();
+        assertThat(updated.size()).isEqualTo(2);
+        assertThat(texts(index, "old")).containsExactly("Old Lamp");
+    }
+}
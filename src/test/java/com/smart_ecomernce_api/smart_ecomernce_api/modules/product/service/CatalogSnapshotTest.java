@@ -0,0 +1,111 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductResponse;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.CatalogSnapshotRepository.CatalogRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotTest {
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new CatalogSnapshot.Builder()
+                .add(row(3L, "Cable", "9.99", null, 0, true, false, 300))
+                .add(row(1L, "Adapter", "19.99", "14.99", 5, true, true, 100))
+                .add(row(2L, "Battery", "4.50", null, 2, false, true, 200))
+                .add(row(4L, "Dock", "89.00", "95.00", 8, true, true, 400))
+                .build();
+    }
+
+    private static CatalogRow row(long id, String name, String price, String discountPrice,
+                                  int available, boolean active, boolean featured, long createdAt) {
+        return new CatalogRow(id, name, name.toLowerCase(), "SKU-" + id, null, null,
+                new BigDecimal(price), discountPrice != null ? new BigDecimal(discountPrice) : null,
+                available, available, true, active, featured, false, false,
+                10L, "electronics", "Electronics", createdAt, createdAt);
+    }
+
+    @Test
+    void page_ShouldSortAndSliceAllProducts() {
+        List<ProductResponse> page = snapshot.page(CatalogSnapshot.Listing.ALL,
+                CatalogSnapshot.SortKey.PRICE, true, 1, 2);
+
+        assertThat(page).extracting(ProductResponse::getId).containsExactly(1L, 3L);
+        assertThat(snapshot.total(CatalogSnapshot.Listing.ALL)).isEqualTo(4);
+    }
+
+    @Test
+    void page_ShouldOnlyListActiveMembers() {
+        List<ProductResponse> featured = snapshot.page(CatalogSnapshot.Listing.FEATURED,
+                CatalogSnapshot.SortKey.NAME, false, 0, 10);
+        List<ProductResponse> discounted = snapshot.page(CatalogSnapshot.Listing.DISCOUNTED,
+                CatalogSnapshot.SortKey.ID, false, 0, 10);
+
+        assertThat(featured).extracting(ProductResponse::getId).containsExactly(1L, 4L);
+        // A discount price above the list price is not a discount
+        assertThat(discounted).extracting(ProductResponse::getId).containsExactly(1L);
+    }
+
+    @Test
+    void page_ShouldMapColumnsToResponse() {
+        ProductResponse adapter = snapshot.page(CatalogSnapshot.Listing.ALL,
+                CatalogSnapshot.SortKey.ID, false, 0, 1).get(0);
+        ProductResponse cable = snapshot.page(CatalogSnapshot.Listing.ALL,
+                CatalogSnapshot.SortKey.ID, false, 2, 1).get(0);
+
+        assertThat(adapter.getPrice()).isEqualByComparingTo("19.99");
+        assertThat(adapter.getEffectivePrice()).isEqualByComparingTo("14.99");
+        assertThat(adapter.isInStock()).isTrue();
+        assertThat(adapter.getCategory().getSlug()).isEqualTo("electronics");
+        assertThat(cable.isInStock()).isFalse();
+        assertThat(cable.getDiscountPrice()).isNull();
+    }
+
+    @Test
+    void withChanges_ShouldReplaceRowsAndKeepUnchangedSnapshot() {
+        CatalogSnapshot unchanged = snapshot.withChanges(List.of(row(2L, "Battery", "4.50", null, 2, false, true, 200)));
+        CatalogSnapshot changed = snapshot.withChanges(List.of(
+                row(2L, "Battery", "4.50", null, 2, true, true, 200),
+                row(5L, "Earbuds", "29.00", null, 1, true, true, 500)));
+
+        assertThat(unchanged).isSameAs(snapshot);
+        assertThat(changed.size()).isEqualTo(5);
+        assertThat(changed.page(CatalogSnapshot.Listing.FEATURED, CatalogSnapshot.SortKey.CREATED_AT, true, 0, 10))
+                .extracting(ProductResponse::getId).containsExactly(5L, 4L, 2L, 1L);
+        assertThat(snapshot.total(CatalogSnapshot.Listing.FEATURED)).isEqualTo(2);
+    }
+
+    @Test
+    void withChanges_ShouldMatchFullBuildWhetherSplicedOrRebuilt() {
+        List<CatalogRow> changes = List.of(
+                row(1L, "Zip", "2.00", null, 5, true, false, 100),
+                row(3L, "Cable", "9.99", "7.50", 0, true, true, 300),
+                row(6L, "Hub", "9.99", null, 3, true, true, 600));
+        CatalogSnapshot spliced = snapshot.withChanges(changes);
+        CatalogSnapshot rebuilt = snapshot.withChanges(List.of(row(0L, "Belt", "1.00", null, 1, true, true, 50)));
+        CatalogSnapshot.Builder expected = new CatalogSnapshot.Builder()
+                .add(row(2L, "Battery", "4.50", null, 2, false, true, 200))
+                .add(row(4L, "Dock", "89.00", "95.00", 8, true, true, 400));
+        changes.forEach(expected::add);
+        CatalogSnapshot fresh = expected.build();
+
+        for (CatalogSnapshot.Listing listing : CatalogSnapshot.Listing.values()) {
+            assertThat(spliced.total(listing)).isEqualTo(fresh.total(listing));
+            for (CatalogSnapshot.SortKey sortKey : CatalogSnapshot.SortKey.values()) {
+                assertThat(spliced.page(listing, sortKey, false, 0, 10))
+                        .extracting(ProductResponse::getId)
+                        .containsExactlyElementsOf(fresh.page(listing, sortKey, false, 0, 10).stream()
+                                .map(ProductResponse::getId).toList());
+            }
+        }
+        assertThat(rebuilt.page(CatalogSnapshot.Listing.ALL, CatalogSnapshot.SortKey.ID, false, 0, 10))
+                .extracting(ProductResponse::getId).containsExactly(0L, 1L, 2L, 3L, 4L);
+    }
+}
@@ -0,0 +1,34 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void next_ShouldHandleQuotedFieldsAndTrackLines() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "sku,name,price\r\nSKU-1,\"Desk, oak\",10\r\nSKU-2,\"Lamp \"\"XL\"\"\nwith shade\",5"));
+
+        assertThat(reader.next()).containsExactly("sku", "name", "price");
+        assertThat(reader.recordLine()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("SKU-1", "Desk, oak", "10");
+        assertThat(reader.recordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("SKU-2", "Lamp \"XL\"\nwith shade", "5");
+        assertThat(reader.recordLine()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void next_ShouldRejectUnterminatedQuote() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("sku\n\"open"));
+        reader.next();
+
+        assertThatThrownBy(reader::next).isInstanceOf(IOException.class).hasMessageContaining("line 2");
+    }
+}
@@ -0,0 +1,79 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.cart.service.CartPriceRefreshPipeline;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.BulkOperationResultDto;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.BulkPriceStockUpdateRequest;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.InventoryShardRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository.AppliedChange;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository.BulkApplyResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkUpdateServiceTest {
+
+    @Mock
+    private ProductBulkUpdateRepository productBulkUpdateRepository;
+
+    @Mock
+    private InventoryShardRepository inventoryShardRepository;
+
+    @Mock
+    private InventoryEngine inventoryEngine;
+
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private CartPriceRefreshPipeline cartPriceRefreshPipeline;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductBulkUpdateService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProductBulkUpdateService(productBulkUpdateRepository, inventoryShardRepository, inventoryEngine,
+                productSearchService, cartPriceRefreshPipeline, cacheManager, transactionManager);
+    }
+
+    @Test
+    void applyPriceStockUpdates_ShouldFollowUpOnlyChangedProducts() {
+        BulkPriceStockUpdateRequest request = new BulkPriceStockUpdateRequest(List.of(
+                BulkPriceStockUpdateRequest.Item.builder().productId(1L).price(new BigDecimal("9.99")).build(),
+                BulkPriceStockUpdateRequest.Item.builder().sku("SKU-2").stockQuantity(5).build(),
+                BulkPriceStockUpdateRequest.Item.builder().sku("SKU-3").build(),
+                BulkPriceStockUpdateRequest.Item.builder().sku("SKU-4").stockQuantity(0).build()));
+        when(productBulkUpdateRepository.apply(anyList())).thenReturn(new BulkApplyResult(
+                List.of(new AppliedChange(1L, true, false, false), new AppliedChange(2L, false, true, false)),
+                List.of(), List.of(4), List.of(), 0));
+
+        BulkOperationResultDto result = service.applyPriceStockUpdates(request);
+
+        assertThat(result.getSuccessful()).isEqualTo(2);
+        assertThat(result.getSuccessfulProductIds()).containsExactly(1L, 2L);
+        assertThat(result.getErrors()).containsExactly("Line 3: nothing to update", "Line 4: product not found");
+        verify(productBulkUpdateRepository).apply(argThat(deltas -> deltas.size() == 3));
+        verify(cartPriceRefreshPipeline).notifyPriceChanged(Set.of(1L));
+        verify(inventoryEngine).recompute(Set.of(2L));
+        verify(cacheManager, never()).getCache("featured-product");
+    }
+}
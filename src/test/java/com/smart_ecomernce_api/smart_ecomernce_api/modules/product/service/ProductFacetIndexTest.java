@@ -0,0 +1,140 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.entity.InventoryStatus;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductFacetRepository.FacetDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex.Builder()
+                .add(doc(1L, 10L, "19.99", InventoryStatus.IN_STOCK, true, false, true, 4.5, 100))
+                .add(doc(2L, 10L, "79.00", InventoryStatus.LOW_STOCK, false, true, true, 3.2, 200))
+                .add(doc(3L, 20L, "79.00", InventoryStatus.OUT_OF_STOCK, true, false, false, null, 300))
+                .add(doc(4L, 20L, "650.00", InventoryStatus.IN_STOCK, false, false, true, 4.0, 400))
+                .build();
+    }
+
+    private static FacetDocument doc(long id, long categoryId, String price, InventoryStatus status,
+                                     boolean featured, boolean isNew, boolean inStock,
+                                     Double rating, long createdAt) {
+        return new FacetDocument(id, categoryId, "Category " + categoryId, new BigDecimal(price),
+                status, featured, isNew, inStock, rating, createdAt, true);
+    }
+
+    private static FacetDocument inactive(long id) {
+        return new FacetDocument(id, null, null, null, null, false, false, false, null, 0, false);
+    }
+
+    private static ProductFacetIndex.Query query(Long categoryId, Boolean featured, Boolean inStock) {
+        return new ProductFacetIndex.Query(categoryId, null, null, null, null, featured, null, inStock, null);
+    }
+
+    @Test
+    void search_ShouldApplyFlagFilters() {
+        ProductFacetIndex.Result result = index.search(query(null, true, true),
+                ProductFacetIndex.SortKey.ID, false, 0, 10);
+
+        assertThat(result.productIds()).containsExactly(1L);
+        assertThat(result.total()).isEqualTo(1);
+    }
+
+    @Test
+    void search_ShouldCountOtherCategoriesWhenOneIsSelected() {
+        ProductFacetIndex.Result result = index.search(query(10L, null, null),
+                ProductFacetIndex.SortKey.ID, false, 0, 10);
+
+        assertThat(result.productIds()).containsExactly(1L, 2L);
+        assertThat(result.facets().categories())
+                .extracting(ProductFacetIndex.CategoryCount::categoryId, ProductFacetIndex.CategoryCount::count)
+                .containsExactlyInAnyOrder(
+                        tuple(10L, 2),
+                        tuple(20L, 2));
+        // Other facets are narrowed by the category filter
+        assertThat(result.facets().inventoryStatuses())
+                .extracting(ProductFacetIndex.StatusCount::status)
+                .containsExactlyInAnyOrder(InventoryStatus.IN_STOCK, InventoryStatus.LOW_STOCK);
+    }
+
+    @Test
+    void search_ShouldCountPriceBandsAndCumulativeRatings() {
+        ProductFacetIndex.Result result = index.search(query(null, null, null),
+                ProductFacetIndex.SortKey.ID, false, 0, 10);
+
+        assertThat(result.facets().priceBands())
+                .extracting(ProductFacetIndex.PriceBandCount::count)
+                .containsExactly(1, 0, 2, 0, 0, 1);
+        assertThat(result.facets().ratings())
+                .extracting(ProductFacetIndex.RatingCount::stars, ProductFacetIndex.RatingCount::count)
+                .containsExactly(
+                        tuple(4, 2),
+                        tuple(3, 3),
+                        tuple(2, 3),
+                        tuple(1, 3));
+    }
+
+    @Test
+    void search_ShouldSortAndPage() {
+        ProductFacetIndex.Result result = index.search(query(null, null, null),
+                ProductFacetIndex.SortKey.PRICE, true, 1, 2);
+
+        assertThat(result.productIds()).containsExactly(2L, 3L);
+        assertThat(result.total()).isEqualTo(4);
+    }
+
+    @Test
+    void search_ShouldKeepRelevanceOrderOfMatchingIds() {
+        ProductFacetIndex.Query query = new ProductFacetIndex.Query(
+                null, null, null, null, null, null, null, true, List.of(4L, 3L, 1L, 99L));
+
+        ProductFacetIndex.Result result = index.search(query, ProductFacetIndex.SortKey.RELEVANCE, false, 0, 10);
+
+        assertThat(result.productIds()).containsExactly(4L, 1L);
+    }
+
+    @Test
+    void withChanges_ShouldPatchReplaceDropAndAppendProducts() {
+        ProductFacetIndex patched = index.withChanges(List.of(
+                doc(2L, 20L, "79.00", InventoryStatus.IN_STOCK, true, false, true, 3.2, 200),
+                inactive(3L),
+                doc(5L, 10L, "5.00", InventoryStatus.IN_STOCK, true, false, true, null, 500)));
+
+        ProductFacetIndex.Result result = patched.search(query(null, true, null),
+                ProductFacetIndex.SortKey.ID, false, 0, 10);
+
+        assertThat(result.productIds()).containsExactly(1L, 2L, 5L);
+        assertThat(patched.size()).isEqualTo(4);
+        assertThat(result.facets().categories())
+                .extracting(ProductFacetIndex.CategoryCount::categoryId, ProductFacetIndex.CategoryCount::count)
+                .containsExactlyInAnyOrder(
+                        tuple(10L, 2),
+                        tuple(20L, 1));
+        // The original index is left as it was
+        assertThat(index.search(query(null, true, null), ProductFacetIndex.SortKey.ID, false, 0, 10).productIds())
+                .containsExactly(1L, 3L);
+    }
+
+    @Test
+    void withChanges_ShouldRebuildWhenANewIdFallsBetweenIndexedOnes() {
+        ProductFacetIndex small = new ProductFacetIndex.Builder()
+                .add(doc(1L, 10L, "19.99", InventoryStatus.IN_STOCK, false, false, true, null, 100))
+                .add(doc(9L, 10L, "29.99", InventoryStatus.IN_STOCK, false, false, true, null, 900))
+                .build();
+
+        ProductFacetIndex patched = small.withChanges(List.of(
+                doc(5L, 10L, "24.99", InventoryStatus.IN_STOCK, false, false, true, null, 500)));
+
+        assertThat(patched.search(query(10L, null, null), ProductFacetIndex.SortKey.PRICE, false, 0, 10).productIds())
+                .containsExactly(1L, 5L, 9L);
+    }
+}
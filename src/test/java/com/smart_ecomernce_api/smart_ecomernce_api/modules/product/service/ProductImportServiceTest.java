@@ -0,0 +1,109 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.SlugGenerator;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.repository.CategoryRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.InventoryShardRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductBulkUpdateRepository.ShardedStock;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductImportRepository;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductImportRepository productImportRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private InventoryShardRepository inventoryShardRepository;
+
+    @Mock
+    private InventoryEngine inventoryEngine;
+
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProductImportService(productImportRepository, productRepository, categoryRepository,
+                inventoryShardRepository, new SlugGenerator(), inventoryEngine, productSearchService,
+                new ObjectMapper(), transactionManager);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 10);
+
+        Category category = new Category();
+        category.setId(10L);
+        category.setName("Electronics");
+        category.setSlug("electronics");
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+    }
+
+    private static ByteArrayInputStream csv(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importCatalog_ShouldSetShardedStockThroughShards() throws IOException {
+        when(productImportRepository.upsertBatch(anyList())).thenReturn(List.of(new ShardedStock(7L, 12)));
+        when(productImportRepository.findIdsBySkus(anyList())).thenReturn(List.of(7L, 8L));
+
+        ProductImportService.ImportReport report = service.importCatalog(ProductImportService.Format.CSV, csv(
+                "sku,name,price,category,stock_quantity",
+                "SKU-7,Sharded Speaker,49.99,electronics,12",
+                "SKU-8,Plain Speaker,39.99,electronics,4"));
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.failed()).isZero();
+        verify(inventoryShardRepository).setStock(7L, 12);
+        verify(inventoryEngine).recompute(List.of(7L, 8L));
+        verify(productSearchService).reindex(List.of(7L, 8L));
+    }
+
+    @Test
+    void importCatalog_ShouldRetrySlugClashInFreshTransaction() throws IOException {
+        DuplicateKeyException slugClash = new DuplicateKeyException("duplicate key value violates \"products_slug_key\"");
+        when(productImportRepository.upsertBatch(anyList())).thenThrow(slugClash);
+        when(productImportRepository.upsert(any())).thenThrow(slugClash).thenReturn(List.of());
+        when(productRepository.findHighestSlugSuffix("desk-lamp-sku-1")).thenReturn(2);
+
+        ProductImportService.ImportReport report = service.importCatalog(ProductImportService.Format.CSV, csv(
+                "sku,name,price,category",
+                "SKU-1,Desk Lamp,19.99,electronics"));
+
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.failed()).isZero();
+        verify(productImportRepository).upsert(argThat(row -> row.slug().equals("desk-lamp-sku-1-3")));
+        // The batch, the first single-row attempt and the retry each get their own transaction
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+}
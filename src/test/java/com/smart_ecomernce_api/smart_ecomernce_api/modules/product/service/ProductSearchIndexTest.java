@@ -0,0 +1,71 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.put(1L, "Wireless Running Headphones", "Sweat resistant earbuds", "AUD-100", "Audio");
+        index.put(2L, "Running Shoes", "Lightweight shoes for road running", "SHO-200", "Footwear");
+        index.put(3L, "Leather Wallet", "Slim wallet with card slots", "ACC-300", "Accessories");
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 10).stream().map(ProductSearchIndex.Hit::productId).toList();
+    }
+
+    @Test
+    void search_ShouldMatchStemmedTerms() {
+        assertThat(ids("headphone")).containsExactly(1L);
+        assertThat(ids("wallets")).containsExactly(3L);
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        index.put(4L, "Trail Jacket", "Good for running in the rain", "JKT-400", "Outerwear");
+
+        List<Long> ids = ids("running");
+
+        assertThat(ids).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(ids.get(2)).isEqualTo(4L);
+    }
+
+    @Test
+    void search_ShouldExpandPrefixesAndTolerateTypos() {
+        assertThat(ids("walle")).containsExactly(3L);
+        assertThat(ids("wirelss")).containsExactly(1L);
+    }
+
+    @Test
+    void matches_ShouldCountMatchesBeyondTheLimit() {
+        ProductSearchIndex.Matches matches = index.matches("running", 1);
+
+        assertThat(matches.hits()).hasSize(1);
+        assertThat(matches.total()).isEqualTo(2);
+    }
+
+    @Test
+    void search_ShouldMatchWholeSku() {
+        assertThat(ids("SHO-200")).first().isEqualTo(2L);
+    }
+
+    @Test
+    void put_ShouldReplacePreviousDocumentAndRemoveShouldDropIt() {
+        index.put(3L, "Canvas Tote", "Everyday bag", "ACC-300", "Accessories");
+        assertThat(ids("wallet")).isEmpty();
+        assertThat(ids("tote")).containsExactly(3L);
+
+        index.remove(3L);
+        assertThat(ids("tote")).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
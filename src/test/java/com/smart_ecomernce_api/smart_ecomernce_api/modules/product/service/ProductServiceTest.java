@@ -1,6 +1,7 @@
 package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
 
 import com.smart_ecomernce_api.smart_ecomernce_api.common.utils.SlugGenerator;
+import com.smart_ecomernce_api.smart_ecomernce_api.exception.InvalidDataException;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.entity.Category;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.category.repository.CategoryRepository;
 import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.dto.ProductCreateRequest;
@@ -46,6 +47,18 @@ class ProductServiceTest {
     @Mock
     private SlugGenerator slugGenerator;
 
+    @Mock
+    private InventoryEngine inventoryEngine;
+
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private AutocompleteService autocompleteService;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -107,10 +120,10 @@ class ProductServiceTest {
         category.setName("Test Category");
 
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
-        when(productRepository.findBySku("NEW-001")).thenReturn(Optional.empty());
         when(slugGenerator.generateSlug("New Product")).thenReturn("new-product");
         when(productMapper.toEntity(createRequest)).thenReturn(product);
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.findHighestSlugSuffix("new-product")).thenReturn(null);
+        when(productRepository.insertIfAbsent(any(Product.class))).thenReturn(Optional.of(product));
         when(productMapper.toDto(product)).thenReturn(productResponse);
 
         // When
@@ -119,14 +132,54 @@ class ProductServiceTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(result.getName()).isEqualTo("Test Product");
+        assertThat(product.getSlug()).isEqualTo("new-product");
         verify(categoryRepository).findById(1L);
-        verify(productRepository).findBySku("NEW-001");
         verify(slugGenerator).generateSlug("New Product");
         verify(productMapper).toEntity(createRequest);
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).insertIfAbsent(any(Product.class));
+        verify(productRepository, never()).existsBySlug(anyString());
         verify(productMapper).toDto(product);
     }
 
+    @Test
+    void createProduct_ShouldReallocateSlugWhenTakenConcurrently() {
+        Category category = new Category();
+        category.setId(1L);
+
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(slugGenerator.generateSlug("New Product")).thenReturn("new-product");
+        when(productMapper.toEntity(createRequest)).thenReturn(product);
+        when(productRepository.findHighestSlugSuffix("new-product")).thenReturn(2, 3);
+        when(productRepository.insertIfAbsent(any(Product.class)))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(product));
+        when(productRepository.existsBySku("TEST-001")).thenReturn(false);
+        when(productMapper.toDto(product)).thenReturn(productResponse);
+
+        productService.createProduct(createRequest);
+
+        assertThat(product.getSlug()).isEqualTo("new-product-4");
+        verify(productRepository, times(2)).insertIfAbsent(any(Product.class));
+    }
+
+    @Test
+    void createProduct_ShouldRejectDuplicateSku() {
+        Category category = new Category();
+        category.setId(1L);
+
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(slugGenerator.generateSlug("New Product")).thenReturn("new-product");
+        when(productMapper.toEntity(createRequest)).thenReturn(product);
+        when(productRepository.findHighestSlugSuffix("new-product")).thenReturn(null);
+        when(productRepository.insertIfAbsent(any(Product.class))).thenReturn(Optional.empty());
+        when(productRepository.existsBySku("TEST-001")).thenReturn(true);
+
+        assertThatThrownBy(() -> productService.createProduct(createRequest))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessageContaining("TEST-001");
+        verify(productRepository, times(1)).insertIfAbsent(any(Product.class));
+    }
+
     @Test
     void getProductById_ShouldReturnProduct() {
         when(productRepository.findActiveById(1L)).thenReturn(Optional.of(product));
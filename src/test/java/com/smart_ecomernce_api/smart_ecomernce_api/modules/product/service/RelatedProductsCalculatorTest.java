@@ -0,0 +1,70 @@
+package com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service;
+
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.RelatedProductsCalculator.Item;
+import com.smart_ecomernce_api.smart_ecomernce_api.modules.product.service.RelatedProductsTable.Related;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelatedProductsCalculatorTest {
+
+    private static final long ELECTRONICS = 1L;
+    private static final long PHONES = 2L;
+    private static final long LAPTOPS = 3L;
+    private static final long CLOTHING = 4L;
+
+    private final Map<Long, Long> categoryParents = new HashMap<>();
+
+    RelatedProductsCalculatorTest() {
+        categoryParents.put(ELECTRONICS, null);
+        categoryParents.put(PHONES, ELECTRONICS);
+        categoryParents.put(LAPTOPS, ELECTRONICS);
+        categoryParents.put(CLOTHING, null);
+    }
+
+    @Test
+    void compute_ShouldCombineCategoryPriceAndCoPurchaseSignals() {
+        List<Item> products = List.of(
+                new Item(10L, PHONES, 500_00),
+                new Item(11L, PHONES, 520_00),
+                new Item(12L, PHONES, 100_00),
+                new Item(20L, LAPTOPS, 500_00),
+                new Item(30L, CLOTHING, 500_00),
+                new Item(31L, CLOTHING, 500_00));
+        RelatedProductsCalculator calculator = new RelatedProductsCalculator(products, categoryParents,
+                id -> id == 10L ? Map.of(30L, 1f) : Map.of(), 3, 10);
+
+        List<Related> related = calculator.compute(10L);
+
+        // Same category and price first; the co-purchased product ties with the cheap phone
+        // and wins on nothing but id; the unrelated clothing item 31 is never a candidate
+        assertThat(related).extracting(Related::productId).containsExactly(11L, 12L, 30L);
+        assertThat(calculator.compute(99L)).isEmpty();
+        assertThat(calculator.categoryProximity(PHONES, LAPTOPS)).isEqualTo(0.5f);
+        assertThat(calculator.influencedCategories(PHONES)).containsExactlyInAnyOrder(PHONES, ELECTRONICS, LAPTOPS);
+    }
+
+    @Test
+    void withReplaced_ShouldSwapAddAndRemoveLists() {
+        RelatedProductsTable table = new RelatedProductsTable.Builder()
+                .put(1L, List.of(new Related(2L, 0.9f), new Related(3L, 0.5f)))
+                .put(5L, List.of(new Related(6L, 0.7f)))
+                .build();
+
+        RelatedProductsTable next = table.withReplaced(Map.of(
+                3L, List.of(new Related(1L, 0.8f)),
+                5L, List.of()));
+
+        assertThat(next.size()).isEqualTo(2);
+        assertThat(next.entryCount()).isEqualTo(3);
+        assertThat(next.related(1L, 10)).extracting(Related::productId).containsExactly(2L, 3L);
+        assertThat(next.related(1L, 1)).extracting(Related::productId).containsExactly(2L);
+        assertThat(next.related(3L, 10)).containsExactly(new Related(1L, 0.8f));
+        assertThat(next.related(5L, 10)).isEmpty();
+        assertThat(table.related(5L, 10)).hasSize(1);
+    }
+}